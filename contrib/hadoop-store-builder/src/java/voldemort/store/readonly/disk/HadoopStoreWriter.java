@@ -38,6 +38,7 @@ import voldemort.store.StoreDefinition;
 import voldemort.store.readonly.ReadOnlyUtils;
 import voldemort.store.readonly.checksum.CheckSum;
 import voldemort.store.readonly.checksum.CheckSum.CheckSumType;
+import voldemort.store.readonly.mr.HadoopStoreBuilderUtils;
 import voldemort.utils.ByteUtils;
 import voldemort.xml.ClusterMapper;
 import voldemort.xml.StoreDefinitionsMapper;
@@ -75,6 +76,7 @@ public class HadoopStoreWriter implements KeyValueWriter<BytesWritable, BytesWri
     private StoreDefinition storeDef;
     private boolean saveKeys;
     private boolean reducerPerBucket;
+    private boolean hashIndex;
 
     public Cluster getCluster() {
         checkNotNull(cluster);
@@ -125,6 +127,7 @@ public class HadoopStoreWriter implements KeyValueWriter<BytesWritable, BytesWri
                 throw new VoldemortException("num.chunks not specified in the job conf.");
             this.saveKeys = conf.getBoolean("save.keys", false);
             this.reducerPerBucket = conf.getBoolean("reducer.per.bucket", false);
+            this.hashIndex = conf.getBoolean("hash.index", false);
             this.conf = job;
             this.position = 0;
             this.outputDir = job.get("final.output.dir");
@@ -288,6 +291,12 @@ public class HadoopStoreWriter implements KeyValueWriter<BytesWritable, BytesWri
                                        + nodeId + " ( partition - " + this.partitionId + " )");
         }
 
+        // Swap the sorted index for a hash index
+        if(this.hashIndex)
+            HadoopStoreBuilderUtils.convertToHashIndex(this.fs,
+                                                       this.taskIndexFileName,
+                                                       this.checkSumDigestIndex);
+
         String fileNamePrefix = null;
         if(getSaveKeys()) {
             fileNamePrefix = new String(Integer.toString(this.partitionId) + "_"
@@ -38,6 +38,7 @@ import voldemort.store.StoreDefinition;
 import voldemort.store.readonly.ReadOnlyUtils;
 import voldemort.store.readonly.checksum.CheckSum;
 import voldemort.store.readonly.checksum.CheckSum.CheckSumType;
+import voldemort.store.readonly.mr.HadoopStoreBuilderUtils;
 import voldemort.utils.ByteUtils;
 import voldemort.xml.ClusterMapper;
 import voldemort.xml.StoreDefinitionsMapper;
@@ -85,6 +86,7 @@ public class HadoopStoreWriterPerBucket implements KeyValueWriter<BytesWritable,
 
             this.saveKeys = conf.getBoolean("save.keys", false);
             this.reducerPerBucket = conf.getBoolean("reducer.per.bucket", false);
+            this.hashIndex = conf.getBoolean("hash.index", false);
             this.conf = job;
             this.outputDir = job.get("final.output.dir");
             this.taskId = job.get("mapred.task.id");
@@ -264,6 +266,14 @@ public class HadoopStoreWriterPerBucket implements KeyValueWriter<BytesWritable,
                                        + nodeId + " ( partition - " + this.partitionId + " )");
         }
 
+        // Swap the sorted indexes for hash indexes
+        if(this.hashIndex) {
+            for(int chunkId = 0; chunkId < getNumChunks(); chunkId++)
+                HadoopStoreBuilderUtils.convertToHashIndex(this.fs,
+                                                           this.taskIndexFileName[chunkId],
+                                                           this.checkSumDigestIndex[chunkId]);
+        }
+
         String fileNamePrefix = null;
         if(getSaveKeys()) {
             fileNamePrefix = new String(Integer.toString(this.partitionId) + "_"
@@ -322,6 +332,7 @@ public class HadoopStoreWriterPerBucket implements KeyValueWriter<BytesWritable,
     private StoreDefinition storeDef;
     private boolean saveKeys;
     private boolean reducerPerBucket;
+    private boolean hashIndex;
 
     public Cluster getCluster() {
         checkNotNull(cluster);
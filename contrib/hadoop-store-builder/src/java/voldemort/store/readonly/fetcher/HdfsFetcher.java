@@ -22,8 +22,18 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.ObjectName;
@@ -47,6 +57,7 @@ import voldemort.store.readonly.ReadOnlyStorageMetadata;
 import voldemort.store.readonly.checksum.CheckSum;
 import voldemort.store.readonly.checksum.CheckSum.CheckSumType;
 import voldemort.utils.ByteUtils;
+import voldemort.utils.DaemonThreadFactory;
 import voldemort.utils.DynamicEventThrottler;
 import voldemort.utils.DynamicThrottleLimit;
 import voldemort.utils.EventThrottler;
@@ -55,7 +66,9 @@ import voldemort.utils.Time;
 import voldemort.utils.Utils;
 
 /*
- * A fetcher that fetches the store files from HDFS
+ * A fetcher that fetches the store files from HDFS. Several files can be copied
+ * at once, sharing the throttler, and the checksum of each file is computed on
+ * a separate thread while it is copied.
  */
 public class HdfsFetcher implements FileFetcher {
 
@@ -63,6 +76,7 @@ public class HdfsFetcher implements FileFetcher {
 
     private final Long maxBytesPerSecond, reportingIntervalBytes;
     private final int bufferSize;
+    private final int numStreams;
     private static final AtomicInteger copyCount = new AtomicInteger(0);
     private AsyncOperationStatus status;
     private EventThrottler throttler = null;
@@ -71,24 +85,29 @@ public class HdfsFetcher implements FileFetcher {
     private static final int NUM_RETRIES = 3;
 
     public HdfsFetcher(VoldemortConfig config) {
-        this(config.getMaxBytesPerSecond(),
+        this(null,
+             config.getMaxBytesPerSecond(),
              config.getReportingIntervalBytes(),
-             config.getFetcherBufferSize());
+             config.getFetcherBufferSize(),
+             0,
+             config.getFetcherNumStreams());
 
         logger.info("Created hdfs fetcher with throttle rate " + maxBytesPerSecond
                     + ", buffer size " + bufferSize + ", reporting interval bytes "
-                    + reportingIntervalBytes);
+                    + reportingIntervalBytes + ", streams " + numStreams);
     }
 
     public HdfsFetcher(VoldemortConfig config, DynamicThrottleLimit dynThrottleLimit) {
         this(dynThrottleLimit,
+             null,
              config.getReportingIntervalBytes(),
              config.getFetcherBufferSize(),
-             config.getMinBytesPerSecond());
+             config.getMinBytesPerSecond(),
+             config.getFetcherNumStreams());
 
         logger.info("Created hdfs fetcher with throttle rate " + dynThrottleLimit.getRate()
                     + ", buffer size " + bufferSize + ", reporting interval bytes "
-                    + reportingIntervalBytes);
+                    + reportingIntervalBytes + ", streams " + numStreams);
     }
 
     public HdfsFetcher() {
@@ -113,6 +132,22 @@ public class HdfsFetcher implements FileFetcher {
                        Long reportingIntervalBytes,
                        int bufferSize,
                        long minBytesPerSecond) {
+        this(dynThrottleLimit,
+             maxBytesPerSecond,
+             reportingIntervalBytes,
+             bufferSize,
+             minBytesPerSecond,
+             1);
+    }
+
+    public HdfsFetcher(DynamicThrottleLimit dynThrottleLimit,
+                       Long maxBytesPerSecond,
+                       Long reportingIntervalBytes,
+                       int bufferSize,
+                       long minBytesPerSecond,
+                       int numStreams) {
+        if(numStreams < 1)
+            throw new IllegalArgumentException("The number of streams must be at least 1.");
         if(maxBytesPerSecond != null) {
             this.maxBytesPerSecond = maxBytesPerSecond;
             this.throttler = new EventThrottler(this.maxBytesPerSecond);
@@ -126,6 +161,7 @@ public class HdfsFetcher implements FileFetcher {
             this.maxBytesPerSecond = null;
         this.reportingIntervalBytes = Utils.notNull(reportingIntervalBytes);
         this.bufferSize = bufferSize;
+        this.numStreams = numStreams;
         this.status = null;
         this.minBytesPerSecond = minBytesPerSecond;
     }
@@ -182,10 +218,7 @@ public class HdfsFetcher implements FileFetcher {
                 Arrays.sort(statuses, new IndexFileLastComparator());
                 byte[] origCheckSum = null;
                 CheckSumType checkSumType = CheckSumType.NONE;
-
-                // Do a checksum of checksum - Similar to HDFS
-                CheckSum checkSumGenerator = null;
-                CheckSum fileCheckSumGenerator = null;
+                List<FileStatus> files = new ArrayList<FileStatus>();
 
                 for(FileStatus status: statuses) {
 
@@ -199,7 +232,12 @@ public class HdfsFetcher implements FileFetcher {
                         logger.debug("Reading .metadata");
                         // Read metadata into local file
                         File copyLocation = new File(dest, status.getPath().getName());
-                        copyFileWithCheckSum(fs, status.getPath(), copyLocation, stats, null);
+                        copyFileWithCheckSum(fs,
+                                             status.getPath(),
+                                             copyLocation,
+                                             stats,
+                                             CheckSumType.NONE,
+                                             null);
 
                         // Open the local file to initialize checksum
                         ReadOnlyStorageMetadata metadata;
@@ -227,30 +265,30 @@ public class HdfsFetcher implements FileFetcher {
                             logger.debug("Checksum from .metadata "
                                          + new String(Hex.encodeHex(origCheckSum)));
                             checkSumType = CheckSum.fromString(checkSumTypeString);
-                            checkSumGenerator = CheckSum.getInstance(checkSumType);
-                            fileCheckSumGenerator = CheckSum.getInstance(checkSumType);
                         }
 
                     } else if(!status.getPath().getName().startsWith(".")) {
 
-                        // Read other (.data , .index files)
-                        File copyLocation = new File(dest, status.getPath().getName());
-                        copyFileWithCheckSum(fs,
-                                             status.getPath(),
-                                             copyLocation,
-                                             stats,
-                                             fileCheckSumGenerator);
-
-                        if(fileCheckSumGenerator != null && checkSumGenerator != null) {
-                            byte[] checkSum = fileCheckSumGenerator.getCheckSum();
-                            logger.debug("Checksum for " + status.getPath() + " - "
-                                         + new String(Hex.encodeHex(checkSum)));
-                            checkSumGenerator.update(checkSum);
-                        }
+                        // Read other (.data , .index files) below
+                        files.add(status);
                     }
 
                 }
 
+                List<byte[]> fileCheckSums = copyFiles(fs, files, dest, stats, checkSumType);
+
+                // Do a checksum of checksum - Similar to HDFS. The checksums of
+                // the files are combined in the order of the files.
+                CheckSum checkSumGenerator = CheckSum.getInstance(checkSumType);
+                if(checkSumGenerator != null) {
+                    for(int i = 0; i < files.size(); i++) {
+                        byte[] checkSum = fileCheckSums.get(i);
+                        logger.debug("Checksum for " + files.get(i).getPath() + " - "
+                                     + new String(Hex.encodeHex(checkSum)));
+                        checkSumGenerator.update(checkSum);
+                    }
+                }
+
                 logger.info("Completed reading all files from " + source.toString() + " to "
                             + dest.getAbsolutePath());
                 // Check checksum
@@ -275,22 +313,96 @@ public class HdfsFetcher implements FileFetcher {
 
     }
 
-    private void copyFileWithCheckSum(FileSystem fs,
-                                      Path source,
-                                      File dest,
-                                      CopyStats stats,
-                                      CheckSum fileCheckSumGenerator) throws IOException {
+    /**
+     * Copy the given files into the destination directory, up to the configured
+     * number of files at once
+     * 
+     * @return The checksums of the files, in the order of the files, or nulls
+     *         if the checksum type is none
+     */
+    private List<byte[]> copyFiles(final FileSystem fs,
+                                   List<FileStatus> files,
+                                   final File dest,
+                                   final CopyStats stats,
+                                   final CheckSumType checkSumType) throws IOException {
+        int numThreads = Math.max(1, Math.min(numStreams, files.size()));
+        ExecutorService copyPool = Executors.newFixedThreadPool(numThreads,
+                                                                new DaemonThreadFactory("hdfs-fetcher-copy-"));
+        // One checksum thread per copy thread, each copy has at most one
+        // checksum in progress
+        final ExecutorService checkSumPool = checkSumType == CheckSumType.NONE ? null
+                                                                               : Executors.newFixedThreadPool(numThreads,
+                                                                                                              new DaemonThreadFactory("hdfs-fetcher-checksum-"));
+        try {
+            List<Future<byte[]>> results = new ArrayList<Future<byte[]>>(files.size());
+            for(final FileStatus status: files) {
+                results.add(copyPool.submit(new Callable<byte[]>() {
+
+                    public byte[] call() throws IOException {
+                        return copyFileWithCheckSum(fs,
+                                                    status.getPath(),
+                                                    new File(dest, status.getPath().getName()),
+                                                    stats,
+                                                    checkSumType,
+                                                    checkSumPool);
+                    }
+                }));
+            }
+
+            List<byte[]> checkSums = new ArrayList<byte[]>(files.size());
+            for(Future<byte[]> result: results)
+                checkSums.add(getResult(result));
+            return checkSums;
+        } finally {
+            copyPool.shutdownNow();
+            if(checkSumPool != null)
+                checkSumPool.shutdownNow();
+        }
+    }
+
+    private static <T> T getResult(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VoldemortException("Interrupted while fetching", e);
+        } catch(ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof IOException)
+                throw (IOException) cause;
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new VoldemortException(cause);
+        }
+    }
+
+    private byte[] copyFileWithCheckSum(FileSystem fs,
+                                        Path source,
+                                        File dest,
+                                        CopyStats stats,
+                                        CheckSumType checkSumType,
+                                        ExecutorService checkSumPool) throws IOException {
         logger.info("Starting copy of " + source + " to " + dest);
-        FSDataInputStream input = null;
-        OutputStream output = null;
-        for(int attempt = 0; attempt < NUM_RETRIES; attempt++) {
-            boolean success = true;
+        for(int attempt = 0;; attempt++) {
+            FSDataInputStream input = null;
+            OutputStream output = null;
+            CheckSumStage checkSumStage = null;
             try {
+                if(checkSumPool != null)
+                    checkSumStage = new CheckSumStage(CheckSum.getInstance(checkSumType),
+                                                      bufferSize,
+                                                      checkSumPool);
 
                 input = fs.open(source);
                 output = new BufferedOutputStream(new FileOutputStream(dest));
-                byte[] buffer = new byte[bufferSize];
+                byte[] buffer = checkSumStage == null ? new byte[bufferSize] : null;
                 while(true) {
+                    CheckSumStage.Chunk chunk = null;
+                    if(checkSumStage != null) {
+                        chunk = checkSumStage.takeChunk();
+                        buffer = chunk.buffer;
+                    }
+
                     int read = input.read(buffer);
                     if(read < 0) {
                         break;
@@ -298,34 +410,19 @@ public class HdfsFetcher implements FileFetcher {
                         output.write(buffer, 0, read);
                     }
 
-                    if(fileCheckSumGenerator != null)
-                        fileCheckSumGenerator.update(buffer, 0, read);
+                    // The buffer belongs to the checksum thread from here on
+                    if(checkSumStage != null)
+                        checkSumStage.putChunk(chunk, read);
                     if(throttler != null)
                         throttler.maybeThrottle(read);
                     stats.recordBytes(read);
-                    if(stats.getBytesSinceLastReport() > reportingIntervalBytes) {
-                        NumberFormat format = NumberFormat.getNumberInstance();
-                        format.setMaximumFractionDigits(2);
-                        logger.info(stats.getTotalBytesCopied() / (1024 * 1024) + " MB copied at "
-                                    + format.format(stats.getBytesPerSecond() / (1024 * 1024))
-                                    + " MB/sec - " + format.format(stats.getPercentCopied())
-                                    + " % complete, destination:" + dest);
-                        if(this.status != null) {
-                            this.status.setStatus(stats.getTotalBytesCopied()
-                                                  / (1024 * 1024)
-                                                  + " MB copied at "
-                                                  + format.format(stats.getBytesPerSecond()
-                                                                  / (1024 * 1024)) + " MB/sec - "
-                                                  + format.format(stats.getPercentCopied())
-                                                  + " % complete, destination:" + dest);
-                        }
-                        stats.reset();
-                    }
+                    maybeReportProgress(stats, dest);
                 }
+                byte[] checkSum = checkSumStage == null ? null : checkSumStage.getCheckSum();
                 logger.info("Completed copy of " + source + " to " + dest);
+                return checkSum;
 
             } catch(IOException ioe) {
-                success = false;
                 logger.error("Error during copying file ", ioe);
                 ioe.printStackTrace();
                 if(attempt < NUM_RETRIES - 1) {
@@ -335,17 +432,37 @@ public class HdfsFetcher implements FileFetcher {
                 }
 
             } finally {
+                if(checkSumStage != null)
+                    checkSumStage.cancel();
                 IOUtils.closeQuietly(output);
                 IOUtils.closeQuietly(input);
-                if(success) {
-                    break;
-                }
-
             }
 
         }
     }
 
+    private void maybeReportProgress(CopyStats stats, File dest) {
+        // Files copied in parallel share the stats, only one of them reports
+        synchronized(stats) {
+            if(stats.getBytesSinceLastReport() <= reportingIntervalBytes)
+                return;
+            NumberFormat format = NumberFormat.getNumberInstance();
+            format.setMaximumFractionDigits(2);
+            logger.info(stats.getTotalBytesCopied() / (1024 * 1024) + " MB copied at "
+                        + format.format(stats.getBytesPerSecond() / (1024 * 1024)) + " MB/sec - "
+                        + format.format(stats.getPercentCopied()) + " % complete, destination:"
+                        + dest);
+            if(this.status != null) {
+                this.status.setStatus(stats.getTotalBytesCopied() / (1024 * 1024)
+                                      + " MB copied at "
+                                      + format.format(stats.getBytesPerSecond() / (1024 * 1024))
+                                      + " MB/sec - " + format.format(stats.getPercentCopied())
+                                      + " % complete, destination:" + dest);
+            }
+            stats.reset();
+        }
+    }
+
     private long sizeOfPath(FileSystem fs, Path path) throws IOException {
         long size = 0;
         FileStatus[] statuses = fs.listStatus(path);
@@ -376,12 +493,12 @@ public class HdfsFetcher implements FileFetcher {
             this.lastReportNs = System.nanoTime();
         }
 
-        public void recordBytes(long bytes) {
+        public synchronized void recordBytes(long bytes) {
             this.totalBytesCopied += bytes;
             this.bytesSinceLastReport += bytes;
         }
 
-        public void reset() {
+        public synchronized void reset() {
             this.bytesSinceLastReport = 0;
             this.lastReportNs = System.nanoTime();
         }
@@ -415,6 +532,91 @@ public class HdfsFetcher implements FileFetcher {
         }
     }
 
+    /**
+     * Computes the checksum of a file on a thread of its own while the file is
+     * copied. The copying thread reads into a chunk, hands it over and goes on
+     * reading into the next one, and only waits once all chunks are waiting
+     * to be checksummed.
+     */
+    private static class CheckSumStage implements Callable<byte[]> {
+
+        private static final int NUM_CHUNKS = 4;
+
+        private static final long POLL_INTERVAL_MS = 100;
+
+        private static final Chunk END = new Chunk(null);
+
+        private final CheckSum checkSum;
+        private final BlockingQueue<Chunk> free;
+        private final BlockingQueue<Chunk> filled;
+        private final Future<byte[]> result;
+
+        static class Chunk {
+
+            final byte[] buffer;
+            int length;
+
+            Chunk(byte[] buffer) {
+                this.buffer = buffer;
+            }
+        }
+
+        CheckSumStage(CheckSum checkSum, int bufferSize, ExecutorService checkSumPool) {
+            this.checkSum = checkSum;
+            this.free = new ArrayBlockingQueue<Chunk>(NUM_CHUNKS);
+            // Room for every chunk and the end marker, putting never blocks
+            this.filled = new ArrayBlockingQueue<Chunk>(NUM_CHUNKS + 1);
+            for(int i = 0; i < NUM_CHUNKS; i++)
+                free.add(new Chunk(new byte[bufferSize]));
+            this.result = checkSumPool.submit(this);
+        }
+
+        public byte[] call() throws InterruptedException {
+            while(true) {
+                Chunk chunk = filled.take();
+                if(chunk == END)
+                    return checkSum.getCheckSum();
+                checkSum.update(chunk.buffer, 0, chunk.length);
+                free.put(chunk);
+            }
+        }
+
+        Chunk takeChunk() throws IOException {
+            try {
+                while(true) {
+                    Chunk chunk = free.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if(chunk != null)
+                        return chunk;
+                    // Do not wait forever for a checksum thread that failed
+                    if(result.isDone()) {
+                        getResult(result);
+                        throw new IllegalStateException("Checksum completed before the end of the file");
+                    }
+                }
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new VoldemortException("Interrupted while fetching", e);
+            }
+        }
+
+        void putChunk(Chunk chunk, int length) {
+            chunk.length = length;
+            filled.add(chunk);
+        }
+
+        /**
+         * Wait for the checksum of everything put so far
+         */
+        byte[] getCheckSum() throws IOException {
+            filled.add(END);
+            return getResult(result);
+        }
+
+        void cancel() {
+            result.cancel(true);
+        }
+    }
+
     /**
      * A comparator that sorts index files last. This is a heuristic for
      * retaining the index file in page cache until the swap occurs
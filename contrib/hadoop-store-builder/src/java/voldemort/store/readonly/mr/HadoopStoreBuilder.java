@@ -85,6 +85,7 @@ public class HadoopStoreBuilder {
     private CheckSumType checkSumType = CheckSumType.NONE;
     private boolean saveKeys = false;
     private boolean reducerPerBucket = false;
+    private boolean hashIndex = false;
     private int numChunks = -1;
 
     private boolean isAvro;
@@ -305,6 +306,19 @@ public class HadoopStoreBuilder {
             throw new VoldemortException("Number of chunks should be greater than zero");
     }
 
+    /**
+     * Makes the job emit a hash index for every chunk, which gives a store in
+     * {@link ReadOnlyStorageFormat#READONLY_V3} instead of
+     * {@link ReadOnlyStorageFormat#READONLY_V2}. Requires keys to be saved.
+     * 
+     * @param hashIndex Boolean to signify if we want hash indexes
+     */
+    public void setHashIndex(boolean hashIndex) {
+        if(hashIndex && !saveKeys)
+            throw new VoldemortException("Hash indexes can only be built when saving keys");
+        this.hashIndex = hashIndex;
+    }
+
     /**
      * Run the job
      */
@@ -317,6 +331,7 @@ public class HadoopStoreBuilder {
                      new StoreDefinitionsMapper().writeStoreList(Collections.singletonList(storeDef)));
             conf.setBoolean("save.keys", saveKeys);
             conf.setBoolean("reducer.per.bucket", reducerPerBucket);
+            conf.setBoolean("hash.index", hashIndex);
             if(!isAvro) {
                 conf.setPartitionerClass(HadoopStoreBuilderPartitioner.class);
                 conf.setMapperClass(mapperClass);
@@ -423,7 +438,8 @@ public class HadoopStoreBuilder {
             }
 
             logger.info("Number of chunks: " + numChunks + ", number of reducers: " + numReducers
-                        + ", save keys: " + saveKeys + ", reducerPerBucket: " + reducerPerBucket);
+                        + ", save keys: " + saveKeys + ", reducerPerBucket: " + reducerPerBucket
+                        + ", hash index: " + hashIndex);
             logger.info("Building store...");
             RunningJob job = JobClient.runJob(conf);
 
@@ -456,7 +472,10 @@ public class HadoopStoreBuilder {
 
                 ReadOnlyStorageMetadata metadata = new ReadOnlyStorageMetadata();
 
-                if(saveKeys) {
+                if(hashIndex) {
+                    metadata.add(ReadOnlyStorageMetadata.FORMAT,
+                                 ReadOnlyStorageFormat.READONLY_V3.getCode());
+                } else if(saveKeys) {
                     metadata.add(ReadOnlyStorageMetadata.FORMAT,
                                  ReadOnlyStorageFormat.READONLY_V2.getCode());
                 } else {
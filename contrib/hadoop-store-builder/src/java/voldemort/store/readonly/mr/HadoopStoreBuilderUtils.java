@@ -23,14 +23,17 @@ import java.util.Comparator;
 import java.util.List;
 
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.PathFilter;
 
 import voldemort.VoldemortException;
+import voldemort.store.readonly.HashIndexBuilder;
 import voldemort.store.readonly.ReadOnlyStorageFormat;
 import voldemort.store.readonly.ReadOnlyUtils;
+import voldemort.store.readonly.checksum.CheckSum;
 import voldemort.store.readonly.chunk.DataFileChunk;
 import voldemort.store.readonly.chunk.DataFileChunkSet;
 import voldemort.utils.ByteUtils;
@@ -72,6 +75,48 @@ public class HadoopStoreBuilderUtils {
         return new String(stream.toByteArray());
     }
 
+    /**
+     * Replaces the sorted index file of a chunk with its hash index ( see
+     * {@link HashIndexBuilder} ). The whole index is held in memory while
+     * doing so.
+     * 
+     * Works only for {@link ReadOnlyStorageFormat.READONLY_V3}
+     * 
+     * @param fs Underlying filesystem
+     * @param indexFile The index file to convert
+     * @param checkSum If not null, is reset and updated with the contents of
+     *        the new index file
+     * @throws IOException
+     */
+    public static void convertToHashIndex(FileSystem fs, Path indexFile, CheckSum checkSum)
+            throws IOException {
+        byte[] sortedIndex = new byte[(int) fs.getFileStatus(indexFile).getLen()];
+        FSDataInputStream input = fs.open(indexFile);
+        try {
+            input.readFully(sortedIndex);
+        } finally {
+            input.close();
+        }
+
+        byte[] hashIndex = HashIndexBuilder.build(sortedIndex);
+        Path hashIndexFile = indexFile.suffix(".hash");
+        FSDataOutputStream output = fs.create(hashIndexFile);
+        try {
+            output.write(hashIndex);
+        } finally {
+            output.close();
+        }
+
+        fs.delete(indexFile, false);
+        if(!fs.rename(hashIndexFile, indexFile))
+            throw new IOException("Rename of " + hashIndexFile + " to " + indexFile + " failed.");
+
+        if(checkSum != null) {
+            checkSum.reset();
+            checkSum.update(hashIndex);
+        }
+    }
+
     /**
      * Given a filesystem and path to a node, gets all the data files (
      * irrespective of partition, replica, etc )
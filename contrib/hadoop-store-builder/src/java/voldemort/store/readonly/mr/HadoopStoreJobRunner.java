@@ -92,6 +92,7 @@ public class HadoopStoreJobRunner extends Configured implements Tool {
         parser.accepts("force-overwrite", "deletes final output directory if present.");
         parser.accepts("save-keys", "save the keys in the data file");
         parser.accepts("reducer-per-bucket", "run single reducer per bucket");
+        parser.accepts("hash-index", "build hash indexes, requires save-keys");
         parser.accepts("help", "print usage information");
         return parser;
     }
@@ -142,6 +143,7 @@ public class HadoopStoreJobRunner extends Configured implements Tool {
         Path outputDir = new Path((String) options.valueOf("output"));
         boolean saveKeys = options.has("save-keys");
         boolean reducerPerBucket = options.has("reducer-per-bucket");
+        boolean hashIndex = options.has("hash-index");
 
         List<String> addJars = new ArrayList<String>();
 
@@ -197,6 +199,7 @@ public class HadoopStoreJobRunner extends Configured implements Tool {
                                                             checkSumType,
                                                             saveKeys,
                                                             reducerPerBucket);
+        builder.setHashIndex(hashIndex);
 
         builder.build();
         return 0;
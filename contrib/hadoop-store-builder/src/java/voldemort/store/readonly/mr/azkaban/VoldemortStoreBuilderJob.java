@@ -431,6 +431,7 @@ public class VoldemortStoreBuilderJob extends AbstractHadoopJob {
                                                  conf.getNumChunks());
             }
 
+            builder.setHashIndex(getProps().getBoolean("hash.index", false));
             builder.buildAvro();
             return;
         }
@@ -463,6 +464,7 @@ public class VoldemortStoreBuilderJob extends AbstractHadoopJob {
                                              conf.getNumChunks());
         }
 
+        builder.setHashIndex(getProps().getBoolean("hash.index", false));
         builder.build();
     }
 
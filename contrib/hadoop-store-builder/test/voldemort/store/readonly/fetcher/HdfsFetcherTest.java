@@ -135,6 +135,45 @@ public class HdfsFetcherTest extends TestCase {
                                                     + "8");
     }
 
+    public void testParallelFetch() throws Exception {
+        File testSourceDirectory = TestUtils.createTempDir();
+        File testDestinationDirectory = TestUtils.createTempDir();
+
+        // Files larger than the buffer, so checksums take several chunks
+        for(int i = 0; i < 20; i++) {
+            FileUtils.writeByteArrayToFile(new File(testSourceDirectory, "0_" + i + ".index"),
+                                           TestUtils.randomBytes(1000 + i));
+            FileUtils.writeByteArrayToFile(new File(testSourceDirectory, "0_" + i + ".data"),
+                                           TestUtils.randomBytes(5000 + i * 100));
+        }
+
+        ReadOnlyStorageMetadata metadata = new ReadOnlyStorageMetadata();
+        metadata.add(ReadOnlyStorageMetadata.FORMAT, ReadOnlyStorageFormat.READONLY_V2.getCode());
+        metadata.add(ReadOnlyStorageMetadata.CHECKSUM_TYPE, CheckSum.toString(CheckSumType.MD5));
+        metadata.add(ReadOnlyStorageMetadata.CHECKSUM,
+                     new String(Hex.encodeHex(CheckSumTests.calculateCheckSum(testSourceDirectory.listFiles(),
+                                                                              CheckSumType.MD5))));
+        File metadataFile = new File(testSourceDirectory, ".metadata");
+        FileUtils.writeStringToFile(metadataFile, metadata.toJsonString());
+
+        HdfsFetcher fetcher = new HdfsFetcher(null, 10000000L, 1000L, 256, 0, 4);
+        File fetchedFile = fetcher.fetch(testSourceDirectory.getAbsolutePath(),
+                                         testDestinationDirectory.getAbsolutePath() + "1");
+        assertNotNull(fetchedFile);
+        for(File file: testSourceDirectory.listFiles()) {
+            assertTrue(file.getName() + " was not copied",
+                       FileUtils.contentEquals(file, new File(fetchedFile, file.getName())));
+        }
+
+        // The checksums of the files are combined in order, whichever file is
+        // copied first
+        metadata.add(ReadOnlyStorageMetadata.CHECKSUM, "1234");
+        FileUtils.writeStringToFile(metadataFile, metadata.toJsonString());
+        fetchedFile = fetcher.fetch(testSourceDirectory.getAbsolutePath(),
+                                    testDestinationDirectory.getAbsolutePath() + "2");
+        assertNull(fetchedFile);
+    }
+
     public void testFetch() throws Exception {
         // Tests kept for backwards compatibility
 
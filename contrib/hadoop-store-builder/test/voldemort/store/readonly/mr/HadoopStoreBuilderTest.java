@@ -81,17 +81,23 @@ public class HadoopStoreBuilderTest {
 
     private SearchStrategy searchStrategy;
     private boolean saveKeys;
+    private boolean hashIndex;
 
     @Parameters
     public static Collection<Object[]> configs() {
-        return Arrays.asList(new Object[][] { { new BinarySearchStrategy(), true },
-                { new InterpolationSearchStrategy(), true }, { new BinarySearchStrategy(), false },
-                { new InterpolationSearchStrategy(), false } });
+        return Arrays.asList(new Object[][] { { new BinarySearchStrategy(), true, false },
+                { new InterpolationSearchStrategy(), true, false },
+                { new BinarySearchStrategy(), false, false },
+                { new InterpolationSearchStrategy(), false, false },
+                { new BinarySearchStrategy(), true, true } });
     }
 
-    public HadoopStoreBuilderTest(SearchStrategy searchStrategy, boolean saveKeys) {
+    public HadoopStoreBuilderTest(SearchStrategy searchStrategy,
+                                  boolean saveKeys,
+                                  boolean hashIndex) {
         this.saveKeys = saveKeys;
         this.searchStrategy = searchStrategy;
+        this.hashIndex = hashIndex;
     }
 
     public static class TextStoreMapper extends
@@ -239,6 +245,7 @@ public class HadoopStoreBuilderTest {
                                          CheckSumType.MD5,
                                          saveKeys,
                                          false);
+        builder.setHashIndex(hashIndex);
         builder.build();
 
         // Check if checkSum is generated in outputDir
@@ -249,7 +256,10 @@ public class HadoopStoreBuilderTest {
         Assert.assertTrue(metadataFile.exists());
 
         ReadOnlyStorageMetadata metadata = new ReadOnlyStorageMetadata(metadataFile);
-        if(saveKeys)
+        if(hashIndex)
+            Assert.assertEquals(metadata.get(ReadOnlyStorageMetadata.FORMAT),
+                                ReadOnlyStorageFormat.READONLY_V3.getCode());
+        else if(saveKeys)
             Assert.assertEquals(metadata.get(ReadOnlyStorageMetadata.FORMAT),
                                 ReadOnlyStorageFormat.READONLY_V2.getCode());
         else
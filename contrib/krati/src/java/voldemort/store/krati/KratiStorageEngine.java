@@ -317,6 +317,10 @@ public class KratiStorageEngine implements StorageEngine<ByteArray, byte[], byte
 
     }
 
+    public int putAll(List<Pair<ByteArray, Versioned<byte[]>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return false;
     }
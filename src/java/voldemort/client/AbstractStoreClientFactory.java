@@ -24,16 +24,19 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
 
+import voldemort.VoldemortException;
 import voldemort.client.protocol.RequestFormatType;
 import voldemort.cluster.Cluster;
 import voldemort.cluster.Node;
 import voldemort.cluster.failuredetector.FailureDetector;
 import voldemort.common.service.SchedulerService;
+import voldemort.routing.RoutingStrategyFactory;
 import voldemort.serialization.ByteArraySerializer;
 import voldemort.serialization.IdentitySerializer;
 import voldemort.serialization.SerializationException;
@@ -49,6 +52,7 @@ import voldemort.store.compress.CompressionStrategy;
 import voldemort.store.compress.CompressionStrategyFactory;
 import voldemort.store.logging.LoggingStore;
 import voldemort.store.metadata.MetadataStore;
+import voldemort.store.nearcache.NearCacheStore;
 import voldemort.store.nonblockingstore.NonblockingStore;
 import voldemort.store.routed.RoutedStoreFactory;
 import voldemort.store.serialized.SerializingStore;
@@ -91,6 +95,7 @@ public abstract class AbstractStoreClientFactory implements StoreClientFactory {
 
     private final URI[] bootstrapUrls;
     private final ExecutorService threadPool;
+    private final ExecutorService asyncThreadPool;
     private final SerializerFactory serializerFactory;
     private final boolean isJmxEnabled;
     private final RequestFormatType requestFormatType;
@@ -112,6 +117,14 @@ public abstract class AbstractStoreClientFactory implements StoreClientFactory {
         this.threadPool = new ClientThreadPool(config.getMaxThreads(),
                                                config.getThreadIdleTime(TimeUnit.MILLISECONDS),
                                                config.getMaxQueuedRequests());
+        // The responses of the asynchronous clients come in on the selector
+        // threads, which must never run them, so tasks the pool has no room
+        // for are rejected rather than run by the caller
+        this.asyncThreadPool = new ClientThreadPool(config.getMaxThreads(),
+                                                    config.getThreadIdleTime(TimeUnit.MILLISECONDS),
+                                                    config.getAsyncMaxQueuedResponses(),
+                                                    "voldemort-async-client-thread-",
+                                                    new ThreadPoolExecutor.AbortPolicy());
         this.serializerFactory = config.getSerializerFactory();
         this.bootstrapUrls = validateUrls(config.getBootstrapUrls());
         this.isJmxEnabled = config.isJmxEnabled();
@@ -123,7 +136,10 @@ public abstract class AbstractStoreClientFactory implements StoreClientFactory {
         this.clientContextName = config.getClientContextName();
         this.routedStoreFactory = new RoutedStoreFactory(config.isPipelineRoutedStoreEnabled(),
                                                          threadPool,
-                                                         config.getTimeoutConfig());
+                                                         config.getTimeoutConfig(),
+                                                         config.getHedgedReadQuantile(),
+                                                         config.getMaxHedgedReadRatio(),
+                                                         config.isLatencyAwareReadsEnabled());
 
         this.clientSequencer = new AtomicInteger(0);
         this.clientAsyncServiceRepo = new HashSet<SchedulerService>();
@@ -157,7 +173,11 @@ public abstract class AbstractStoreClientFactory implements StoreClientFactory {
 
         StoreClient<K, V> client = null;
         if(this.config.isDefaultClientEnabled()) {
-            client = new DefaultStoreClient<K, V>(storeName, resolver, this, 3);
+            client = new DefaultStoreClient<K, V>(storeName,
+                                                  resolver,
+                                                  this,
+                                                  3,
+                                                  config.isServerSideVersioningEnabled());
         } else if(this.bootstrapUrls.length > 0
                   && this.bootstrapUrls[0].getScheme().equals(HttpStoreClientFactory.URL_SCHEME)) {
             client = new DefaultStoreClient<K, V>(storeName, resolver, this, 3);
@@ -181,6 +201,51 @@ public abstract class AbstractStoreClientFactory implements StoreClientFactory {
         return client;
     }
 
+    public <K, V> AsyncStoreClient<K, V> getAsyncStoreClient(String storeName) {
+        return getAsyncStoreClient(storeName, null);
+    }
+
+    /**
+     * Get an {@link AsyncStoreClient} for the given store. Its requests go to
+     * the same connections as those of the blocking clients of this factory.
+     * 
+     * @param storeName The name of the store
+     * @param resolver The {@link InconsistencyResolver} for concurrent
+     *        versions, or null to keep the most recent one
+     * @return The client
+     */
+    public <K, V> AsyncStoreClient<K, V> getAsyncStoreClient(String storeName,
+                                                             InconsistencyResolver<Versioned<V>> resolver) {
+        StoreDefinition storeDef = bootstrapStoreDefinition(storeName, null, null);
+        if(storeDef.isView())
+            throw new VoldemortException("Views are not supported by the asynchronous client, store '"
+                                         + storeName + "'.");
+
+        Map<Integer, NonblockingStore> nonblockingStores = Maps.newHashMap();
+        for(Node node: this.cluster.getNodes()) {
+            Store<ByteArray, byte[], byte[]> store = getStore(storeDef.getName(),
+                                                              node.getHost(),
+                                                              getPort(node),
+                                                              this.requestFormatType);
+            nonblockingStores.put(node.getId(), routedStoreFactory.toNonblockingStore(store));
+        }
+
+        ClientSerialization<K, V> serialization = getClientSerialization(storeDef, resolver);
+        return new DefaultAsyncStoreClient<K, V>(storeDef,
+                                                 new RoutingStrategyFactory().updateRoutingStrategy(storeDef,
+                                                                                                    this.cluster),
+                                                 nonblockingStores,
+                                                 getFailureDetector(),
+                                                 serialization.keySerializer,
+                                                 serialization.valueSerializer,
+                                                 serialization.keyCompression,
+                                                 serialization.valueCompression,
+                                                 serialization.resolver,
+                                                 config.getTimeoutConfig(),
+                                                 asyncThreadPool,
+                                                 SystemTime.INSTANCE);
+    }
+
     @SuppressWarnings("unchecked")
     public <K, V, T> Store<K, V, T> getRawStore(String storeName,
                                                 InconsistencyResolver<Versioned<V>> resolver) {
@@ -194,48 +259,9 @@ public abstract class AbstractStoreClientFactory implements StoreClientFactory {
                                                 String clusterXmlString,
                                                 FailureDetector fd) {
 
-        logger.info("Client zone-id [" + clientZoneId
-                    + "] Attempting to obtain metadata for store [" + storeName + "] ");
-
-        if(logger.isDebugEnabled()) {
-            for(URI uri: bootstrapUrls) {
-                logger.debug("Client Bootstrap url [" + uri + "]");
-            }
-        }
-        // Get cluster and store metadata
-        String clusterXml = clusterXmlString;
-        if(clusterXml == null) {
-            logger.debug("Fetching cluster.xml ...");
-            clusterXml = bootstrapMetadataWithRetries(MetadataStore.CLUSTER_KEY, bootstrapUrls);
-        }
-
-        this.cluster = clusterMapper.readCluster(new StringReader(clusterXml), false);
-        String storesXml = customStoresXml;
-        if(storesXml == null) {
-            logger.debug("Fetching stores.xml ...");
-            storesXml = bootstrapMetadataWithRetries(MetadataStore.STORES_KEY, bootstrapUrls);
-        }
-
-        if(logger.isDebugEnabled()) {
-            logger.debug("Obtained cluster metadata xml" + clusterXml);
-            logger.debug("Obtained stores  metadata xml" + storesXml);
-        }
-
-        List<StoreDefinition> storeDefs = storeMapper.readStoreList(new StringReader(storesXml),
-                                                                    false);
-        StoreDefinition storeDef = null;
-        for(StoreDefinition d: storeDefs)
-            if(d.getName().equals(storeName))
-                storeDef = d;
-        if(storeDef == null) {
-            logger.error("Bootstrap - unknown store: " + storeName);
-            throw new BootstrapFailureException("Unknown store '" + storeName + "'.");
-        }
-
-        if(logger.isDebugEnabled()) {
-            logger.debug(this.cluster.toString(true));
-            logger.debug(storeDef.toString());
-        }
+        StoreDefinition storeDef = bootstrapStoreDefinition(storeName,
+                                                            customStoresXml,
+                                                            clusterXmlString);
         boolean repairReads = !storeDef.isView();
 
         // construct mapping
@@ -294,7 +320,7 @@ public abstract class AbstractStoreClientFactory implements StoreClientFactory {
                                                                            failureDetectorRef,
                                                                            isJmxEnabled,
                                                                            this.jmxId);
-        store = new LoggingStore(store);
+        store = new LoggingStore<ByteArray, byte[], byte[]>(store);
 
         if(isJmxEnabled) {
             StatTrackingStore statStore = new StatTrackingStore(store, this.stats);
@@ -305,16 +331,14 @@ public abstract class AbstractStoreClientFactory implements StoreClientFactory {
                                                                      + JmxUtils.getJmxId(jmxId)));
         }
 
+        ClientSerialization<K, V> serialization = getClientSerialization(storeDef, resolver);
         if(storeDef.getKeySerializer().hasCompression()
            || storeDef.getValueSerializer().hasCompression()) {
             store = new CompressingStore(store,
-                                         getCompressionStrategy(storeDef.getKeySerializer()),
-                                         getCompressionStrategy(storeDef.getValueSerializer()));
+                                         serialization.keyCompression,
+                                         serialization.valueCompression);
         }
 
-        Serializer<K> keySerializer = (Serializer<K>) serializerFactory.getSerializer(storeDef.getKeySerializer());
-        Serializer<V> valueSerializer = (Serializer<V>) serializerFactory.getSerializer(storeDef.getValueSerializer());
-
         if(storeDef.isView() && (storeDef.getTransformsSerializer() == null))
             throw new SerializationException("Transforms serializer must be specified with a view ");
 
@@ -322,20 +346,107 @@ public abstract class AbstractStoreClientFactory implements StoreClientFactory {
                                                                                                                                        : new SerializerDefinition("identity"));
 
         Store<K, V, T> serializedStore = SerializingStore.wrap(store,
-                                                               keySerializer,
-                                                               valueSerializer,
+                                                               serialization.keySerializer,
+                                                               serialization.valueSerializer,
                                                                transformsSerializer);
 
         // Add inconsistency resolving decorator, using their inconsistency
         // resolver (if they gave us one)
-        InconsistencyResolver<Versioned<V>> secondaryResolver = resolver == null ? new TimeBasedInconsistencyResolver()
-                                                                                : resolver;
         serializedStore = new InconsistencyResolvingStore<K, V, T>(serializedStore,
-                                                                   new ChainedResolver<Versioned<V>>(new VectorClockInconsistencyResolver(),
-                                                                                                     secondaryResolver));
+                                                                   serialization.resolver);
+
+        if(config.getNearCacheMaxEntries() > 0)
+            serializedStore = new NearCacheStore<K, V, T>(serializedStore,
+                                                          config.getNearCacheMaxEntries(),
+                                                          config.getNearCacheTtl(TimeUnit.MILLISECONDS),
+                                                          SystemTime.INSTANCE);
         return serializedStore;
     }
 
+    /*
+     * The serializers, compression and inconsistency resolver of the store,
+     * which the blocking and the asynchronous clients share
+     */
+    private static class ClientSerialization<K, V> {
+
+        private Serializer<K> keySerializer;
+        private Serializer<V> valueSerializer;
+        private CompressionStrategy keyCompression;
+        private CompressionStrategy valueCompression;
+        private InconsistencyResolver<Versioned<V>> resolver;
+    }
+
+    /*
+     * Values are resolved by their clocks first, then by the given resolver,
+     * or by their timestamps if none is given
+     */
+    @SuppressWarnings("unchecked")
+    private <K, V> ClientSerialization<K, V> getClientSerialization(StoreDefinition storeDef,
+                                                                    InconsistencyResolver<Versioned<V>> resolver) {
+        ClientSerialization<K, V> serialization = new ClientSerialization<K, V>();
+        serialization.keySerializer = (Serializer<K>) serializerFactory.getSerializer(storeDef.getKeySerializer());
+        serialization.valueSerializer = (Serializer<V>) serializerFactory.getSerializer(storeDef.getValueSerializer());
+        serialization.keyCompression = getCompressionStrategy(storeDef.getKeySerializer());
+        serialization.valueCompression = getCompressionStrategy(storeDef.getValueSerializer());
+
+        InconsistencyResolver<Versioned<V>> secondaryResolver = resolver == null ? new TimeBasedInconsistencyResolver<V>()
+                                                                                : resolver;
+        serialization.resolver = new ChainedResolver<Versioned<V>>(new VectorClockInconsistencyResolver<V>(),
+                                                                   secondaryResolver);
+        return serialization;
+    }
+
+    /*
+     * Fetches the cluster and the definition of the store, unless given
+     */
+    private StoreDefinition bootstrapStoreDefinition(String storeName,
+                                                     String customStoresXml,
+                                                     String clusterXmlString) {
+        logger.info("Client zone-id [" + clientZoneId
+                    + "] Attempting to obtain metadata for store [" + storeName + "] ");
+
+        if(logger.isDebugEnabled()) {
+            for(URI uri: bootstrapUrls) {
+                logger.debug("Client Bootstrap url [" + uri + "]");
+            }
+        }
+        // Get cluster and store metadata
+        String clusterXml = clusterXmlString;
+        if(clusterXml == null) {
+            logger.debug("Fetching cluster.xml ...");
+            clusterXml = bootstrapMetadataWithRetries(MetadataStore.CLUSTER_KEY, bootstrapUrls);
+        }
+
+        this.cluster = clusterMapper.readCluster(new StringReader(clusterXml), false);
+        String storesXml = customStoresXml;
+        if(storesXml == null) {
+            logger.debug("Fetching stores.xml ...");
+            storesXml = bootstrapMetadataWithRetries(MetadataStore.STORES_KEY, bootstrapUrls);
+        }
+
+        if(logger.isDebugEnabled()) {
+            logger.debug("Obtained cluster metadata xml" + clusterXml);
+            logger.debug("Obtained stores  metadata xml" + storesXml);
+        }
+
+        List<StoreDefinition> storeDefs = storeMapper.readStoreList(new StringReader(storesXml),
+                                                                    false);
+        StoreDefinition storeDef = null;
+        for(StoreDefinition d: storeDefs)
+            if(d.getName().equals(storeName))
+                storeDef = d;
+        if(storeDef == null) {
+            logger.error("Bootstrap - unknown store: " + storeName);
+            throw new BootstrapFailureException("Unknown store '" + storeName + "'.");
+        }
+
+        if(logger.isDebugEnabled()) {
+            logger.debug(this.cluster.toString(true));
+            logger.debug(storeDef.toString());
+        }
+        return storeDef;
+    }
+
     protected ClientConfig getConfig() {
         return config;
     }
@@ -487,15 +598,8 @@ public abstract class AbstractStoreClientFactory implements StoreClientFactory {
     }
 
     public void close() {
-        this.threadPool.shutdown();
-
-        try {
-            if(!this.threadPool.awaitTermination(10, TimeUnit.SECONDS))
-                this.threadPool.shutdownNow();
-        } catch(InterruptedException e) {
-            // okay, fine, playing nice didn't work
-            this.threadPool.shutdownNow();
-        }
+        shutdown(this.threadPool);
+        shutdown(this.asyncThreadPool);
 
         if(failureDetector != null) {
             failureDetector.destroy();
@@ -515,6 +619,18 @@ public abstract class AbstractStoreClientFactory implements StoreClientFactory {
         stopClientAsyncSchedulers();
     }
 
+    private void shutdown(ExecutorService pool) {
+        pool.shutdown();
+
+        try {
+            if(!pool.awaitTermination(10, TimeUnit.SECONDS))
+                pool.shutdownNow();
+        } catch(InterruptedException e) {
+            // okay, fine, playing nice didn't work
+            pool.shutdownNow();
+        }
+    }
+
     private void stopClientAsyncSchedulers() {
         Iterator<SchedulerService> it = clientAsyncServiceRepo.iterator();
         while(it.hasNext()) {
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.client;
+
+/**
+ * Receives the outcome of a request made through an {@link AsyncStoreClient}.
+ * Exactly one of the methods is called, once, usually on a thread of the
+ * client thread pool, so implementations should hand off any blocking or
+ * lengthy work.
+ * 
+ * @param <T> The type of the result
+ */
+public interface AsyncCallback<T> {
+
+    /**
+     * The request succeeded
+     * 
+     * @param result The result of the request
+     */
+    public void completed(T result);
+
+    /**
+     * The request failed
+     * 
+     * @param e The exception the equivalent {@link StoreClient} call would
+     *        have thrown
+     */
+    public void failed(Exception e);
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.client;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link Future} completed by the {@link AsyncCallback} it is passed to.
+ * Requests already sent cannot be recalled, so it cannot be cancelled.
+ * 
+ * @param <T> The type of the result
+ */
+class AsyncFuture<T> implements Future<T>, AsyncCallback<T> {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private volatile T result;
+    private volatile Exception exception;
+
+    public void completed(T result) {
+        this.result = result;
+        latch.countDown();
+    }
+
+    public void failed(Exception e) {
+        this.exception = e;
+        latch.countDown();
+    }
+
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    public boolean isCancelled() {
+        return false;
+    }
+
+    public boolean isDone() {
+        return latch.getCount() == 0;
+    }
+
+    public T get() throws InterruptedException, ExecutionException {
+        latch.await();
+        return getResult();
+    }
+
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException,
+            TimeoutException {
+        if(!latch.await(timeout, unit))
+            throw new TimeoutException();
+        return getResult();
+    }
+
+    private T getResult() throws ExecutionException {
+        if(exception != null)
+            throw new ExecutionException(exception);
+        return result;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.client;
+
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import voldemort.annotations.concurrency.Threadsafe;
+import voldemort.versioning.ObsoleteVersionException;
+import voldemort.versioning.Version;
+import voldemort.versioning.Versioned;
+
+/**
+ * A non-blocking variant of {@link StoreClient}. Every operation returns as
+ * soon as its requests are sent, and its result is delivered either through a
+ * {@link Future} or to an {@link AsyncCallback}, so no thread waits for the
+ * replicas to answer.
+ * 
+ * @param <K> The type of the key being stored
+ * @param <V> The type of the value being stored
+ */
+@Threadsafe
+public interface AsyncStoreClient<K, V> {
+
+    /**
+     * Get the versioned value associated with the given key
+     * 
+     * @param key The key for which to fetch the value.
+     * @return The future versioned value, or null if no value is stored for
+     *         this key.
+     */
+    public Future<Versioned<V>> get(K key);
+
+    /**
+     * Get the versioned value associated with the given key
+     * 
+     * @param key The key for which to fetch the value.
+     * @param callback Receives the versioned value, or null if no value is
+     *        stored for this key.
+     */
+    public void get(K key, AsyncCallback<Versioned<V>> callback);
+
+    /**
+     * Gets the versioned values associated with the given keys
+     * 
+     * @param keys The keys for which to fetch the values
+     * @return The future map of keys to the values stored for them, without
+     *         the keys that have no value
+     */
+    public Future<Map<K, Versioned<V>>> getAll(Iterable<K> keys);
+
+    /**
+     * Gets the versioned values associated with the given keys
+     * 
+     * @param keys The keys for which to fetch the values
+     * @param callback Receives the map of keys to the values stored for them,
+     *        without the keys that have no value
+     */
+    public void getAll(Iterable<K> keys, AsyncCallback<Map<K, Versioned<V>>> callback);
+
+    /**
+     * Gets the versioned values associated with the given keys, handing each
+     * value to the callback as soon as enough replicas of its key have
+     * answered rather than once all of them have. The keys are batched into a
+     * request per node, and a node that fails or times out only holds up the
+     * keys it was asked for until other replicas answer instead.
+     * 
+     * @param keys The keys for which to fetch the values
+     * @param callback Receives the value or failure of each key
+     */
+    public void getAllStreaming(Iterable<K> keys, GetAllCallback<K, V> callback);
+
+    /**
+     * Associate the given value to the key, clobbering any existing values
+     * stored for the key.
+     * 
+     * @param key The key
+     * @param value The value
+     * @return The future version of the value that was stored
+     */
+    public Future<Version> put(K key, V value);
+
+    /**
+     * Associate the given value to the key, clobbering any existing values
+     * stored for the key.
+     * 
+     * @param key The key
+     * @param value The value
+     * @param callback Receives the version of the value that was stored
+     */
+    public void put(K key, V value, AsyncCallback<Version> callback);
+
+    /**
+     * Put the given Versioned value into the store for the given key if the
+     * version is greater to or concurrent with existing values, or fail with
+     * an {@link ObsoleteVersionException} otherwise.
+     * 
+     * @param key The key
+     * @param versioned The value and its version
+     * @return The future version of the value that was stored
+     */
+    public Future<Version> put(K key, Versioned<V> versioned);
+
+    /**
+     * Put the given Versioned value into the store for the given key if the
+     * version is greater to or concurrent with existing values, or fail with
+     * an {@link ObsoleteVersionException} otherwise.
+     * 
+     * @param key The key
+     * @param versioned The value and its version
+     * @param callback Receives the version of the value that was stored
+     */
+    public void put(K key, Versioned<V> versioned, AsyncCallback<Version> callback);
+
+    /**
+     * Delete any version of the given key which equal to or less than the
+     * current versions
+     * 
+     * @param key The key
+     * @return Whether anything was deleted, in the future
+     */
+    public Future<Boolean> delete(K key);
+
+    /**
+     * Delete any version of the given key which equal to or less than the
+     * current versions
+     * 
+     * @param key The key
+     * @param callback Receives whether anything was deleted
+     */
+    public void delete(K key, AsyncCallback<Boolean> callback);
+
+    /**
+     * Delete the specified version and any prior versions of the given key
+     * 
+     * @param key The key to delete
+     * @param version The version of the key
+     * @return Whether anything was deleted, in the future
+     */
+    public Future<Boolean> delete(K key, Version version);
+
+    /**
+     * Delete the specified version and any prior versions of the given key
+     * 
+     * @param key The key to delete
+     * @param version The version of the key
+     * @param callback Receives whether anything was deleted
+     */
+    public void delete(K key, Version version, AsyncCallback<Boolean> callback);
+}
@@ -66,6 +66,13 @@ public class ClientConfig {
     private volatile boolean enableLazy = true;
 
     private volatile boolean enablePipelineRoutedStore = true;
+    private volatile boolean enableServerSideVersioning = false;
+    private volatile int nearCacheMaxEntries = 0;
+    private volatile long nearCacheTtlMs = 10000;
+    private volatile double hedgedReadQuantile = 0;
+    private volatile double maxHedgedReadRatio = 0.05;
+    private volatile boolean enableLatencyAwareReads = false;
+    private volatile int asyncMaxQueuedResponses = 10000;
     private volatile int clientZoneId = Zone.DEFAULT_ZONE_ID;
 
     // Flag to control which store client to use:
@@ -126,6 +133,13 @@ public class ClientConfig {
     public static final String REQUEST_FORMAT_PROPERTY = "request_format";
     public static final String ENABLE_JMX_PROPERTY = "enable_jmx";
     public static final String ENABLE_PIPELINE_ROUTED_STORE_PROPERTY = "enable_pipeline_routed_store";
+    public static final String ENABLE_SERVER_SIDE_VERSIONING_PROPERTY = "enable_server_side_versioning";
+    public static final String NEAR_CACHE_MAX_ENTRIES_PROPERTY = "near_cache_max_entries";
+    public static final String NEAR_CACHE_TTL_MS_PROPERTY = "near_cache_ttl_ms";
+    public static final String HEDGED_READ_QUANTILE_PROPERTY = "hedged_read_quantile";
+    public static final String MAX_HEDGED_READ_RATIO_PROPERTY = "max_hedged_read_ratio";
+    public static final String ENABLE_LATENCY_AWARE_READS_PROPERTY = "enable_latency_aware_reads";
+    public static final String ASYNC_MAX_QUEUED_RESPONSES_PROPERTY = "async_max_queued_responses";
     public static final String ENABLE_HINTED_HANDOFF_PROPERTY = "enable_hinted_handoff";
     public static final String ENABLE_LAZY_PROPERTY = "enable-lazy";
     public static final String CLIENT_ZONE_ID = "client_zone_id";
@@ -268,6 +282,27 @@ public class ClientConfig {
         if(props.containsKey(ENABLE_PIPELINE_ROUTED_STORE_PROPERTY))
             this.setEnablePipelineRoutedStore(props.getBoolean(ENABLE_PIPELINE_ROUTED_STORE_PROPERTY));
 
+        if(props.containsKey(ENABLE_SERVER_SIDE_VERSIONING_PROPERTY))
+            this.setEnableServerSideVersioning(props.getBoolean(ENABLE_SERVER_SIDE_VERSIONING_PROPERTY));
+
+        if(props.containsKey(NEAR_CACHE_MAX_ENTRIES_PROPERTY))
+            this.setNearCacheMaxEntries(props.getInt(NEAR_CACHE_MAX_ENTRIES_PROPERTY));
+
+        if(props.containsKey(NEAR_CACHE_TTL_MS_PROPERTY))
+            this.setNearCacheTtl(props.getLong(NEAR_CACHE_TTL_MS_PROPERTY), TimeUnit.MILLISECONDS);
+
+        if(props.containsKey(HEDGED_READ_QUANTILE_PROPERTY))
+            this.setHedgedReadQuantile(props.getDouble(HEDGED_READ_QUANTILE_PROPERTY));
+
+        if(props.containsKey(MAX_HEDGED_READ_RATIO_PROPERTY))
+            this.setMaxHedgedReadRatio(props.getDouble(MAX_HEDGED_READ_RATIO_PROPERTY));
+
+        if(props.containsKey(ENABLE_LATENCY_AWARE_READS_PROPERTY))
+            this.setEnableLatencyAwareReads(props.getBoolean(ENABLE_LATENCY_AWARE_READS_PROPERTY));
+
+        if(props.containsKey(ASYNC_MAX_QUEUED_RESPONSES_PROPERTY))
+            this.setAsyncMaxQueuedResponses(props.getInt(ASYNC_MAX_QUEUED_RESPONSES_PROPERTY));
+
         if(props.containsKey(CLIENT_ZONE_ID))
             this.setClientZoneId(props.getInt(CLIENT_ZONE_ID));
 
@@ -748,6 +783,138 @@ public class ClientConfig {
         return this;
     }
 
+    public boolean isServerSideVersioningEnabled() {
+        return enableServerSideVersioning;
+    }
+
+    /**
+     * Let the master node resolve the version of a {@link StoreClient#put(Object, Object)}
+     * instead of fetching the current versions first, which saves a round
+     * trip per put. Requires the pipeline routed store and servers that
+     * understand the request.
+     * 
+     * @param enableServerSideVersioning If true puts without an explicit
+     *        version are versioned by the master node
+     */
+    public ClientConfig setEnableServerSideVersioning(boolean enableServerSideVersioning) {
+        this.enableServerSideVersioning = enableServerSideVersioning;
+        return this;
+    }
+
+    public int getNearCacheMaxEntries() {
+        return nearCacheMaxEntries;
+    }
+
+    /**
+     * Keep up to this many keys of each store, with the values and versions
+     * read for them, in a cache in the client. Gets of cached keys are served
+     * without going to the cluster until the entry expires, and puts and
+     * deletes through the client invalidate the key right away. Writes by
+     * other clients are only seen once the entry expires.
+     * 
+     * @param nearCacheMaxEntries The maximum number of keys to cache per
+     *        store, or 0 to disable the cache
+     */
+    public ClientConfig setNearCacheMaxEntries(int nearCacheMaxEntries) {
+        if(nearCacheMaxEntries < 0)
+            throw new IllegalArgumentException("Value cannot be negative.");
+        this.nearCacheMaxEntries = nearCacheMaxEntries;
+        return this;
+    }
+
+    public long getNearCacheTtl(TimeUnit unit) {
+        return unit.convert(nearCacheTtlMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Set how long a value stays in the near cache after it was read, see
+     * {@link #setNearCacheMaxEntries(int)}
+     * 
+     * @param nearCacheTtl The time to live of cached values
+     * @param unit The time unit of the timeout value
+     */
+    public ClientConfig setNearCacheTtl(long nearCacheTtl, TimeUnit unit) {
+        if(nearCacheTtl <= 0)
+            throw new IllegalArgumentException("Value must be greater than zero.");
+        this.nearCacheTtlMs = unit.toMillis(nearCacheTtl);
+        return this;
+    }
+
+    public double getHedgedReadQuantile() {
+        return hedgedReadQuantile;
+    }
+
+    /**
+     * Send a get to one more replica when the replicas it was sent to have
+     * not answered within this quantile of their latencies over the last few
+     * seconds, and use whichever responses arrive first. This keeps a single
+     * slow node, e.g. one in a long GC pause, from holding up reads. Requires
+     * the pipeline routed store.
+     * 
+     * @param hedgedReadQuantile The latency quantile, e.g. 0.95, or 0 to never
+     *        send extra requests
+     */
+    public ClientConfig setHedgedReadQuantile(double hedgedReadQuantile) {
+        if(hedgedReadQuantile < 0 || hedgedReadQuantile >= 1)
+            throw new IllegalArgumentException("Value must be at least 0 and less than 1.");
+        this.hedgedReadQuantile = hedgedReadQuantile;
+        return this;
+    }
+
+    public double getMaxHedgedReadRatio() {
+        return maxHedgedReadRatio;
+    }
+
+    /**
+     * Limit the extra requests sent by hedged reads, see
+     * {@link #setHedgedReadQuantile(double)}
+     * 
+     * @param maxHedgedReadRatio The largest fraction of reads of a store that
+     *        may be sent to one more replica
+     */
+    public ClientConfig setMaxHedgedReadRatio(double maxHedgedReadRatio) {
+        if(maxHedgedReadRatio <= 0 || maxHedgedReadRatio > 1)
+            throw new IllegalArgumentException("Value must be greater than 0 and at most 1.");
+        this.maxHedgedReadRatio = maxHedgedReadRatio;
+        return this;
+    }
+
+    public boolean isLatencyAwareReadsEnabled() {
+        return enableLatencyAwareReads;
+    }
+
+    /**
+     * Send gets to the replicas of a key that responded fastest lately and
+     * have the fewest requests outstanding, instead of always starting with
+     * the first replica of the key. Nodes of the client zone are still read
+     * before nodes of other zones. Requires the pipeline routed store.
+     * 
+     * @param enableLatencyAwareReads Whether to rank replicas by load
+     */
+    public ClientConfig setEnableLatencyAwareReads(boolean enableLatencyAwareReads) {
+        this.enableLatencyAwareReads = enableLatencyAwareReads;
+        return this;
+    }
+
+    public int getAsyncMaxQueuedResponses() {
+        return asyncMaxQueuedResponses;
+    }
+
+    /**
+     * Set the maximum number of node responses queued for the threads of the
+     * asynchronous clients. Those threads are separate from the ones of the
+     * blocking clients, and a response that finds the queue full fails its
+     * request rather than being handled on the thread it came in on.
+     * 
+     * @param asyncMaxQueuedResponses The maximum number of queued responses
+     */
+    public ClientConfig setAsyncMaxQueuedResponses(int asyncMaxQueuedResponses) {
+        if(asyncMaxQueuedResponses <= 0)
+            throw new IllegalArgumentException("Value must be greater than zero.");
+        this.asyncMaxQueuedResponses = asyncMaxQueuedResponses;
+        return this;
+    }
+
     public String getFailureDetectorImplementation() {
         return failureDetectorImplementation;
     }
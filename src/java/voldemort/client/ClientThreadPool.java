@@ -17,6 +17,7 @@
 package voldemort.client;
 
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -33,13 +34,33 @@ import voldemort.utils.DaemonThreadFactory;
 public class ClientThreadPool extends ThreadPoolExecutor {
 
     public ClientThreadPool(int maxThreads, long threadIdleMs, int maxQueuedRequests) {
+        this(maxThreads,
+             threadIdleMs,
+             maxQueuedRequests,
+             "voldemort-client-thread-",
+             new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * @param maxThreads The number of threads
+     * @param threadIdleMs How long an idle thread is kept
+     * @param maxQueuedRequests The number of tasks queued before the handler
+     *        is asked what to do with another one
+     * @param threadNamePrefix The prefix of the names of the threads
+     * @param rejectionHandler Handles the tasks the pool has no room for
+     */
+    public ClientThreadPool(int maxThreads,
+                            long threadIdleMs,
+                            int maxQueuedRequests,
+                            String threadNamePrefix,
+                            RejectedExecutionHandler rejectionHandler) {
         super(maxThreads,
               maxThreads,
               threadIdleMs,
               TimeUnit.MILLISECONDS,
               new LinkedBlockingQueue<Runnable>(maxQueuedRequests),
-              new DaemonThreadFactory("voldemort-client-thread-"),
-              new ThreadPoolExecutor.CallerRunsPolicy());
+              new DaemonThreadFactory(threadNamePrefix),
+              rejectionHandler);
     }
 
     @JmxGetter(name = "numberOfActiveThreads", description = "The number of active threads.")
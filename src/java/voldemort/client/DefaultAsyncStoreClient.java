@@ -0,0 +1,1024 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import voldemort.VoldemortApplicationException;
+import voldemort.VoldemortException;
+import voldemort.annotations.concurrency.Threadsafe;
+import voldemort.cluster.Node;
+import voldemort.cluster.failuredetector.FailureDetector;
+import voldemort.common.VoldemortOpCode;
+import voldemort.routing.RoutingStrategy;
+import voldemort.serialization.Serializer;
+import voldemort.store.InsufficientOperationalNodesException;
+import voldemort.store.StoreDefinition;
+import voldemort.store.StoreTimeoutException;
+import voldemort.store.StoreUtils;
+import voldemort.store.UnreachableStoreException;
+import voldemort.store.compress.CompressionStrategy;
+import voldemort.store.nonblockingstore.NonblockingStore;
+import voldemort.store.nonblockingstore.NonblockingStoreCallback;
+import voldemort.utils.ByteArray;
+import voldemort.utils.Pair;
+import voldemort.utils.Time;
+import voldemort.versioning.InconsistencyResolver;
+import voldemort.versioning.InconsistentDataException;
+import voldemort.versioning.VectorClock;
+import voldemort.versioning.Version;
+import voldemort.versioning.Versioned;
+
+/**
+ * The default {@link AsyncStoreClient}, which routes requests straight to the
+ * {@link NonblockingStore}s of the nodes and drives them from their callbacks.
+ * <p/>
+ * Reads go to the preferred number of available replicas, and a replica that
+ * fails is replaced by the next one in the preference list. Writes go to the
+ * master first, which increments the clock, and then to all other replicas
+ * in parallel. Like the routed store, an operation succeeds once the
+ * preferred number of replicas have answered, or once every replica asked has
+ * answered and at least the required number succeeded. A getAll sends one
+ * request per node for all the keys it holds, but otherwise treats each key
+ * as a get of its own. Read repair, hinted handoff and zone requirements are
+ * left to the blocking {@link StoreClient}.
+ * <p/>
+ * The responses are handed from the selector threads to an executor, where the
+ * callbacks run. A selector thread cannot send requests itself, since opening
+ * a new connection waits for a selector to negotiate the protocol, so the
+ * executor must never run a task on the calling thread. A response the
+ * executor rejects fails its request instead.
+ * 
+ * @param <K> The type of the key being stored
+ * @param <V> The type of the value being stored
+ */
+@Threadsafe
+public class DefaultAsyncStoreClient<K, V> implements AsyncStoreClient<K, V> {
+
+    private static final Logger logger = Logger.getLogger(DefaultAsyncStoreClient.class);
+
+    private final StoreDefinition storeDef;
+    private final RoutingStrategy routingStrategy;
+    private final Map<Integer, NonblockingStore> nonblockingStores;
+    private final FailureDetector failureDetector;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final CompressionStrategy keyCompression;
+    private final CompressionStrategy valueCompression;
+    private final InconsistencyResolver<Versioned<V>> resolver;
+    private final TimeoutConfig timeoutConfig;
+    private final Executor executor;
+    private final Time time;
+
+    /**
+     * @param storeDef The definition of the store
+     * @param routingStrategy The routing strategy of the store
+     * @param nonblockingStores The stores of the nodes of the cluster by id
+     * @param failureDetector Keeps track of the nodes that are available
+     * @param keySerializer The serializer for keys
+     * @param valueSerializer The serializer for values
+     * @param keyCompression The compression of keys, or null if none
+     * @param valueCompression The compression of values, or null if none
+     * @param resolver Resolves the values read from the replicas
+     * @param timeoutConfig The timeouts of the requests to each node
+     * @param executor Handles the responses of the nodes, and rejects those it
+     *        has no room for rather than running them on the calling thread
+     * @param time The time used for the clocks of the values written
+     */
+    public DefaultAsyncStoreClient(StoreDefinition storeDef,
+                                   RoutingStrategy routingStrategy,
+                                   Map<Integer, NonblockingStore> nonblockingStores,
+                                   FailureDetector failureDetector,
+                                   Serializer<K> keySerializer,
+                                   Serializer<V> valueSerializer,
+                                   CompressionStrategy keyCompression,
+                                   CompressionStrategy valueCompression,
+                                   InconsistencyResolver<Versioned<V>> resolver,
+                                   TimeoutConfig timeoutConfig,
+                                   Executor executor,
+                                   Time time) {
+        this.storeDef = storeDef;
+        this.routingStrategy = routingStrategy;
+        this.nonblockingStores = nonblockingStores;
+        this.failureDetector = failureDetector;
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.keyCompression = keyCompression;
+        this.valueCompression = valueCompression;
+        this.resolver = resolver;
+        this.timeoutConfig = timeoutConfig;
+        this.executor = executor;
+        this.time = time;
+    }
+
+    public Future<Versioned<V>> get(K key) {
+        AsyncFuture<Versioned<V>> future = new AsyncFuture<Versioned<V>>();
+        get(key, future);
+        return future;
+    }
+
+    public void get(final K key, final AsyncCallback<Versioned<V>> callback) {
+        final ByteArray keyBytes;
+        final List<Node> nodes;
+        try {
+            keyBytes = toKeyBytes(key);
+            nodes = getNodes(keyBytes, storeDef.getRequiredReads());
+        } catch(Exception e) {
+            callback.failed(e);
+            return;
+        }
+
+        AsyncCallback<List<Versioned<byte[]>>> resolvingCallback = new AsyncCallback<List<Versioned<byte[]>>>() {
+
+            public void completed(List<Versioned<byte[]>> values) {
+                Versioned<V> resolved;
+                try {
+                    resolved = resolve(key, values);
+                } catch(Exception e) {
+                    failed(e);
+                    return;
+                }
+                complete(callback, resolved);
+            }
+
+            public void failed(Exception e) {
+                fail(callback, e);
+            }
+        };
+        new GetRequest(keyBytes, nodes, resolvingCallback).start();
+    }
+
+    public Future<Map<K, Versioned<V>>> getAll(Iterable<K> keys) {
+        AsyncFuture<Map<K, Versioned<V>>> future = new AsyncFuture<Map<K, Versioned<V>>>();
+        getAll(keys, future);
+        return future;
+    }
+
+    public void getAll(Iterable<K> keys, final AsyncCallback<Map<K, Versioned<V>>> callback) {
+        // the first failure fails the whole request, as it does for getAll
+        final Map<K, Versioned<V>> results = new ConcurrentHashMap<K, Versioned<V>>();
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        getAllStreaming(keys, new GetAllCallback<K, V>() {
+
+            public void keyCompleted(K key, Versioned<V> value) {
+                if(value != null)
+                    results.put(key, value);
+            }
+
+            public void keyFailed(K key, Exception e) {
+                if(failed.compareAndSet(false, true))
+                    fail(callback, e);
+            }
+
+            public void completed() {
+                if(!failed.get())
+                    complete(callback, results);
+            }
+        });
+    }
+
+    public void getAllStreaming(Iterable<K> keys, GetAllCallback<K, V> callback) {
+        new GetAllRequest(keys, callback).start();
+    }
+
+    public Future<Version> put(K key, V value) {
+        AsyncFuture<Version> future = new AsyncFuture<Version>();
+        put(key, value, future);
+        return future;
+    }
+
+    public void put(final K key, final V value, final AsyncCallback<Version> callback) {
+        get(key, new AsyncCallback<Versioned<V>>() {
+
+            public void completed(Versioned<V> current) {
+                Versioned<V> versioned;
+                if(current == null) {
+                    versioned = Versioned.value(value, new VectorClock());
+                } else {
+                    versioned = current;
+                    versioned.setObject(value);
+                }
+                put(key, versioned, callback);
+            }
+
+            public void failed(Exception e) {
+                fail(callback, e);
+            }
+        });
+    }
+
+    public Future<Version> put(K key, Versioned<V> versioned) {
+        AsyncFuture<Version> future = new AsyncFuture<Version>();
+        put(key, versioned, future);
+        return future;
+    }
+
+    public void put(K key, Versioned<V> versioned, final AsyncCallback<Version> callback) {
+        final ByteArray keyBytes;
+        final List<Node> nodes;
+        final Versioned<byte[]> versionedBytes;
+        try {
+            keyBytes = toKeyBytes(key);
+            versionedBytes = new Versioned<byte[]>(toValueBytes(versioned.getValue()),
+                                                   versioned.getVersion());
+            nodes = getNodes(keyBytes, storeDef.getRequiredWrites());
+        } catch(Exception e) {
+            callback.failed(e);
+            return;
+        }
+
+        AsyncCallback<Pair<Node, Versioned<byte[]>>> masterCallback = new AsyncCallback<Pair<Node, Versioned<byte[]>>>() {
+
+            public void completed(Pair<Node, Versioned<byte[]>> result) {
+                Node master = result.getFirst();
+                final Versioned<byte[]> written = result.getSecond();
+                List<Node> replicas = nodes.subList(nodes.indexOf(master) + 1, nodes.size());
+                AsyncCallback<Boolean> replicasCallback = new AsyncCallback<Boolean>() {
+
+                    public void completed(Boolean result) {
+                        complete(callback, written.getVersion());
+                    }
+
+                    public void failed(Exception e) {
+                        fail(callback, e);
+                    }
+                };
+                new PutRequest(keyBytes,
+                               written,
+                               replicas,
+                               replicas.size(),
+                               storeDef.getPreferredWrites() - 1,
+                               storeDef.getRequiredWrites() - 1,
+                               replicasCallback).start();
+            }
+
+            public void failed(Exception e) {
+                fail(callback, e);
+            }
+        };
+        new MasterPutRequest(keyBytes, versionedBytes, nodes, masterCallback).start();
+    }
+
+    public Future<Boolean> delete(K key) {
+        AsyncFuture<Boolean> future = new AsyncFuture<Boolean>();
+        delete(key, future);
+        return future;
+    }
+
+    public void delete(final K key, final AsyncCallback<Boolean> callback) {
+        get(key, new AsyncCallback<Versioned<V>>() {
+
+            public void completed(Versioned<V> current) {
+                if(current == null)
+                    complete(callback, false);
+                else
+                    delete(key, current.getVersion(), callback);
+            }
+
+            public void failed(Exception e) {
+                fail(callback, e);
+            }
+        });
+    }
+
+    public Future<Boolean> delete(K key, Version version) {
+        AsyncFuture<Boolean> future = new AsyncFuture<Boolean>();
+        delete(key, version, future);
+        return future;
+    }
+
+    public void delete(K key, Version version, AsyncCallback<Boolean> callback) {
+        ByteArray keyBytes;
+        List<Node> nodes;
+        try {
+            keyBytes = toKeyBytes(key);
+            nodes = getNodes(keyBytes, storeDef.getRequiredWrites());
+        } catch(Exception e) {
+            callback.failed(e);
+            return;
+        }
+        new DeleteRequest(keyBytes, version, nodes, callback).start();
+    }
+
+    private ByteArray toKeyBytes(K key) {
+        StoreUtils.assertValidKey(key);
+        return new ByteArray(compress(keyCompression, keySerializer.toBytes(key)));
+    }
+
+    private byte[] toValueBytes(V value) {
+        return compress(valueCompression, valueSerializer.toBytes(value));
+    }
+
+    private byte[] compress(CompressionStrategy compression, byte[] bytes) {
+        if(compression == null)
+            return bytes;
+        try {
+            return compression.deflate(bytes);
+        } catch(IOException e) {
+            throw new VoldemortException(e);
+        }
+    }
+
+    private byte[] inflate(CompressionStrategy compression, byte[] bytes) {
+        if(compression == null)
+            return bytes;
+        try {
+            return compression.inflate(bytes);
+        } catch(IOException e) {
+            throw new VoldemortException(e);
+        }
+    }
+
+    private Versioned<V> resolve(K key, List<Versioned<byte[]>> values) {
+        List<Versioned<V>> items = new ArrayList<Versioned<V>>(values.size());
+        for(Versioned<byte[]> value: values)
+            items.add(new Versioned<V>(valueSerializer.toObject(inflate(valueCompression,
+                                                                        value.getValue())),
+                                       value.getVersion()));
+        items = resolver.resolveConflicts(items);
+        if(items.size() == 0)
+            return null;
+        else if(items.size() == 1)
+            return items.get(0);
+        else
+            throw new InconsistentDataException("Unresolved versions returned from get(" + key
+                                                + ") = " + items, items);
+    }
+
+    private List<Node> getNodes(ByteArray key, int required) {
+        List<Node> replicationSet = routingStrategy.routeRequest(key.get());
+        if(replicationSet.size() == 0)
+            throw new IllegalArgumentException("All servers configured with no partitions");
+
+        List<Node> nodes = new ArrayList<Node>(replicationSet.size());
+        for(Node node: replicationSet) {
+            if(failureDetector.isAvailable(node))
+                nodes.add(node);
+        }
+        if(nodes.size() < required)
+            throw new InsufficientOperationalNodesException("Only " + nodes.size()
+                                                            + " nodes up in preference list, but "
+                                                            + required + " required.");
+        return nodes;
+    }
+
+    private static <T> void complete(AsyncCallback<T> callback, T result) {
+        try {
+            callback.completed(result);
+        } catch(RuntimeException e) {
+            logger.error("Callback failed on a completed request", e);
+        }
+    }
+
+    private static <T> void fail(AsyncCallback<T> callback, Exception exception) {
+        try {
+            callback.failed(exception);
+        } catch(RuntimeException e) {
+            logger.error("Callback failed on a failed request", e);
+        }
+    }
+
+    private void recordResponse(Node node, Object result, long requestTime) {
+        if(result instanceof Exception) {
+            Exception e = (Exception) result;
+            if(e instanceof StoreTimeoutException)
+                logger.warn("Error on node " + node.getId() + "(" + node.getHost() + ") : "
+                            + e.getMessage());
+            else if(!(e instanceof VoldemortApplicationException))
+                logger.warn("Error on node " + node.getId() + "(" + node.getHost() + ")", e);
+            if(e instanceof UnreachableStoreException)
+                failureDetector.recordException(node, requestTime, (UnreachableStoreException) e);
+        } else {
+            failureDetector.recordSuccess(node, requestTime);
+        }
+    }
+
+    /*
+     * A store callback that handles the response on the executor rather than
+     * on the selector thread. If the executor rejects it, the response is
+     * dropped and the request it belongs to is failed without sending
+     * anything more.
+     */
+    private abstract class HandOffCallback implements NonblockingStoreCallback {
+
+        private final Node node;
+
+        protected HandOffCallback(Node node) {
+            this.node = node;
+        }
+
+        public void requestComplete(final Object result, final long requestTime) {
+            try {
+                executor.execute(new Runnable() {
+
+                    public void run() {
+                        onResponse(result, requestTime);
+                    }
+                });
+            } catch(RejectedExecutionException e) {
+                onRejected(new VoldemortException("Dropped the response of node "
+                                                  + node.getId() + "(" + node.getHost()
+                                                  + "), no thread is free to handle it", e));
+            }
+        }
+
+        /**
+         * Handle the response, called on the executor
+         */
+        protected abstract void onResponse(Object result, long requestTime);
+
+        /**
+         * Fail the request, called on the thread that got the response
+         */
+        protected abstract void onRejected(Exception e);
+    }
+
+    /*
+     * Keeps track of the replicas asked for one key. Nodes are taken from the
+     * preference list in order, and a node that fails is replaced by the next
+     * one until "preferred" replicas have answered. There are enough successes
+     * once there are the preferred number, or once no node is left to ask and
+     * at least the required number succeeded. Not thread-safe.
+     */
+    private static class ReplicaQuorum {
+
+        private final List<Node> nodes;
+        private final int preferred;
+        private final int required;
+        private final List<Exception> failures = new ArrayList<Exception>();
+        private int nextNode = 0;
+        private int outstanding = 0;
+        private int successes = 0;
+        private boolean done = false;
+
+        public ReplicaQuorum(List<Node> nodes, int preferred, int required) {
+            this.nodes = nodes;
+            this.preferred = preferred;
+            this.required = required;
+        }
+
+        public List<Node> take(int count) {
+            int end = Math.min(nodes.size(), nextNode + Math.max(0, count));
+            List<Node> taken = new ArrayList<Node>(nodes.subList(nextNode, end));
+            outstanding += taken.size();
+            nextNode = end;
+            return taken;
+        }
+
+        public void recordSuccess() {
+            outstanding--;
+            successes++;
+        }
+
+        /**
+         * @return The nodes to ask instead
+         */
+        public List<Node> recordFailure(Exception e) {
+            outstanding--;
+            failures.add(e);
+            return take(preferred - successes - outstanding);
+        }
+
+        public boolean hasEnoughSuccesses() {
+            return successes >= preferred || (outstanding == 0 && successes >= required);
+        }
+
+        public boolean isExhausted() {
+            return outstanding == 0 && !hasEnoughSuccesses();
+        }
+
+        public Exception getInsufficientSuccessesException() {
+            return new InsufficientOperationalNodesException(required
+                                                             + " operations required, but only "
+                                                             + successes + " succeeded",
+                                                             failures);
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        public void setDone() {
+            this.done = true;
+        }
+    }
+
+    /*
+     * A request for one key to the replicas in its preference list, of which
+     * the first "initial" are asked right away. An application error, such as
+     * an obsolete version, fails it right away.
+     * 
+     * The state is guarded by the request itself, but the nodes are only
+     * asked, and the callback only called, outside of the lock since the
+     * stores may call back on the calling thread.
+     */
+    private abstract class ReplicaRequest<R> {
+
+        protected final ByteArray key;
+        private final ReplicaQuorum quorum;
+        private final int initial;
+        private final AsyncCallback<R> callback;
+
+        protected ReplicaRequest(ByteArray key,
+                                 List<Node> nodes,
+                                 int initial,
+                                 int preferred,
+                                 int required,
+                                 AsyncCallback<R> callback) {
+            this.key = key;
+            this.quorum = new ReplicaQuorum(nodes, preferred, required);
+            this.initial = initial;
+            this.callback = callback;
+        }
+
+        /**
+         * Send the request to the given node
+         */
+        protected abstract void submit(Node node,
+                                       NonblockingStore store,
+                                       NonblockingStoreCallback storeCallback);
+
+        /**
+         * Record a successful response, called with the request locked
+         */
+        protected abstract void onSuccess(Node node, Object result);
+
+        /**
+         * The result of the request once it has enough responses
+         */
+        protected abstract R getResult();
+
+        public void start() {
+            List<Node> first;
+            synchronized(this) {
+                first = quorum.take(initial);
+            }
+            finish();
+            for(Node node: first)
+                submit(node);
+        }
+
+        private void submit(final Node node) {
+            NonblockingStoreCallback storeCallback = new HandOffCallback(node) {
+
+                @Override
+                protected void onResponse(Object result, long requestTime) {
+                    ReplicaRequest.this.onResponse(node, result, requestTime);
+                }
+
+                @Override
+                protected void onRejected(Exception e) {
+                    abort(e);
+                }
+            };
+            try {
+                submit(node, nonblockingStores.get(node.getId()), storeCallback);
+            } catch(Exception e) {
+                onResponse(node, e, 0);
+            }
+        }
+
+        private void onResponse(Node node, Object result, long requestTime) {
+            recordResponse(node, result, requestTime);
+
+            List<Node> replacements = Collections.emptyList();
+            synchronized(this) {
+                if(quorum.isDone())
+                    return;
+
+                if(result instanceof VoldemortApplicationException) {
+                    quorum.setDone();
+                } else if(result instanceof Exception) {
+                    replacements = quorum.recordFailure((Exception) result);
+                } else {
+                    quorum.recordSuccess();
+                    onSuccess(node, result);
+                }
+            }
+
+            if(result instanceof VoldemortApplicationException)
+                fail(callback, (Exception) result);
+            else
+                finish();
+            for(Node replacement: replacements)
+                submit(replacement);
+        }
+
+        /*
+         * Fails the request unless it is already done
+         */
+        private void abort(Exception e) {
+            synchronized(this) {
+                if(quorum.isDone())
+                    return;
+                quorum.setDone();
+            }
+            fail(callback, e);
+        }
+
+        /*
+         * Calls back if the request has just got enough responses
+         */
+        private void finish() {
+            Exception failure = null;
+            synchronized(this) {
+                if(quorum.isDone())
+                    return;
+                if(quorum.isExhausted())
+                    failure = quorum.getInsufficientSuccessesException();
+                else if(!quorum.hasEnoughSuccesses())
+                    return;
+                quorum.setDone();
+            }
+
+            if(failure != null)
+                fail(callback, failure);
+            else
+                complete(callback, getResult());
+        }
+    }
+
+    /*
+     * A getAll that sends one request per node for all the keys it is asked
+     * for, and keeps a quorum per key so that each key completes as soon as
+     * its replicas have answered. The keys a failed node was asked for are
+     * sent to their next replicas in another batch.
+     */
+    private class GetAllRequest {
+
+        private final Iterable<K> keys;
+        private final GetAllCallback<K, V> callback;
+        private final List<KeyRequest> keyRequests = new ArrayList<KeyRequest>();
+        private final AtomicInteger remaining = new AtomicInteger();
+
+        public GetAllRequest(Iterable<K> keys, GetAllCallback<K, V> callback) {
+            this.keys = keys;
+            this.callback = callback;
+        }
+
+        public void start() {
+            List<KeyRequest> failed = new ArrayList<KeyRequest>();
+            Map<ByteArray, KeyRequest> byKey = new HashMap<ByteArray, KeyRequest>();
+            for(K key: keys) {
+                KeyRequest request = new KeyRequest(key);
+                try {
+                    request.keyBytes = toKeyBytes(key);
+                    if(byKey.containsKey(request.keyBytes))
+                        continue;
+                    byKey.put(request.keyBytes, request);
+                    request.quorum = new ReplicaQuorum(getNodes(request.keyBytes,
+                                                                storeDef.getRequiredReads()),
+                                                       storeDef.getPreferredReads(),
+                                                       storeDef.getRequiredReads());
+                    keyRequests.add(request);
+                } catch(Exception e) {
+                    request.failure = e;
+                    failed.add(request);
+                }
+            }
+            remaining.set(keyRequests.size() + failed.size() + 1);
+
+            Map<Node, List<KeyRequest>> batches = new HashMap<Node, List<KeyRequest>>();
+            synchronized(this) {
+                for(KeyRequest request: keyRequests)
+                    addToBatches(batches, request, request.quorum.take(storeDef.getPreferredReads()));
+            }
+            deliver(failed);
+            for(Map.Entry<Node, List<KeyRequest>> batch: batches.entrySet())
+                submit(batch.getKey(), batch.getValue());
+            countDown(1);
+        }
+
+        private void addToBatches(Map<Node, List<KeyRequest>> batches,
+                                  KeyRequest request,
+                                  List<Node> nodes) {
+            for(Node node: nodes) {
+                List<KeyRequest> batch = batches.get(node);
+                if(batch == null) {
+                    batch = new ArrayList<KeyRequest>();
+                    batches.put(node, batch);
+                }
+                batch.add(request);
+            }
+        }
+
+        private void submit(final Node node, final List<KeyRequest> batch) {
+            NonblockingStoreCallback storeCallback = new HandOffCallback(node) {
+
+                @Override
+                protected void onResponse(Object result, long requestTime) {
+                    GetAllRequest.this.onResponse(node, batch, result, requestTime);
+                }
+
+                @Override
+                protected void onRejected(Exception e) {
+                    abort(batch, e);
+                }
+            };
+            List<ByteArray> batchKeys = new ArrayList<ByteArray>(batch.size());
+            for(KeyRequest request: batch)
+                batchKeys.add(request.keyBytes);
+            try {
+                nonblockingStores.get(node.getId())
+                                 .submitGetAllRequest(batchKeys,
+                                                      null,
+                                                      storeCallback,
+                                                      timeoutConfig.getOperationTimeout(VoldemortOpCode.GET_ALL_OP_CODE));
+            } catch(Exception e) {
+                onResponse(node, batch, e, 0);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onResponse(Node node,
+                                List<KeyRequest> batch,
+                                Object result,
+                                long requestTime) {
+            recordResponse(node, result, requestTime);
+
+            List<KeyRequest> finished = new ArrayList<KeyRequest>();
+            Map<Node, List<KeyRequest>> retries = new HashMap<Node, List<KeyRequest>>();
+            synchronized(this) {
+                for(KeyRequest request: batch) {
+                    ReplicaQuorum quorum = request.quorum;
+                    if(quorum.isDone())
+                        continue;
+
+                    if(result instanceof VoldemortApplicationException) {
+                        request.failure = (Exception) result;
+                    } else if(result instanceof Exception) {
+                        addToBatches(retries, request, quorum.recordFailure((Exception) result));
+                        if(quorum.isExhausted())
+                            request.failure = quorum.getInsufficientSuccessesException();
+                        else if(!quorum.hasEnoughSuccesses())
+                            continue;
+                    } else {
+                        quorum.recordSuccess();
+                        List<Versioned<byte[]>> values = ((Map<ByteArray, List<Versioned<byte[]>>>) result).get(request.keyBytes);
+                        if(values != null)
+                            request.values.addAll(values);
+                        if(!quorum.hasEnoughSuccesses())
+                            continue;
+                    }
+                    quorum.setDone();
+                    finished.add(request);
+                }
+            }
+
+            deliver(finished);
+            for(Map.Entry<Node, List<KeyRequest>> retry: retries.entrySet())
+                submit(retry.getKey(), retry.getValue());
+        }
+
+        /*
+         * Fails the keys of the batch that are not done yet
+         */
+        private void abort(List<KeyRequest> batch, Exception e) {
+            List<KeyRequest> finished = new ArrayList<KeyRequest>();
+            synchronized(this) {
+                for(KeyRequest request: batch) {
+                    if(request.quorum.isDone())
+                        continue;
+                    request.quorum.setDone();
+                    request.failure = e;
+                    finished.add(request);
+                }
+            }
+            deliver(finished);
+        }
+
+        private void deliver(List<KeyRequest> finished) {
+            for(KeyRequest request: finished) {
+                Versioned<V> value = null;
+                if(request.failure == null) {
+                    try {
+                        value = resolve(request.key, request.values);
+                    } catch(Exception e) {
+                        request.failure = e;
+                    }
+                }
+                try {
+                    if(request.failure == null)
+                        callback.keyCompleted(request.key, value);
+                    else
+                        callback.keyFailed(request.key, request.failure);
+                } catch(RuntimeException e) {
+                    logger.error("Callback failed on key " + request.key, e);
+                }
+            }
+            countDown(finished.size());
+        }
+
+        /*
+         * Calls back once every key, and the start of the request, is done
+         */
+        private void countDown(int count) {
+            if(count > 0 && remaining.addAndGet(-count) == 0) {
+                try {
+                    callback.completed();
+                } catch(RuntimeException e) {
+                    logger.error("Callback failed on a completed request", e);
+                }
+            }
+        }
+    }
+
+    private class KeyRequest {
+
+        private final K key;
+        private final List<Versioned<byte[]>> values = new ArrayList<Versioned<byte[]>>();
+        private ByteArray keyBytes;
+        private ReplicaQuorum quorum;
+        private Exception failure;
+
+        public KeyRequest(K key) {
+            this.key = key;
+        }
+    }
+
+    private class GetRequest extends ReplicaRequest<List<Versioned<byte[]>>> {
+
+        private final List<Versioned<byte[]>> values = new ArrayList<Versioned<byte[]>>();
+
+        public GetRequest(ByteArray key,
+                          List<Node> nodes,
+                          AsyncCallback<List<Versioned<byte[]>>> callback) {
+            super(key,
+                  nodes,
+                  storeDef.getPreferredReads(),
+                  storeDef.getPreferredReads(),
+                  storeDef.getRequiredReads(),
+                  callback);
+        }
+
+        @Override
+        protected void submit(Node node,
+                              NonblockingStore store,
+                              NonblockingStoreCallback storeCallback) {
+            store.submitGetRequest(key,
+                                   null,
+                                   storeCallback,
+                                   timeoutConfig.getOperationTimeout(VoldemortOpCode.GET_OP_CODE));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void onSuccess(Node node, Object result) {
+            values.addAll((List<Versioned<byte[]>>) result);
+        }
+
+        @Override
+        protected synchronized List<Versioned<byte[]>> getResult() {
+            return new ArrayList<Versioned<byte[]>>(values);
+        }
+    }
+
+    /*
+     * Tries the nodes one at a time until one of them takes the value with the
+     * clock incremented for itself, and completes with that node and the value
+     * exactly as it took it, so that the replicas get the very same clock
+     */
+    private class MasterPutRequest extends ReplicaRequest<Pair<Node, Versioned<byte[]>>> {
+
+        private final Versioned<byte[]> versioned;
+        private final Map<Integer, Versioned<byte[]>> submitted;
+        private Pair<Node, Versioned<byte[]>> result;
+
+        public MasterPutRequest(ByteArray key,
+                                Versioned<byte[]> versioned,
+                                List<Node> nodes,
+                                AsyncCallback<Pair<Node, Versioned<byte[]>>> callback) {
+            super(key, nodes, 1, 1, 1, callback);
+            this.versioned = versioned;
+            this.submitted = new HashMap<Integer, Versioned<byte[]>>();
+        }
+
+        @Override
+        protected void submit(Node node,
+                              NonblockingStore store,
+                              NonblockingStoreCallback storeCallback) {
+            VectorClock clock = ((VectorClock) versioned.getVersion()).incremented(node.getId(),
+                                                                                   time.getMilliseconds());
+            Versioned<byte[]> incremented = new Versioned<byte[]>(versioned.getValue(), clock);
+            synchronized(this) {
+                submitted.put(node.getId(), incremented);
+            }
+            store.submitPutRequest(key,
+                                   incremented,
+                                   null,
+                                   storeCallback,
+                                   timeoutConfig.getOperationTimeout(VoldemortOpCode.PUT_OP_CODE));
+        }
+
+        @Override
+        protected void onSuccess(Node node, Object result) {
+            this.result = Pair.create(node, submitted.get(node.getId()));
+        }
+
+        @Override
+        protected synchronized Pair<Node, Versioned<byte[]>> getResult() {
+            return result;
+        }
+    }
+
+    private class PutRequest extends ReplicaRequest<Boolean> {
+
+        private final Versioned<byte[]> versioned;
+
+        public PutRequest(ByteArray key,
+                          Versioned<byte[]> versioned,
+                          List<Node> nodes,
+                          int initial,
+                          int preferred,
+                          int required,
+                          AsyncCallback<Boolean> callback) {
+            super(key, nodes, initial, preferred, required, callback);
+            this.versioned = versioned;
+        }
+
+        @Override
+        protected void submit(Node node,
+                              NonblockingStore store,
+                              NonblockingStoreCallback storeCallback) {
+            store.submitPutRequest(key,
+                                   versioned,
+                                   null,
+                                   storeCallback,
+                                   timeoutConfig.getOperationTimeout(VoldemortOpCode.PUT_OP_CODE));
+        }
+
+        @Override
+        protected void onSuccess(Node node, Object result) {}
+
+        @Override
+        protected Boolean getResult() {
+            return true;
+        }
+    }
+
+    private class DeleteRequest extends ReplicaRequest<Boolean> {
+
+        private final Version version;
+        private boolean deleted = false;
+
+        public DeleteRequest(ByteArray key,
+                             Version version,
+                             List<Node> nodes,
+                             AsyncCallback<Boolean> callback) {
+            super(key,
+                  nodes,
+                  nodes.size(),
+                  storeDef.getPreferredWrites(),
+                  storeDef.getRequiredWrites(),
+                  callback);
+            this.version = version;
+        }
+
+        @Override
+        protected void submit(Node node,
+                              NonblockingStore store,
+                              NonblockingStoreCallback storeCallback) {
+            store.submitDeleteRequest(key,
+                                      version,
+                                      storeCallback,
+                                      timeoutConfig.getOperationTimeout(VoldemortOpCode.DELETE_OP_CODE));
+        }
+
+        @Override
+        protected void onSuccess(Node node, Object result) {
+            deleted |= (Boolean) result;
+        }
+
+        @Override
+        protected synchronized Boolean getResult() {
+            return deleted;
+        }
+    }
+}
@@ -34,6 +34,7 @@ import voldemort.store.Store;
 import voldemort.store.StoreCapabilityType;
 import voldemort.utils.JmxUtils;
 import voldemort.utils.Utils;
+import voldemort.versioning.AutoVersionedClock;
 import voldemort.versioning.InconsistencyResolver;
 import voldemort.versioning.InconsistentDataException;
 import voldemort.versioning.ObsoleteVersionException;
@@ -62,15 +63,30 @@ public class DefaultStoreClient<K, V> implements StoreClient<K, V> {
     protected String storeName;
     protected InconsistencyResolver<Versioned<V>> resolver;
     protected volatile Store<K, V, Object> store;
+    protected boolean serverSideVersioning;
 
     public DefaultStoreClient(String storeName,
                               InconsistencyResolver<Versioned<V>> resolver,
                               StoreClientFactory storeFactory,
                               int maxMetadataRefreshAttempts) {
+        this(storeName, resolver, storeFactory, maxMetadataRefreshAttempts, false);
+    }
+
+    /**
+     * @param serverSideVersioning If true {@link #put(Object, Object)} lets
+     *        the master node resolve the version instead of fetching the
+     *        current versions first
+     */
+    public DefaultStoreClient(String storeName,
+                              InconsistencyResolver<Versioned<V>> resolver,
+                              StoreClientFactory storeFactory,
+                              int maxMetadataRefreshAttempts,
+                              boolean serverSideVersioning) {
         this.storeName = Utils.notNull(storeName);
         this.resolver = resolver;
         this.storeFactory = Utils.notNull(storeFactory);
         this.metadataRefreshAttempts = maxMetadataRefreshAttempts;
+        this.serverSideVersioning = serverSideVersioning;
 
         // Registering self to be able to bootstrap client dynamically via JMX
         JmxUtils.registerMbean(this,
@@ -210,6 +226,9 @@ public class DefaultStoreClient<K, V> implements StoreClient<K, V> {
     }
 
     public Version put(K key, V value) {
+        if(serverSideVersioning)
+            return putAutoVersion(key, value);
+
         List<Version> versions = getVersions(key);
         Versioned<V> versioned;
         if(versions.isEmpty())
@@ -226,6 +245,18 @@ public class DefaultStoreClient<K, V> implements StoreClient<K, V> {
         return put(key, versioned);
     }
 
+    /*
+     * A single routed put, the master node merges the versions it holds and
+     * increments the clock for itself
+     */
+    private Version putAutoVersion(K key, V value) {
+        AutoVersionedClock clock = new AutoVersionedClock();
+        put(key, Versioned.value(value, clock));
+        // Stores that do not know about auto versioning treat it as any clock
+        VectorClock assigned = clock.getAssigned();
+        return assigned != null ? assigned : clock.clone();
+    }
+
     public Version put(K key, Versioned<V> versioned, Object transform)
             throws ObsoleteVersionException {
         for(int attempts = 0; attempts < this.metadataRefreshAttempts; attempts++) {
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.client;
+
+import voldemort.versioning.Versioned;
+
+/**
+ * Receives the values of a streaming getAll, see
+ * {@link AsyncStoreClient#getAllStreaming(Iterable, GetAllCallback)}. Each key
+ * is either completed or failed once, as soon as its replicas have answered,
+ * and {@link #completed()} is called after every key.
+ * 
+ * @param <K> The type of the key being stored
+ * @param <V> The type of the value being stored
+ */
+public interface GetAllCallback<K, V> {
+
+    /**
+     * The value of a key was read
+     * 
+     * @param key The key
+     * @param value The versioned value, or null if no value is stored for the
+     *        key
+     */
+    public void keyCompleted(K key, Versioned<V> value);
+
+    /**
+     * The value of a key could not be read
+     * 
+     * @param key The key
+     * @param e The reason
+     */
+    public void keyFailed(K key, Exception e);
+
+    /**
+     * Every key has been completed or failed
+     */
+    public void completed();
+}
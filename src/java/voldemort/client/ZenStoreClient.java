@@ -95,6 +95,7 @@ public class ZenStoreClient<K, V> extends DefaultStoreClient<K, V> {
                                          config);
         this.clientId = generateClientId(clientInfo);
         this.config = config;
+        this.serverSideVersioning = config != null && config.isServerSideVersioningEnabled();
         this.sysRepository = new SystemStoreRepository();
         this.scheduler = scheduler;
 
@@ -80,6 +80,24 @@ public interface RequestFormat {
 
     public void readPutResponse(DataInputStream stream) throws IOException;
 
+    /**
+     * Writes a put whose version is assigned by the server: the given clock
+     * is merged with the versions the server already holds for the key and
+     * incremented for the given node before the value is written.
+     */
+    public void writePutAutoVersionRequest(DataOutputStream output,
+                                           String storeName,
+                                           ByteArray key,
+                                           byte[] value,
+                                           byte[] transforms,
+                                           VectorClock version,
+                                           int nodeId,
+                                           RequestRoutingType routingType) throws IOException;
+
+    public boolean isCompletePutAutoVersionResponse(ByteBuffer buffer);
+
+    public VectorClock readPutAutoVersionResponse(DataInputStream stream) throws IOException;
+
     public void writeDeleteRequest(DataOutputStream output,
                                    String storeName,
                                    ByteArray key,
@@ -27,6 +27,8 @@ public enum RequestFormatType {
     VOLDEMORT_V2("vp2", "voldemort-native-v2"),
     VOLDEMORT_V3("vp3", "voldemort-native-v3"), // has the transforms
     // information
+    VOLDEMORT_V4("vp4", "voldemort-native-v4"), // v3 framed with request ids,
+    // allows pipelining
     PROTOCOL_BUFFERS("pb0", "protocol-buffers-v0"),
     ADMIN_PROTOCOL_BUFFERS("ad1", "admin-v1");
 
@@ -46,6 +48,14 @@ public enum RequestFormatType {
         return this.displayName;
     }
 
+    /**
+     * Returns true if requests in this format carry a request id and length,
+     * allowing several of them to be in flight on the same connection.
+     */
+    public boolean isPipelined() {
+        return this == VOLDEMORT_V4;
+    }
+
     public static RequestFormatType fromCode(String code) {
         for(RequestFormatType type: RequestFormatType.values())
             if(type.getCode().equals(code))
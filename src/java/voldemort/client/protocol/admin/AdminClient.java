@@ -96,6 +96,7 @@ import voldemort.xml.ClusterMapper;
 import voldemort.xml.StoreDefinitionsMapper;
 
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -369,38 +370,47 @@ public class AdminClient {
 
         try {
             if(entryIterator.hasNext()) {
+                StreamBlock block = null;
+                if(adminClientConfig.getStreamBlockEntries() > 1)
+                    block = new StreamBlock(adminClientConfig.getStreamBlockEntries(),
+                                            adminClientConfig.getStreamBlockCompression());
                 while(entryIterator.hasNext()) {
                     Pair<ByteArray, Versioned<byte[]>> entry = entryIterator.next();
                     VAdminProto.PartitionEntry partitionEntry = VAdminProto.PartitionEntry.newBuilder()
                                                                                           .setKey(ProtoUtils.encodeBytes(entry.getFirst()))
                                                                                           .setVersioned(ProtoUtils.encodeVersioned(entry.getSecond()))
                                                                                           .build();
-                    VAdminProto.UpdatePartitionEntriesRequest.Builder updateRequest = VAdminProto.UpdatePartitionEntriesRequest.newBuilder()
-                                                                                                                               .setStore(storeName)
-                                                                                                                               .setPartitionEntry(partitionEntry);
                     entryCount++;
-                    if(firstMessage) {
-                        if(filter != null) {
-                            updateRequest.setFilter(encodeFilter(filter));
-                        }
-
-                        ProtoUtils.writeMessage(outputStream,
-                                                VAdminProto.VoldemortAdminRequest.newBuilder()
-                                                                                 .setType(VAdminProto.AdminRequestType.UPDATE_PARTITION_ENTRIES)
-                                                                                 .setUpdatePartitionEntries(updateRequest)
-                                                                                 .build());
-                        outputStream.flush();
+                    if(block == null) {
+                        writeUpdateRequest(outputStream,
+                                           VAdminProto.UpdatePartitionEntriesRequest.newBuilder()
+                                                                                    .setStore(storeName)
+                                                                                    .setPartitionEntry(partitionEntry),
+                                           firstMessage ? filter : null,
+                                           firstMessage);
                         firstMessage = false;
                     } else {
-                        ProtoUtils.writeMessage(outputStream, updateRequest.build());
-                        if(printStatsTimer <= System.currentTimeMillis()
-                           || 0 == entryCount % PRINT_STATS_THRESHOLD) {
-                            logger.info("UpdatePartitionEntries: fetched " + entryCount
-                                        + " to node " + nodeId + " for store " + storeName);
-                            printStatsTimer = System.currentTimeMillis() + PRINT_STATS_INTERVAL;
+                        block.add(partitionEntry);
+                        if(block.isFull()) {
+                            writeUpdateRequest(outputStream,
+                                               encodeUpdateBlock(storeName, block),
+                                               firstMessage ? filter : null,
+                                               firstMessage);
+                            firstMessage = false;
                         }
                     }
+                    if(printStatsTimer <= System.currentTimeMillis()
+                       || 0 == entryCount % PRINT_STATS_THRESHOLD) {
+                        logger.info("UpdatePartitionEntries: fetched " + entryCount + " to node "
+                                    + nodeId + " for store " + storeName);
+                        printStatsTimer = System.currentTimeMillis() + PRINT_STATS_INTERVAL;
+                    }
                 }
+                if(block != null && !block.isEmpty())
+                    writeUpdateRequest(outputStream,
+                                       encodeUpdateBlock(storeName, block),
+                                       firstMessage ? filter : null,
+                                       firstMessage);
                 ProtoUtils.writeEndOfStream(outputStream);
                 outputStream.flush();
                 VAdminProto.UpdatePartitionEntriesResponse.Builder updateResponse = ProtoUtils.readToBuilder(inputStream,
@@ -417,6 +427,41 @@ public class AdminClient {
         }
     }
 
+    private VAdminProto.UpdatePartitionEntriesRequest.Builder encodeUpdateBlock(String storeName,
+                                                                                StreamBlock block)
+            throws IOException {
+        VAdminProto.UpdatePartitionEntriesRequest.Builder updateRequest = VAdminProto.UpdatePartitionEntriesRequest.newBuilder()
+                                                                                                                   .setStore(storeName)
+                                                                                                                   .setEntryBlock(block.finish());
+        if(block.getCompressionType() != null)
+            updateRequest.setBlockCompression(block.getCompressionType());
+        return updateRequest;
+    }
+
+    /*
+     * The first message of the stream says what the request is and carries
+     * the filter, the rest only carry entries
+     */
+    private void writeUpdateRequest(DataOutputStream outputStream,
+                                    VAdminProto.UpdatePartitionEntriesRequest.Builder updateRequest,
+                                    VoldemortFilter filter,
+                                    boolean firstMessage) throws IOException {
+        if(firstMessage) {
+            if(filter != null) {
+                updateRequest.setFilter(encodeFilter(filter));
+            }
+
+            ProtoUtils.writeMessage(outputStream,
+                                    VAdminProto.VoldemortAdminRequest.newBuilder()
+                                                                     .setType(VAdminProto.AdminRequestType.UPDATE_PARTITION_ENTRIES)
+                                                                     .setUpdatePartitionEntries(updateRequest)
+                                                                     .build());
+            outputStream.flush();
+        } else {
+            ProtoUtils.writeMessage(outputStream, updateRequest.build());
+        }
+    }
+
     private void initiateFetchRequest(DataOutputStream outputStream,
                                       String storeName,
                                       HashMap<Integer, List<Integer>> replicaToPartitionList,
@@ -440,6 +485,11 @@ public class AdminClient {
                                                                                                                 .addAllReplicaToPartition(ProtoUtils.encodePartitionTuple(filteredReplicaToPartitionList))
                                                                                                                 .setStore(storeName)
                                                                                                                 .setSkipRecords(skipRecords);
+        if(adminClientConfig.getStreamBlockEntries() > 1) {
+            fetchRequest.setMaxBlockEntries(adminClientConfig.getStreamBlockEntries());
+            if(adminClientConfig.getStreamBlockCompression() != null)
+                fetchRequest.setBlockCompression(adminClientConfig.getStreamBlockCompression());
+        }
 
         try {
             if(filter != null) {
@@ -473,6 +523,14 @@ public class AdminClient {
         return response.build();
     }
 
+    private String getBlockCompression(VAdminProto.FetchPartitionEntriesResponse response) {
+        String compressionType = response.hasBlockCompression() ? response.getBlockCompression()
+                                                                : null;
+        if(!StreamBlock.isSupportedCompression(compressionType))
+            throw new VoldemortException("Unsupported block compression " + compressionType);
+        return compressionType;
+    }
+
     /**
      * Legacy interface for fetching entries. See
      * {@link AdminClient#fetchEntries(int, String, HashMap, VoldemortFilter, boolean, Cluster, long)}
@@ -587,24 +645,35 @@ public class AdminClient {
 
         return new AbstractIterator<Pair<ByteArray, Versioned<byte[]>>>() {
 
+            private Iterator<VAdminProto.PartitionEntry> block = Iterators.emptyIterator();
+
             @Override
             public Pair<ByteArray, Versioned<byte[]>> computeNext() {
                 try {
-                    int size = inputStream.readInt();
-                    if(size == -1) {
-                        pool.checkin(destination, sands);
-                        return endOfData();
-                    }
+                    while(!block.hasNext()) {
+                        int size = inputStream.readInt();
+                        if(size == -1) {
+                            pool.checkin(destination, sands);
+                            return endOfData();
+                        }
 
-                    VAdminProto.FetchPartitionEntriesResponse response = responseFromStream(inputStream,
-                                                                                            size);
+                        VAdminProto.FetchPartitionEntriesResponse response = responseFromStream(inputStream,
+                                                                                                size);
 
-                    if(response.hasError()) {
-                        pool.checkin(destination, sands);
-                        throwException(response.getError());
+                        if(response.hasError()) {
+                            pool.checkin(destination, sands);
+                            throwException(response.getError());
+                        }
+
+                        if(response.hasEntryBlock())
+                            block = StreamBlock.decodeEntries(response.getEntryBlock(),
+                                                              getBlockCompression(response))
+                                               .iterator();
+                        else
+                            block = Iterators.singletonIterator(response.getPartitionEntry());
                     }
 
-                    VAdminProto.PartitionEntry partitionEntry = response.getPartitionEntry();
+                    VAdminProto.PartitionEntry partitionEntry = block.next();
 
                     return Pair.create(ProtoUtils.decodeBytes(partitionEntry.getKey()),
                                        ProtoUtils.decodeVersioned(partitionEntry.getVersioned()));
@@ -778,24 +847,35 @@ public class AdminClient {
 
         return new AbstractIterator<ByteArray>() {
 
+            private Iterator<ByteString> block = Iterators.emptyIterator();
+
             @Override
             public ByteArray computeNext() {
                 try {
-                    int size = inputStream.readInt();
-                    if(size == -1) {
-                        pool.checkin(destination, sands);
-                        return endOfData();
-                    }
+                    while(!block.hasNext()) {
+                        int size = inputStream.readInt();
+                        if(size == -1) {
+                            pool.checkin(destination, sands);
+                            return endOfData();
+                        }
+
+                        VAdminProto.FetchPartitionEntriesResponse response = responseFromStream(inputStream,
+                                                                                                size);
 
-                    VAdminProto.FetchPartitionEntriesResponse response = responseFromStream(inputStream,
-                                                                                            size);
+                        if(response.hasError()) {
+                            pool.checkin(destination, sands);
+                            throwException(response.getError());
+                        }
 
-                    if(response.hasError()) {
-                        pool.checkin(destination, sands);
-                        throwException(response.getError());
+                        if(response.hasEntryBlock())
+                            block = StreamBlock.decodeKeys(response.getEntryBlock(),
+                                                           getBlockCompression(response))
+                                               .iterator();
+                        else
+                            block = Iterators.singletonIterator(response.getKey());
                     }
 
-                    return ProtoUtils.decodeBytes(response.getKey());
+                    return ProtoUtils.decodeBytes(block.next());
                 } catch(IOException e) {
                     close(sands.getSocket());
                     pool.checkin(destination, sands);
@@ -919,7 +999,7 @@ public class AdminClient {
         // current node list, find its replica
         for(Node node: cluster.getNodes()) {
             for(int partitionId: node.getPartitionIds()) {
-                List<Integer> replicatingPartitions = strategy.getReplicatingPartitionList(partitionId);
+                List<Integer> replicatingPartitions = Lists.newArrayList(strategy.getReplicatingPartitionList(partitionId));
                 List<Integer> extraCopyReplicatingPartitions = Lists.newArrayList(replicatingPartitions);
 
                 if(replicatingPartitions.size() <= 1) {
@@ -20,6 +20,8 @@ public class AdminClientConfig {
     private volatile boolean adminSocketKeepAlive = false;
     private volatile int restoreDataTimeoutSec = 365 * 24 * 60 * 60;
     private volatile int maxBackoffDelayMs = 60 * 1000;
+    private volatile int streamBlockEntries = 1;
+    private volatile String streamBlockCompression = null;
 
     public static final String MAX_CONNECTIONS_PER_NODE_PROPERTY = "max_connections";
     public static final String MAX_TOTAL_CONNECTIONS_PROPERTY = "max_total_connections";
@@ -31,6 +33,8 @@ public class AdminClientConfig {
     public static final String ADMIN_SOCKET_KEEPALIVE_PROPERTY = "admin_socket_keepalive";
     public static final String RESTORE_DATA_TIMEOUT_SEC = "restore.data.timeout.sec";
     public static final String MAX_BACKOFF_DELAY_MS = "max.backoff.delay.ms";
+    public static final String STREAM_BLOCK_ENTRIES_PROPERTY = "stream_block_entries";
+    public static final String STREAM_BLOCK_COMPRESSION_PROPERTY = "stream_block_compression";
 
     // sets better default for AdminClient
     public AdminClientConfig() {
@@ -63,6 +67,12 @@ public class AdminClientConfig {
 
         if(props.containsKey(MAX_BACKOFF_DELAY_MS))
             this.setMaxBackoffDelayMs(props.getInt(MAX_BACKOFF_DELAY_MS));
+
+        if(props.containsKey(STREAM_BLOCK_ENTRIES_PROPERTY))
+            this.setStreamBlockEntries(props.getInt(STREAM_BLOCK_ENTRIES_PROPERTY));
+
+        if(props.containsKey(STREAM_BLOCK_COMPRESSION_PROPERTY))
+            this.setStreamBlockCompression(props.getString(STREAM_BLOCK_COMPRESSION_PROPERTY));
     }
 
     /* Propery names for propery-based configuration */
@@ -148,4 +158,43 @@ public class AdminClientConfig {
     public int getRestoreDataTimeoutSec() {
         return restoreDataTimeoutSec;
     }
+
+    public int getStreamBlockEntries() {
+        return streamBlockEntries;
+    }
+
+    /**
+     * The most entries to pack into one message when fetching or updating
+     * entries. Fetches ask the server for blocks of entries, and get one
+     * message per entry from servers that do not support them. Updates send
+     * blocks without asking, so this must only be set above 1 once every
+     * server supports them.
+     * 
+     * @param streamBlockEntries The most entries per message, 1 for one
+     *        message per entry
+     */
+    public AdminClientConfig setStreamBlockEntries(int streamBlockEntries) {
+        if(streamBlockEntries < 1)
+            throw new IllegalArgumentException("At least one entry per message is needed.");
+        this.streamBlockEntries = streamBlockEntries;
+        return this;
+    }
+
+    public String getStreamBlockCompression() {
+        return streamBlockCompression;
+    }
+
+    /**
+     * The compression of the blocks of entries, see
+     * {@link #setStreamBlockEntries(int)}
+     * 
+     * @param streamBlockCompression gzip, lzf or snappy, or null for none
+     */
+    public AdminClientConfig setStreamBlockCompression(String streamBlockCompression) {
+        if(!StreamBlock.isSupportedCompression(streamBlockCompression))
+            throw new IllegalArgumentException("Unsupported compression "
+                                               + streamBlockCompression);
+        this.streamBlockCompression = streamBlockCompression;
+        return this;
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.client.protocol.admin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import voldemort.annotations.concurrency.NotThreadsafe;
+import voldemort.client.protocol.pb.VAdminProto;
+import voldemort.serialization.Compression;
+import voldemort.store.compress.CompressionStrategy;
+import voldemort.store.compress.CompressionStrategyFactory;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+/**
+ * Packs the entries or keys of an admin stream into blocks, so that many of
+ * them go out in one message instead of one message each. A block holds its
+ * entries one after another, each preceded by its length, and the whole block
+ * can be compressed with any of the compression types stores support.
+ * <p/>
+ * A fetch asks for blocks with the most entries and the compression it wants,
+ * and the server answers with blocks only if it understands them, saying which
+ * compression it used. An update can only send blocks to servers that
+ * understand them.
+ */
+@NotThreadsafe
+public class StreamBlock {
+
+    /* A block is sent once its entries take this many bytes */
+    public static final int MAX_BLOCK_BYTES = 1024 * 1024;
+
+    private static final CompressionStrategyFactory compressionFactory = new CompressionStrategyFactory();
+
+    private final int maxEntries;
+    private final String compressionType;
+    private final CompressionStrategy compressionStrategy;
+    private final ByteArrayOutputStream buffer;
+    private final CodedOutputStream output;
+    private int numEntries;
+    private int numBytes;
+
+    /**
+     * @param maxEntries The most entries a block holds
+     * @param compressionType The compression to use, or null for none
+     * @throws IllegalArgumentException if the compression is not supported
+     */
+    public StreamBlock(int maxEntries, String compressionType) {
+        if(maxEntries < 1)
+            throw new IllegalArgumentException("A block must hold at least one entry.");
+        this.maxEntries = maxEntries;
+        this.compressionType = compressionType;
+        this.compressionStrategy = getCompressionStrategy(compressionType);
+        this.buffer = new ByteArrayOutputStream();
+        this.output = CodedOutputStream.newInstance(buffer);
+    }
+
+    /**
+     * @return The compression of the blocks, or null if they are not
+     *         compressed
+     */
+    public String getCompressionType() {
+        return compressionType;
+    }
+
+    public void add(VAdminProto.PartitionEntry entry) throws IOException {
+        int size = entry.getSerializedSize();
+        output.writeRawVarint32(size);
+        entry.writeTo(output);
+        added(size);
+    }
+
+    public void add(ByteString key) throws IOException {
+        output.writeRawVarint32(key.size());
+        output.writeRawBytes(key.toByteArray());
+        added(key.size());
+    }
+
+    private void added(int size) {
+        numEntries++;
+        numBytes += CodedOutputStream.computeRawVarint32Size(size) + size;
+    }
+
+    public boolean isEmpty() {
+        return numEntries == 0;
+    }
+
+    public boolean isFull() {
+        return numEntries >= maxEntries || numBytes >= MAX_BLOCK_BYTES;
+    }
+
+    /**
+     * Get the block of everything added since the last call, and start a new
+     * one
+     *
+     * @return The bytes of the block, compressed
+     */
+    public ByteString finish() throws IOException {
+        output.flush();
+        byte[] block = compressionStrategy.deflate(buffer.toByteArray());
+        buffer.reset();
+        numEntries = 0;
+        numBytes = 0;
+        return ByteString.copyFrom(block);
+    }
+
+    public static List<VAdminProto.PartitionEntry> decodeEntries(ByteString block,
+                                                                 String compressionType)
+            throws IOException {
+        CodedInputStream input = open(block, compressionType);
+        List<VAdminProto.PartitionEntry> entries = new ArrayList<VAdminProto.PartitionEntry>();
+        while(!input.isAtEnd())
+            entries.add(VAdminProto.PartitionEntry.parseFrom(input.readRawBytes(input.readRawVarint32())));
+        return entries;
+    }
+
+    public static List<ByteString> decodeKeys(ByteString block, String compressionType)
+            throws IOException {
+        CodedInputStream input = open(block, compressionType);
+        List<ByteString> keys = new ArrayList<ByteString>();
+        while(!input.isAtEnd())
+            keys.add(ByteString.copyFrom(input.readRawBytes(input.readRawVarint32())));
+        return keys;
+    }
+
+    private static CodedInputStream open(ByteString block, String compressionType)
+            throws IOException {
+        byte[] data = getCompressionStrategy(compressionType).inflate(block.toByteArray());
+        return CodedInputStream.newInstance(data);
+    }
+
+    /**
+     * @param compressionType A compression type, or null for none
+     * @return true if blocks can be compressed with it
+     */
+    public static boolean isSupportedCompression(String compressionType) {
+        try {
+            getCompressionStrategy(compressionType);
+            return true;
+        } catch(IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static CompressionStrategy getCompressionStrategy(String compressionType) {
+        if(compressionType == null)
+            return compressionFactory.get(null);
+        return compressionFactory.get(new Compression(compressionType, null));
+    }
+}
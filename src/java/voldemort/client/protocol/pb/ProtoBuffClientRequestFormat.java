@@ -29,6 +29,7 @@ import voldemort.client.protocol.pb.VProto.DeleteResponse;
 import voldemort.client.protocol.pb.VProto.GetAllResponse;
 import voldemort.client.protocol.pb.VProto.GetResponse;
 import voldemort.client.protocol.pb.VProto.GetVersionResponse;
+import voldemort.client.protocol.pb.VProto.PutAutoVersionResponse;
 import voldemort.client.protocol.pb.VProto.PutResponse;
 import voldemort.client.protocol.pb.VProto.RequestType;
 import voldemort.server.RequestRoutingType;
@@ -202,6 +203,46 @@ public class ProtoBuffClientRequestFormat implements RequestFormat {
             throwException(response.getError());
     }
 
+    public void writePutAutoVersionRequest(DataOutputStream output,
+                                           String storeName,
+                                           ByteArray key,
+                                           byte[] value,
+                                           byte[] transforms,
+                                           VectorClock version,
+                                           int nodeId,
+                                           RequestRoutingType routingType) throws IOException {
+        StoreUtils.assertValidKey(key);
+        VProto.PutAutoVersionRequest.Builder req = VProto.PutAutoVersionRequest.newBuilder()
+                                                                               .setKey(ByteString.copyFrom(key.get()))
+                                                                               .setVersioned(VProto.Versioned.newBuilder()
+                                                                                                             .setValue(ByteString.copyFrom(value))
+                                                                                                             .setVersion(ProtoUtils.encodeClock(version)))
+                                                                               .setNodeId(nodeId);
+        if(transforms != null)
+            req = req.setTransforms(ByteString.copyFrom(transforms));
+
+        ProtoUtils.writeMessage(output,
+                                VProto.VoldemortRequest.newBuilder()
+                                                       .setType(RequestType.PUT_AUTO_VERSION)
+                                                       .setStore(storeName)
+                                                       .setShouldRoute(routingType.equals(RequestRoutingType.ROUTED))
+                                                       .setRequestRouteType(routingType.getRoutingTypeCode())
+                                                       .setPutAutoVersion(req)
+                                                       .build());
+    }
+
+    public boolean isCompletePutAutoVersionResponse(ByteBuffer buffer) {
+        return isCompleteResponse(buffer);
+    }
+
+    public VectorClock readPutAutoVersionResponse(DataInputStream input) throws IOException {
+        PutAutoVersionResponse.Builder response = ProtoUtils.readToBuilder(input,
+                                                                           PutAutoVersionResponse.newBuilder());
+        if(response.hasError())
+            throwException(response.getError());
+        return ProtoUtils.decodeClock(response.getVersion());
+    }
+
     public void throwException(VProto.Error error) {
         throw mapper.getError((short) error.getErrorCode(), error.getErrorMessage());
     }
@@ -2176,7 +2176,7 @@ public final class VAdminProto {
     public boolean hasStore() { return hasStore; }
     public java.lang.String getStore() { return store_; }
     
-    // required .voldemort.PartitionEntry partition_entry = 2;
+    // optional .voldemort.PartitionEntry partition_entry = 2;
     public static final int PARTITION_ENTRY_FIELD_NUMBER = 2;
     private boolean hasPartitionEntry;
     private voldemort.client.protocol.pb.VAdminProto.PartitionEntry partitionEntry_;
@@ -2190,14 +2190,29 @@ public final class VAdminProto {
     public boolean hasFilter() { return hasFilter; }
     public voldemort.client.protocol.pb.VAdminProto.VoldemortFilter getFilter() { return filter_; }
     
+    // optional bytes entry_block = 4;
+    public static final int ENTRY_BLOCK_FIELD_NUMBER = 4;
+    private boolean hasEntryBlock;
+    private com.google.protobuf.ByteString entryBlock_ = com.google.protobuf.ByteString.EMPTY;
+    public boolean hasEntryBlock() { return hasEntryBlock; }
+    public com.google.protobuf.ByteString getEntryBlock() { return entryBlock_; }
+    
+    // optional string block_compression = 5;
+    public static final int BLOCK_COMPRESSION_FIELD_NUMBER = 5;
+    private boolean hasBlockCompression;
+    private java.lang.String blockCompression_ = "";
+    public boolean hasBlockCompression() { return hasBlockCompression; }
+    public java.lang.String getBlockCompression() { return blockCompression_; }
+    
     private void initFields() {
       partitionEntry_ = voldemort.client.protocol.pb.VAdminProto.PartitionEntry.getDefaultInstance();
       filter_ = voldemort.client.protocol.pb.VAdminProto.VoldemortFilter.getDefaultInstance();
     }
     public final boolean isInitialized() {
       if (!hasStore) return false;
-      if (!hasPartitionEntry) return false;
-      if (!getPartitionEntry().isInitialized()) return false;
+      if (hasPartitionEntry()) {
+        if (!getPartitionEntry().isInitialized()) return false;
+      }
       if (hasFilter()) {
         if (!getFilter().isInitialized()) return false;
       }
@@ -2216,6 +2231,12 @@ public final class VAdminProto {
       if (hasFilter()) {
         output.writeMessage(3, getFilter());
       }
+      if (hasEntryBlock()) {
+        output.writeBytes(4, getEntryBlock());
+      }
+      if (hasBlockCompression()) {
+        output.writeString(5, getBlockCompression());
+      }
       getUnknownFields().writeTo(output);
     }
     
@@ -2237,6 +2258,14 @@ public final class VAdminProto {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(3, getFilter());
       }
+      if (hasEntryBlock()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(4, getEntryBlock());
+      }
+      if (hasBlockCompression()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeStringSize(5, getBlockCompression());
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -2404,6 +2433,12 @@ public final class VAdminProto {
         if (other.hasFilter()) {
           mergeFilter(other.getFilter());
         }
+        if (other.hasEntryBlock()) {
+          setEntryBlock(other.getEntryBlock());
+        }
+        if (other.hasBlockCompression()) {
+          setBlockCompression(other.getBlockCompression());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -2451,6 +2486,14 @@ public final class VAdminProto {
               setFilter(subBuilder.buildPartial());
               break;
             }
+            case 34: {
+              setEntryBlock(input.readBytes());
+              break;
+            }
+            case 42: {
+              setBlockCompression(input.readString());
+              break;
+            }
           }
         }
       }
@@ -2477,7 +2520,7 @@ public final class VAdminProto {
         return this;
       }
       
-      // required .voldemort.PartitionEntry partition_entry = 2;
+      // optional .voldemort.PartitionEntry partition_entry = 2;
       public boolean hasPartitionEntry() {
         return result.hasPartitionEntry();
       }
@@ -2551,6 +2594,48 @@ public final class VAdminProto {
         return this;
       }
       
+      // optional bytes entry_block = 4;
+      public boolean hasEntryBlock() {
+        return result.hasEntryBlock();
+      }
+      public com.google.protobuf.ByteString getEntryBlock() {
+        return result.getEntryBlock();
+      }
+      public Builder setEntryBlock(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  result.hasEntryBlock = true;
+        result.entryBlock_ = value;
+        return this;
+      }
+      public Builder clearEntryBlock() {
+        result.hasEntryBlock = false;
+        result.entryBlock_ = getDefaultInstance().getEntryBlock();
+        return this;
+      }
+      
+      // optional string block_compression = 5;
+      public boolean hasBlockCompression() {
+        return result.hasBlockCompression();
+      }
+      public java.lang.String getBlockCompression() {
+        return result.getBlockCompression();
+      }
+      public Builder setBlockCompression(java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  result.hasBlockCompression = true;
+        result.blockCompression_ = value;
+        return this;
+      }
+      public Builder clearBlockCompression() {
+        result.hasBlockCompression = false;
+        result.blockCompression_ = getDefaultInstance().getBlockCompression();
+        return this;
+      }
+      
       // @@protoc_insertion_point(builder_scope:voldemort.UpdatePartitionEntriesRequest)
     }
     
@@ -4500,6 +4585,20 @@ public final class VAdminProto {
     public boolean hasInitialCluster() { return hasInitialCluster; }
     public java.lang.String getInitialCluster() { return initialCluster_; }
     
+    // optional int32 max_block_entries = 7;
+    public static final int MAX_BLOCK_ENTRIES_FIELD_NUMBER = 7;
+    private boolean hasMaxBlockEntries;
+    private int maxBlockEntries_ = 0;
+    public boolean hasMaxBlockEntries() { return hasMaxBlockEntries; }
+    public int getMaxBlockEntries() { return maxBlockEntries_; }
+    
+    // optional string block_compression = 8;
+    public static final int BLOCK_COMPRESSION_FIELD_NUMBER = 8;
+    private boolean hasBlockCompression;
+    private java.lang.String blockCompression_ = "";
+    public boolean hasBlockCompression() { return hasBlockCompression; }
+    public java.lang.String getBlockCompression() { return blockCompression_; }
+    
     private void initFields() {
       filter_ = voldemort.client.protocol.pb.VAdminProto.VoldemortFilter.getDefaultInstance();
     }
@@ -4535,6 +4634,12 @@ public final class VAdminProto {
       if (hasInitialCluster()) {
         output.writeString(6, getInitialCluster());
       }
+      if (hasMaxBlockEntries()) {
+        output.writeInt32(7, getMaxBlockEntries());
+      }
+      if (hasBlockCompression()) {
+        output.writeString(8, getBlockCompression());
+      }
       getUnknownFields().writeTo(output);
     }
     
@@ -4568,6 +4673,14 @@ public final class VAdminProto {
         size += com.google.protobuf.CodedOutputStream
           .computeStringSize(6, getInitialCluster());
       }
+      if (hasMaxBlockEntries()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(7, getMaxBlockEntries());
+      }
+      if (hasBlockCompression()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeStringSize(8, getBlockCompression());
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -4751,6 +4864,12 @@ public final class VAdminProto {
         if (other.hasInitialCluster()) {
           setInitialCluster(other.getInitialCluster());
         }
+        if (other.hasMaxBlockEntries()) {
+          setMaxBlockEntries(other.getMaxBlockEntries());
+        }
+        if (other.hasBlockCompression()) {
+          setBlockCompression(other.getBlockCompression());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -4807,6 +4926,14 @@ public final class VAdminProto {
               setInitialCluster(input.readString());
               break;
             }
+            case 56: {
+              setMaxBlockEntries(input.readInt32());
+              break;
+            }
+            case 66: {
+              setBlockCompression(input.readString());
+              break;
+            }
           }
         }
       }
@@ -4978,6 +5105,45 @@ public final class VAdminProto {
         return this;
       }
       
+      // optional int32 max_block_entries = 7;
+      public boolean hasMaxBlockEntries() {
+        return result.hasMaxBlockEntries();
+      }
+      public int getMaxBlockEntries() {
+        return result.getMaxBlockEntries();
+      }
+      public Builder setMaxBlockEntries(int value) {
+        result.hasMaxBlockEntries = true;
+        result.maxBlockEntries_ = value;
+        return this;
+      }
+      public Builder clearMaxBlockEntries() {
+        result.hasMaxBlockEntries = false;
+        result.maxBlockEntries_ = 0;
+        return this;
+      }
+      
+      // optional string block_compression = 8;
+      public boolean hasBlockCompression() {
+        return result.hasBlockCompression();
+      }
+      public java.lang.String getBlockCompression() {
+        return result.getBlockCompression();
+      }
+      public Builder setBlockCompression(java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  result.hasBlockCompression = true;
+        result.blockCompression_ = value;
+        return this;
+      }
+      public Builder clearBlockCompression() {
+        result.hasBlockCompression = false;
+        result.blockCompression_ = getDefaultInstance().getBlockCompression();
+        return this;
+      }
+      
       // @@protoc_insertion_point(builder_scope:voldemort.FetchPartitionEntriesRequest)
     }
     
@@ -5038,6 +5204,20 @@ public final class VAdminProto {
     public boolean hasError() { return hasError; }
     public voldemort.client.protocol.pb.VProto.Error getError() { return error_; }
     
+    // optional bytes entry_block = 4;
+    public static final int ENTRY_BLOCK_FIELD_NUMBER = 4;
+    private boolean hasEntryBlock;
+    private com.google.protobuf.ByteString entryBlock_ = com.google.protobuf.ByteString.EMPTY;
+    public boolean hasEntryBlock() { return hasEntryBlock; }
+    public com.google.protobuf.ByteString getEntryBlock() { return entryBlock_; }
+    
+    // optional string block_compression = 5;
+    public static final int BLOCK_COMPRESSION_FIELD_NUMBER = 5;
+    private boolean hasBlockCompression;
+    private java.lang.String blockCompression_ = "";
+    public boolean hasBlockCompression() { return hasBlockCompression; }
+    public java.lang.String getBlockCompression() { return blockCompression_; }
+    
     private void initFields() {
       partitionEntry_ = voldemort.client.protocol.pb.VAdminProto.PartitionEntry.getDefaultInstance();
       error_ = voldemort.client.protocol.pb.VProto.Error.getDefaultInstance();
@@ -5064,6 +5244,12 @@ public final class VAdminProto {
       if (hasError()) {
         output.writeMessage(3, getError());
       }
+      if (hasEntryBlock()) {
+        output.writeBytes(4, getEntryBlock());
+      }
+      if (hasBlockCompression()) {
+        output.writeString(5, getBlockCompression());
+      }
       getUnknownFields().writeTo(output);
     }
     
@@ -5085,6 +5271,14 @@ public final class VAdminProto {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(3, getError());
       }
+      if (hasEntryBlock()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(4, getEntryBlock());
+      }
+      if (hasBlockCompression()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeStringSize(5, getBlockCompression());
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -5252,6 +5446,12 @@ public final class VAdminProto {
         if (other.hasError()) {
           mergeError(other.getError());
         }
+        if (other.hasEntryBlock()) {
+          setEntryBlock(other.getEntryBlock());
+        }
+        if (other.hasBlockCompression()) {
+          setBlockCompression(other.getBlockCompression());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -5299,6 +5499,14 @@ public final class VAdminProto {
               setError(subBuilder.buildPartial());
               break;
             }
+            case 34: {
+              setEntryBlock(input.readBytes());
+              break;
+            }
+            case 42: {
+              setBlockCompression(input.readString());
+              break;
+            }
           }
         }
       }
@@ -5399,6 +5607,48 @@ public final class VAdminProto {
         return this;
       }
       
+      // optional bytes entry_block = 4;
+      public boolean hasEntryBlock() {
+        return result.hasEntryBlock();
+      }
+      public com.google.protobuf.ByteString getEntryBlock() {
+        return result.getEntryBlock();
+      }
+      public Builder setEntryBlock(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  result.hasEntryBlock = true;
+        result.entryBlock_ = value;
+        return this;
+      }
+      public Builder clearEntryBlock() {
+        result.hasEntryBlock = false;
+        result.entryBlock_ = getDefaultInstance().getEntryBlock();
+        return this;
+      }
+      
+      // optional string block_compression = 5;
+      public boolean hasBlockCompression() {
+        return result.hasBlockCompression();
+      }
+      public java.lang.String getBlockCompression() {
+        return result.getBlockCompression();
+      }
+      public Builder setBlockCompression(java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  result.hasBlockCompression = true;
+        result.blockCompression_ = value;
+        return this;
+      }
+      public Builder clearBlockCompression() {
+        result.hasBlockCompression = false;
+        result.blockCompression_ = getDefaultInstance().getBlockCompression();
+        return this;
+      }
+      
       // @@protoc_insertion_point(builder_scope:voldemort.FetchPartitionEntriesResponse)
     }
     
@@ -23070,189 +23320,192 @@ public final class VAdminProto {
       ".Error\"7\n\tFileEntry\022\021\n\tfile_name\030\001 \002(\t\022\027" +
       "\n\017file_size_bytes\030\002 \002(\003\"F\n\016PartitionEntr",
       "y\022\013\n\003key\030\001 \002(\014\022\'\n\tversioned\030\002 \002(\0132\024.vold" +
-      "emort.Versioned\"\216\001\n\035UpdatePartitionEntri" +
+      "emort.Versioned\"\276\001\n\035UpdatePartitionEntri" +
       "esRequest\022\r\n\005store\030\001 \002(\t\0222\n\017partition_en" +
-      "try\030\002 \002(\0132\031.voldemort.PartitionEntry\022*\n\006" +
+      "try\030\002 \001(\0132\031.voldemort.PartitionEntry\022*\n\006" +
       "filter\030\003 \001(\0132\032.voldemort.VoldemortFilter" +
-      "\"A\n\036UpdatePartitionEntriesResponse\022\037\n\005er" +
-      "ror\030\001 \001(\0132\020.voldemort.Error\"-\n\017Voldemort" +
-      "Filter\022\014\n\004name\030\001 \002(\t\022\014\n\004data\030\002 \002(\014\"\257\001\n\030U" +
-      "pdateSlopEntriesRequest\022\r\n\005store\030\001 \002(\t\022\013" +
-      "\n\003key\030\002 \002(\014\022\'\n\007version\030\003 \002(\0132\026.voldemort",
-      ".VectorClock\022,\n\014request_type\030\004 \002(\0162\026.vol" +
-      "demort.RequestType\022\r\n\005value\030\005 \001(\014\022\021\n\ttra" +
-      "nsform\030\006 \001(\014\"<\n\031UpdateSlopEntriesRespons" +
-      "e\022\037\n\005error\030\001 \001(\0132\020.voldemort.Error\"d\n\032Fe" +
-      "tchPartitionFilesRequest\022\r\n\005store\030\001 \002(\t\022" +
-      "7\n\024replica_to_partition\030\002 \003(\0132\031.voldemor" +
-      "t.PartitionTuple\"\327\001\n\034FetchPartitionEntri" +
-      "esRequest\0227\n\024replica_to_partition\030\001 \003(\0132" +
-      "\031.voldemort.PartitionTuple\022\r\n\005store\030\002 \002(" +
-      "\t\022*\n\006filter\030\003 \001(\0132\032.voldemort.VoldemortF",
-      "ilter\022\024\n\014fetch_values\030\004 \001(\010\022\024\n\014skip_reco" +
-      "rds\030\005 \001(\003\022\027\n\017initial_cluster\030\006 \001(\t\"\201\001\n\035F" +
-      "etchPartitionEntriesResponse\0222\n\017partitio" +
-      "n_entry\030\001 \001(\0132\031.voldemort.PartitionEntry" +
-      "\022\013\n\003key\030\002 \001(\014\022\037\n\005error\030\003 \001(\0132\020.voldemort" +
-      ".Error\"\254\001\n\035DeletePartitionEntriesRequest" +
-      "\022\r\n\005store\030\001 \002(\t\0227\n\024replica_to_partition\030" +
-      "\002 \003(\0132\031.voldemort.PartitionTuple\022*\n\006filt" +
-      "er\030\003 \001(\0132\032.voldemort.VoldemortFilter\022\027\n\017" +
-      "initial_cluster\030\004 \001(\t\"P\n\036DeletePartition",
-      "EntriesResponse\022\r\n\005count\030\001 \001(\003\022\037\n\005error\030" +
-      "\002 \001(\0132\020.voldemort.Error\"\317\001\n\035InitiateFetc" +
-      "hAndUpdateRequest\022\017\n\007node_id\030\001 \002(\005\022\r\n\005st" +
+      "\022\023\n\013entry_block\030\004 \001(\014\022\031\n\021block_compressi" +
+      "on\030\005 \001(\t\"A\n\036UpdatePartitionEntriesRespon" +
+      "se\022\037\n\005error\030\001 \001(\0132\020.voldemort.Error\"-\n\017V" +
+      "oldemortFilter\022\014\n\004name\030\001 \002(\t\022\014\n\004data\030\002 \002" +
+      "(\014\"\257\001\n\030UpdateSlopEntriesRequest\022\r\n\005store",
+      "\030\001 \002(\t\022\013\n\003key\030\002 \002(\014\022\'\n\007version\030\003 \002(\0132\026.v" +
+      "oldemort.VectorClock\022,\n\014request_type\030\004 \002" +
+      "(\0162\026.voldemort.RequestType\022\r\n\005value\030\005 \001(" +
+      "\014\022\021\n\ttransform\030\006 \001(\014\"<\n\031UpdateSlopEntrie" +
+      "sResponse\022\037\n\005error\030\001 \001(\0132\020.voldemort.Err" +
+      "or\"d\n\032FetchPartitionFilesRequest\022\r\n\005stor" +
+      "e\030\001 \002(\t\0227\n\024replica_to_partition\030\002 \003(\0132\031." +
+      "voldemort.PartitionTuple\"\215\002\n\034FetchPartit" +
+      "ionEntriesRequest\0227\n\024replica_to_partitio" +
+      "n\030\001 \003(\0132\031.voldemort.PartitionTuple\022\r\n\005st",
       "ore\030\002 \002(\t\022*\n\006filter\030\003 \001(\0132\032.voldemort.Vo" +
-      "ldemortFilter\0227\n\024replica_to_partition\030\004 " +
-      "\003(\0132\031.voldemort.PartitionTuple\022\027\n\017initia" +
-      "l_cluster\030\005 \001(\t\022\020\n\010optimize\030\006 \001(\010\"1\n\033Asy" +
-      "ncOperationStatusRequest\022\022\n\nrequest_id\030\001" +
-      " \002(\005\"/\n\031AsyncOperationStopRequest\022\022\n\nreq" +
-      "uest_id\030\001 \002(\005\"=\n\032AsyncOperationStopRespo",
-      "nse\022\037\n\005error\030\001 \001(\0132\020.voldemort.Error\"2\n\031" +
-      "AsyncOperationListRequest\022\025\n\rshow_comple" +
-      "te\030\002 \002(\010\"R\n\032AsyncOperationListResponse\022\023" +
-      "\n\013request_ids\030\001 \003(\005\022\037\n\005error\030\002 \001(\0132\020.vol" +
-      "demort.Error\":\n\016PartitionTuple\022\024\n\014replic" +
-      "a_type\030\001 \002(\005\022\022\n\npartitions\030\002 \003(\005\"e\n\026PerS" +
-      "torePartitionTuple\022\022\n\nstore_name\030\001 \002(\t\0227" +
-      "\n\024replica_to_partition\030\002 \003(\0132\031.voldemort" +
-      ".PartitionTuple\"\370\001\n\031RebalancePartitionIn" +
-      "foMap\022\022\n\nstealer_id\030\001 \002(\005\022\020\n\010donor_id\030\002 ",
-      "\002(\005\022\017\n\007attempt\030\003 \002(\005\022C\n\030replica_to_add_p" +
-      "artition\030\004 \003(\0132!.voldemort.PerStoreParti" +
-      "tionTuple\022F\n\033replica_to_delete_partition" +
-      "\030\005 \003(\0132!.voldemort.PerStorePartitionTupl" +
-      "e\022\027\n\017initial_cluster\030\006 \002(\t\"f\n\034InitiateRe" +
-      "balanceNodeRequest\022F\n\030rebalance_partitio" +
-      "n_info\030\001 \002(\0132$.voldemort.RebalancePartit" +
-      "ionInfoMap\"m\n#InitiateRebalanceNodeOnDon" +
-      "orRequest\022F\n\030rebalance_partition_info\030\001 " +
-      "\003(\0132$.voldemort.RebalancePartitionInfoMa",
-      "p\"\212\001\n\034AsyncOperationStatusResponse\022\022\n\nre" +
-      "quest_id\030\001 \001(\005\022\023\n\013description\030\002 \001(\t\022\016\n\006s" +
-      "tatus\030\003 \001(\t\022\020\n\010complete\030\004 \001(\010\022\037\n\005error\030\005" +
-      " \001(\0132\020.voldemort.Error\"\'\n\026TruncateEntrie" +
-      "sRequest\022\r\n\005store\030\001 \002(\t\":\n\027TruncateEntri" +
-      "esResponse\022\037\n\005error\030\001 \001(\0132\020.voldemort.Er" +
-      "ror\"*\n\017AddStoreRequest\022\027\n\017storeDefinitio" +
-      "n\030\001 \002(\t\"3\n\020AddStoreResponse\022\037\n\005error\030\001 \001" +
-      "(\0132\020.voldemort.Error\"\'\n\022DeleteStoreReque" +
-      "st\022\021\n\tstoreName\030\001 \002(\t\"6\n\023DeleteStoreResp",
-      "onse\022\037\n\005error\030\001 \001(\0132\020.voldemort.Error\"P\n" +
-      "\021FetchStoreRequest\022\022\n\nstore_name\030\001 \002(\t\022\021" +
-      "\n\tstore_dir\030\002 \002(\t\022\024\n\014push_version\030\003 \001(\003\"" +
-      "9\n\020SwapStoreRequest\022\022\n\nstore_name\030\001 \002(\t\022" +
-      "\021\n\tstore_dir\030\002 \002(\t\"P\n\021SwapStoreResponse\022" +
-      "\037\n\005error\030\001 \001(\0132\020.voldemort.Error\022\032\n\022prev" +
-      "ious_store_dir\030\002 \001(\t\"@\n\024RollbackStoreReq" +
-      "uest\022\022\n\nstore_name\030\001 \002(\t\022\024\n\014push_version" +
-      "\030\002 \002(\003\"8\n\025RollbackStoreResponse\022\037\n\005error" +
-      "\030\001 \001(\0132\020.voldemort.Error\"&\n\020RepairJobReq",
-      "uest\022\022\n\nstore_name\030\001 \001(\t\"4\n\021RepairJobRes" +
-      "ponse\022\037\n\005error\030\001 \001(\0132\020.voldemort.Error\"=" +
-      "\n\024ROStoreVersionDirMap\022\022\n\nstore_name\030\001 \002" +
-      "(\t\022\021\n\tstore_dir\030\002 \002(\t\"/\n\031GetROMaxVersion" +
-      "DirRequest\022\022\n\nstore_name\030\001 \003(\t\"y\n\032GetROM" +
-      "axVersionDirResponse\022:\n\021ro_store_version" +
-      "s\030\001 \003(\0132\037.voldemort.ROStoreVersionDirMap" +
-      "\022\037\n\005error\030\002 \001(\0132\020.voldemort.Error\"3\n\035Get" +
-      "ROCurrentVersionDirRequest\022\022\n\nstore_name" +
-      "\030\001 \003(\t\"}\n\036GetROCurrentVersionDirResponse",
-      "\022:\n\021ro_store_versions\030\001 \003(\0132\037.voldemort." +
-      "ROStoreVersionDirMap\022\037\n\005error\030\002 \001(\0132\020.vo" +
-      "ldemort.Error\"/\n\031GetROStorageFormatReque" +
-      "st\022\022\n\nstore_name\030\001 \003(\t\"y\n\032GetROStorageFo" +
-      "rmatResponse\022:\n\021ro_store_versions\030\001 \003(\0132" +
-      "\037.voldemort.ROStoreVersionDirMap\022\037\n\005erro" +
-      "r\030\002 \001(\0132\020.voldemort.Error\"@\n\027FailedFetch" +
-      "StoreRequest\022\022\n\nstore_name\030\001 \002(\t\022\021\n\tstor" +
-      "e_dir\030\002 \002(\t\";\n\030FailedFetchStoreResponse\022" +
-      "\037\n\005error\030\001 \001(\0132\020.voldemort.Error\"\346\001\n\033Reb",
-      "alanceStateChangeRequest\022K\n\035rebalance_pa" +
-      "rtition_info_list\030\001 \003(\0132$.voldemort.Reba" +
-      "lancePartitionInfoMap\022\026\n\016cluster_string\030" +
-      "\002 \002(\t\022\017\n\007swap_ro\030\003 \002(\010\022\037\n\027change_cluster" +
-      "_metadata\030\004 \002(\010\022\036\n\026change_rebalance_stat" +
-      "e\030\005 \002(\010\022\020\n\010rollback\030\006 \002(\010\"?\n\034RebalanceSt" +
-      "ateChangeResponse\022\037\n\005error\030\001 \001(\0132\020.volde" +
-      "mort.Error\"G\n DeleteStoreRebalanceStateR" +
-      "equest\022\022\n\nstore_name\030\001 \002(\t\022\017\n\007node_id\030\002 " +
-      "\002(\005\"D\n!DeleteStoreRebalanceStateResponse",
-      "\022\037\n\005error\030\001 \001(\0132\020.voldemort.Error\"h\n\023Nat" +
-      "iveBackupRequest\022\022\n\nstore_name\030\001 \002(\t\022\022\n\n" +
-      "backup_dir\030\002 \002(\t\022\024\n\014verify_files\030\003 \002(\010\022\023" +
-      "\n\013incremental\030\004 \002(\010\">\n\024ReserveMemoryRequ" +
-      "est\022\022\n\nstore_name\030\001 \002(\t\022\022\n\nsize_in_mb\030\002 " +
-      "\002(\003\"8\n\025ReserveMemoryResponse\022\037\n\005error\030\001 " +
-      "\001(\0132\020.voldemort.Error\"\360\016\n\025VoldemortAdmin" +
-      "Request\022)\n\004type\030\001 \002(\0162\033.voldemort.AdminR" +
-      "equestType\0223\n\014get_metadata\030\002 \001(\0132\035.volde" +
-      "mort.GetMetadataRequest\0229\n\017update_metada",
-      "ta\030\003 \001(\0132 .voldemort.UpdateMetadataReque" +
-      "st\022J\n\030update_partition_entries\030\004 \001(\0132(.v" +
-      "oldemort.UpdatePartitionEntriesRequest\022H" +
-      "\n\027fetch_partition_entries\030\005 \001(\0132\'.voldem" +
-      "ort.FetchPartitionEntriesRequest\022J\n\030dele" +
-      "te_partition_entries\030\006 \001(\0132(.voldemort.D" +
-      "eletePartitionEntriesRequest\022K\n\031initiate" +
-      "_fetch_and_update\030\007 \001(\0132(.voldemort.Init" +
-      "iateFetchAndUpdateRequest\022F\n\026async_opera" +
-      "tion_status\030\010 \001(\0132&.voldemort.AsyncOpera",
-      "tionStatusRequest\022H\n\027initiate_rebalance_" +
-      "node\030\t \001(\0132\'.voldemort.InitiateRebalance" +
-      "NodeRequest\022B\n\024async_operation_stop\030\n \001(" +
-      "\0132$.voldemort.AsyncOperationStopRequest\022" +
-      "B\n\024async_operation_list\030\013 \001(\0132$.voldemor" +
-      "t.AsyncOperationListRequest\022;\n\020truncate_" +
-      "entries\030\014 \001(\0132!.voldemort.TruncateEntrie" +
-      "sRequest\022-\n\tadd_store\030\r \001(\0132\032.voldemort." +
-      "AddStoreRequest\0223\n\014delete_store\030\016 \001(\0132\035." +
-      "voldemort.DeleteStoreRequest\0221\n\013fetch_st",
-      "ore\030\017 \001(\0132\034.voldemort.FetchStoreRequest\022" +
-      "/\n\nswap_store\030\020 \001(\0132\033.voldemort.SwapStor" +
-      "eRequest\0227\n\016rollback_store\030\021 \001(\0132\037.volde" +
-      "mort.RollbackStoreRequest\022D\n\026get_ro_max_" +
-      "version_dir\030\022 \001(\0132$.voldemort.GetROMaxVe" +
-      "rsionDirRequest\022L\n\032get_ro_current_versio" +
-      "n_dir\030\023 \001(\0132(.voldemort.GetROCurrentVers" +
-      "ionDirRequest\022D\n\025fetch_partition_files\030\024" +
-      " \001(\0132%.voldemort.FetchPartitionFilesRequ" +
-      "est\022@\n\023update_slop_entries\030\026 \001(\0132#.volde",
-      "mort.UpdateSlopEntriesRequest\022>\n\022failed_" +
-      "fetch_store\030\030 \001(\0132\".voldemort.FailedFetc" +
-      "hStoreRequest\022C\n\025get_ro_storage_format\030\031" +
-      " \001(\0132$.voldemort.GetROStorageFormatReque" +
-      "st\022F\n\026rebalance_state_change\030\032 \001(\0132&.vol" +
-      "demort.RebalanceStateChangeRequest\022/\n\nre" +
-      "pair_job\030\033 \001(\0132\033.voldemort.RepairJobRequ" +
-      "est\022X\n initiate_rebalance_node_on_donor\030" +
-      "\034 \001(\0132..voldemort.InitiateRebalanceNodeO" +
-      "nDonorRequest\022Q\n\034delete_store_rebalance_",
-      "state\030\035 \001(\0132+.voldemort.DeleteStoreRebal" +
-      "anceStateRequest\0225\n\rnative_backup\030\036 \001(\0132" +
-      "\036.voldemort.NativeBackupRequest\0227\n\016reser" +
-      "ve_memory\030\037 \001(\0132\037.voldemort.ReserveMemor" +
-      "yRequest*\310\005\n\020AdminRequestType\022\020\n\014GET_MET" +
-      "ADATA\020\000\022\023\n\017UPDATE_METADATA\020\001\022\034\n\030UPDATE_P" +
-      "ARTITION_ENTRIES\020\002\022\033\n\027FETCH_PARTITION_EN" +
-      "TRIES\020\003\022\034\n\030DELETE_PARTITION_ENTRIES\020\004\022\035\n" +
-      "\031INITIATE_FETCH_AND_UPDATE\020\005\022\032\n\026ASYNC_OP" +
-      "ERATION_STATUS\020\006\022\033\n\027INITIATE_REBALANCE_N",
-      "ODE\020\007\022\030\n\024ASYNC_OPERATION_STOP\020\010\022\030\n\024ASYNC" +
-      "_OPERATION_LIST\020\t\022\024\n\020TRUNCATE_ENTRIES\020\n\022" +
-      "\r\n\tADD_STORE\020\013\022\020\n\014DELETE_STORE\020\014\022\017\n\013FETC" +
-      "H_STORE\020\r\022\016\n\nSWAP_STORE\020\016\022\022\n\016ROLLBACK_ST" +
-      "ORE\020\017\022\032\n\026GET_RO_MAX_VERSION_DIR\020\020\022\036\n\032GET" +
-      "_RO_CURRENT_VERSION_DIR\020\021\022\031\n\025FETCH_PARTI" +
-      "TION_FILES\020\022\022\027\n\023UPDATE_SLOP_ENTRIES\020\024\022\026\n" +
-      "\022FAILED_FETCH_STORE\020\026\022\031\n\025GET_RO_STORAGE_" +
-      "FORMAT\020\027\022\032\n\026REBALANCE_STATE_CHANGE\020\030\022\016\n\n" +
-      "REPAIR_JOB\020\031\022$\n INITIATE_REBALANCE_NODE_",
-      "ON_DONOR\020\032\022 \n\034DELETE_STORE_REBALANCE_STA" +
-      "TE\020\033\022\021\n\rNATIVE_BACKUP\020\034\022\022\n\016RESERVE_MEMOR" +
-      "Y\020\035B-\n\034voldemort.client.protocol.pbB\013VAd" +
-      "minProtoH\001"
+      "ldemortFilter\022\024\n\014fetch_values\030\004 \001(\010\022\024\n\014s" +
+      "kip_records\030\005 \001(\003\022\027\n\017initial_cluster\030\006 \001" +
+      "(\t\022\031\n\021max_block_entries\030\007 \001(\005\022\031\n\021block_c" +
+      "ompression\030\010 \001(\t\"\261\001\n\035FetchPartitionEntri" +
+      "esResponse\0222\n\017partition_entry\030\001 \001(\0132\031.vo" +
+      "ldemort.PartitionEntry\022\013\n\003key\030\002 \001(\014\022\037\n\005e" +
+      "rror\030\003 \001(\0132\020.voldemort.Error\022\023\n\013entry_bl" +
+      "ock\030\004 \001(\014\022\031\n\021block_compression\030\005 \001(\t\"\254\001\n" +
+      "\035DeletePartitionEntriesRequest\022\r\n\005store\030",
+      "\001 \002(\t\0227\n\024replica_to_partition\030\002 \003(\0132\031.vo" +
+      "ldemort.PartitionTuple\022*\n\006filter\030\003 \001(\0132\032" +
+      ".voldemort.VoldemortFilter\022\027\n\017initial_cl" +
+      "uster\030\004 \001(\t\"P\n\036DeletePartitionEntriesRes" +
+      "ponse\022\r\n\005count\030\001 \001(\003\022\037\n\005error\030\002 \001(\0132\020.vo" +
+      "ldemort.Error\"\317\001\n\035InitiateFetchAndUpdate" +
+      "Request\022\017\n\007node_id\030\001 \002(\005\022\r\n\005store\030\002 \002(\t\022" +
+      "*\n\006filter\030\003 \001(\0132\032.voldemort.VoldemortFil" +
+      "ter\0227\n\024replica_to_partition\030\004 \003(\0132\031.vold" +
+      "emort.PartitionTuple\022\027\n\017initial_cluster\030",
+      "\005 \001(\t\022\020\n\010optimize\030\006 \001(\010\"1\n\033AsyncOperatio" +
+      "nStatusRequest\022\022\n\nrequest_id\030\001 \002(\005\"/\n\031As" +
+      "yncOperationStopRequest\022\022\n\nrequest_id\030\001 " +
+      "\002(\005\"=\n\032AsyncOperationStopResponse\022\037\n\005err" +
+      "or\030\001 \001(\0132\020.voldemort.Error\"2\n\031AsyncOpera" +
+      "tionListRequest\022\025\n\rshow_complete\030\002 \002(\010\"R" +
+      "\n\032AsyncOperationListResponse\022\023\n\013request_" +
+      "ids\030\001 \003(\005\022\037\n\005error\030\002 \001(\0132\020.voldemort.Err" +
+      "or\":\n\016PartitionTuple\022\024\n\014replica_type\030\001 \002" +
+      "(\005\022\022\n\npartitions\030\002 \003(\005\"e\n\026PerStorePartit",
+      "ionTuple\022\022\n\nstore_name\030\001 \002(\t\0227\n\024replica_" +
+      "to_partition\030\002 \003(\0132\031.voldemort.Partition" +
+      "Tuple\"\370\001\n\031RebalancePartitionInfoMap\022\022\n\ns" +
+      "tealer_id\030\001 \002(\005\022\020\n\010donor_id\030\002 \002(\005\022\017\n\007att" +
+      "empt\030\003 \002(\005\022C\n\030replica_to_add_partition\030\004" +
+      " \003(\0132!.voldemort.PerStorePartitionTuple\022" +
+      "F\n\033replica_to_delete_partition\030\005 \003(\0132!.v" +
+      "oldemort.PerStorePartitionTuple\022\027\n\017initi" +
+      "al_cluster\030\006 \002(\t\"f\n\034InitiateRebalanceNod" +
+      "eRequest\022F\n\030rebalance_partition_info\030\001 \002",
+      "(\0132$.voldemort.RebalancePartitionInfoMap" +
+      "\"m\n#InitiateRebalanceNodeOnDonorRequest\022" +
+      "F\n\030rebalance_partition_info\030\001 \003(\0132$.vold" +
+      "emort.RebalancePartitionInfoMap\"\212\001\n\034Asyn" +
+      "cOperationStatusResponse\022\022\n\nrequest_id\030\001" +
+      " \001(\005\022\023\n\013description\030\002 \001(\t\022\016\n\006status\030\003 \001(" +
+      "\t\022\020\n\010complete\030\004 \001(\010\022\037\n\005error\030\005 \001(\0132\020.vol" +
+      "demort.Error\"\'\n\026TruncateEntriesRequest\022\r" +
+      "\n\005store\030\001 \002(\t\":\n\027TruncateEntriesResponse" +
+      "\022\037\n\005error\030\001 \001(\0132\020.voldemort.Error\"*\n\017Add",
+      "StoreRequest\022\027\n\017storeDefinition\030\001 \002(\t\"3\n" +
+      "\020AddStoreResponse\022\037\n\005error\030\001 \001(\0132\020.volde" +
+      "mort.Error\"\'\n\022DeleteStoreRequest\022\021\n\tstor" +
+      "eName\030\001 \002(\t\"6\n\023DeleteStoreResponse\022\037\n\005er" +
+      "ror\030\001 \001(\0132\020.voldemort.Error\"P\n\021FetchStor" +
+      "eRequest\022\022\n\nstore_name\030\001 \002(\t\022\021\n\tstore_di" +
+      "r\030\002 \002(\t\022\024\n\014push_version\030\003 \001(\003\"9\n\020SwapSto" +
+      "reRequest\022\022\n\nstore_name\030\001 \002(\t\022\021\n\tstore_d" +
+      "ir\030\002 \002(\t\"P\n\021SwapStoreResponse\022\037\n\005error\030\001" +
+      " \001(\0132\020.voldemort.Error\022\032\n\022previous_store",
+      "_dir\030\002 \001(\t\"@\n\024RollbackStoreRequest\022\022\n\nst" +
+      "ore_name\030\001 \002(\t\022\024\n\014push_version\030\002 \002(\003\"8\n\025" +
+      "RollbackStoreResponse\022\037\n\005error\030\001 \001(\0132\020.v" +
+      "oldemort.Error\"&\n\020RepairJobRequest\022\022\n\nst" +
+      "ore_name\030\001 \001(\t\"4\n\021RepairJobResponse\022\037\n\005e" +
+      "rror\030\001 \001(\0132\020.voldemort.Error\"=\n\024ROStoreV" +
+      "ersionDirMap\022\022\n\nstore_name\030\001 \002(\t\022\021\n\tstor" +
+      "e_dir\030\002 \002(\t\"/\n\031GetROMaxVersionDirRequest" +
+      "\022\022\n\nstore_name\030\001 \003(\t\"y\n\032GetROMaxVersionD" +
+      "irResponse\022:\n\021ro_store_versions\030\001 \003(\0132\037.",
+      "voldemort.ROStoreVersionDirMap\022\037\n\005error\030" +
+      "\002 \001(\0132\020.voldemort.Error\"3\n\035GetROCurrentV" +
+      "ersionDirRequest\022\022\n\nstore_name\030\001 \003(\t\"}\n\036" +
+      "GetROCurrentVersionDirResponse\022:\n\021ro_sto" +
+      "re_versions\030\001 \003(\0132\037.voldemort.ROStoreVer" +
+      "sionDirMap\022\037\n\005error\030\002 \001(\0132\020.voldemort.Er" +
+      "ror\"/\n\031GetROStorageFormatRequest\022\022\n\nstor" +
+      "e_name\030\001 \003(\t\"y\n\032GetROStorageFormatRespon" +
+      "se\022:\n\021ro_store_versions\030\001 \003(\0132\037.voldemor" +
+      "t.ROStoreVersionDirMap\022\037\n\005error\030\002 \001(\0132\020.",
+      "voldemort.Error\"@\n\027FailedFetchStoreReque" +
+      "st\022\022\n\nstore_name\030\001 \002(\t\022\021\n\tstore_dir\030\002 \002(" +
+      "\t\";\n\030FailedFetchStoreResponse\022\037\n\005error\030\001" +
+      " \001(\0132\020.voldemort.Error\"\346\001\n\033RebalanceStat" +
+      "eChangeRequest\022K\n\035rebalance_partition_in" +
+      "fo_list\030\001 \003(\0132$.voldemort.RebalanceParti" +
+      "tionInfoMap\022\026\n\016cluster_string\030\002 \002(\t\022\017\n\007s" +
+      "wap_ro\030\003 \002(\010\022\037\n\027change_cluster_metadata\030" +
+      "\004 \002(\010\022\036\n\026change_rebalance_state\030\005 \002(\010\022\020\n" +
+      "\010rollback\030\006 \002(\010\"?\n\034RebalanceStateChangeR",
+      "esponse\022\037\n\005error\030\001 \001(\0132\020.voldemort.Error" +
+      "\"G\n DeleteStoreRebalanceStateRequest\022\022\n\n" +
+      "store_name\030\001 \002(\t\022\017\n\007node_id\030\002 \002(\005\"D\n!Del" +
+      "eteStoreRebalanceStateResponse\022\037\n\005error\030" +
+      "\001 \001(\0132\020.voldemort.Error\"h\n\023NativeBackupR" +
+      "equest\022\022\n\nstore_name\030\001 \002(\t\022\022\n\nbackup_dir" +
+      "\030\002 \002(\t\022\024\n\014verify_files\030\003 \002(\010\022\023\n\013incremen" +
+      "tal\030\004 \002(\010\">\n\024ReserveMemoryRequest\022\022\n\nsto" +
+      "re_name\030\001 \002(\t\022\022\n\nsize_in_mb\030\002 \002(\003\"8\n\025Res" +
+      "erveMemoryResponse\022\037\n\005error\030\001 \001(\0132\020.vold",
+      "emort.Error\"\360\016\n\025VoldemortAdminRequest\022)\n" +
+      "\004type\030\001 \002(\0162\033.voldemort.AdminRequestType" +
+      "\0223\n\014get_metadata\030\002 \001(\0132\035.voldemort.GetMe" +
+      "tadataRequest\0229\n\017update_metadata\030\003 \001(\0132 " +
+      ".voldemort.UpdateMetadataRequest\022J\n\030upda" +
+      "te_partition_entries\030\004 \001(\0132(.voldemort.U" +
+      "pdatePartitionEntriesRequest\022H\n\027fetch_pa" +
+      "rtition_entries\030\005 \001(\0132\'.voldemort.FetchP" +
+      "artitionEntriesRequest\022J\n\030delete_partiti" +
+      "on_entries\030\006 \001(\0132(.voldemort.DeleteParti",
+      "tionEntriesRequest\022K\n\031initiate_fetch_and" +
+      "_update\030\007 \001(\0132(.voldemort.InitiateFetchA" +
+      "ndUpdateRequest\022F\n\026async_operation_statu" +
+      "s\030\010 \001(\0132&.voldemort.AsyncOperationStatus" +
+      "Request\022H\n\027initiate_rebalance_node\030\t \001(\013" +
+      "2\'.voldemort.InitiateRebalanceNodeReques" +
+      "t\022B\n\024async_operation_stop\030\n \001(\0132$.voldem" +
+      "ort.AsyncOperationStopRequest\022B\n\024async_o" +
+      "peration_list\030\013 \001(\0132$.voldemort.AsyncOpe" +
+      "rationListRequest\022;\n\020truncate_entries\030\014 ",
+      "\001(\0132!.voldemort.TruncateEntriesRequest\022-" +
+      "\n\tadd_store\030\r \001(\0132\032.voldemort.AddStoreRe" +
+      "quest\0223\n\014delete_store\030\016 \001(\0132\035.voldemort." +
+      "DeleteStoreRequest\0221\n\013fetch_store\030\017 \001(\0132" +
+      "\034.voldemort.FetchStoreRequest\022/\n\nswap_st" +
+      "ore\030\020 \001(\0132\033.voldemort.SwapStoreRequest\0227" +
+      "\n\016rollback_store\030\021 \001(\0132\037.voldemort.Rollb" +
+      "ackStoreRequest\022D\n\026get_ro_max_version_di" +
+      "r\030\022 \001(\0132$.voldemort.GetROMaxVersionDirRe" +
+      "quest\022L\n\032get_ro_current_version_dir\030\023 \001(",
+      "\0132(.voldemort.GetROCurrentVersionDirRequ" +
+      "est\022D\n\025fetch_partition_files\030\024 \001(\0132%.vol" +
+      "demort.FetchPartitionFilesRequest\022@\n\023upd" +
+      "ate_slop_entries\030\026 \001(\0132#.voldemort.Updat" +
+      "eSlopEntriesRequest\022>\n\022failed_fetch_stor" +
+      "e\030\030 \001(\0132\".voldemort.FailedFetchStoreRequ" +
+      "est\022C\n\025get_ro_storage_format\030\031 \001(\0132$.vol" +
+      "demort.GetROStorageFormatRequest\022F\n\026reba" +
+      "lance_state_change\030\032 \001(\0132&.voldemort.Reb" +
+      "alanceStateChangeRequest\022/\n\nrepair_job\030\033",
+      " \001(\0132\033.voldemort.RepairJobRequest\022X\n ini" +
+      "tiate_rebalance_node_on_donor\030\034 \001(\0132..vo" +
+      "ldemort.InitiateRebalanceNodeOnDonorRequ" +
+      "est\022Q\n\034delete_store_rebalance_state\030\035 \001(" +
+      "\0132+.voldemort.DeleteStoreRebalanceStateR" +
+      "equest\0225\n\rnative_backup\030\036 \001(\0132\036.voldemor" +
+      "t.NativeBackupRequest\0227\n\016reserve_memory\030" +
+      "\037 \001(\0132\037.voldemort.ReserveMemoryRequest*\310" +
+      "\005\n\020AdminRequestType\022\020\n\014GET_METADATA\020\000\022\023\n" +
+      "\017UPDATE_METADATA\020\001\022\034\n\030UPDATE_PARTITION_E",
+      "NTRIES\020\002\022\033\n\027FETCH_PARTITION_ENTRIES\020\003\022\034\n" +
+      "\030DELETE_PARTITION_ENTRIES\020\004\022\035\n\031INITIATE_" +
+      "FETCH_AND_UPDATE\020\005\022\032\n\026ASYNC_OPERATION_ST" +
+      "ATUS\020\006\022\033\n\027INITIATE_REBALANCE_NODE\020\007\022\030\n\024A" +
+      "SYNC_OPERATION_STOP\020\010\022\030\n\024ASYNC_OPERATION" +
+      "_LIST\020\t\022\024\n\020TRUNCATE_ENTRIES\020\n\022\r\n\tADD_STO" +
+      "RE\020\013\022\020\n\014DELETE_STORE\020\014\022\017\n\013FETCH_STORE\020\r\022" +
+      "\016\n\nSWAP_STORE\020\016\022\022\n\016ROLLBACK_STORE\020\017\022\032\n\026G" +
+      "ET_RO_MAX_VERSION_DIR\020\020\022\036\n\032GET_RO_CURREN" +
+      "T_VERSION_DIR\020\021\022\031\n\025FETCH_PARTITION_FILES",
+      "\020\022\022\027\n\023UPDATE_SLOP_ENTRIES\020\024\022\026\n\022FAILED_FE" +
+      "TCH_STORE\020\026\022\031\n\025GET_RO_STORAGE_FORMAT\020\027\022\032" +
+      "\n\026REBALANCE_STATE_CHANGE\020\030\022\016\n\nREPAIR_JOB" +
+      "\020\031\022$\n INITIATE_REBALANCE_NODE_ON_DONOR\020\032" +
+      "\022 \n\034DELETE_STORE_REBALANCE_STATE\020\033\022\021\n\rNA" +
+      "TIVE_BACKUP\020\034\022\022\n\016RESERVE_MEMORY\020\035B-\n\034vol" +
+      "demort.client.protocol.pbB\013VAdminProtoH\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
       new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -23312,7 +23565,7 @@ public final class VAdminProto {
           internal_static_voldemort_UpdatePartitionEntriesRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_voldemort_UpdatePartitionEntriesRequest_descriptor,
-              new java.lang.String[] { "Store", "PartitionEntry", "Filter", },
+              new java.lang.String[] { "Store", "PartitionEntry", "Filter", "EntryBlock", "BlockCompression", },
               voldemort.client.protocol.pb.VAdminProto.UpdatePartitionEntriesRequest.class,
               voldemort.client.protocol.pb.VAdminProto.UpdatePartitionEntriesRequest.Builder.class);
           internal_static_voldemort_UpdatePartitionEntriesResponse_descriptor =
@@ -23360,7 +23613,7 @@ public final class VAdminProto {
           internal_static_voldemort_FetchPartitionEntriesRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_voldemort_FetchPartitionEntriesRequest_descriptor,
-              new java.lang.String[] { "ReplicaToPartition", "Store", "Filter", "FetchValues", "SkipRecords", "InitialCluster", },
+              new java.lang.String[] { "ReplicaToPartition", "Store", "Filter", "FetchValues", "SkipRecords", "InitialCluster", "MaxBlockEntries", "BlockCompression", },
               voldemort.client.protocol.pb.VAdminProto.FetchPartitionEntriesRequest.class,
               voldemort.client.protocol.pb.VAdminProto.FetchPartitionEntriesRequest.Builder.class);
           internal_static_voldemort_FetchPartitionEntriesResponse_descriptor =
@@ -23368,7 +23621,7 @@ public final class VAdminProto {
           internal_static_voldemort_FetchPartitionEntriesResponse_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_voldemort_FetchPartitionEntriesResponse_descriptor,
-              new java.lang.String[] { "PartitionEntry", "Key", "Error", },
+              new java.lang.String[] { "PartitionEntry", "Key", "Error", "EntryBlock", "BlockCompression", },
               voldemort.client.protocol.pb.VAdminProto.FetchPartitionEntriesResponse.class,
               voldemort.client.protocol.pb.VAdminProto.FetchPartitionEntriesResponse.Builder.class);
           internal_static_voldemort_DeletePartitionEntriesRequest_descriptor =
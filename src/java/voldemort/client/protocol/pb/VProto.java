@@ -15,6 +15,7 @@ public final class VProto {
     PUT(2, 2),
     DELETE(3, 3),
     GET_VERSION(4, 4),
+    PUT_AUTO_VERSION(5, 5),
     ;
     
     
@@ -27,6 +28,7 @@ public final class VProto {
         case 2: return PUT;
         case 3: return DELETE;
         case 4: return GET_VERSION;
+        case 5: return PUT_AUTO_VERSION;
         default: return null;
       }
     }
@@ -57,7 +59,7 @@ public final class VProto {
     }
     
     private static final RequestType[] VALUES = {
-      GET, GET_ALL, PUT, DELETE, GET_VERSION, 
+      GET, GET_ALL, PUT, DELETE, GET_VERSION, PUT_AUTO_VERSION, 
     };
     public static RequestType valueOf(
         com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
@@ -4821,6 +4823,821 @@ public final class VProto {
     // @@protoc_insertion_point(class_scope:voldemort.PutResponse)
   }
   
+  public static final class PutAutoVersionRequest extends
+      com.google.protobuf.GeneratedMessage {
+    // Use PutAutoVersionRequest.newBuilder() to construct.
+    private PutAutoVersionRequest() {
+      initFields();
+    }
+    private PutAutoVersionRequest(boolean noInit) {}
+    
+    private static final PutAutoVersionRequest defaultInstance;
+    public static PutAutoVersionRequest getDefaultInstance() {
+      return defaultInstance;
+    }
+    
+    public PutAutoVersionRequest getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+    
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return voldemort.client.protocol.pb.VProto.internal_static_voldemort_PutAutoVersionRequest_descriptor;
+    }
+    
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return voldemort.client.protocol.pb.VProto.internal_static_voldemort_PutAutoVersionRequest_fieldAccessorTable;
+    }
+    
+    // required bytes key = 1;
+    public static final int KEY_FIELD_NUMBER = 1;
+    private boolean hasKey;
+    private com.google.protobuf.ByteString key_ = com.google.protobuf.ByteString.EMPTY;
+    public boolean hasKey() { return hasKey; }
+    public com.google.protobuf.ByteString getKey() { return key_; }
+    
+    // required .voldemort.Versioned versioned = 2;
+    public static final int VERSIONED_FIELD_NUMBER = 2;
+    private boolean hasVersioned;
+    private voldemort.client.protocol.pb.VProto.Versioned versioned_;
+    public boolean hasVersioned() { return hasVersioned; }
+    public voldemort.client.protocol.pb.VProto.Versioned getVersioned() { return versioned_; }
+    
+    // optional bytes transforms = 3;
+    public static final int TRANSFORMS_FIELD_NUMBER = 3;
+    private boolean hasTransforms;
+    private com.google.protobuf.ByteString transforms_ = com.google.protobuf.ByteString.EMPTY;
+    public boolean hasTransforms() { return hasTransforms; }
+    public com.google.protobuf.ByteString getTransforms() { return transforms_; }
+    
+    // required int32 node_id = 4;
+    public static final int NODE_ID_FIELD_NUMBER = 4;
+    private boolean hasNodeId;
+    private int nodeId_ = 0;
+    public boolean hasNodeId() { return hasNodeId; }
+    public int getNodeId() { return nodeId_; }
+    
+    private void initFields() {
+      versioned_ = voldemort.client.protocol.pb.VProto.Versioned.getDefaultInstance();
+    }
+    public final boolean isInitialized() {
+      if (!hasKey) return false;
+      if (!hasVersioned) return false;
+      if (!hasNodeId) return false;
+      if (!getVersioned().isInitialized()) return false;
+      return true;
+    }
+    
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (hasKey()) {
+        output.writeBytes(1, getKey());
+      }
+      if (hasVersioned()) {
+        output.writeMessage(2, getVersioned());
+      }
+      if (hasTransforms()) {
+        output.writeBytes(3, getTransforms());
+      }
+      if (hasNodeId()) {
+        output.writeInt32(4, getNodeId());
+      }
+      getUnknownFields().writeTo(output);
+    }
+    
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+    
+      size = 0;
+      if (hasKey()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(1, getKey());
+      }
+      if (hasVersioned()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(2, getVersioned());
+      }
+      if (hasTransforms()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(3, getTransforms());
+      }
+      if (hasNodeId()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(4, getNodeId());
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+    
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionRequest parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data).buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionRequest parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data, extensionRegistry)
+               .buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionRequest parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data).buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionRequest parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data, extensionRegistry)
+               .buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionRequest parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input).buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionRequest parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input, extensionRegistry)
+               .buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionRequest parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      Builder builder = newBuilder();
+      if (builder.mergeDelimitedFrom(input)) {
+        return builder.buildParsed();
+      } else {
+        return null;
+      }
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionRequest parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      Builder builder = newBuilder();
+      if (builder.mergeDelimitedFrom(input, extensionRegistry)) {
+        return builder.buildParsed();
+      } else {
+        return null;
+      }
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionRequest parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input).buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionRequest parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input, extensionRegistry)
+               .buildParsed();
+    }
+    
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(voldemort.client.protocol.pb.VProto.PutAutoVersionRequest prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+    
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> {
+      private voldemort.client.protocol.pb.VProto.PutAutoVersionRequest result;
+      
+      // Construct using voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.newBuilder()
+      private Builder() {}
+      
+      private static Builder create() {
+        Builder builder = new Builder();
+        builder.result = new voldemort.client.protocol.pb.VProto.PutAutoVersionRequest();
+        return builder;
+      }
+      
+      protected voldemort.client.protocol.pb.VProto.PutAutoVersionRequest internalGetResult() {
+        return result;
+      }
+      
+      public Builder clear() {
+        if (result == null) {
+          throw new IllegalStateException(
+            "Cannot call clear() after build().");
+        }
+        result = new voldemort.client.protocol.pb.VProto.PutAutoVersionRequest();
+        return this;
+      }
+      
+      public Builder clone() {
+        return create().mergeFrom(result);
+      }
+      
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.getDescriptor();
+      }
+      
+      public voldemort.client.protocol.pb.VProto.PutAutoVersionRequest getDefaultInstanceForType() {
+        return voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.getDefaultInstance();
+      }
+      
+      public boolean isInitialized() {
+        return result.isInitialized();
+      }
+      public voldemort.client.protocol.pb.VProto.PutAutoVersionRequest build() {
+        if (result != null && !isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return buildPartial();
+      }
+      
+      private voldemort.client.protocol.pb.VProto.PutAutoVersionRequest buildParsed()
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        if (!isInitialized()) {
+          throw newUninitializedMessageException(
+            result).asInvalidProtocolBufferException();
+        }
+        return buildPartial();
+      }
+      
+      public voldemort.client.protocol.pb.VProto.PutAutoVersionRequest buildPartial() {
+        if (result == null) {
+          throw new IllegalStateException(
+            "build() has already been called on this Builder.");
+        }
+        voldemort.client.protocol.pb.VProto.PutAutoVersionRequest returnMe = result;
+        result = null;
+        return returnMe;
+      }
+      
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof voldemort.client.protocol.pb.VProto.PutAutoVersionRequest) {
+          return mergeFrom((voldemort.client.protocol.pb.VProto.PutAutoVersionRequest)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+      
+      public Builder mergeFrom(voldemort.client.protocol.pb.VProto.PutAutoVersionRequest other) {
+        if (other == voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.getDefaultInstance()) return this;
+        if (other.hasKey()) {
+          setKey(other.getKey());
+        }
+        if (other.hasVersioned()) {
+          mergeVersioned(other.getVersioned());
+        }
+        if (other.hasTransforms()) {
+          setTransforms(other.getTransforms());
+        }
+        if (other.hasNodeId()) {
+          setNodeId(other.getNodeId());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+      
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder(
+            this.getUnknownFields());
+        while (true) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              this.setUnknownFields(unknownFields.build());
+              return this;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                this.setUnknownFields(unknownFields.build());
+                return this;
+              }
+              break;
+            }
+            case 10: {
+              setKey(input.readBytes());
+              break;
+            }
+            case 18: {
+              voldemort.client.protocol.pb.VProto.Versioned.Builder subBuilder = voldemort.client.protocol.pb.VProto.Versioned.newBuilder();
+              if (hasVersioned()) {
+                subBuilder.mergeFrom(getVersioned());
+              }
+              input.readMessage(subBuilder, extensionRegistry);
+              setVersioned(subBuilder.buildPartial());
+              break;
+            }
+            case 26: {
+              setTransforms(input.readBytes());
+              break;
+            }
+            case 32: {
+              setNodeId(input.readInt32());
+              break;
+            }
+          }
+        }
+      }
+      
+      
+      // required bytes key = 1;
+      public boolean hasKey() {
+        return result.hasKey();
+      }
+      public com.google.protobuf.ByteString getKey() {
+        return result.getKey();
+      }
+      public Builder setKey(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  result.hasKey = true;
+        result.key_ = value;
+        return this;
+      }
+      public Builder clearKey() {
+        result.hasKey = false;
+        result.key_ = getDefaultInstance().getKey();
+        return this;
+      }
+      
+      // required .voldemort.Versioned versioned = 2;
+      public boolean hasVersioned() {
+        return result.hasVersioned();
+      }
+      public voldemort.client.protocol.pb.VProto.Versioned getVersioned() {
+        return result.getVersioned();
+      }
+      public Builder setVersioned(voldemort.client.protocol.pb.VProto.Versioned value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        result.hasVersioned = true;
+        result.versioned_ = value;
+        return this;
+      }
+      public Builder setVersioned(voldemort.client.protocol.pb.VProto.Versioned.Builder builderForValue) {
+        result.hasVersioned = true;
+        result.versioned_ = builderForValue.build();
+        return this;
+      }
+      public Builder mergeVersioned(voldemort.client.protocol.pb.VProto.Versioned value) {
+        if (result.hasVersioned() &&
+            result.versioned_ != voldemort.client.protocol.pb.VProto.Versioned.getDefaultInstance()) {
+          result.versioned_ =
+            voldemort.client.protocol.pb.VProto.Versioned.newBuilder(result.versioned_).mergeFrom(value).buildPartial();
+        } else {
+          result.versioned_ = value;
+        }
+        result.hasVersioned = true;
+        return this;
+      }
+      public Builder clearVersioned() {
+        result.hasVersioned = false;
+        result.versioned_ = voldemort.client.protocol.pb.VProto.Versioned.getDefaultInstance();
+        return this;
+      }
+      
+      // optional bytes transforms = 3;
+      public boolean hasTransforms() {
+        return result.hasTransforms();
+      }
+      public com.google.protobuf.ByteString getTransforms() {
+        return result.getTransforms();
+      }
+      public Builder setTransforms(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  result.hasTransforms = true;
+        result.transforms_ = value;
+        return this;
+      }
+      public Builder clearTransforms() {
+        result.hasTransforms = false;
+        result.transforms_ = getDefaultInstance().getTransforms();
+        return this;
+      }
+      
+      // required int32 node_id = 4;
+      public boolean hasNodeId() {
+        return result.hasNodeId();
+      }
+      public int getNodeId() {
+        return result.getNodeId();
+      }
+      public Builder setNodeId(int value) {
+        result.hasNodeId = true;
+        result.nodeId_ = value;
+        return this;
+      }
+      public Builder clearNodeId() {
+        result.hasNodeId = false;
+        result.nodeId_ = 0;
+        return this;
+      }
+      
+      // @@protoc_insertion_point(builder_scope:voldemort.PutAutoVersionRequest)
+    }
+    
+    static {
+      defaultInstance = new PutAutoVersionRequest(true);
+      voldemort.client.protocol.pb.VProto.internalForceInit();
+      defaultInstance.initFields();
+    }
+    
+    // @@protoc_insertion_point(class_scope:voldemort.PutAutoVersionRequest)
+  }
+  
+  public static final class PutAutoVersionResponse extends
+      com.google.protobuf.GeneratedMessage {
+    // Use PutAutoVersionResponse.newBuilder() to construct.
+    private PutAutoVersionResponse() {
+      initFields();
+    }
+    private PutAutoVersionResponse(boolean noInit) {}
+    
+    private static final PutAutoVersionResponse defaultInstance;
+    public static PutAutoVersionResponse getDefaultInstance() {
+      return defaultInstance;
+    }
+    
+    public PutAutoVersionResponse getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+    
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return voldemort.client.protocol.pb.VProto.internal_static_voldemort_PutAutoVersionResponse_descriptor;
+    }
+    
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return voldemort.client.protocol.pb.VProto.internal_static_voldemort_PutAutoVersionResponse_fieldAccessorTable;
+    }
+    
+    // optional .voldemort.VectorClock version = 1;
+    public static final int VERSION_FIELD_NUMBER = 1;
+    private boolean hasVersion;
+    private voldemort.client.protocol.pb.VProto.VectorClock version_;
+    public boolean hasVersion() { return hasVersion; }
+    public voldemort.client.protocol.pb.VProto.VectorClock getVersion() { return version_; }
+    
+    // optional .voldemort.Error error = 2;
+    public static final int ERROR_FIELD_NUMBER = 2;
+    private boolean hasError;
+    private voldemort.client.protocol.pb.VProto.Error error_;
+    public boolean hasError() { return hasError; }
+    public voldemort.client.protocol.pb.VProto.Error getError() { return error_; }
+    
+    private void initFields() {
+      version_ = voldemort.client.protocol.pb.VProto.VectorClock.getDefaultInstance();
+      error_ = voldemort.client.protocol.pb.VProto.Error.getDefaultInstance();
+    }
+    public final boolean isInitialized() {
+      if (hasVersion()) {
+        if (!getVersion().isInitialized()) return false;
+      }
+      if (hasError()) {
+        if (!getError().isInitialized()) return false;
+      }
+      return true;
+    }
+    
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (hasVersion()) {
+        output.writeMessage(1, getVersion());
+      }
+      if (hasError()) {
+        output.writeMessage(2, getError());
+      }
+      getUnknownFields().writeTo(output);
+    }
+    
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+    
+      size = 0;
+      if (hasVersion()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, getVersion());
+      }
+      if (hasError()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(2, getError());
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+    
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionResponse parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data).buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionResponse parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data, extensionRegistry)
+               .buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionResponse parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data).buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionResponse parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data, extensionRegistry)
+               .buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionResponse parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input).buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionResponse parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input, extensionRegistry)
+               .buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionResponse parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      Builder builder = newBuilder();
+      if (builder.mergeDelimitedFrom(input)) {
+        return builder.buildParsed();
+      } else {
+        return null;
+      }
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionResponse parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      Builder builder = newBuilder();
+      if (builder.mergeDelimitedFrom(input, extensionRegistry)) {
+        return builder.buildParsed();
+      } else {
+        return null;
+      }
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionResponse parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input).buildParsed();
+    }
+    public static voldemort.client.protocol.pb.VProto.PutAutoVersionResponse parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input, extensionRegistry)
+               .buildParsed();
+    }
+    
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(voldemort.client.protocol.pb.VProto.PutAutoVersionResponse prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+    
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> {
+      private voldemort.client.protocol.pb.VProto.PutAutoVersionResponse result;
+      
+      // Construct using voldemort.client.protocol.pb.VProto.PutAutoVersionResponse.newBuilder()
+      private Builder() {}
+      
+      private static Builder create() {
+        Builder builder = new Builder();
+        builder.result = new voldemort.client.protocol.pb.VProto.PutAutoVersionResponse();
+        return builder;
+      }
+      
+      protected voldemort.client.protocol.pb.VProto.PutAutoVersionResponse internalGetResult() {
+        return result;
+      }
+      
+      public Builder clear() {
+        if (result == null) {
+          throw new IllegalStateException(
+            "Cannot call clear() after build().");
+        }
+        result = new voldemort.client.protocol.pb.VProto.PutAutoVersionResponse();
+        return this;
+      }
+      
+      public Builder clone() {
+        return create().mergeFrom(result);
+      }
+      
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return voldemort.client.protocol.pb.VProto.PutAutoVersionResponse.getDescriptor();
+      }
+      
+      public voldemort.client.protocol.pb.VProto.PutAutoVersionResponse getDefaultInstanceForType() {
+        return voldemort.client.protocol.pb.VProto.PutAutoVersionResponse.getDefaultInstance();
+      }
+      
+      public boolean isInitialized() {
+        return result.isInitialized();
+      }
+      public voldemort.client.protocol.pb.VProto.PutAutoVersionResponse build() {
+        if (result != null && !isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return buildPartial();
+      }
+      
+      private voldemort.client.protocol.pb.VProto.PutAutoVersionResponse buildParsed()
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        if (!isInitialized()) {
+          throw newUninitializedMessageException(
+            result).asInvalidProtocolBufferException();
+        }
+        return buildPartial();
+      }
+      
+      public voldemort.client.protocol.pb.VProto.PutAutoVersionResponse buildPartial() {
+        if (result == null) {
+          throw new IllegalStateException(
+            "build() has already been called on this Builder.");
+        }
+        voldemort.client.protocol.pb.VProto.PutAutoVersionResponse returnMe = result;
+        result = null;
+        return returnMe;
+      }
+      
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof voldemort.client.protocol.pb.VProto.PutAutoVersionResponse) {
+          return mergeFrom((voldemort.client.protocol.pb.VProto.PutAutoVersionResponse)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+      
+      public Builder mergeFrom(voldemort.client.protocol.pb.VProto.PutAutoVersionResponse other) {
+        if (other == voldemort.client.protocol.pb.VProto.PutAutoVersionResponse.getDefaultInstance()) return this;
+        if (other.hasVersion()) {
+          mergeVersion(other.getVersion());
+        }
+        if (other.hasError()) {
+          mergeError(other.getError());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+      
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder(
+            this.getUnknownFields());
+        while (true) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              this.setUnknownFields(unknownFields.build());
+              return this;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                this.setUnknownFields(unknownFields.build());
+                return this;
+              }
+              break;
+            }
+            case 10: {
+              voldemort.client.protocol.pb.VProto.VectorClock.Builder subBuilder = voldemort.client.protocol.pb.VProto.VectorClock.newBuilder();
+              if (hasVersion()) {
+                subBuilder.mergeFrom(getVersion());
+              }
+              input.readMessage(subBuilder, extensionRegistry);
+              setVersion(subBuilder.buildPartial());
+              break;
+            }
+            case 18: {
+              voldemort.client.protocol.pb.VProto.Error.Builder subBuilder = voldemort.client.protocol.pb.VProto.Error.newBuilder();
+              if (hasError()) {
+                subBuilder.mergeFrom(getError());
+              }
+              input.readMessage(subBuilder, extensionRegistry);
+              setError(subBuilder.buildPartial());
+              break;
+            }
+          }
+        }
+      }
+      
+      
+      // optional .voldemort.VectorClock version = 1;
+      public boolean hasVersion() {
+        return result.hasVersion();
+      }
+      public voldemort.client.protocol.pb.VProto.VectorClock getVersion() {
+        return result.getVersion();
+      }
+      public Builder setVersion(voldemort.client.protocol.pb.VProto.VectorClock value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        result.hasVersion = true;
+        result.version_ = value;
+        return this;
+      }
+      public Builder setVersion(voldemort.client.protocol.pb.VProto.VectorClock.Builder builderForValue) {
+        result.hasVersion = true;
+        result.version_ = builderForValue.build();
+        return this;
+      }
+      public Builder mergeVersion(voldemort.client.protocol.pb.VProto.VectorClock value) {
+        if (result.hasVersion() &&
+            result.version_ != voldemort.client.protocol.pb.VProto.VectorClock.getDefaultInstance()) {
+          result.version_ =
+            voldemort.client.protocol.pb.VProto.VectorClock.newBuilder(result.version_).mergeFrom(value).buildPartial();
+        } else {
+          result.version_ = value;
+        }
+        result.hasVersion = true;
+        return this;
+      }
+      public Builder clearVersion() {
+        result.hasVersion = false;
+        result.version_ = voldemort.client.protocol.pb.VProto.VectorClock.getDefaultInstance();
+        return this;
+      }
+      
+      // optional .voldemort.Error error = 2;
+      public boolean hasError() {
+        return result.hasError();
+      }
+      public voldemort.client.protocol.pb.VProto.Error getError() {
+        return result.getError();
+      }
+      public Builder setError(voldemort.client.protocol.pb.VProto.Error value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        result.hasError = true;
+        result.error_ = value;
+        return this;
+      }
+      public Builder setError(voldemort.client.protocol.pb.VProto.Error.Builder builderForValue) {
+        result.hasError = true;
+        result.error_ = builderForValue.build();
+        return this;
+      }
+      public Builder mergeError(voldemort.client.protocol.pb.VProto.Error value) {
+        if (result.hasError() &&
+            result.error_ != voldemort.client.protocol.pb.VProto.Error.getDefaultInstance()) {
+          result.error_ =
+            voldemort.client.protocol.pb.VProto.Error.newBuilder(result.error_).mergeFrom(value).buildPartial();
+        } else {
+          result.error_ = value;
+        }
+        result.hasError = true;
+        return this;
+      }
+      public Builder clearError() {
+        result.hasError = false;
+        result.error_ = voldemort.client.protocol.pb.VProto.Error.getDefaultInstance();
+        return this;
+      }
+      
+      // @@protoc_insertion_point(builder_scope:voldemort.PutAutoVersionResponse)
+    }
+    
+    static {
+      defaultInstance = new PutAutoVersionResponse(true);
+      voldemort.client.protocol.pb.VProto.internalForceInit();
+      defaultInstance.initFields();
+    }
+    
+    // @@protoc_insertion_point(class_scope:voldemort.PutAutoVersionResponse)
+  }
+  
   public static final class DeleteRequest extends
       com.google.protobuf.GeneratedMessage {
     // Use DeleteRequest.newBuilder() to construct.
@@ -5610,12 +6427,20 @@ public final class VProto {
     public boolean hasRequestRouteType() { return hasRequestRouteType; }
     public int getRequestRouteType() { return requestRouteType_; }
     
+    // optional .voldemort.PutAutoVersionRequest putAutoVersion = 9;
+    public static final int PUTAUTOVERSION_FIELD_NUMBER = 9;
+    private boolean hasPutAutoVersion;
+    private voldemort.client.protocol.pb.VProto.PutAutoVersionRequest putAutoVersion_;
+    public boolean hasPutAutoVersion() { return hasPutAutoVersion; }
+    public voldemort.client.protocol.pb.VProto.PutAutoVersionRequest getPutAutoVersion() { return putAutoVersion_; }
+    
     private void initFields() {
       type_ = voldemort.client.protocol.pb.VProto.RequestType.GET;
       get_ = voldemort.client.protocol.pb.VProto.GetRequest.getDefaultInstance();
       getAll_ = voldemort.client.protocol.pb.VProto.GetAllRequest.getDefaultInstance();
       put_ = voldemort.client.protocol.pb.VProto.PutRequest.getDefaultInstance();
       delete_ = voldemort.client.protocol.pb.VProto.DeleteRequest.getDefaultInstance();
+      putAutoVersion_ = voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.getDefaultInstance();
     }
     public final boolean isInitialized() {
       if (!hasType) return false;
@@ -5630,6 +6455,9 @@ public final class VProto {
       if (hasDelete()) {
         if (!getDelete().isInitialized()) return false;
       }
+      if (hasPutAutoVersion()) {
+        if (!getPutAutoVersion().isInitialized()) return false;
+      }
       return true;
     }
     
@@ -5660,6 +6488,9 @@ public final class VProto {
       if (hasRequestRouteType()) {
         output.writeInt32(8, getRequestRouteType());
       }
+      if (hasPutAutoVersion()) {
+        output.writeMessage(9, getPutAutoVersion());
+      }
       getUnknownFields().writeTo(output);
     }
     
@@ -5701,6 +6532,10 @@ public final class VProto {
         size += com.google.protobuf.CodedOutputStream
           .computeInt32Size(8, getRequestRouteType());
       }
+      if (hasPutAutoVersion()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(9, getPutAutoVersion());
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -5883,6 +6718,9 @@ public final class VProto {
         if (other.hasRequestRouteType()) {
           setRequestRouteType(other.getRequestRouteType());
         }
+        if (other.hasPutAutoVersion()) {
+          mergePutAutoVersion(other.getPutAutoVersion());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -5966,6 +6804,15 @@ public final class VProto {
               setRequestRouteType(input.readInt32());
               break;
             }
+            case 74: {
+              voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.Builder subBuilder = voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.newBuilder();
+              if (hasPutAutoVersion()) {
+                subBuilder.mergeFrom(getPutAutoVersion());
+              }
+              input.readMessage(subBuilder, extensionRegistry);
+              setPutAutoVersion(subBuilder.buildPartial());
+              break;
+            }
           }
         }
       }
@@ -6197,6 +7044,43 @@ public final class VProto {
         return this;
       }
       
+      // optional .voldemort.PutAutoVersionRequest putAutoVersion = 9;
+      public boolean hasPutAutoVersion() {
+        return result.hasPutAutoVersion();
+      }
+      public voldemort.client.protocol.pb.VProto.PutAutoVersionRequest getPutAutoVersion() {
+        return result.getPutAutoVersion();
+      }
+      public Builder setPutAutoVersion(voldemort.client.protocol.pb.VProto.PutAutoVersionRequest value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        result.hasPutAutoVersion = true;
+        result.putAutoVersion_ = value;
+        return this;
+      }
+      public Builder setPutAutoVersion(voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.Builder builderForValue) {
+        result.hasPutAutoVersion = true;
+        result.putAutoVersion_ = builderForValue.build();
+        return this;
+      }
+      public Builder mergePutAutoVersion(voldemort.client.protocol.pb.VProto.PutAutoVersionRequest value) {
+        if (result.hasPutAutoVersion() &&
+            result.putAutoVersion_ != voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.getDefaultInstance()) {
+          result.putAutoVersion_ =
+            voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.newBuilder(result.putAutoVersion_).mergeFrom(value).buildPartial();
+        } else {
+          result.putAutoVersion_ = value;
+        }
+        result.hasPutAutoVersion = true;
+        return this;
+      }
+      public Builder clearPutAutoVersion() {
+        result.hasPutAutoVersion = false;
+        result.putAutoVersion_ = voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.getDefaultInstance();
+        return this;
+      }
+      
       // @@protoc_insertion_point(builder_scope:voldemort.VoldemortRequest)
     }
     
@@ -6274,6 +7158,16 @@ public final class VProto {
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_voldemort_PutResponse_fieldAccessorTable;
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_voldemort_PutAutoVersionRequest_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_voldemort_PutAutoVersionRequest_fieldAccessorTable;
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_voldemort_PutAutoVersionResponse_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_voldemort_PutAutoVersionResponse_fieldAccessorTable;
   private static com.google.protobuf.Descriptors.Descriptor
     internal_static_voldemort_DeleteRequest_descriptor;
   private static
@@ -6321,21 +7215,28 @@ public final class VProto {
       "\0132\020.voldemort.Error\"V\n\nPutRequest\022\013\n\003key" +
       "\030\001 \002(\014\022\'\n\tversioned\030\002 \002(\0132\024.voldemort.Ve" +
       "rsioned\022\022\n\ntransforms\030\003 \001(\014\".\n\013PutRespon" +
-      "se\022\037\n\005error\030\001 \001(\0132\020.voldemort.Error\"E\n\rD" +
-      "eleteRequest\022\013\n\003key\030\001 \002(\014\022\'\n\007version\030\002 \002" +
-      "(\0132\026.voldemort.VectorClock\"B\n\016DeleteResp" +
-      "onse\022\017\n\007success\030\001 \002(\010\022\037\n\005error\030\002 \001(\0132\020.v" +
-      "oldemort.Error\"\232\002\n\020VoldemortRequest\022$\n\004t" +
-      "ype\030\001 \002(\0162\026.voldemort.RequestType\022\033\n\014sho" +
-      "uld_route\030\002 \002(\010:\005false\022\r\n\005store\030\003 \002(\t\022\"\n",
-      "\003get\030\004 \001(\0132\025.voldemort.GetRequest\022(\n\006get" +
-      "All\030\005 \001(\0132\030.voldemort.GetAllRequest\022\"\n\003p" +
-      "ut\030\006 \001(\0132\025.voldemort.PutRequest\022(\n\006delet" +
-      "e\030\007 \001(\0132\030.voldemort.DeleteRequest\022\030\n\020req" +
-      "uestRouteType\030\010 \001(\005*I\n\013RequestType\022\007\n\003GE" +
-      "T\020\000\022\013\n\007GET_ALL\020\001\022\007\n\003PUT\020\002\022\n\n\006DELETE\020\003\022\017\n" +
-      "\013GET_VERSION\020\004B(\n\034voldemort.client.proto" +
-      "col.pbB\006VProtoH\001"
+      "se\022\037\n\005error\030\001 \001(\0132\020.voldemort.Error\"r\n\025P" +
+      "utAutoVersionRequest\022\013\n\003key\030\001 \002(\014\022\'\n\tver" +
+      "sioned\030\002 \002(\0132\024.voldemort.Versioned\022\022\n\ntr" +
+      "ansforms\030\003 \001(\014\022\017\n\007node_id\030\004 \002(\005\"b\n\026PutAu" +
+      "toVersionResponse\022\'\n\007version\030\001 \001(\0132\026.vol" +
+      "demort.VectorClock\022\037\n\005error\030\002 \001(\0132\020.vold" +
+      "emort.Error\"E\n\rDeleteRequest\022\013\n\003key\030\001 \002(",
+      "\014\022\'\n\007version\030\002 \002(\0132\026.voldemort.VectorClo" +
+      "ck\"B\n\016DeleteResponse\022\017\n\007success\030\001 \002(\010\022\037\n" +
+      "\005error\030\002 \001(\0132\020.voldemort.Error\"\324\002\n\020Volde" +
+      "mortRequest\022$\n\004type\030\001 \002(\0162\026.voldemort.Re" +
+      "questType\022\033\n\014should_route\030\002 \002(\010:\005false\022\r" +
+      "\n\005store\030\003 \002(\t\022\"\n\003get\030\004 \001(\0132\025.voldemort.G" +
+      "etRequest\022(\n\006getAll\030\005 \001(\0132\030.voldemort.Ge" +
+      "tAllRequest\022\"\n\003put\030\006 \001(\0132\025.voldemort.Put" +
+      "Request\022(\n\006delete\030\007 \001(\0132\030.voldemort.Dele" +
+      "teRequest\022\030\n\020requestRouteType\030\010 \001(\005\0228\n\016p",
+      "utAutoVersion\030\t \001(\0132 .voldemort.PutAutoV" +
+      "ersionRequest*_\n\013RequestType\022\007\n\003GET\020\000\022\013\n" +
+      "\007GET_ALL\020\001\022\007\n\003PUT\020\002\022\n\n\006DELETE\020\003\022\017\n\013GET_V" +
+      "ERSION\020\004\022\024\n\020PUT_AUTO_VERSION\020\005B(\n\034voldem" +
+      "ort.client.protocol.pbB\006VProtoH\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
       new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -6446,8 +7347,24 @@ public final class VProto {
               new java.lang.String[] { "Error", },
               voldemort.client.protocol.pb.VProto.PutResponse.class,
               voldemort.client.protocol.pb.VProto.PutResponse.Builder.class);
-          internal_static_voldemort_DeleteRequest_descriptor =
+          internal_static_voldemort_PutAutoVersionRequest_descriptor =
             getDescriptor().getMessageTypes().get(12);
+          internal_static_voldemort_PutAutoVersionRequest_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_voldemort_PutAutoVersionRequest_descriptor,
+              new java.lang.String[] { "Key", "Versioned", "Transforms", "NodeId", },
+              voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.class,
+              voldemort.client.protocol.pb.VProto.PutAutoVersionRequest.Builder.class);
+          internal_static_voldemort_PutAutoVersionResponse_descriptor =
+            getDescriptor().getMessageTypes().get(13);
+          internal_static_voldemort_PutAutoVersionResponse_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_voldemort_PutAutoVersionResponse_descriptor,
+              new java.lang.String[] { "Version", "Error", },
+              voldemort.client.protocol.pb.VProto.PutAutoVersionResponse.class,
+              voldemort.client.protocol.pb.VProto.PutAutoVersionResponse.Builder.class);
+          internal_static_voldemort_DeleteRequest_descriptor =
+            getDescriptor().getMessageTypes().get(14);
           internal_static_voldemort_DeleteRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_voldemort_DeleteRequest_descriptor,
@@ -6455,7 +7372,7 @@ public final class VProto {
               voldemort.client.protocol.pb.VProto.DeleteRequest.class,
               voldemort.client.protocol.pb.VProto.DeleteRequest.Builder.class);
           internal_static_voldemort_DeleteResponse_descriptor =
-            getDescriptor().getMessageTypes().get(13);
+            getDescriptor().getMessageTypes().get(15);
           internal_static_voldemort_DeleteResponse_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_voldemort_DeleteResponse_descriptor,
@@ -6463,11 +7380,11 @@ public final class VProto {
               voldemort.client.protocol.pb.VProto.DeleteResponse.class,
               voldemort.client.protocol.pb.VProto.DeleteResponse.Builder.class);
           internal_static_voldemort_VoldemortRequest_descriptor =
-            getDescriptor().getMessageTypes().get(14);
+            getDescriptor().getMessageTypes().get(16);
           internal_static_voldemort_VoldemortRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_voldemort_VoldemortRequest_descriptor,
-              new java.lang.String[] { "Type", "ShouldRoute", "Store", "Get", "GetAll", "Put", "Delete", "RequestRouteType", },
+              new java.lang.String[] { "Type", "ShouldRoute", "Store", "Get", "GetAll", "Put", "Delete", "RequestRouteType", "PutAutoVersion", },
               voldemort.client.protocol.pb.VProto.VoldemortRequest.class,
               voldemort.client.protocol.pb.VProto.VoldemortRequest.Builder.class);
           return null;
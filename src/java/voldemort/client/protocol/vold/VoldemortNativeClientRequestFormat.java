@@ -16,6 +16,7 @@
 
 package voldemort.client.protocol.vold;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -24,6 +25,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
 
@@ -43,27 +45,69 @@ import voldemort.versioning.Versioned;
 /**
  * The {@link voldemort.client.protocol.RequestFormat} for a low-overhead custom
  * binary protocol
- * 
+ * <p/>
+ * Protocol version 4 frames each request with a request id and length, and
+ * expects responses framed the same way (see
+ * {@link voldemort.server.protocol.vold.VoldemortNativeRequestHandler}).
  * 
  */
 public class VoldemortNativeClientRequestFormat implements RequestFormat {
 
     private final ErrorCodeMapper mapper;
     private final int protocolVersion;
+    private final AtomicInteger nextRequestId;
 
     private final Logger logger = Logger.getLogger(getClass());
 
     public VoldemortNativeClientRequestFormat(int protocolVersion) {
         this.mapper = new ErrorCodeMapper();
         this.protocolVersion = protocolVersion;
+        this.nextRequestId = new AtomicInteger(0);
+    }
+
+    /**
+     * Returns the stream the body of a request should be written to. For
+     * framed protocol versions this buffers the request so that its length is
+     * known by the time {@link #endRequest} writes it out.
+     */
+    private DataOutputStream startRequest(DataOutputStream outputStream) {
+        if(protocolVersion > 3)
+            return new RequestFrameOutputStream();
+
+        return outputStream;
+    }
+
+    private void endRequest(DataOutputStream outputStream, DataOutputStream requestStream)
+            throws IOException {
+        if(!(requestStream instanceof RequestFrameOutputStream))
+            return;
+
+        ByteArrayOutputStream frame = ((RequestFrameOutputStream) requestStream).frame;
+        requestStream.flush();
+        outputStream.writeInt(nextRequestId.getAndIncrement());
+        outputStream.writeInt(frame.size());
+        frame.writeTo(outputStream);
+    }
+
+    /**
+     * Skips over the request id and length of a framed response. The id has
+     * already been matched to its pending request by the connection that
+     * received the response; see ClientRequestExecutor.
+     */
+    private void readResponseHeader(DataInputStream inputStream) throws IOException {
+        if(protocolVersion > 3) {
+            inputStream.readInt();
+            inputStream.readInt();
+        }
     }
 
-    public void writeDeleteRequest(DataOutputStream outputStream,
+    public void writeDeleteRequest(DataOutputStream stream,
                                    String storeName,
                                    ByteArray key,
                                    VectorClock version,
                                    RequestRoutingType routingType) throws IOException {
         StoreUtils.assertValidKey(key);
+        DataOutputStream outputStream = startRequest(stream);
         outputStream.writeByte(VoldemortOpCode.DELETE_OP_CODE);
         outputStream.writeUTF(storeName);
         outputStream.writeBoolean(routingType.equals(RequestRoutingType.ROUTED));
@@ -75,6 +119,7 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
         VectorClock clock = version;
         outputStream.writeShort(clock.sizeInBytes());
         outputStream.write(clock.toBytes());
+        endRequest(stream, outputStream);
     }
 
     public boolean isCompleteDeleteResponse(ByteBuffer buffer) {
@@ -82,16 +127,18 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
     }
 
     public boolean readDeleteResponse(DataInputStream inputStream) throws IOException {
+        readResponseHeader(inputStream);
         checkException(inputStream);
         return inputStream.readBoolean();
     }
 
-    public void writeGetRequest(DataOutputStream outputStream,
+    public void writeGetRequest(DataOutputStream stream,
                                 String storeName,
                                 ByteArray key,
                                 byte[] transforms,
                                 RequestRoutingType routingType) throws IOException {
         StoreUtils.assertValidKey(key);
+        DataOutputStream outputStream = startRequest(stream);
         outputStream.writeByte(VoldemortOpCode.GET_OP_CODE);
         outputStream.writeUTF(storeName);
         outputStream.writeBoolean(routingType.equals(RequestRoutingType.ROUTED));
@@ -108,9 +155,11 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
             } else
                 outputStream.writeBoolean(false);
         }
+        endRequest(stream, outputStream);
     }
 
     public List<Versioned<byte[]>> readGetResponse(DataInputStream inputStream) throws IOException {
+        readResponseHeader(inputStream);
         checkException(inputStream);
         return readResults(inputStream);
     }
@@ -134,12 +183,13 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
         return results;
     }
 
-    public void writeGetAllRequest(DataOutputStream output,
+    public void writeGetAllRequest(DataOutputStream stream,
                                    String storeName,
                                    Iterable<ByteArray> keys,
                                    Map<ByteArray, byte[]> transforms,
                                    RequestRoutingType routingType) throws IOException {
         StoreUtils.assertValidKeys(keys);
+        DataOutputStream output = startRequest(stream);
         output.writeByte(VoldemortOpCode.GET_ALL_OP_CODE);
         output.writeUTF(storeName);
         output.writeBoolean(routingType.equals(RequestRoutingType.ROUTED));
@@ -171,6 +221,7 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
             } else
                 output.writeBoolean(false);
         }
+        endRequest(stream, output);
     }
 
     public boolean isCompleteGetAllResponse(ByteBuffer buffer) {
@@ -179,6 +230,7 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
 
     public Map<ByteArray, List<Versioned<byte[]>>> readGetAllResponse(DataInputStream stream)
             throws IOException {
+        readResponseHeader(stream);
         checkException(stream);
         int numResults = stream.readInt();
         Map<ByteArray, List<Versioned<byte[]>>> results = new HashMap<ByteArray, List<Versioned<byte[]>>>(numResults);
@@ -191,7 +243,7 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
         return results;
     }
 
-    public void writePutRequest(DataOutputStream outputStream,
+    public void writePutRequest(DataOutputStream stream,
                                 String storeName,
                                 ByteArray key,
                                 byte[] value,
@@ -199,6 +251,7 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
                                 VectorClock version,
                                 RequestRoutingType routingType) throws IOException {
         StoreUtils.assertValidKey(key);
+        DataOutputStream outputStream = startRequest(stream);
         outputStream.writeByte(VoldemortOpCode.PUT_OP_CODE);
         outputStream.writeUTF(storeName);
         outputStream.writeBoolean(routingType.equals(RequestRoutingType.ROUTED));
@@ -218,6 +271,7 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
             } else
                 outputStream.writeBoolean(false);
         }
+        endRequest(stream, outputStream);
     }
 
     public boolean isCompletePutResponse(ByteBuffer buffer) {
@@ -225,7 +279,55 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
     }
 
     public void readPutResponse(DataInputStream inputStream) throws IOException {
+        readResponseHeader(inputStream);
+        checkException(inputStream);
+    }
+
+    public void writePutAutoVersionRequest(DataOutputStream stream,
+                                           String storeName,
+                                           ByteArray key,
+                                           byte[] value,
+                                           byte[] transforms,
+                                           VectorClock version,
+                                           int nodeId,
+                                           RequestRoutingType routingType) throws IOException {
+        StoreUtils.assertValidKey(key);
+        DataOutputStream outputStream = startRequest(stream);
+        outputStream.writeByte(VoldemortOpCode.PUT_AUTO_VERSION_OP_CODE);
+        outputStream.writeUTF(storeName);
+        outputStream.writeBoolean(routingType.equals(RequestRoutingType.ROUTED));
+        if(protocolVersion > 1) {
+            outputStream.writeByte(routingType.getRoutingTypeCode());
+        }
+        outputStream.writeInt(key.length());
+        outputStream.write(key.get());
+        outputStream.writeInt(value.length + version.sizeInBytes());
+        outputStream.write(version.toBytes());
+        outputStream.write(value);
+        if(protocolVersion > 2) {
+            if(transforms != null) {
+                outputStream.writeBoolean(true);
+                outputStream.writeInt(transforms.length);
+                outputStream.write(transforms);
+            } else
+                outputStream.writeBoolean(false);
+        }
+        outputStream.writeInt(nodeId);
+        endRequest(stream, outputStream);
+    }
+
+    public boolean isCompletePutAutoVersionResponse(ByteBuffer buffer) {
+        return isCompleteResponse(buffer, VoldemortOpCode.PUT_AUTO_VERSION_OP_CODE);
+    }
+
+    public VectorClock readPutAutoVersionResponse(DataInputStream inputStream)
+            throws IOException {
+        readResponseHeader(inputStream);
         checkException(inputStream);
+        int versionSize = inputStream.readInt();
+        byte[] bytes = new byte[versionSize];
+        ByteUtils.read(inputStream, bytes);
+        return new VectorClock(bytes);
     }
 
     /*
@@ -244,6 +346,7 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
     }
 
     public List<Version> readGetVersionResponse(DataInputStream stream) throws IOException {
+        readResponseHeader(stream);
         checkException(stream);
         int resultSize = stream.readInt();
         List<Version> results = new ArrayList<Version>(resultSize);
@@ -257,11 +360,12 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
         return results;
     }
 
-    public void writeGetVersionRequest(DataOutputStream output,
+    public void writeGetVersionRequest(DataOutputStream stream,
                                        String storeName,
                                        ByteArray key,
                                        RequestRoutingType routingType) throws IOException {
         StoreUtils.assertValidKey(key);
+        DataOutputStream output = startRequest(stream);
         output.writeByte(VoldemortOpCode.GET_VERSION_OP_CODE);
         output.writeUTF(storeName);
         output.writeBoolean(routingType.equals(RequestRoutingType.ROUTED));
@@ -270,6 +374,7 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
         }
         output.writeInt(key.length());
         output.write(key.get());
+        endRequest(stream, output);
     }
 
     private boolean isCompleteResponse(ByteBuffer buffer, byte opCode) {
@@ -297,6 +402,10 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
                     case VoldemortOpCode.PUT_OP_CODE:
                         readPutResponse(inputStream);
                         break;
+
+                    case VoldemortOpCode.PUT_AUTO_VERSION_OP_CODE:
+                        readPutAutoVersionResponse(inputStream);
+                        break;
                 }
             } catch(VoldemortException e) {
                 // Ignore application-level exceptions
@@ -316,4 +425,18 @@ public class VoldemortNativeClientRequestFormat implements RequestFormat {
             return false;
         }
     }
+
+    private static class RequestFrameOutputStream extends DataOutputStream {
+
+        private final ByteArrayOutputStream frame;
+
+        private RequestFrameOutputStream() {
+            this(new ByteArrayOutputStream());
+        }
+
+        private RequestFrameOutputStream(ByteArrayOutputStream frame) {
+            super(frame);
+            this.frame = frame;
+        }
+    }
 }
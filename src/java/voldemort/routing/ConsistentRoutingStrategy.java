@@ -18,6 +18,7 @@ package voldemort.routing;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -53,6 +54,13 @@ public class ConsistentRoutingStrategy implements RoutingStrategy {
     private final Node[] partitionToNode;
     private final HashFunction hash;
 
+    /*
+     * Replicating partitions and nodes of every master partition, filled in on
+     * first use. Routes are immutable, so at worst two threads compute the
+     * same one.
+     */
+    private final Route[] routes;
+
     private static final Logger logger = Logger.getLogger(ConsistentRoutingStrategy.class);
 
     public ConsistentRoutingStrategy(Collection<Node> nodes, int numReplicas) {
@@ -87,6 +95,7 @@ public class ConsistentRoutingStrategy implements RoutingStrategy {
                 throw new IllegalArgumentException("Invalid configuration, missing partition " + i);
             this.partitionToNode[i] = m.get(i);
         }
+        this.routes = new Route[partitionToNode.length];
     }
 
     /**
@@ -103,33 +112,60 @@ public class ConsistentRoutingStrategy implements RoutingStrategy {
     }
 
     public List<Node> routeRequest(byte[] key) {
-        List<Integer> partitionList = getPartitionList(key);
-
-        if(partitionList.size() == 0)
-            return new ArrayList<Node>(0);
-        // pull out the nodes corresponding to the target partitions
-        List<Node> preferenceList = new ArrayList<Node>(partitionList.size());
-        for(int partition: partitionList) {
-            preferenceList.add(partitionToNode[partition]);
-        }
+        if(partitionToNode.length == 0)
+            return Collections.emptyList();
+
+        int partition = masterPartition(key);
+        Route route = getRoute(partition);
         if(logger.isDebugEnabled()) {
             StringBuilder nodeList = new StringBuilder();
-            for(int partition: partitionList) {
-                nodeList.append(partitionToNode[partition].getId() + ",");
+            for(Node node: route.nodes) {
+                nodeList.append(node.getId() + ",");
             }
             logger.debug("Key " + ByteUtils.toHexString(key) + " mapped to Nodes [" + nodeList
-                         + "] Partitions [" + partitionList + "]");
+                         + "] Partitions [" + route.partitions + "]");
         }
-        return preferenceList;
+        return route.nodes;
     }
 
+    /**
+     * Get the replication partitions list for the given partition. The list is
+     * computed once per partition and shared, and so cannot be modified.
+     * 
+     * @param index Partition id for which we are generating the preference list
+     * @return The List of partitionId where this partition is replicated.
+     */
     public List<Integer> getReplicatingPartitionList(int index) {
+        if(partitionToNode.length == 0)
+            return Collections.emptyList();
+        return getRoute(index).partitions;
+    }
+
+    private Route getRoute(int index) {
+        Route route = routes[index];
+        if(route == null) {
+            List<Integer> partitions = computeReplicatingPartitionList(index);
+            List<Node> nodes = new ArrayList<Node>(partitions.size());
+            for(int partition: partitions)
+                nodes.add(partitionToNode[partition]);
+            route = new Route(partitions, nodes);
+            routes[index] = route;
+        }
+        return route;
+    }
+
+    /**
+     * Walks the ring to find the replicating partitions of the given
+     * partition. Only called once per partition, the result is kept for all
+     * subsequent requests.
+     * 
+     * @param index Partition id for which we are generating the preference list
+     * @return The List of partitionId where this partition is replicated.
+     */
+    protected List<Integer> computeReplicatingPartitionList(int index) {
         List<Node> preferenceList = new ArrayList<Node>(numReplicas);
         List<Integer> replicationPartitionsList = new ArrayList<Integer>(numReplicas);
 
-        if(partitionToNode.length == 0) {
-            return new ArrayList<Integer>(0);
-        }
         // go over clockwise to find the next 'numReplicas' unique nodes
         // to replicate to
         for(int i = 0; i < partitionToNode.length; i++) {
@@ -157,6 +193,10 @@ public class ConsistentRoutingStrategy implements RoutingStrategy {
      * @return
      */
     public Integer getMasterPartition(byte[] key) {
+        return masterPartition(key);
+    }
+
+    private int masterPartition(byte[] key) {
         return abs(hash.hash(key)) % (Math.max(1, this.partitionToNode.length));
     }
 
@@ -182,7 +222,7 @@ public class ConsistentRoutingStrategy implements RoutingStrategy {
     public List<Integer> getPartitionList(byte[] key) {
         // hash the key and perform a modulo on the total number of partitions,
         // to get the master partition
-        int index = getMasterPartition(key);
+        int index = masterPartition(key);
         if(logger.isDebugEnabled()) {
             logger.debug("Key " + ByteUtils.toHexString(key) + " primary partition " + index);
         }
@@ -194,4 +234,15 @@ public class ConsistentRoutingStrategy implements RoutingStrategy {
     public String getType() {
         return RoutingStrategyType.CONSISTENT_STRATEGY;
     }
+
+    private static final class Route {
+
+        private final List<Integer> partitions;
+        private final List<Node> nodes;
+
+        private Route(List<Integer> partitions, List<Node> nodes) {
+            this.partitions = Collections.unmodifiableList(partitions);
+            this.nodes = Collections.unmodifiableList(nodes);
+        }
+    }
 }
@@ -40,6 +40,10 @@ public interface RoutingStrategy {
     /**
      * Get the node preference list for the given key. The preference list is a
      * list of nodes to perform an operation on.
+     * <p/>
+     * Implementations may share the lists they return across requests, so
+     * the lists returned by this and the other methods of this interface must
+     * not be modified.
      * 
      * @param key The key the operation is operating on
      * @return The preference list for the given key
@@ -49,13 +49,14 @@ public class ZoneRoutingStrategy extends ConsistentRoutingStrategy {
     }
 
     /**
-     * Get the replication partitions list for the given partition.
+     * Get the replication partitions list for the given partition, picking
+     * the number of replicas required from every zone.
      * 
      * @param index Partition id for which we are generating the preference list
      * @return The List of partitionId where this partition is replicated.
      */
     @Override
-    public List<Integer> getReplicatingPartitionList(int index) {
+    protected List<Integer> computeReplicatingPartitionList(int index) {
         List<Node> preferenceNodesList = new ArrayList<Node>(getNumReplicas());
         List<Integer> replicationPartitionsList = new ArrayList<Integer>(getNumReplicas());
 
@@ -72,10 +73,6 @@ public class ZoneRoutingStrategy extends ConsistentRoutingStrategy {
         if(sum != getNumReplicas())
             throw new IllegalArgumentException("Number of zone replicas is not equal to the total replication factor");
 
-        if(getPartitionToNode().length == 0) {
-            return new ArrayList<Integer>(0);
-        }
-
         for(int i = 0; i < getPartitionToNode().length; i++) {
             // add this one if we haven't already, and it can satisfy some zone
             // replicationFactor
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package voldemort.serialization.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+
+/**
+ * Encoders, decoders and output buffers that the Avro serializers reuse for
+ * every value serialized on the same thread, so that serializing a value
+ * allocates little more than the resulting byte array.
+ * <p/>
+ * Datum readers and writers are safe to share between threads once their
+ * schemas are set, so the serializers create them once and pass them in.
+ */
+public class AvroBuffers {
+
+    /* Buffers grown beyond this by a large value are not kept around */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<AvroBuffers> BUFFERS = new ThreadLocal<AvroBuffers>() {
+
+        @Override
+        protected AvroBuffers initialValue() {
+            return new AvroBuffers();
+        }
+    };
+
+    private OutputBuffer output = new OutputBuffer();
+    private final BinaryEncoder encoder = new BinaryEncoder(output);
+    private BinaryDecoder decoder;
+
+    private AvroBuffers() {}
+
+    /**
+     * Serialize an object
+     *
+     * @param writer The writer for the schema of the object
+     * @param object The object to serialize
+     * @return The bytes of the object
+     */
+    public static <T> byte[] toBytes(DatumWriter<T> writer, T object) throws IOException {
+        return BUFFERS.get().write(writer, object, null);
+    }
+
+    /**
+     * Serialize an object after a single byte, typically the version of the
+     * schema
+     *
+     * @param prefix The first byte of the output
+     * @param writer The writer for the schema of the object
+     * @param object The object to serialize
+     * @return The prefix followed by the bytes of the object
+     */
+    public static <T> byte[] toBytes(byte prefix, DatumWriter<T> writer, T object)
+            throws IOException {
+        return BUFFERS.get().write(writer, object, prefix);
+    }
+
+    /**
+     * Deserialize an object
+     *
+     * @param reader The reader for the writer's and the reader's schema
+     * @param bytes The serialized object
+     * @param offset The offset in the array the object starts at
+     * @return The object
+     */
+    public static <T> T toObject(DatumReader<T> reader, byte[] bytes, int offset)
+            throws IOException {
+        return BUFFERS.get().read(reader, bytes, offset);
+    }
+
+    private <T> byte[] write(DatumWriter<T> writer, T object, Byte prefix) throws IOException {
+        output.reset();
+        try {
+            if(prefix != null)
+                output.write(prefix);
+            encoder.init(output);
+            writer.write(object, encoder);
+            encoder.flush();
+            return output.toByteArray();
+        } finally {
+            if(output.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                output = new OutputBuffer();
+                encoder.init(output);
+            }
+        }
+    }
+
+    private <T> T read(DatumReader<T> reader, byte[] bytes, int offset) throws IOException {
+        decoder = DecoderFactory.defaultFactory().createBinaryDecoder(bytes,
+                                                                      offset,
+                                                                      bytes.length - offset,
+                                                                      decoder);
+        return reader.read(null, decoder);
+    }
+
+    private static class OutputBuffer extends ByteArrayOutputStream {
+
+        public int capacity() {
+            return buf.length;
+        }
+    }
+}
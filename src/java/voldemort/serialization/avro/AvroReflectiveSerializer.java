@@ -15,13 +15,8 @@
  */
 package voldemort.serialization.avro;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
-import org.apache.avro.io.BinaryEncoder;
-import org.apache.avro.io.Decoder;
-import org.apache.avro.io.DecoderFactory;
-import org.apache.avro.io.Encoder;
 import org.apache.avro.reflect.ReflectDatumReader;
 import org.apache.avro.reflect.ReflectDatumWriter;
 
@@ -51,6 +46,8 @@ import voldemort.serialization.Serializer;
 public class AvroReflectiveSerializer<T> implements Serializer<T> {
 
     private final Class<T> clazz;
+    private final ReflectDatumWriter<T> datumWriter;
+    private final ReflectDatumReader<T> datumReader;
 
     /**
      * Constructor accepting a Java class name under the convention
@@ -65,30 +62,21 @@ public class AvroReflectiveSerializer<T> implements Serializer<T> {
         } catch(ClassNotFoundException e) {
             throw new SerializationException(e);
         }
+        datumWriter = new ReflectDatumWriter<T>(clazz);
+        datumReader = new ReflectDatumReader<T>(clazz);
     }
 
     public byte[] toBytes(T object) {
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        Encoder encoder = new BinaryEncoder(output);
-        ReflectDatumWriter<T> datumWriter = null;
         try {
-            datumWriter = new ReflectDatumWriter<T>(clazz);
-            datumWriter.write(object, encoder);
-            encoder.flush();
+            return AvroBuffers.toBytes(datumWriter, object);
         } catch(IOException e) {
             throw new SerializationException(e);
-        } finally {
-            SerializationUtils.close(output);
         }
-        return output.toByteArray();
     }
 
     public T toObject(byte[] bytes) {
-        Decoder decoder = DecoderFactory.defaultFactory().createBinaryDecoder(bytes, null);
-        ReflectDatumReader<T> reader = null;
         try {
-            reader = new ReflectDatumReader<T>(clazz);
-            return reader.read(null, decoder);
+            return AvroBuffers.toObject(datumReader, bytes, 0);
         } catch(IOException e) {
             throw new SerializationException(e);
         }
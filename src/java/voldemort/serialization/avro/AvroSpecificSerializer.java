@@ -15,13 +15,8 @@
  */
 package voldemort.serialization.avro;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
-import org.apache.avro.io.BinaryEncoder;
-import org.apache.avro.io.Decoder;
-import org.apache.avro.io.DecoderFactory;
-import org.apache.avro.io.Encoder;
 import org.apache.avro.specific.SpecificDatumReader;
 import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.avro.specific.SpecificRecord;
@@ -47,6 +42,8 @@ import voldemort.serialization.Serializer;
 public class AvroSpecificSerializer<T extends SpecificRecord> implements Serializer<T> {
 
     private final Class<T> clazz;
+    private final SpecificDatumWriter<T> datumWriter;
+    private final SpecificDatumReader<T> datumReader;
 
     /**
      * Constructor accepting a Java class name under the convention
@@ -63,30 +60,21 @@ public class AvroSpecificSerializer<T extends SpecificRecord> implements Seriali
         } catch(ClassNotFoundException e) {
             throw new SerializationException(e);
         }
+        datumWriter = new SpecificDatumWriter<T>(clazz);
+        datumReader = new SpecificDatumReader<T>(clazz);
     }
 
     public byte[] toBytes(T object) {
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        Encoder encoder = new BinaryEncoder(output);
-        SpecificDatumWriter<T> datumWriter = null;
         try {
-            datumWriter = new SpecificDatumWriter<T>(clazz);
-            datumWriter.write(object, encoder);
-            encoder.flush();
+            return AvroBuffers.toBytes(datumWriter, object);
         } catch(IOException e) {
             throw new SerializationException(e);
-        } finally {
-            SerializationUtils.close(output);
         }
-        return output.toByteArray();
     }
 
     public T toObject(byte[] bytes) {
-        Decoder decoder = DecoderFactory.defaultFactory().createBinaryDecoder(bytes, null);
-        SpecificDatumReader<T> reader = null;
         try {
-            reader = new SpecificDatumReader<T>(clazz);
-            return reader.read(null, decoder);
+            return AvroBuffers.toObject(datumReader, bytes, 0);
         } catch(IOException e) {
             throw new SerializationException(e);
         }
@@ -31,6 +31,7 @@ import voldemort.server.scheduler.slop.StreamingSlopPusherJob;
 import voldemort.store.bdb.BdbStorageConfiguration;
 import voldemort.store.memory.CacheStorageConfiguration;
 import voldemort.store.memory.InMemoryStorageConfiguration;
+import voldemort.store.memory.OffHeapCacheStorageConfiguration;
 import voldemort.store.mysql.MysqlStorageConfiguration;
 import voldemort.store.readonly.BinarySearchStrategy;
 import voldemort.store.readonly.ReadOnlyStorageConfiguration;
@@ -90,6 +91,8 @@ public class VoldemortConfig implements Serializable {
     private boolean bdbCleanerLazyMigration;
     private boolean bdbCacheModeEvictLN;
     private boolean bdbMinimizeScanImpact;
+    private boolean bdbGroupCommit;
+    private int bdbGroupCommitMaxBatchSize;
     private boolean bdbPrefixKeysWithPartitionId;
     private boolean bdbLevelBasedEviction;
     private boolean bdbProactiveBackgroundMigration;
@@ -108,6 +111,7 @@ public class VoldemortConfig implements Serializable {
     private long minBytesPerSecond;
     private long reportingIntervalBytes;
     private int fetcherBufferSize;
+    private int fetcherNumStreams;
 
     private OpTimeMap testingSlowQueueingDelays;
     private OpTimeMap testingSlowConcurrentDelays;
@@ -123,6 +127,9 @@ public class VoldemortConfig implements Serializable {
     private int nioConnectorSelectors;
     private int nioAdminConnectorSelectors;
     private int nioAcceptorBacklog;
+    private int nioConnectorWorkerThreads;
+    private int nioConnectorWorkerQueueSize;
+    private int nioConnectorBufferPoolSize;
 
     private int clientSelectors;
     private int clientRoutingTimeoutMs;
@@ -160,6 +167,9 @@ public class VoldemortConfig implements Serializable {
 
     private List<String> storageConfigurations;
 
+    private long offHeapCacheSize;
+    private int offHeapCacheSegments;
+
     private Props allProps;
 
     private String slopStoreType;
@@ -174,6 +184,9 @@ public class VoldemortConfig implements Serializable {
     private int adminCoreThreads;
     private int adminMaxThreads;
     private int adminStreamBufferSize;
+    private int adminStreamPutBatchSize;
+    private int adminStreamBlockEntries;
+    private String adminStreamBlockCompression;
     private int adminSocketTimeout;
     private int adminConnectionTimeout;
 
@@ -206,6 +219,12 @@ public class VoldemortConfig implements Serializable {
     // flag to indicate if we will mlock and pin index pages in memory
     private boolean useMlock;
 
+    // flag to indicate if read-only data files are read through mmap
+    private boolean readOnlyMmapData;
+
+    private int readOnlyGetAllThreads;
+    private boolean readOnlyGetAllPrefetch;
+
     public VoldemortConfig(Properties props) {
         this(new Props(props));
     }
@@ -250,6 +269,8 @@ public class VoldemortConfig implements Serializable {
         this.bdbCleanerLazyMigration = props.getBoolean("bdb.cleaner.lazy.migration", true);
         this.bdbCacheModeEvictLN = props.getBoolean("bdb.cache.evictln", false);
         this.bdbMinimizeScanImpact = props.getBoolean("bdb.minimize.scan.impact", false);
+        this.bdbGroupCommit = props.getBoolean("bdb.group.commit", false);
+        this.bdbGroupCommitMaxBatchSize = props.getInt("bdb.group.commit.max.batch.size", 256);
         this.bdbPrefixKeysWithPartitionId = props.getBoolean("bdb.prefix.keys.with.partitionid",
                                                              true);
         this.bdbLevelBasedEviction = props.getBoolean("bdb.evict.by.level", false);
@@ -269,9 +290,13 @@ public class VoldemortConfig implements Serializable {
                                                      REPORTING_INTERVAL_BYTES);
         this.fetcherBufferSize = (int) props.getBytes("hdfs.fetcher.buffer.size",
                                                       DEFAULT_BUFFER_SIZE);
+        this.fetcherNumStreams = props.getInt("hdfs.fetcher.num.streams", 1);
 
         // TODO probably turn to false by default?
         this.setUseMlock(props.getBoolean("readonly.mlock.index", true));
+        this.readOnlyMmapData = props.getBoolean("readonly.mmap.data", false);
+        this.readOnlyGetAllThreads = props.getInt("readonly.getall.threads", 0);
+        this.readOnlyGetAllPrefetch = props.getBoolean("readonly.getall.prefetch", false);
 
         this.mysqlUsername = props.getString("mysql.user", "root");
         this.mysqlPassword = props.getString("mysql.password", "");
@@ -315,6 +340,9 @@ public class VoldemortConfig implements Serializable {
         this.adminCoreThreads = props.getInt("admin.core.threads", Math.max(1, adminMaxThreads / 2));
         this.adminStreamBufferSize = (int) props.getBytes("admin.streams.buffer.size",
                                                           10 * 1000 * 1000);
+        this.adminStreamPutBatchSize = props.getInt("admin.streams.put.batch.size", 1000);
+        this.adminStreamBlockEntries = props.getInt("admin.streams.block.entries", 1);
+        this.adminStreamBlockCompression = props.getString("admin.streams.block.compression", null);
         this.adminConnectionTimeout = props.getInt("admin.client.connection.timeout.sec", 60);
         this.adminSocketTimeout = props.getInt("admin.client.socket.timeout.sec", 24 * 60 * 60);
 
@@ -335,6 +363,11 @@ public class VoldemortConfig implements Serializable {
                                                                           .availableProcessors()));
         // a value <= 0 forces the default to be used
         this.nioAcceptorBacklog = props.getInt("nio.acceptor.backlog", -1);
+        // 0 executes requests on the selector threads themselves
+        this.nioConnectorWorkerThreads = props.getInt("nio.connector.worker.threads", 0);
+        this.nioConnectorWorkerQueueSize = props.getInt("nio.connector.worker.queue.size", 1000);
+        // 0 keeps per connection heap buffers instead of pooled direct ones
+        this.nioConnectorBufferPoolSize = props.getInt("nio.connector.buffer.pool.size", 0);
 
         this.clientSelectors = props.getInt("client.selectors", 4);
         this.clientMaxConnectionsPerNode = props.getInt("client.max.connections.per.node", 50);
@@ -400,8 +433,12 @@ public class VoldemortConfig implements Serializable {
                                                                     MysqlStorageConfiguration.class.getName(),
                                                                     InMemoryStorageConfiguration.class.getName(),
                                                                     CacheStorageConfiguration.class.getName(),
+                                                                    OffHeapCacheStorageConfiguration.class.getName(),
                                                                     ReadOnlyStorageConfiguration.class.getName()));
 
+        this.offHeapCacheSize = props.getBytes("offheap.cache.size", 64 * 1024 * 1024);
+        this.offHeapCacheSegments = props.getInt("offheap.cache.segments", 16);
+
         // start at midnight (0-23)
         this.retentionCleanupFirstStartTimeInHour = props.getInt("retention.cleanup.first.start.hour",
                                                                  0);
@@ -1009,6 +1046,41 @@ public class VoldemortConfig implements Serializable {
         this.bdbMinimizeScanImpact = bdbMinimizeScanImpact;
     }
 
+    /**
+     * If true, concurrent puts and deletes to a store are gathered into a
+     * single BDB transaction, so that they share one commit and, with
+     * bdb.flush.transactions, one flush of the log
+     * 
+     * <ul>
+     * <li>Property : "bdb.group.commit"</li>
+     * <li>Default : false</li>
+     * </ul>
+     */
+    public boolean isBdbGroupCommitEnabled() {
+        return bdbGroupCommit;
+    }
+
+    public void setBdbGroupCommit(boolean bdbGroupCommit) {
+        this.bdbGroupCommit = bdbGroupCommit;
+    }
+
+    /**
+     * The maximum number of writes committed in one transaction when
+     * bdb.group.commit is enabled
+     * 
+     * <ul>
+     * <li>Property : "bdb.group.commit.max.batch.size"</li>
+     * <li>Default : 256</li>
+     * </ul>
+     */
+    public int getBdbGroupCommitMaxBatchSize() {
+        return bdbGroupCommitMaxBatchSize;
+    }
+
+    public void setBdbGroupCommitMaxBatchSize(int bdbGroupCommitMaxBatchSize) {
+        this.bdbGroupCommitMaxBatchSize = bdbGroupCommitMaxBatchSize;
+    }
+
     /**
      * Controls persistence mode for BDB JE Transaction. By default, we rely on
      * the checkpointer to flush the writes
@@ -1582,6 +1654,59 @@ public class VoldemortConfig implements Serializable {
         this.readOnlyDeleteBackupTimeMs = readOnlyDeleteBackupTimeMs;
     }
 
+    /**
+     * Memory-map the data files of read-only stores and serve values straight
+     * out of the mappings, instead of issuing file reads for every value
+     * 
+     * <ul>
+     * <li>Property : "readonly.mmap.data"</li>
+     * <li>Default : false</li>
+     * </ul>
+     */
+    public boolean isReadOnlyMmapData() {
+        return readOnlyMmapData;
+    }
+
+    public void setReadOnlyMmapData(boolean readOnlyMmapData) {
+        this.readOnlyMmapData = readOnlyMmapData;
+    }
+
+    /**
+     * Number of threads shared by all read-only stores to search the indexes
+     * of different chunks in parallel during a getAll. If set to 0, the
+     * searches are done on the calling thread.
+     * 
+     * <ul>
+     * <li>Property : "readonly.getall.threads"</li>
+     * <li>Default : 0</li>
+     * </ul>
+     */
+    public int getReadOnlyGetAllThreads() {
+        return readOnlyGetAllThreads;
+    }
+
+    public void setReadOnlyGetAllThreads(int readOnlyGetAllThreads) {
+        this.readOnlyGetAllThreads = readOnlyGetAllThreads;
+    }
+
+    /**
+     * Advise the kernel (posix_fadvise WILLNEED) about all the data file
+     * pages a getAll on a read-only store is about to read, before reading
+     * any of them
+     * 
+     * <ul>
+     * <li>Property : "readonly.getall.prefetch"</li>
+     * <li>Default : false</li>
+     * </ul>
+     */
+    public boolean isReadOnlyGetAllPrefetch() {
+        return readOnlyGetAllPrefetch;
+    }
+
+    public void setReadOnlyGetAllPrefetch(boolean readOnlyGetAllPrefetch) {
+        this.readOnlyGetAllPrefetch = readOnlyGetAllPrefetch;
+    }
+
     public int getSocketBufferSize() {
         return socketBufferSize;
     }
@@ -1630,6 +1755,30 @@ public class VoldemortConfig implements Serializable {
         this.nioAcceptorBacklog = nioAcceptorBacklog;
     }
 
+    public int getNioConnectorWorkerThreads() {
+        return nioConnectorWorkerThreads;
+    }
+
+    public void setNioConnectorWorkerThreads(int nioConnectorWorkerThreads) {
+        this.nioConnectorWorkerThreads = nioConnectorWorkerThreads;
+    }
+
+    public int getNioConnectorWorkerQueueSize() {
+        return nioConnectorWorkerQueueSize;
+    }
+
+    public void setNioConnectorWorkerQueueSize(int nioConnectorWorkerQueueSize) {
+        this.nioConnectorWorkerQueueSize = nioConnectorWorkerQueueSize;
+    }
+
+    public int getNioConnectorBufferPoolSize() {
+        return nioConnectorBufferPoolSize;
+    }
+
+    public void setNioConnectorBufferPoolSize(int nioConnectorBufferPoolSize) {
+        this.nioConnectorBufferPoolSize = nioConnectorBufferPoolSize;
+    }
+
     public int getAdminSocketBufferSize() {
         return adminStreamBufferSize;
     }
@@ -1638,6 +1787,58 @@ public class VoldemortConfig implements Serializable {
         this.adminStreamBufferSize = socketBufferSize;
     }
 
+    /**
+     * The number of streamed entries that restore, repair and rebalancing
+     * write to a storage engine at once
+     * 
+     * <ul>
+     * <li>Property : "admin.streams.put.batch.size"</li>
+     * <li>Default : 1000</li>
+     * </ul>
+     */
+    public int getAdminStreamPutBatchSize() {
+        return adminStreamPutBatchSize;
+    }
+
+    public void setAdminStreamPutBatchSize(int adminStreamPutBatchSize) {
+        this.adminStreamPutBatchSize = adminStreamPutBatchSize;
+    }
+
+    /**
+     * The most entries that restore, repair and rebalancing pack into one
+     * message when they stream entries between servers. Above 1, every server
+     * in the cluster must support blocks of entries.
+     * 
+     * <ul>
+     * <li>Property : "admin.streams.block.entries"</li>
+     * <li>Default : 1</li>
+     * </ul>
+     */
+    public int getAdminStreamBlockEntries() {
+        return adminStreamBlockEntries;
+    }
+
+    public void setAdminStreamBlockEntries(int adminStreamBlockEntries) {
+        this.adminStreamBlockEntries = adminStreamBlockEntries;
+    }
+
+    /**
+     * The compression of the blocks of streamed entries: gzip, lzf, snappy or
+     * none
+     * 
+     * <ul>
+     * <li>Property : "admin.streams.block.compression"</li>
+     * <li>Default : none</li>
+     * </ul>
+     */
+    public String getAdminStreamBlockCompression() {
+        return adminStreamBlockCompression;
+    }
+
+    public void setAdminStreamBlockCompression(String adminStreamBlockCompression) {
+        this.adminStreamBlockCompression = adminStreamBlockCompression;
+    }
+
     public List<String> getStorageConfigurations() {
         return storageConfigurations;
     }
@@ -1646,6 +1847,41 @@ public class VoldemortConfig implements Serializable {
         this.storageConfigurations = storageConfigurations;
     }
 
+    /**
+     * The number of bytes each store of the offheap-cache storage engine may
+     * use outside of the java heap for its keys and values.
+     * 
+     * <ul>
+     * <li>Property : "offheap.cache.size"</li>
+     * <li>Default : 64MB</li>
+     * </ul>
+     */
+    public long getOffHeapCacheSize() {
+        return offHeapCacheSize;
+    }
+
+    public void setOffHeapCacheSize(long offHeapCacheSize) {
+        this.offHeapCacheSize = offHeapCacheSize;
+    }
+
+    /**
+     * The number of independently locked segments of each offheap-cache store.
+     * Every segment evicts on its own once it has used its share of the cache
+     * size.
+     * 
+     * <ul>
+     * <li>Property : "offheap.cache.segments"</li>
+     * <li>Default : 16</li>
+     * </ul>
+     */
+    public int getOffHeapCacheSegments() {
+        return offHeapCacheSegments;
+    }
+
+    public void setOffHeapCacheSegments(int offHeapCacheSegments) {
+        this.offHeapCacheSegments = offHeapCacheSegments;
+    }
+
     public Props getAllProps() {
         return this.allProps;
     }
@@ -1866,6 +2102,20 @@ public class VoldemortConfig implements Serializable {
         this.fetcherBufferSize = fetcherBufferSize;
     }
 
+    public int getFetcherNumStreams() {
+        return fetcherNumStreams;
+    }
+
+    /**
+     * The number of files of a read-only store version the HDFS fetcher copies
+     * at once. The files share the fetcher's throttle rate.
+     * 
+     * @param fetcherNumStreams The number of files to copy at once
+     */
+    public void setFetcherNumStreams(int fetcherNumStreams) {
+        this.fetcherNumStreams = fetcherNumStreams;
+    }
+
     public void setReadOnlySearchStrategy(String readOnlySearchStrategy) {
         this.readOnlySearchStrategy = readOnlySearchStrategy;
     }
@@ -188,7 +188,10 @@ public class VoldemortServer extends AbstractService {
                                                   voldemortConfig.getNioConnectorSelectors(),
                                                   "nio-socket-server",
                                                   voldemortConfig.isJmxEnabled(),
-                                                  voldemortConfig.getNioAcceptorBacklog()));
+                                                  voldemortConfig.getNioAcceptorBacklog(),
+                                                  voldemortConfig.getNioConnectorWorkerThreads(),
+                                                  voldemortConfig.getNioConnectorWorkerQueueSize(),
+                                                  voldemortConfig.getNioConnectorBufferPoolSize()));
             } else {
                 logger.info("Using BIO Connector.");
                 services.add(new SocketService(socketRequestHandlerFactory,
@@ -16,14 +16,21 @@
 
 package voldemort.server.niosocket;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.mutable.MutableInt;
 import org.apache.log4j.Level;
@@ -36,6 +43,7 @@ import voldemort.server.protocol.StreamRequestHandler;
 import voldemort.server.protocol.StreamRequestHandler.StreamRequestDirection;
 import voldemort.server.protocol.StreamRequestHandler.StreamRequestHandlerState;
 import voldemort.utils.ByteUtils;
+import voldemort.utils.DirectByteBufferPool;
 import voldemort.utils.SelectorManagerWorker;
 
 /**
@@ -47,6 +55,12 @@ import voldemort.utils.SelectorManagerWorker;
  * The bulk of the complexity in this class surrounds partial reads and writes,
  * as well as determining when all the data needed for the request has been
  * read.
+ * <p/>
+ * With a pipelined request format and a worker pool, every complete request
+ * frame is executed on the worker pool as soon as it has been read, and its
+ * response is written as soon as it is ready, so that a slow request doesn't
+ * hold up the ones behind it. The client matches responses to requests by the
+ * request id of the frame.
  * 
  * 
  * @see voldemort.server.protocol.RequestHandler
@@ -62,18 +76,101 @@ public class AsyncRequestHandler extends SelectorManagerWorker {
 
     private MutableInt serverConnectionCount;
 
+    private final NioSelectorManager selectorManager;
+
+    private final NioRequestWorkerPool workerPool;
+
+    private boolean pipelined;
+
+    private byte[] pendingInput;
+
+    private final DirectByteBufferPool bufferPool;
+
+    private ByteBuffer pooledInputBuffer;
+
+    private ByteBuffer pooledOutputBuffer;
+
+    /*
+     * Set while a worker thread executes a request with our buffers, which
+     * close() must then leave to the worker to release
+     */
+    private final AtomicBoolean inFlight = new AtomicBoolean(false);
+
+    /*
+     * Multiplexed frames still executing on the worker pool, and the responses
+     * of those that have completed but are not written yet
+     */
+    private final AtomicInteger outstandingFrames = new AtomicInteger(0);
+
+    private final Queue<byte[]> completedResponses = new ConcurrentLinkedQueue<byte[]>();
+
+    /*
+     * Set by a worker whose request failed, for the selector thread to close
+     * the connection, since only the selector thread may touch the channel
+     * and its buffers
+     */
+    private volatile boolean requestFailed;
+
+    // Only used by the selector thread
+    private boolean writingResponses;
+
     public AsyncRequestHandler(Selector selector,
                                SocketChannel socketChannel,
                                RequestHandlerFactory requestHandlerFactory,
                                int socketBufferSize,
                                MutableInt serverConnectionCount) {
-        super(selector, socketChannel, socketBufferSize);
+        this(selector,
+             socketChannel,
+             requestHandlerFactory,
+             socketBufferSize,
+             serverConnectionCount,
+             null,
+             null,
+             null);
+    }
+
+    /**
+     * @param selectorManager The selector manager that owns the selector; used
+     *        to hand requests completed by the worker pool back to the
+     *        selector thread
+     * @param workerPool Pool on which to execute complete requests, or null to
+     *        execute them on the selector thread
+     * @param bufferPool Pool from which to borrow socket buffers while a
+     *        request is in flight, or null to keep heap buffers for the
+     *        lifetime of the connection
+     */
+    public AsyncRequestHandler(Selector selector,
+                               SocketChannel socketChannel,
+                               RequestHandlerFactory requestHandlerFactory,
+                               int socketBufferSize,
+                               MutableInt serverConnectionCount,
+                               NioSelectorManager selectorManager,
+                               NioRequestWorkerPool workerPool,
+                               DirectByteBufferPool bufferPool) {
+        super(selector,
+              socketChannel,
+              socketBufferSize,
+              initialBuffer(socketBufferSize, bufferPool),
+              initialBuffer(socketBufferSize, bufferPool));
         this.requestHandlerFactory = requestHandlerFactory;
         this.serverConnectionCount = serverConnectionCount;
+        this.selectorManager = selectorManager;
+        this.workerPool = workerPool;
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Pooled connections start out idle with empty buffers and only borrow
+     * real ones once a request arrives.
+     */
+    private static ByteBuffer initialBuffer(int socketBufferSize, DirectByteBufferPool bufferPool) {
+        return ByteBuffer.allocate(bufferPool == null ? socketBufferSize : 0);
     }
 
     @Override
     protected void read(SelectionKey selectionKey) throws IOException {
+        borrowBuffers();
+
         int count = 0;
 
         long startNs = -1;
@@ -113,6 +210,11 @@ public class AsyncRequestHandler extends SelectorManagerWorker {
             return;
         }
 
+        if(isMultiplexed()) {
+            dispatchFrames(startNs);
+            return;
+        }
+
         if(!requestHandler.isCompleteRequest(inputStream.getBuffer())) {
             // Ouch - we're missing some data for a full request, so handle that
             // and return.
@@ -124,6 +226,65 @@ public class AsyncRequestHandler extends SelectorManagerWorker {
         // rewind the buffer for reading and execute the request.
         inputStream.getBuffer().rewind();
 
+        if(workerPool != null && selectorManager != null) {
+            inFlight.set(true);
+            if(workerPool.submit(new RequestExecution(startNs))) {
+                // The worker owns the buffers until it hands the request back
+                // to us via the selector manager, so stop selecting on this
+                // channel in the meantime. If the pool was saturated we simply
+                // fall through and execute the request on the selector thread.
+                selectionKey.interestOps(0);
+                return;
+            }
+            inFlight.set(false);
+        }
+
+        executeRequest(startNs);
+        finishRequest(selectionKey);
+    }
+
+    private boolean isMultiplexed() {
+        return pipelined && workerPool != null && selectorManager != null;
+    }
+
+    /**
+     * Hands every complete frame in the input buffer to the worker pool, and
+     * keeps what is left of a partial frame for the next read. The frames are
+     * copied out, so the workers never touch the connection's buffers.
+     */
+    private void dispatchFrames(long startNs) {
+        ByteBuffer inputBuffer = inputStream.getBuffer();
+
+        while(inputBuffer.hasRemaining()) {
+            int frameStart = inputBuffer.position();
+
+            if(!requestHandler.isCompleteRequest(inputBuffer)) {
+                inputBuffer.position(frameStart);
+                break;
+            }
+
+            byte[] frame = new byte[inputBuffer.position() - frameStart];
+            inputBuffer.position(frameStart);
+            inputBuffer.get(frame);
+
+            outstandingFrames.incrementAndGet();
+            FrameExecution execution = new FrameExecution(frame, startNs);
+
+            // If the pool is saturated, execute the frame on the selector
+            // thread; its response is still written via the selector manager
+            if(!workerPool.submit(execution))
+                execution.run();
+        }
+
+        if(inputBuffer.hasRemaining()) {
+            inputBuffer.compact();
+            handleIncompleteRequest(inputBuffer.position());
+        } else {
+            resetInputBuffer();
+        }
+    }
+
+    private void executeRequest(long startNs) throws IOException {
         if(logger.isTraceEnabled())
             logger.trace("Starting execution for " + socketChannel.socket());
 
@@ -133,6 +294,9 @@ public class AsyncRequestHandler extends SelectorManagerWorker {
         streamRequestHandler = requestHandler.handleRequest(dataInputStream,
 							    dataOutputStream);
 
+        if(pipelined && streamRequestHandler == null)
+            handlePipelinedRequests(dataInputStream, dataOutputStream);
+
         if(logger.isDebugEnabled()) {
             logger.debug("AsyncRequestHandler:read finished request from "
                          + socketChannel.socket().getRemoteSocketAddress() + " handlerRef: "
@@ -140,7 +304,55 @@ public class AsyncRequestHandler extends SelectorManagerWorker {
                          + System.currentTimeMillis() + " elapsed time: "
                          + (System.nanoTime() - startNs) + " ns");
         }
+    }
+
+    /**
+     * With a pipelined request format the client may have sent more requests
+     * behind the one just handled. Handle every complete one now, appending
+     * their responses to the output, and hold on to a trailing partial request
+     * so that it survives the input buffer being reset for the write.
+     */
+    private void handlePipelinedRequests(DataInputStream dataInputStream,
+                                         DataOutputStream dataOutputStream) throws IOException {
+        ByteBuffer inputBuffer = inputStream.getBuffer();
+
+        while(inputBuffer.hasRemaining()) {
+            int requestStart = inputBuffer.position();
+            boolean isComplete = requestHandler.isCompleteRequest(inputBuffer);
+            inputBuffer.position(requestStart);
+
+            if(!isComplete) {
+                pendingInput = new byte[inputBuffer.remaining()];
+                inputBuffer.get(pendingInput);
+
+                if(logger.isTraceEnabled())
+                    logger.trace("Holding on to " + pendingInput.length
+                                 + " bytes of a partial pipelined request for "
+                                 + socketChannel.socket());
+
+                return;
+            }
+
+            requestHandler.handleRequest(dataInputStream, dataOutputStream);
+        }
+    }
+
+    private void restorePendingInput() {
+        if(pendingInput == null)
+            return;
+
+        if(inputStream.getBuffer().capacity() < pendingInput.length)
+            inputStream.setBuffer(ByteUtils.expand(inputStream.getBuffer(),
+                                                   pendingInput.length * 2));
+
+        inputStream.getBuffer().put(pendingInput);
+        pendingInput = null;
+
+        if(logger.isTraceEnabled())
+            traceInputBufferState("Restored partial pipelined request");
+    }
 
+    private void finishRequest(SelectionKey selectionKey) throws IOException {
         if(streamRequestHandler != null) {
             // In the case of a StreamRequestHandler, we handle that separately
             // (attempting to process multiple "segments").
@@ -154,10 +366,188 @@ public class AsyncRequestHandler extends SelectorManagerWorker {
             logger.trace("Finished execution for " + socketChannel.socket());
 
         prepForWrite(selectionKey);
+        restorePendingInput();
+    }
+
+    /**
+     * Invoked on the selector thread once a request executed by the worker
+     * pool has completed, to resume normal processing of the connection.
+     */
+    void completeRequest() {
+        if(isClosed())
+            return;
+
+        if(requestFailed) {
+            close();
+            return;
+        }
+
+        try {
+            SelectionKey selectionKey = socketChannel.keyFor(selector);
+
+            if(selectionKey == null || !selectionKey.isValid()) {
+                close();
+                return;
+            }
+
+            if(isMultiplexed()) {
+                writeCompletedResponses(selectionKey);
+                return;
+            }
+
+            // Streaming requests are driven from the selector thread exactly
+            // as if they had been executed inline, which expects us to be
+            // interested in reads.
+            if(streamRequestHandler != null)
+                selectionKey.interestOps(SelectionKey.OP_READ);
+
+            finishRequest(selectionKey);
+        } catch(CancelledKeyException e) {
+            close();
+        } catch(IOException e) {
+            logger.info("Connection reset from " + socketChannel.socket() + " with message - "
+                        + e.getMessage());
+            close();
+        } catch(Throwable t) {
+            if(logger.isEnabledFor(Level.ERROR))
+                logger.error(t.getMessage(), t);
+
+            close();
+        }
+    }
+
+    private class RequestExecution implements Runnable {
+
+        private final long startNs;
+
+        private RequestExecution(long startNs) {
+            this.startNs = startNs;
+        }
+
+        public void run() {
+            try {
+                executeRequest(startNs);
+            } catch(IOException e) {
+                logger.info("Connection reset from " + socketChannel.socket() + " with message - "
+                            + e.getMessage());
+                requestFailed = true;
+            } catch(Throwable t) {
+                if(logger.isEnabledFor(Level.ERROR))
+                    logger.error(t.getMessage(), t);
+
+                requestFailed = true;
+            } finally {
+                // If the connection was closed while we were using the
+                // buffers, close() left them to us
+                inFlight.set(false);
+                if(isClosed())
+                    releaseBuffers();
+            }
+
+            // The selector thread closes the connection if the request failed
+            selectorManager.requestCompleted(AsyncRequestHandler.this);
+        }
+    }
+
+    private class FrameExecution implements Runnable {
+
+        private final byte[] frame;
+
+        private final long startNs;
+
+        private FrameExecution(byte[] frame, long startNs) {
+            this.frame = frame;
+            this.startNs = startNs;
+        }
+
+        public void run() {
+            try {
+                ByteArrayOutputStream response = new ByteArrayOutputStream();
+                DataOutputStream dataOutputStream = new DataOutputStream(response);
+
+                if(requestHandler.handleRequest(new DataInputStream(new ByteArrayInputStream(frame)),
+                                                dataOutputStream) != null)
+                    throw new VoldemortException("Streaming requests can not be multiplexed");
+
+                dataOutputStream.flush();
+                completedResponses.add(response.toByteArray());
+
+                if(logger.isDebugEnabled())
+                    logger.debug("AsyncRequestHandler:FrameExecution finished request from "
+                                 + socketChannel.socket().getRemoteSocketAddress()
+                                 + " at time: " + System.currentTimeMillis()
+                                 + " elapsed time: " + (System.nanoTime() - startNs) + " ns");
+            } catch(IOException e) {
+                logger.info("Connection reset from " + socketChannel.socket() + " with message - "
+                            + e.getMessage());
+                requestFailed = true;
+            } catch(Throwable t) {
+                if(logger.isEnabledFor(Level.ERROR))
+                    logger.error(t.getMessage(), t);
+
+                requestFailed = true;
+            } finally {
+                // Only after the response is queued, so that a connection with
+                // no outstanding frames has its responses all queued
+                outstandingFrames.decrementAndGet();
+            }
+
+            selectorManager.requestCompleted(AsyncRequestHandler.this);
+        }
+    }
+
+    /**
+     * Starts writing the responses completed so far, unless the previous ones
+     * are still being written; write() comes back here once they are.
+     */
+    private void writeCompletedResponses(SelectionKey selectionKey) throws IOException {
+        if(writingResponses || completedResponses.isEmpty())
+            return;
+
+        borrowBuffers();
+
+        byte[] response;
+        while((response = completedResponses.poll()) != null)
+            outputStream.write(response);
+
+        outputStream.getBuffer().flip();
+        writingResponses = true;
+        selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    private void writeResponses(SelectionKey selectionKey) throws IOException {
+        int count = socketChannel.write(outputStream.getBuffer());
+
+        if(logger.isTraceEnabled())
+            logger.trace("Wrote " + count + " bytes, remaining: "
+                         + outputStream.getBuffer().remaining() + " for "
+                         + socketChannel.socket());
+
+        if(outputStream.getBuffer().hasRemaining())
+            return;
+
+        resetOutputBuffer();
+        writingResponses = false;
+        writeCompletedResponses(selectionKey);
+
+        if(!writingResponses) {
+            selectionKey.interestOps(SelectionKey.OP_READ);
+
+            // Idle until the next request, unless frames are still executing
+            // or part of the next one is already buffered
+            if(outstandingFrames.get() == 0 && completedResponses.isEmpty()
+               && inputStream.getBuffer().position() == 0)
+                releaseBuffers();
+        }
     }
 
     @Override
     protected void write(SelectionKey selectionKey) throws IOException {
+        if(writingResponses) {
+            writeResponses(selectionKey);
+            return;
+        }
+
         if(outputStream.getBuffer().hasRemaining()) {
             // If we have data, write what we can now...
             try {
@@ -189,10 +579,7 @@ public class AsyncRequestHandler extends SelectorManagerWorker {
 
         // If we don't have anything else to write, that means we're done with
         // the request! So clear the buffers (resizing if necessary).
-        if(outputStream.getBuffer().capacity() >= resizeThreshold)
-            outputStream.setBuffer(ByteBuffer.allocate(socketBufferSize));
-        else
-            outputStream.getBuffer().clear();
+        resetOutputBuffer();
 
         if(streamRequestHandler != null
            && streamRequestHandler.getDirection() == StreamRequestDirection.WRITING) {
@@ -208,7 +595,67 @@ public class AsyncRequestHandler extends SelectorManagerWorker {
             // If we're not streaming writes, signal the Selector that we're
             // ready to read the next request.
             selectionKey.interestOps(SelectionKey.OP_READ);
+
+            // Unless part of the next request is already buffered, the
+            // connection is idle until then and doesn't need its buffers.
+            if(streamRequestHandler == null && inputStream.getBuffer().position() == 0)
+                releaseBuffers();
+        }
+    }
+
+    /**
+     * Borrows buffers from the buffer pool, if there is one and the connection
+     * doesn't hold them already.
+     */
+    private void borrowBuffers() {
+        if(bufferPool == null || pooledInputBuffer != null)
+            return;
+
+        pooledInputBuffer = bufferPool.acquire();
+        pooledOutputBuffer = bufferPool.acquire();
+        inputStream.setBuffer(pooledInputBuffer);
+        outputStream.setBuffer(pooledOutputBuffer);
+    }
+
+    /*
+     * Synchronized as close() and a worker finishing its request may both get
+     * here for a connection closed during the request
+     */
+    private synchronized void releaseBuffers() {
+        if(pooledInputBuffer == null)
+            return;
+
+        inputStream.setBuffer(ByteBuffer.allocate(0));
+        outputStream.setBuffer(ByteBuffer.allocate(0));
+        bufferPool.release(pooledInputBuffer);
+        bufferPool.release(pooledOutputBuffer);
+        pooledInputBuffer = null;
+        pooledOutputBuffer = null;
+    }
+
+    @Override
+    protected void resetInputBuffer() {
+        if(pooledInputBuffer == null) {
+            super.resetInputBuffer();
+            return;
         }
+
+        // Drop any expanded buffer and go back to the one we borrowed
+        pooledInputBuffer.clear();
+        if(inputStream.getBuffer() != pooledInputBuffer)
+            inputStream.setBuffer(pooledInputBuffer);
+    }
+
+    @Override
+    protected void resetOutputBuffer() {
+        if(pooledOutputBuffer == null) {
+            super.resetOutputBuffer();
+            return;
+        }
+
+        pooledOutputBuffer.clear();
+        if(outputStream.getBuffer() != pooledOutputBuffer)
+            outputStream.setBuffer(pooledOutputBuffer);
     }
 
     private void handleStreamRequest(SelectionKey selectionKey) throws IOException {
@@ -355,6 +802,7 @@ public class AsyncRequestHandler extends SelectorManagerWorker {
             String proto = ByteUtils.getString(protoBytes, "UTF-8");
             RequestFormatType requestFormatType = RequestFormatType.fromCode(proto);
             requestHandler = requestHandlerFactory.getRequestHandler(requestFormatType);
+            pipelined = requestFormatType.isPipelined();
 
             if(logger.isInfoEnabled())
                 logger.info("Protocol negotiated for " + socketChannel.socket() + ": "
@@ -388,5 +836,9 @@ public class AsyncRequestHandler extends SelectorManagerWorker {
 
         serverConnectionCount.decrement();
         closeInternal();
+
+        // A worker still executing a request releases the buffers once done
+        if(!inFlight.get())
+            releaseBuffers();
     }
 }
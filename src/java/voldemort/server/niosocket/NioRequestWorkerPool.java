@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.server.niosocket;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import voldemort.store.stats.RequestCounter;
+import voldemort.utils.DaemonThreadFactory;
+
+/**
+ * A bounded pool of worker threads that execute fully framed requests on
+ * behalf of the {@link NioSelectorManager} threads. This keeps a slow request
+ * (a cold BDB read, a large getAll) from stalling every other connection that
+ * happens to be registered with the same selector.
+ * <p/>
+ * When the queue is full {@link #submit(Runnable)} returns false and the
+ * caller is expected to execute the request itself, which naturally applies
+ * back pressure to the selector.
+ */
+public class NioRequestWorkerPool {
+
+    private static final int STATS_WINDOW_MS = 60 * 1000;
+
+    private final ThreadPoolExecutor threadPool;
+
+    private final RequestCounter queueWaitCounter;
+
+    private final AtomicLong numRejectedRequests;
+
+    public NioRequestWorkerPool(int numThreads, int queueSize, String threadNamePrefix) {
+        if(numThreads <= 0)
+            throw new IllegalArgumentException("Number of worker threads must be positive.");
+        if(queueSize <= 0)
+            throw new IllegalArgumentException("Worker queue size must be positive.");
+
+        this.threadPool = new ThreadPoolExecutor(numThreads,
+                                                 numThreads,
+                                                 0L,
+                                                 TimeUnit.MILLISECONDS,
+                                                 new ArrayBlockingQueue<Runnable>(queueSize),
+                                                 new DaemonThreadFactory(threadNamePrefix));
+        this.queueWaitCounter = new RequestCounter(STATS_WINDOW_MS);
+        this.numRejectedRequests = new AtomicLong(0);
+    }
+
+    /**
+     * Queues the given request for execution on a worker thread.
+     *
+     * @param request The request to execute
+     * @return true if the request was queued, false if the pool is saturated
+     *         (or shut down) and the caller should run the request itself
+     */
+    public boolean submit(final Runnable request) {
+        final long enqueueNs = System.nanoTime();
+
+        try {
+            threadPool.execute(new Runnable() {
+
+                public void run() {
+                    queueWaitCounter.addRequest(System.nanoTime() - enqueueNs);
+                    request.run();
+                }
+            });
+            return true;
+        } catch(RejectedExecutionException e) {
+            numRejectedRequests.incrementAndGet();
+            return false;
+        }
+    }
+
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return threadPool.awaitTermination(timeout, unit);
+    }
+
+    public int getNumThreads() {
+        return threadPool.getMaximumPoolSize();
+    }
+
+    public int getNumActiveWorkers() {
+        return threadPool.getActiveCount();
+    }
+
+    public int getQueueDepth() {
+        return threadPool.getQueue().size();
+    }
+
+    public double getAverageQueueWaitMs() {
+        return queueWaitCounter.getAverageTimeInMs();
+    }
+
+    public long getMaxQueueWaitMs() {
+        return queueWaitCounter.getMaxLatencyInMs();
+    }
+
+    public long getNumRejectedRequests() {
+        return numRejectedRequests.get();
+    }
+}
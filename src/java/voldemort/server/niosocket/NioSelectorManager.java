@@ -27,6 +27,7 @@ import org.apache.commons.lang.mutable.MutableInt;
 import org.apache.log4j.Level;
 
 import voldemort.server.protocol.RequestHandlerFactory;
+import voldemort.utils.DirectByteBufferPool;
 import voldemort.utils.SelectorManager;
 
 /**
@@ -87,6 +88,12 @@ import voldemort.utils.SelectorManager;
  * connections 1 and 3 disconnect. This leaves SelectorManager B with two
  * connections and SelectorManager A with none. There's no provision to
  * re-balance the remaining requests evenly.
+ * <p/>
+ * To keep one slow request from holding up every other connection on a
+ * selector, a {@link NioRequestWorkerPool} may be supplied. In that case the
+ * selector thread only frames complete requests and hands them to the pool;
+ * the worker hands the connection back via {@link #requestCompleted} so that
+ * the response is still written from the selector thread.
  * 
  */
 
@@ -102,14 +109,37 @@ public class NioSelectorManager extends SelectorManager {
 
     private MutableInt numActiveConnections;
 
+    private final NioRequestWorkerPool workerPool;
+
+    private final DirectByteBufferPool bufferPool;
+
+    private final Queue<AsyncRequestHandler> completedRequestQueue;
+
     public NioSelectorManager(InetSocketAddress endpoint,
                               RequestHandlerFactory requestHandlerFactory,
                               int socketBufferSize) {
+        this(endpoint, requestHandlerFactory, socketBufferSize, null, null);
+    }
+
+    /**
+     * @param workerPool If non-null, complete requests are executed on this
+     *        pool rather than on the selector thread
+     * @param bufferPool If non-null, connections borrow their socket buffers
+     *        from this pool while a request is in flight
+     */
+    public NioSelectorManager(InetSocketAddress endpoint,
+                              RequestHandlerFactory requestHandlerFactory,
+                              int socketBufferSize,
+                              NioRequestWorkerPool workerPool,
+                              DirectByteBufferPool bufferPool) {
         this.endpoint = endpoint;
         this.socketChannelQueue = new ConcurrentLinkedQueue<SocketChannel>();
         this.requestHandlerFactory = requestHandlerFactory;
         this.socketBufferSize = socketBufferSize;
         this.numActiveConnections = new MutableInt(0);
+        this.workerPool = workerPool;
+        this.bufferPool = bufferPool;
+        this.completedRequestQueue = new ConcurrentLinkedQueue<AsyncRequestHandler>();
     }
 
     public void accept(SocketChannel socketChannel) {
@@ -120,8 +150,24 @@ public class NioSelectorManager extends SelectorManager {
         selector.wakeup();
     }
 
+    /**
+     * Called by a worker thread once it has executed a request, to hand the
+     * connection back to the selector thread for writing the response.
+     *
+     * @param handler The handler whose request has completed
+     */
+    void requestCompleted(AsyncRequestHandler handler) {
+        completedRequestQueue.add(handler);
+        selector.wakeup();
+    }
+
     @Override
     protected void processEvents() {
+        AsyncRequestHandler completedHandler = null;
+
+        while((completedHandler = completedRequestQueue.poll()) != null)
+            completedHandler.completeRequest();
+
         try {
             SocketChannel socketChannel = null;
 
@@ -160,7 +206,10 @@ public class NioSelectorManager extends SelectorManager {
                                                                              socketChannel,
                                                                              requestHandlerFactory,
                                                                              socketBufferSize,
-                                                                             numActiveConnections);
+                                                                             numActiveConnections,
+                                                                             this,
+                                                                             workerPool,
+                                                                             bufferPool);
 
                     if(!isClosed.get()) {
                         socketChannel.register(selector, SelectionKey.OP_READ, attachment);
@@ -37,6 +37,7 @@ import voldemort.server.AbstractSocketService;
 import voldemort.server.StatusManager;
 import voldemort.server.protocol.RequestHandlerFactory;
 import voldemort.utils.DaemonThreadFactory;
+import voldemort.utils.DirectByteBufferPool;
 
 /**
  * NioSocketService is an NIO-based socket service, comparable to the
@@ -48,6 +49,15 @@ import voldemort.utils.DaemonThreadFactory;
  * to a positive integer value. Otherwise, the number of selectors will be equal
  * to the number of CPUs visible to the JVM.
  * <p/>
+ * By default requests are executed on the selector threads themselves. Setting
+ * "nio.connector.worker.threads" to a positive value instead executes them on
+ * a shared, bounded worker pool (see {@link NioRequestWorkerPool}).
+ * <p/>
+ * Similarly, every connection holds on to its own heap buffers by default.
+ * Setting "nio.connector.buffer.pool.size" to a positive value instead has
+ * connections borrow direct buffers from a shared {@link DirectByteBufferPool}
+ * only while a request is in flight.
+ * <p/>
  * This code uses the NIO APIs directly. It would be a good idea to consider
  * some of the NIO frameworks to handle this more cleanly, efficiently, and to
  * handle corner cases.
@@ -78,6 +88,10 @@ public class NioSocketService extends AbstractSocketService {
 
     private final Thread acceptorThread;
 
+    private final NioRequestWorkerPool workerPool;
+
+    private final DirectByteBufferPool bufferPool;
+
     private final Logger logger = Logger.getLogger(getClass());
 
     public NioSocketService(RequestHandlerFactory requestHandlerFactory,
@@ -87,6 +101,36 @@ public class NioSocketService extends AbstractSocketService {
                             String serviceName,
                             boolean enableJmx,
                             int acceptorBacklog) {
+        this(requestHandlerFactory,
+             port,
+             socketBufferSize,
+             selectors,
+             serviceName,
+             enableJmx,
+             acceptorBacklog,
+             0,
+             0,
+             0);
+    }
+
+    /**
+     * @param workerThreads Number of threads on which to execute requests; if
+     *        zero, requests are executed on the selector threads
+     * @param workerQueueSize Maximum number of requests waiting for a worker
+     *        thread before selectors start executing requests themselves
+     * @param bufferPoolSize Maximum number of pooled direct socket buffers; if
+     *        zero, every connection keeps its own heap buffers
+     */
+    public NioSocketService(RequestHandlerFactory requestHandlerFactory,
+                            int port,
+                            int socketBufferSize,
+                            int selectors,
+                            String serviceName,
+                            boolean enableJmx,
+                            int acceptorBacklog,
+                            int workerThreads,
+                            int workerQueueSize,
+                            int bufferPoolSize) {
         super(ServiceType.SOCKET, port, serviceName, enableJmx);
         this.requestHandlerFactory = requestHandlerFactory;
         this.socketBufferSize = socketBufferSize;
@@ -105,6 +149,18 @@ public class NioSocketService extends AbstractSocketService {
                                                                       new DaemonThreadFactory("voldemort-niosocket-server"));
         this.statusManager = new StatusManager((ThreadPoolExecutor) this.selectorManagerThreadPool);
         this.acceptorThread = new Thread(new Acceptor(), "NioSocketService.Acceptor");
+
+        if(workerThreads > 0)
+            this.workerPool = new NioRequestWorkerPool(workerThreads,
+                                                       workerQueueSize,
+                                                       "voldemort-niosocket-worker");
+        else
+            this.workerPool = null;
+
+        if(bufferPoolSize > 0)
+            this.bufferPool = new DirectByteBufferPool(socketBufferSize, bufferPoolSize);
+        else
+            this.bufferPool = null;
     }
 
     @Override
@@ -122,7 +178,9 @@ public class NioSocketService extends AbstractSocketService {
             for(int i = 0; i < selectorManagers.length; i++) {
                 selectorManagers[i] = new NioSelectorManager(endpoint,
                                                              requestHandlerFactory,
-                                                             socketBufferSize);
+                                                             socketBufferSize,
+                                                             workerPool,
+                                                             bufferPool);
                 selectorManagerThreadPool.execute(selectorManagers[i]);
             }
 
@@ -201,6 +259,23 @@ public class NioSocketService extends AbstractSocketService {
                 logger.warn(e.getMessage(), e);
         }
 
+        if(workerPool != null) {
+            try {
+                // Selectors are gone, so any requests still executing have no
+                // one to write their responses. Let them drain regardless.
+                workerPool.shutdown();
+
+                if(!workerPool.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    if(logger.isEnabledFor(Level.WARN))
+                        logger.warn("Request worker thread pool did not stop cleanly after "
+                                    + SHUTDOWN_TIMEOUT_MS + " ms");
+                }
+            } catch(Exception e) {
+                if(logger.isEnabledFor(Level.WARN))
+                    logger.warn(e.getMessage(), e);
+            }
+        }
+
         try {
             serverSocketChannel.socket().close();
         } catch(Exception e) {
@@ -281,4 +356,59 @@ public class NioSocketService extends AbstractSocketService {
         return sum;
     }
 
+    @JmxGetter(name = "numWorkerThreads", description = "number of request worker threads, 0 if requests are executed on selector threads")
+    public final int getNumWorkerThreads() {
+        return workerPool == null ? 0 : workerPool.getNumThreads();
+    }
+
+    @JmxGetter(name = "numActiveWorkerThreads", description = "number of request worker threads currently executing a request")
+    public final int getNumActiveWorkerThreads() {
+        return workerPool == null ? 0 : workerPool.getNumActiveWorkers();
+    }
+
+    @JmxGetter(name = "workerQueueDepth", description = "number of requests waiting for a request worker thread")
+    public final int getWorkerQueueDepth() {
+        return workerPool == null ? 0 : workerPool.getQueueDepth();
+    }
+
+    @JmxGetter(name = "averageWorkerQueueWaitMs", description = "average time requests spent waiting for a request worker thread")
+    public final double getAverageWorkerQueueWaitMs() {
+        return workerPool == null ? 0 : workerPool.getAverageQueueWaitMs();
+    }
+
+    @JmxGetter(name = "maxWorkerQueueWaitMs", description = "maximum time a request spent waiting for a request worker thread")
+    public final long getMaxWorkerQueueWaitMs() {
+        return workerPool == null ? 0 : workerPool.getMaxQueueWaitMs();
+    }
+
+    @JmxGetter(name = "numWorkerRejectedRequests", description = "number of requests executed on a selector thread because the worker queue was full")
+    public final long getNumWorkerRejectedRequests() {
+        return workerPool == null ? 0 : workerPool.getNumRejectedRequests();
+    }
+
+    @JmxGetter(name = "bufferPoolMaxBuffers", description = "maximum number of pooled socket buffers, 0 if buffers are not pooled")
+    public final int getBufferPoolMaxBuffers() {
+        return bufferPool == null ? 0 : bufferPool.getMaxBuffers();
+    }
+
+    @JmxGetter(name = "bufferPoolNumAllocated", description = "number of pooled socket buffers allocated so far")
+    public final int getBufferPoolNumAllocated() {
+        return bufferPool == null ? 0 : bufferPool.getNumAllocated();
+    }
+
+    @JmxGetter(name = "bufferPoolNumInUse", description = "number of pooled socket buffers currently borrowed by connections")
+    public final int getBufferPoolNumInUse() {
+        return bufferPool == null ? 0 : bufferPool.getNumInUse();
+    }
+
+    @JmxGetter(name = "bufferPoolNumAcquires", description = "number of socket buffers requested from the pool")
+    public final long getBufferPoolNumAcquires() {
+        return bufferPool == null ? 0 : bufferPool.getNumAcquires();
+    }
+
+    @JmxGetter(name = "bufferPoolNumMisses", description = "number of socket buffer requests that fell back to heap buffers because the pool was exhausted")
+    public final long getBufferPoolNumMisses() {
+        return bufferPool == null ? 0 : bufferPool.getNumMisses();
+    }
+
 }
@@ -67,6 +67,8 @@ public class SocketRequestHandlerFactory implements RequestHandlerFactory {
                 return new VoldemortNativeRequestHandler(new ErrorCodeMapper(), repository, 2);
             case VOLDEMORT_V3:
                 return new VoldemortNativeRequestHandler(new ErrorCodeMapper(), repository, 3);
+            case VOLDEMORT_V4:
+                return new VoldemortNativeRequestHandler(new ErrorCodeMapper(), repository, 4);
             case PROTOCOL_BUFFERS:
                 return new ProtoBuffRequestHandler(new ErrorCodeMapper(), repository);
             case ADMIN_PROTOCOL_BUFFERS:
@@ -70,7 +70,6 @@ import voldemort.utils.Pair;
 import voldemort.utils.RebalanceUtils;
 import voldemort.utils.ReflectUtils;
 import voldemort.utils.Utils;
-import voldemort.versioning.ObsoleteVersionException;
 import voldemort.versioning.VectorClock;
 import voldemort.versioning.Versioned;
 import voldemort.xml.ClusterMapper;
@@ -982,17 +981,16 @@ public class AdminServiceRequestHandler implements RequestHandler {
                                                                                                                         0);
                                 long numTuples = 0;
                                 long startTime = System.currentTimeMillis();
+                                int batchSize = voldemortConfig.getAdminStreamPutBatchSize();
+                                List<Pair<ByteArray, Versioned<byte[]>>> batch = new ArrayList<Pair<ByteArray, Versioned<byte[]>>>(batchSize);
                                 while(running.get() && entriesIterator.hasNext()) {
                                     Pair<ByteArray, Versioned<byte[]>> entry = entriesIterator.next();
 
                                     ByteArray key = entry.getFirst();
                                     Versioned<byte[]> value = entry.getSecond();
-                                    try {
-                                        storageEngine.put(key, value, null);
-                                    } catch(ObsoleteVersionException e) {
-                                        // log and ignore
-                                        logger.debug("Fetch and update threw Obsolete version exception. Ignoring");
-                                    }
+                                    batch.add(entry);
+                                    if(batch.size() >= batchSize)
+                                        putBatch(storageEngine, batch);
 
                                     long totalTime = (System.currentTimeMillis() - startTime) / 1000;
                                     throttler.maybeThrottle(key.length() + valueSize(value));
@@ -1006,6 +1004,8 @@ public class AdminServiceRequestHandler implements RequestHandler {
                                     numTuples++;
                                 }
 
+                                putBatch(storageEngine, batch);
+
                                 long totalTime = (System.currentTimeMillis() - startTime) / 1000;
                                 if(running.get()) {
                                     logger.info("Completed fetching " + numTuples
@@ -1037,6 +1037,16 @@ public class AdminServiceRequestHandler implements RequestHandler {
         return response.build();
     }
 
+    private void putBatch(StorageEngine<ByteArray, byte[], byte[]> storageEngine,
+                          List<Pair<ByteArray, Versioned<byte[]>>> batch) {
+        int numObsolete = storageEngine.putAll(batch);
+        batch.clear();
+        // log and ignore
+        if(numObsolete > 0)
+            logger.debug("Fetch and update ignored " + numObsolete
+                         + " entries with obsolete versions.");
+    }
+
     public VAdminProto.AsyncOperationStatusResponse handleAsyncStatus(VAdminProto.AsyncOperationStatusRequest request) {
         VAdminProto.AsyncOperationStatusResponse.Builder response = VAdminProto.AsyncOperationStatusResponse.newBuilder();
         try {
@@ -20,8 +20,6 @@ import voldemort.utils.NetworkClassLoader;
 import voldemort.utils.RebalanceUtils;
 import voldemort.versioning.Versioned;
 
-import com.google.protobuf.Message;
-
 /**
  * FetchEntries fetches and return key/value entry.
  * <p>
@@ -77,18 +75,13 @@ public class FetchEntriesStreamRequestHandler extends FetchStreamRequestHandler
                 if(filter.accept(key, value)) {
                     fetched++;
                     handle.incrementEntriesScanned();
-                    VAdminProto.FetchPartitionEntriesResponse.Builder response = VAdminProto.FetchPartitionEntriesResponse.newBuilder();
-
                     VAdminProto.PartitionEntry partitionEntry = VAdminProto.PartitionEntry.newBuilder()
                                                                                           .setKey(ProtoUtils.encodeBytes(key))
                                                                                           .setVersioned(ProtoUtils.encodeVersioned(value))
                                                                                           .build();
-                    response.setPartitionEntry(partitionEntry);
-
-                    Message message = response.build();
 
                     startNs = System.nanoTime();
-                    ProtoUtils.writeMessage(outputStream, message);
+                    writeEntry(outputStream, partitionEntry);
                     stats.recordNetworkTime(handle, System.nanoTime() - startNs);
 
                     throttler.maybeThrottle(AdminServiceRequestHandler.valueSize(value));
@@ -5,7 +5,6 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 
 import voldemort.client.protocol.pb.ProtoUtils;
-import voldemort.client.protocol.pb.VAdminProto;
 import voldemort.client.protocol.pb.VAdminProto.FetchPartitionEntriesRequest;
 import voldemort.server.StoreRepository;
 import voldemort.server.VoldemortConfig;
@@ -18,8 +17,6 @@ import voldemort.utils.ClosableIterator;
 import voldemort.utils.NetworkClassLoader;
 import voldemort.utils.RebalanceUtils;
 
-import com.google.protobuf.Message;
-
 public class FetchKeysStreamRequestHandler extends FetchStreamRequestHandler {
 
     protected final ClosableIterator<ByteArray> keyIterator;
@@ -62,15 +59,11 @@ public class FetchKeysStreamRequestHandler extends FetchStreamRequestHandler {
                                                      storeDef)
            && filter.accept(key, null)
            && counter % skipRecords == 0) {
-            VAdminProto.FetchPartitionEntriesResponse.Builder response = VAdminProto.FetchPartitionEntriesResponse.newBuilder();
-            response.setKey(ProtoUtils.encodeBytes(key));
-
             fetched++;
             handle.incrementEntriesScanned();
-            Message message = response.build();
 
             startNs = System.nanoTime();
-            ProtoUtils.writeMessage(outputStream, message);
+            writeKey(outputStream, ProtoUtils.encodeBytes(key));
             stats.recordNetworkTime(handle, System.nanoTime() - startNs);
         }
 
@@ -41,8 +41,6 @@ import voldemort.utils.RebalanceUtils;
 import voldemort.utils.Time;
 import voldemort.versioning.Versioned;
 
-import com.google.protobuf.Message;
-
 /**
  * Fetches the entries using an efficient partition scan
  * 
@@ -142,17 +140,13 @@ public class FetchPartitionEntriesStreamRequestHandler extends FetchStreamReques
                     if(filter.accept(key, value)) {
                         fetched++;
                         handle.incrementEntriesScanned();
-                        VAdminProto.FetchPartitionEntriesResponse.Builder response = VAdminProto.FetchPartitionEntriesResponse.newBuilder();
-
                         VAdminProto.PartitionEntry partitionEntry = VAdminProto.PartitionEntry.newBuilder()
                                                                                               .setKey(ProtoUtils.encodeBytes(key))
                                                                                               .setVersioned(ProtoUtils.encodeVersioned(value))
                                                                                               .build();
-                        response.setPartitionEntry(partitionEntry);
-                        Message message = response.build();
 
                         startNs = System.nanoTime();
-                        ProtoUtils.writeMessage(outputStream, message);
+                        writeEntry(outputStream, partitionEntry);
                         stats.recordNetworkTime(handle, System.nanoTime() - startNs);
                         throttler.maybeThrottle(AdminServiceRequestHandler.valueSize(value));
                     }
@@ -25,7 +25,6 @@ import java.util.List;
 import java.util.Set;
 
 import voldemort.client.protocol.pb.ProtoUtils;
-import voldemort.client.protocol.pb.VAdminProto;
 import voldemort.client.protocol.pb.VAdminProto.FetchPartitionEntriesRequest;
 import voldemort.server.StoreRepository;
 import voldemort.server.VoldemortConfig;
@@ -39,8 +38,6 @@ import voldemort.utils.NetworkClassLoader;
 import voldemort.utils.RebalanceUtils;
 import voldemort.utils.Time;
 
-import com.google.protobuf.Message;
-
 /**
  * Fetches the keys using an efficient partition scan
  * 
@@ -135,15 +132,11 @@ public class FetchPartitionKeysStreamRequestHandler extends FetchStreamRequestHa
                     throttler.maybeThrottle(key.length());
                     if(filter.accept(key, null)) {
 
-                        VAdminProto.FetchPartitionEntriesResponse.Builder response = VAdminProto.FetchPartitionEntriesResponse.newBuilder();
-                        response.setKey(ProtoUtils.encodeBytes(key));
-
                         fetched++;
                         handle.incrementEntriesScanned();
-                        Message message = response.build();
 
                         startNs = System.nanoTime();
-                        ProtoUtils.writeMessage(outputStream, message);
+                        writeKey(outputStream, ProtoUtils.encodeBytes(key));
                         stats.recordNetworkTime(handle, System.nanoTime() - startNs);
                     }
                 } else {
@@ -10,6 +10,7 @@ import org.apache.log4j.Logger;
 
 import voldemort.VoldemortException;
 import voldemort.client.protocol.VoldemortFilter;
+import voldemort.client.protocol.admin.StreamBlock;
 import voldemort.client.protocol.admin.filter.DefaultVoldemortFilter;
 import voldemort.client.protocol.pb.ProtoUtils;
 import voldemort.client.protocol.pb.VAdminProto;
@@ -29,6 +30,8 @@ import voldemort.utils.EventThrottler;
 import voldemort.utils.NetworkClassLoader;
 import voldemort.xml.ClusterMapper;
 
+import com.google.protobuf.ByteString;
+
 public abstract class FetchStreamRequestHandler implements StreamRequestHandler {
 
     protected final VAdminProto.FetchPartitionEntriesRequest request;
@@ -63,6 +66,11 @@ public abstract class FetchStreamRequestHandler implements StreamRequestHandler
 
     protected StoreDefinition storeDef;
 
+    /* Null if the client wants one message per entry */
+    private final StreamBlock block;
+
+    private boolean failed;
+
     protected FetchStreamRequestHandler(VAdminProto.FetchPartitionEntriesRequest request,
                                         MetadataStore metadataStore,
                                         ErrorCodeMapper errorCodeMapper,
@@ -100,6 +108,62 @@ public abstract class FetchStreamRequestHandler implements StreamRequestHandler
         if(request.hasSkipRecords() && request.getSkipRecords() >= 0) {
             this.skipRecords = request.getSkipRecords() + 1;
         }
+
+        if(request.hasMaxBlockEntries() && request.getMaxBlockEntries() > 1) {
+            String compressionType = request.hasBlockCompression() ? request.getBlockCompression()
+                                                                   : null;
+            if(!StreamBlock.isSupportedCompression(compressionType)) {
+                logger.warn("Sending uncompressed blocks, compression " + compressionType
+                            + " is not supported");
+                compressionType = null;
+            }
+            this.block = new StreamBlock(request.getMaxBlockEntries(), compressionType);
+        } else {
+            this.block = null;
+        }
+    }
+
+    /**
+     * Send an entry to the client, on its own or in a block of entries
+     */
+    protected void writeEntry(DataOutputStream outputStream, VAdminProto.PartitionEntry entry)
+            throws IOException {
+        if(block == null) {
+            ProtoUtils.writeMessage(outputStream,
+                                    VAdminProto.FetchPartitionEntriesResponse.newBuilder()
+                                                                             .setPartitionEntry(entry)
+                                                                             .build());
+        } else {
+            block.add(entry);
+            if(block.isFull())
+                writeBlock(outputStream);
+        }
+    }
+
+    /**
+     * Send a key to the client, on its own or in a block of keys
+     */
+    protected void writeKey(DataOutputStream outputStream, ByteString key) throws IOException {
+        if(block == null) {
+            ProtoUtils.writeMessage(outputStream,
+                                    VAdminProto.FetchPartitionEntriesResponse.newBuilder()
+                                                                             .setKey(key)
+                                                                             .build());
+        } else {
+            block.add(key);
+            if(block.isFull())
+                writeBlock(outputStream);
+        }
+    }
+
+    private void writeBlock(DataOutputStream outputStream) throws IOException {
+        if(block == null || block.isEmpty())
+            return;
+        VAdminProto.FetchPartitionEntriesResponse.Builder response = VAdminProto.FetchPartitionEntriesResponse.newBuilder()
+                                                                                                              .setEntryBlock(block.finish());
+        if(block.getCompressionType() != null)
+            response.setBlockCompression(block.getCompressionType());
+        ProtoUtils.writeMessage(outputStream, response.build());
     }
 
     private StoreDefinition getStoreDef(String store, MetadataStore metadataStore) {
@@ -121,11 +185,14 @@ public abstract class FetchStreamRequestHandler implements StreamRequestHandler
                     + " tuples for store '" + storageEngine.getName() + "' in "
                     + ((System.currentTimeMillis() - startTime) / 1000) + " s");
 
+        if(!failed)
+            writeBlock(outputStream);
         ProtoUtils.writeEndOfStream(outputStream);
     }
 
     public final void handleError(DataOutputStream outputStream, VoldemortException e)
             throws IOException {
+        failed = true;
         VAdminProto.FetchPartitionEntriesResponse response = VAdminProto.FetchPartitionEntriesResponse.newBuilder()
                                                                                                       .setError(ProtoUtils.encodeError(errorCodeMapper,
                                                                                                                                        e))
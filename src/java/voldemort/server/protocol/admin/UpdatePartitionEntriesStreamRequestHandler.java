@@ -4,6 +4,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
@@ -12,6 +13,7 @@ import org.apache.log4j.Logger;
 
 import voldemort.VoldemortException;
 import voldemort.client.protocol.VoldemortFilter;
+import voldemort.client.protocol.admin.StreamBlock;
 import voldemort.client.protocol.admin.filter.DefaultVoldemortFilter;
 import voldemort.client.protocol.pb.ProtoUtils;
 import voldemort.client.protocol.pb.VAdminProto;
@@ -26,7 +28,7 @@ import voldemort.utils.ByteArray;
 import voldemort.utils.ByteUtils;
 import voldemort.utils.EventThrottler;
 import voldemort.utils.NetworkClassLoader;
-import voldemort.versioning.ObsoleteVersionException;
+import voldemort.utils.Pair;
 import voldemort.versioning.Versioned;
 
 /**
@@ -48,6 +50,10 @@ public class UpdatePartitionEntriesStreamRequestHandler implements StreamRequest
 
     private final StorageEngine<ByteArray, byte[], byte[]> storageEngine;
 
+    private final List<Pair<ByteArray, Versioned<byte[]>>> batch;
+
+    private final int batchSize;
+
     private int counter;
 
     private final long startTime;
@@ -74,6 +80,8 @@ public class UpdatePartitionEntriesStreamRequestHandler implements StreamRequest
                                                                                          voldemortConfig,
                                                                                          networkClassLoader)
                                       : new DefaultVoldemortFilter();
+        batchSize = voldemortConfig.getAdminStreamPutBatchSize();
+        batch = new ArrayList<Pair<ByteArray, Versioned<byte[]>>>(batchSize);
         startTime = System.currentTimeMillis();
         this.stats = stats;
         this.handle = stats.makeHandle(StreamStats.Operation.UPDATE,
@@ -97,6 +105,7 @@ public class UpdatePartitionEntriesStreamRequestHandler implements StreamRequest
             }
 
             if(size == -1) {
+                putBatch();
                 long totalTime = (System.currentTimeMillis() - startTime) / 1000;
                 logger.info("Update entries successfully updated " + counter
                             + " entries for store '" + storageEngine.getName() + "' in "
@@ -130,24 +139,37 @@ public class UpdatePartitionEntriesStreamRequestHandler implements StreamRequest
             request = builder.build();
         }
 
-        VAdminProto.PartitionEntry partitionEntry = request.getPartitionEntry();
+        if(request.hasEntryBlock()) {
+            for(VAdminProto.PartitionEntry partitionEntry: decodeEntryBlock(request))
+                update(partitionEntry);
+        }
+        if(request.hasPartitionEntry())
+            update(request.getPartitionEntry());
+
+        request = null;
+        return StreamRequestHandlerState.READING;
+    }
+
+    private List<VAdminProto.PartitionEntry> decodeEntryBlock(VAdminProto.UpdatePartitionEntriesRequest request) {
+        String compressionType = request.hasBlockCompression() ? request.getBlockCompression()
+                                                               : null;
+        if(!StreamBlock.isSupportedCompression(compressionType))
+            throw new VoldemortException("Unsupported block compression " + compressionType);
+        try {
+            return StreamBlock.decodeEntries(request.getEntryBlock(), compressionType);
+        } catch(IOException e) {
+            throw new VoldemortException("Could not decode block of entries", e);
+        }
+    }
+
+    private void update(VAdminProto.PartitionEntry partitionEntry) {
         ByteArray key = ProtoUtils.decodeBytes(partitionEntry.getKey());
         Versioned<byte[]> value = ProtoUtils.decodeVersioned(partitionEntry.getVersioned());
 
         if(filter.accept(key, value)) {
-            startNs = System.nanoTime();
-            try {
-                storageEngine.put(key, value, null);
-
-                if(logger.isTraceEnabled())
-                    logger.trace("updateEntries (Streaming put) successful");
-            } catch(ObsoleteVersionException e) {
-                // log and ignore
-                if(logger.isDebugEnabled())
-                    logger.debug("updateEntries (Streaming put) threw ObsoleteVersionException, Ignoring.");
-            } finally {
-                stats.recordDiskTime(handle, System.nanoTime() - startNs);
-            }
+            batch.add(Pair.create(key, value));
+            if(batch.size() >= batchSize)
+                putBatch();
 
             throttler.maybeThrottle(key.length() + AdminServiceRequestHandler.valueSize(value));
         }
@@ -162,9 +184,27 @@ public class UpdatePartitionEntriesStreamRequestHandler implements StreamRequest
             logger.info("Update entries updated " + counter + " entries for store '"
                         + storageEngine.getName() + "' in " + totalTime + " s");
         }
+    }
 
-        request = null;
-        return StreamRequestHandlerState.READING;
+    private void putBatch() {
+        if(batch.isEmpty())
+            return;
+
+        long startNs = System.nanoTime();
+        try {
+            int numObsolete = storageEngine.putAll(batch);
+
+            if(logger.isTraceEnabled())
+                logger.trace("updateEntries (Streaming put) of " + batch.size()
+                             + " entries successful");
+            // log and ignore
+            if(numObsolete > 0 && logger.isDebugEnabled())
+                logger.debug("updateEntries (Streaming put) ignored " + numObsolete
+                             + " entries with obsolete versions.");
+        } finally {
+            stats.recordDiskTime(handle, System.nanoTime() - startNs);
+            batch.clear();
+        }
     }
 
     public StreamRequestDirection getDirection() {
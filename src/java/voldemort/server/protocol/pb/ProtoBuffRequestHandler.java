@@ -21,7 +21,9 @@ import voldemort.server.protocol.AbstractRequestHandler;
 import voldemort.server.protocol.StreamRequestHandler;
 import voldemort.store.ErrorCodeMapper;
 import voldemort.store.Store;
+import voldemort.store.StoreUtils;
 import voldemort.utils.ByteArray;
+import voldemort.versioning.VectorClock;
 import voldemort.versioning.Version;
 import voldemort.versioning.Versioned;
 
@@ -66,6 +68,9 @@ public class ProtoBuffRequestHandler extends AbstractRequestHandler {
                 case PUT:
                     response = handlePut(request.getPut(), store);
                     break;
+                case PUT_AUTO_VERSION:
+                    response = handlePutAutoVersion(request.getPutAutoVersion(), store);
+                    break;
                 case DELETE:
                     response = handleDelete(request.getDelete(), store);
                     break;
@@ -166,6 +171,29 @@ public class ProtoBuffRequestHandler extends AbstractRequestHandler {
         return response.build();
     }
 
+    private VProto.PutAutoVersionResponse handlePutAutoVersion(VProto.PutAutoVersionRequest request,
+                                                               Store<ByteArray, byte[], byte[]> store) {
+        VProto.PutAutoVersionResponse.Builder response = VProto.PutAutoVersionResponse.newBuilder();
+        try {
+            ByteArray key = ProtoUtils.decodeBytes(request.getKey());
+
+            Versioned<byte[]> value = ProtoUtils.decodeVersioned(request.getVersioned());
+
+            VectorClock clock = StoreUtils.putAutoVersion(store,
+                                                          key,
+                                                          value,
+                                                          request.hasTransforms() ? ProtoUtils.decodeBytes(request.getTransforms())
+                                                                                              .get()
+                                                                                 : null,
+                                                          request.getNodeId(),
+                                                          System.currentTimeMillis());
+            response.setVersion(ProtoUtils.encodeClock(clock));
+        } catch(VoldemortException e) {
+            response.setError(ProtoUtils.encodeError(getErrorMapper(), e));
+        }
+        return response.build();
+    }
+
     private VProto.DeleteResponse handleDelete(VProto.DeleteRequest request,
                                                Store<ByteArray, byte[], byte[]> store) {
         VProto.DeleteResponse.Builder response = VProto.DeleteResponse.newBuilder();
@@ -192,6 +220,8 @@ public class ProtoBuffRequestHandler extends AbstractRequestHandler {
                 return VProto.GetAllResponse.newBuilder().setError(error).build();
             case PUT:
                 return VProto.PutResponse.newBuilder().setError(error).build();
+            case PUT_AUTO_VERSION:
+                return VProto.PutAutoVersionResponse.newBuilder().setError(error).build();
             case DELETE:
                 return VProto.DeleteResponse.newBuilder().setError(error).setSuccess(false).build();
             default:
@@ -1,5 +1,7 @@
 package voldemort.server.protocol.vold;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -20,6 +22,7 @@ import voldemort.server.protocol.RequestHandler;
 import voldemort.server.protocol.StreamRequestHandler;
 import voldemort.store.ErrorCodeMapper;
 import voldemort.store.Store;
+import voldemort.store.StoreUtils;
 import voldemort.utils.ByteArray;
 import voldemort.utils.ByteBufferBackedInputStream;
 import voldemort.utils.ByteUtils;
@@ -29,7 +32,11 @@ import voldemort.versioning.Versioned;
 
 /**
  * Server-side request handler for voldemort native client protocol
- * 
+ * <p/>
+ * From protocol version 4 onwards every request is framed as a request id and
+ * a length followed by the version 3 request, and every response is framed the
+ * same way with the id of the request it answers. This lets a client pipeline
+ * several requests on a single connection.
  * 
  */
 public class VoldemortNativeRequestHandler extends AbstractRequestHandler implements RequestHandler {
@@ -42,13 +49,46 @@ public class VoldemortNativeRequestHandler extends AbstractRequestHandler implem
                                          StoreRepository repository,
                                          int protocolVersion) {
         super(errorMapper, repository);
-        if(protocolVersion < 0 || protocolVersion > 3)
+        if(protocolVersion < 0 || protocolVersion > 4)
             throw new IllegalArgumentException("Unknown protocol version: " + protocolVersion);
         this.protocolVersion = protocolVersion;
     }
 
     public StreamRequestHandler handleRequest(DataInputStream inputStream,
                                               DataOutputStream outputStream) throws IOException {
+        if(protocolVersion > 3)
+            return handleFramedRequest(inputStream, outputStream);
+
+        return handleRequestInternal(inputStream, outputStream);
+    }
+
+    /**
+     * Reads a whole request frame before handling it, so that the frame is
+     * consumed entirely even if handling the request bails out early, and tags
+     * the response with the request id.
+     */
+    private StreamRequestHandler handleFramedRequest(DataInputStream inputStream,
+                                                     DataOutputStream outputStream)
+            throws IOException {
+        int requestId = inputStream.readInt();
+        int frameSize = inputStream.readInt();
+        byte[] frame = new byte[frameSize];
+        inputStream.readFully(frame);
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        handleRequestInternal(new DataInputStream(new ByteArrayInputStream(frame)),
+                              new DataOutputStream(response));
+
+        outputStream.writeInt(requestId);
+        outputStream.writeInt(response.size());
+        response.writeTo(outputStream);
+        outputStream.flush();
+        return null;
+    }
+
+    private StreamRequestHandler handleRequestInternal(DataInputStream inputStream,
+                                                       DataOutputStream outputStream)
+            throws IOException {
         byte opCode = inputStream.readByte();
         String storeName = inputStream.readUTF();
         RequestRoutingType routingType = getRoutingType(inputStream);
@@ -68,6 +108,9 @@ public class VoldemortNativeRequestHandler extends AbstractRequestHandler implem
                 case VoldemortOpCode.PUT_OP_CODE:
                     handlePut(inputStream, outputStream, store);
                     break;
+                case VoldemortOpCode.PUT_AUTO_VERSION_OP_CODE:
+                    handlePutAutoVersion(inputStream, outputStream, store);
+                    break;
                 case VoldemortOpCode.DELETE_OP_CODE:
                     handleDelete(inputStream, outputStream, store);
                     break;
@@ -148,6 +191,9 @@ public class VoldemortNativeRequestHandler extends AbstractRequestHandler implem
      */
 
     public boolean isCompleteRequest(final ByteBuffer buffer) {
+        if(protocolVersion > 3)
+            return isCompleteFramedRequest(buffer);
+
         DataInputStream inputStream = new DataInputStream(new ByteBufferBackedInputStream(buffer));
 
         try {
@@ -204,7 +250,8 @@ public class VoldemortNativeRequestHandler extends AbstractRequestHandler implem
                         }
                     }
                     break;
-                case VoldemortOpCode.PUT_OP_CODE: {
+                case VoldemortOpCode.PUT_OP_CODE:
+                case VoldemortOpCode.PUT_AUTO_VERSION_OP_CODE: {
                     readKey(inputStream);
 
                     int dataSize = inputStream.readInt();
@@ -224,6 +271,10 @@ public class VoldemortNativeRequestHandler extends AbstractRequestHandler implem
                             readTransforms(inputStream);
                         }
                     }
+
+                    // Read the node id to increment the clock for
+                    if(opCode == VoldemortOpCode.PUT_AUTO_VERSION_OP_CODE)
+                        inputStream.readInt();
                     break;
                 }
                 case VoldemortOpCode.DELETE_OP_CODE: {
@@ -261,6 +312,27 @@ public class VoldemortNativeRequestHandler extends AbstractRequestHandler implem
         }
     }
 
+    /**
+     * A framed request is complete once the whole frame has arrived. Unlike
+     * the unframed versions, the buffer may hold further (pipelined) requests
+     * past the first frame; on success the buffer is positioned just past the
+     * first one.
+     */
+    private boolean isCompleteFramedRequest(final ByteBuffer buffer) {
+        if(buffer.remaining() < 8)
+            return false;
+
+        // Skip the request id
+        buffer.getInt();
+        int frameSize = buffer.getInt();
+
+        if(frameSize < 0 || frameSize > buffer.remaining())
+            return false;
+
+        buffer.position(buffer.position() + frameSize);
+        return true;
+    }
+
     private ByteArray readKey(DataInputStream inputStream) throws IOException {
         int keySize = inputStream.readInt();
         byte[] key = new byte[keySize];
@@ -460,6 +532,62 @@ public class VoldemortNativeRequestHandler extends AbstractRequestHandler implem
         }
     }
 
+    /**
+     * Like a put, except that the version of the value is resolved here
+     * against the versions already stored, and sent back to the client.
+     */
+    private void handlePutAutoVersion(DataInputStream inputStream,
+                                      DataOutputStream outputStream,
+                                      Store<ByteArray, byte[], byte[]> store)
+            throws IOException {
+        long startTimeMs = -1;
+        long startTimeNs = -1;
+
+        if(logger.isDebugEnabled()) {
+            startTimeMs = System.currentTimeMillis();
+            startTimeNs = System.nanoTime();
+        }
+
+        ByteArray key = readKey(inputStream);
+        int valueSize = inputStream.readInt();
+        byte[] bytes = new byte[valueSize];
+        ByteUtils.read(inputStream, bytes);
+        VectorClock clock = new VectorClock(bytes);
+        byte[] value = ByteUtils.copy(bytes, clock.sizeInBytes(), bytes.length);
+
+        byte[] transforms = null;
+        if(protocolVersion > 2) {
+            if(inputStream.readBoolean()) {
+                transforms = readTransforms(inputStream);
+            }
+        }
+        int nodeId = inputStream.readInt();
+        try {
+            clock = StoreUtils.putAutoVersion(store,
+                                              key,
+                                              new Versioned<byte[]>(value, clock),
+                                              transforms,
+                                              nodeId,
+                                              System.currentTimeMillis());
+            outputStream.writeShort(0);
+        } catch(VoldemortException e) {
+            writeException(outputStream, e);
+            return;
+        }
+        byte[] clockBytes = clock.toBytes();
+        outputStream.writeInt(clockBytes.length);
+        outputStream.write(clockBytes);
+
+        if(logger.isDebugEnabled()) {
+            logger.debug("PUTAUTOVERSION started at: " + startTimeMs + " handlerRef: "
+                         + System.identityHashCode(inputStream) + " key: "
+                         + ByteUtils.toHexString(key.get()) + " "
+                         + (System.nanoTime() - startTimeNs) + " ns, keySize: " + key.length()
+                         + " valueHash: " + value.hashCode() + " valueSize: " + value.length
+                         + " clock: " + clock + " time: " + System.currentTimeMillis());
+        }
+    }
+
     private void handleDelete(DataInputStream inputStream,
                               DataOutputStream outputStream,
                               Store<ByteArray, byte[], byte[]> store) throws IOException {
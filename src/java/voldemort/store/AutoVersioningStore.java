@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store;
+
+import voldemort.VoldemortException;
+import voldemort.utils.ByteArray;
+import voldemort.versioning.VectorClock;
+import voldemort.versioning.Versioned;
+
+/**
+ * A store that can resolve the version of a put itself, saving the caller the
+ * round trip of fetching the current versions first.
+ *
+ * @see StoreUtils#putAutoVersion(Store, Object, Versioned, Object, int, long)
+ */
+public interface AutoVersioningStore {
+
+    /**
+     * Merges the clock of the given value with the versions held for the key,
+     * increments the result for the given node and writes the value with it.
+     *
+     * @param key The key to use
+     * @param versioned The value to store and the clock to start from
+     * @param transforms The transforms to apply to the value
+     * @param nodeId The node to increment the clock for
+     * @return The clock the value was written with
+     * @throws VoldemortException If the put fails, including an
+     *         ObsoleteVersionException if a concurrent put won
+     */
+    public VectorClock putAutoVersion(ByteArray key,
+                                      Versioned<byte[]> versioned,
+                                      byte[] transforms,
+                                      int nodeId) throws VoldemortException;
+
+}
@@ -16,6 +16,8 @@
 
 package voldemort.store;
 
+import java.util.List;
+
 import voldemort.utils.ClosableIterator;
 import voldemort.utils.Pair;
 import voldemort.versioning.Versioned;
@@ -89,6 +91,17 @@ public interface StorageEngine<K, V, T> extends Store<K, V, T> {
      */
     public ClosableIterator<K> keys(int partition);
 
+    /**
+     * Write a batch of entries, as streamed in by restore, repair and
+     * rebalancing. Every entry is written as if by a put without transforms,
+     * except that an entry whose version is obsolete is skipped instead of
+     * failing the batch. The same key may appear more than once.
+     * 
+     * @param entries The keys and versioned values to write
+     * @return The number of entries skipped because their version was obsolete
+     */
+    public int putAll(List<Pair<K, Versioned<V>>> entries);
+
     /**
      * Truncate all entries in the store
      */
@@ -5,6 +5,8 @@ import java.util.List;
 
 import voldemort.VoldemortException;
 import voldemort.utils.ByteUtils;
+import voldemort.versioning.ObsoleteVersionException;
+import voldemort.versioning.Occurred;
 import voldemort.versioning.VectorClock;
 import voldemort.versioning.Versioned;
 
@@ -60,10 +62,7 @@ public class StoreBinaryFormat {
     }
 
     public static List<Versioned<byte[]>> fromByteArray(byte[] bytes) {
-        if(bytes.length < 1)
-            throw new VoldemortException("Invalid value length: " + bytes.length);
-        if(bytes[0] != VERSION)
-            throw new VoldemortException("Unexpected version number in value: " + bytes[0]);
+        checkFormatVersion(bytes);
         int pos = 1;
         List<Versioned<byte[]>> vals = new ArrayList<Versioned<byte[]>>(2);
         while(pos < bytes.length) {
@@ -82,6 +81,84 @@ public class StoreBinaryFormat {
         return vals;
     }
 
+    /**
+     * Add a value to the serialized versions of a key, throwing out the
+     * versions it supersedes. The clocks of the versions are compared on their
+     * bytes, and the versions that are kept are copied over as they are, so
+     * nothing is read into objects.
+     * 
+     * @param bytes The serialized versions, or null if there are none
+     * @param value The value to add
+     * @return The serialized versions, with the value added
+     * @throws ObsoleteVersionException if the value is older than one of the
+     *         versions
+     */
+    public static byte[] addVersion(byte[] bytes, Versioned<byte[]> value) {
+        VectorClock clock = (VectorClock) value.getVersion();
+        int keptSize = 1;
+        if(bytes != null) {
+            checkFormatVersion(bytes);
+            int pos = 1;
+            while(pos < bytes.length) {
+                int next = skipVersioned(bytes, pos);
+                Occurred occurred = VectorClock.compare(clock, bytes, pos);
+                if(occurred == Occurred.BEFORE)
+                    throw new ObsoleteVersionException(clock
+                                                       + " is obsolete, it is no greater than the current version of "
+                                                       + new VectorClock(bytes, pos) + ".");
+                else if(occurred != Occurred.AFTER)
+                    keptSize += next - pos;
+                pos = next;
+            }
+        }
+
+        int valueSize = value.getValue().length;
+        byte[] added = new byte[keptSize + clock.sizeInBytes() + ByteUtils.SIZE_OF_INT
+                                + valueSize];
+        added[0] = VERSION;
+        int pos = 1;
+        if(bytes != null && keptSize == bytes.length) {
+            // nothing was superseded
+            System.arraycopy(bytes, 1, added, 1, keptSize - 1);
+            pos = keptSize;
+        } else if(keptSize > 1) {
+            for(int from = 1; from < bytes.length;) {
+                int next = skipVersioned(bytes, from);
+                if(VectorClock.compare(clock, bytes, from) != Occurred.AFTER) {
+                    System.arraycopy(bytes, from, added, pos, next - from);
+                    pos += next - from;
+                }
+                from = next;
+            }
+        }
+        pos += clock.toBytes(added, pos);
+        ByteUtils.writeInt(added, valueSize, pos);
+        pos += ByteUtils.SIZE_OF_INT;
+        System.arraycopy(value.getValue(), 0, added, pos, valueSize);
+        return added;
+    }
+
+    /**
+     * @return The position of the versioned value after the one at the given
+     *         position
+     */
+    private static int skipVersioned(byte[] bytes, int pos) {
+        pos += VectorClock.sizeInBytes(bytes, pos);
+        if(pos + ByteUtils.SIZE_OF_INT > bytes.length)
+            throw new VoldemortException("Invalid value length: " + bytes.length);
+        pos += ByteUtils.SIZE_OF_INT + ByteUtils.readInt(bytes, pos);
+        if(pos > bytes.length)
+            throw new VoldemortException("Invalid value length: " + bytes.length);
+        return pos;
+    }
+
+    private static void checkFormatVersion(byte[] bytes) {
+        if(bytes.length < 1)
+            throw new VoldemortException("Invalid value length: " + bytes.length);
+        if(bytes[0] != VERSION)
+            throw new VoldemortException("Unexpected version number in value: " + bytes[0]);
+    }
+
     public static byte[] makePrefixedKey(byte[] key, int partitionId) {
         byte[] prefixedKey = new byte[PARTITIONID_PREFIX_SIZE + key.length];
         ByteUtils.writeUnsignedShort(prefixedKey, partitionId, 0);
@@ -35,6 +35,9 @@ import voldemort.serialization.SerializerFactory;
 import voldemort.utils.ByteArray;
 import voldemort.utils.ClosableIterator;
 import voldemort.utils.Pair;
+import voldemort.utils.StripedLock;
+import voldemort.versioning.ObsoleteVersionException;
+import voldemort.versioning.VectorClock;
 import voldemort.versioning.Version;
 import voldemort.versioning.Versioned;
 
@@ -49,6 +52,12 @@ public class StoreUtils {
 
     private static Logger logger = Logger.getLogger(StoreUtils.class);
 
+    /*
+     * Serializes the server-versioned puts of a key, so that the versions
+     * they read are still the latest when they write
+     */
+    private static final StripedLock autoVersionLocks = new StripedLock(1024);
+
     public static void assertValidKeys(Iterable<?> keys) {
         if(keys == null)
             throw new IllegalArgumentException("Keys cannot be null.");
@@ -91,6 +100,48 @@ public class StoreUtils {
         return result;
     }
 
+    /**
+     * Implements putAll by delegating to put.
+     */
+    public static <K, V, T> int putAll(Store<K, V, T> store, List<Pair<K, Versioned<V>>> entries) {
+        int numObsolete = 0;
+        for(Pair<K, Versioned<V>> entry: entries) {
+            try {
+                store.put(entry.getFirst(), entry.getSecond(), null);
+            } catch(ObsoleteVersionException e) {
+                numObsolete++;
+            }
+        }
+        return numObsolete;
+    }
+
+    /**
+     * Implements a put whose version is decided by the store rather than the
+     * caller: the given clock is merged with all the versions the store holds
+     * for the key, incremented for the given node and then written. The read
+     * and the write are done under a lock on the key, so server-versioned
+     * puts of the same key are applied one after the other rather than
+     * failing each other. A concurrent put of a client-side clock can still
+     * make the put fail with an ObsoleteVersionException.
+     * 
+     * @return The clock the value was written with
+     */
+    public static <K, V, T> VectorClock putAutoVersion(Store<K, V, T> store,
+                                                       K key,
+                                                       Versioned<V> versioned,
+                                                       T transforms,
+                                                       int nodeId,
+                                                       long time) {
+        synchronized(autoVersionLocks.lockFor(31 * store.getName().hashCode() + key.hashCode())) {
+            VectorClock clock = ((VectorClock) versioned.getVersion()).clone();
+            for(Version version: store.getVersions(key))
+                clock = clock.merge((VectorClock) version);
+            clock.incrementVersion(nodeId, time);
+            store.put(key, new Versioned<V>(versioned.getValue(), clock), transforms);
+            return clock;
+        }
+    }
+
     /**
      * Returns an empty map with expected size matching the iterable size if
      * it's of type Collection. Otherwise, an empty map with the default size is
@@ -15,11 +15,15 @@ public class BdbRuntimeConfig {
     public static final LockMode DEFAULT_LOCK_MODE = LockMode.READ_UNCOMMITTED;
     public static final boolean DEFAULT_EXPOSE_SPACE_UTIL = true;
     public static final boolean DEFAULT_MINIMIZE_SCAN_IMPACT = false;
+    public static final boolean DEFAULT_GROUP_COMMIT = false;
+    public static final int DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE = 256;
 
     private long statsCacheTtlMs = DEFAULT_STATS_CACHE_TTL_MS;
     private LockMode lockMode = DEFAULT_LOCK_MODE;
     private boolean exposeSpaceUtil = DEFAULT_EXPOSE_SPACE_UTIL;
     private boolean minimizeScanImpact = DEFAULT_MINIMIZE_SCAN_IMPACT;
+    private boolean groupCommit = DEFAULT_GROUP_COMMIT;
+    private int groupCommitMaxBatchSize = DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE;
 
     public BdbRuntimeConfig() {
 
@@ -32,6 +36,8 @@ public class BdbRuntimeConfig {
         setStatsCacheTtlMs(config.getBdbStatsCacheTtlMs());
         setExposeSpaceUtil(config.getBdbExposeSpaceUtilization());
         setMinimizeScanImpact(config.getBdbMinimizeScanImpact());
+        setGroupCommit(config.isBdbGroupCommitEnabled());
+        setGroupCommitMaxBatchSize(config.getBdbGroupCommitMaxBatchSize());
     }
 
     public long getStatsCacheTtlMs() {
@@ -67,4 +73,22 @@ public class BdbRuntimeConfig {
     public void setMinimizeScanImpact(boolean minimizeScanImpact) {
         this.minimizeScanImpact = minimizeScanImpact;
     }
+
+    public boolean isGroupCommit() {
+        return groupCommit;
+    }
+
+    public BdbRuntimeConfig setGroupCommit(boolean groupCommit) {
+        this.groupCommit = groupCommit;
+        return this;
+    }
+
+    public int getGroupCommitMaxBatchSize() {
+        return groupCommitMaxBatchSize;
+    }
+
+    public BdbRuntimeConfig setGroupCommitMaxBatchSize(int groupCommitMaxBatchSize) {
+        this.groupCommitMaxBatchSize = groupCommitMaxBatchSize;
+        return this;
+    }
 }
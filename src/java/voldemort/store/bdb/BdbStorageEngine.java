@@ -19,11 +19,16 @@ package voldemort.store.bdb;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.codec.binary.Hex;
 import org.apache.log4j.Logger;
@@ -80,6 +85,7 @@ public class BdbStorageEngine implements StorageEngine<ByteArray, byte[], byte[]
     private final BdbEnvironmentStats bdbEnvironmentStats;
     private final AtomicBoolean isTruncating = new AtomicBoolean(false);
     protected final boolean minimizeScanImpact;
+    private final GroupCommitter groupCommitter;
 
     public BdbStorageEngine(String name,
                             Environment environment,
@@ -94,6 +100,10 @@ public class BdbStorageEngine implements StorageEngine<ByteArray, byte[], byte[]
                                                            config.getStatsCacheTtlMs(),
                                                            config.getExposeSpaceUtil());
         this.minimizeScanImpact = config.getMinimizeScanImpact();
+        if(config.isGroupCommit())
+            this.groupCommitter = new GroupCommitter(config.getGroupCommitMaxBatchSize());
+        else
+            this.groupCommitter = null;
     }
 
     public String getName() {
@@ -287,53 +297,27 @@ public class BdbStorageEngine implements StorageEngine<ByteArray, byte[], byte[]
             startTimeNs = System.nanoTime();
 
         StoreUtils.assertValidKey(key);
-        DatabaseEntry keyEntry = new DatabaseEntry(key.get());
-        DatabaseEntry valueEntry = new DatabaseEntry();
+
+        if(groupCommitter != null) {
+            try {
+                groupCommitter.write(new PendingPut(key, value));
+            } finally {
+                if(logger.isTraceEnabled()) {
+                    logger.trace("Completed group committed PUT to key " + key + " (keyRef: "
+                                 + System.identityHashCode(key) + " value " + value + " in "
+                                 + (System.nanoTime() - startTimeNs) + " ns at "
+                                 + System.currentTimeMillis());
+                }
+            }
+            return;
+        }
 
         boolean succeeded = false;
         Transaction transaction = null;
-        List<Versioned<byte[]>> vals = null;
 
         try {
             transaction = environment.beginTransaction(null, null);
-
-            // do a get for the existing values
-            OperationStatus status = getBdbDatabase().get(transaction,
-                                                          keyEntry,
-                                                          valueEntry,
-                                                          LockMode.RMW);
-            if(OperationStatus.SUCCESS == status) {
-                // update
-                vals = StoreBinaryFormat.fromByteArray(valueEntry.getData());
-                // compare vector clocks and throw out old ones, for updates
-
-                Iterator<Versioned<byte[]>> iter = vals.iterator();
-                while(iter.hasNext()) {
-                    Versioned<byte[]> curr = iter.next();
-                    Occurred occurred = value.getVersion().compare(curr.getVersion());
-                    if(occurred == Occurred.BEFORE)
-                        throw new ObsoleteVersionException("Key "
-                                                           + new String(hexCodec.encode(key.get()))
-                                                           + " "
-                                                           + value.getVersion().toString()
-                                                           + " is obsolete, it is no greater than the current version of "
-                                                           + curr.getVersion().toString() + ".");
-                    else if(occurred == Occurred.AFTER)
-                        iter.remove();
-                }
-            } else {
-                // insert
-                vals = new ArrayList<Versioned<byte[]>>();
-            }
-
-            // update the new value
-            vals.add(value);
-
-            valueEntry.setData(StoreBinaryFormat.toByteArray(vals));
-            status = getBdbDatabase().put(transaction, keyEntry, valueEntry);
-
-            if(status != OperationStatus.SUCCESS)
-                throw new PersistenceFailureException("Put operation failed with status: " + status);
+            put(transaction, key, value);
             succeeded = true;
 
         } catch(DatabaseException e) {
@@ -353,67 +337,149 @@ public class BdbStorageEngine implements StorageEngine<ByteArray, byte[], byte[]
         }
     }
 
-    public boolean delete(ByteArray key, Version version) throws PersistenceFailureException {
+    private void put(Transaction transaction, ByteArray key, Versioned<byte[]> value)
+            throws DatabaseException {
+        DatabaseEntry keyEntry = new DatabaseEntry(key.get());
+        DatabaseEntry valueEntry = new DatabaseEntry();
 
-        StoreUtils.assertValidKey(key);
+        // do a get for the existing values
+        OperationStatus status = getBdbDatabase().get(transaction,
+                                                      keyEntry,
+                                                      valueEntry,
+                                                      LockMode.RMW);
+        byte[] current = OperationStatus.SUCCESS == status ? valueEntry.getData() : null;
+
+        valueEntry.setData(addVersion(key, current, value));
+        status = getBdbDatabase().put(transaction, keyEntry, valueEntry);
+
+        if(status != OperationStatus.SUCCESS)
+            throw new PersistenceFailureException("Put operation failed with status: " + status);
+    }
 
+    /**
+     * Adds a value to the serialized versions of a key, throwing out the
+     * versions it supersedes. The versions are compared and copied without
+     * being deserialized.
+     * 
+     * @throws ObsoleteVersionException if the value is older than one of the
+     *         versions
+     */
+    private static byte[] addVersion(ByteArray key, byte[] current, Versioned<byte[]> value) {
+        try {
+            return StoreBinaryFormat.addVersion(current, value);
+        } catch(ObsoleteVersionException e) {
+            throw new ObsoleteVersionException("Key " + new String(hexCodec.encode(key.get()))
+                                               + " " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the batch in a single transaction. The entries are sorted by key
+     * first, so that a cursor visits every key once, in the order of the
+     * btree, and all the versions of a key are merged before it is written.
+     */
+    public int putAll(List<Pair<ByteArray, Versioned<byte[]>>> entries)
+            throws PersistenceFailureException {
         long startTimeNs = -1;
 
         if(logger.isTraceEnabled())
             startTimeNs = System.nanoTime();
 
-        Transaction transaction = null;
-        try {
-            transaction = this.environment.beginTransaction(null, null);
-            DatabaseEntry keyEntry = new DatabaseEntry(key.get());
+        // before the sort, which would fail on a null key
+        for(Pair<ByteArray, Versioned<byte[]>> entry: entries)
+            StoreUtils.assertValidKey(entry.getFirst());
 
-            if(version == null) {
-                // unversioned delete. Just blow away the whole thing
-                OperationStatus status = getBdbDatabase().delete(transaction, keyEntry);
-                if(OperationStatus.SUCCESS == status)
-                    return true;
-                else
-                    return false;
-            } else {
-                // versioned deletes; need to determine what to delete
-                DatabaseEntry valueEntry = new DatabaseEntry();
+        List<Pair<ByteArray, Versioned<byte[]>>> sorted = new ArrayList<Pair<ByteArray, Versioned<byte[]>>>(entries);
+        // the sort is stable, so the versions of a key keep their order
+        Collections.sort(sorted, new Comparator<Pair<ByteArray, Versioned<byte[]>>>() {
 
-                // do a get for the existing values
-                OperationStatus status = getBdbDatabase().get(transaction,
-                                                              keyEntry,
-                                                              valueEntry,
-                                                              LockMode.RMW);
-                // key does not exist to begin with.
-                if(OperationStatus.NOTFOUND == status)
-                    return false;
+            public int compare(Pair<ByteArray, Versioned<byte[]>> e1,
+                               Pair<ByteArray, Versioned<byte[]>> e2) {
+                return ByteUtils.compare(e1.getFirst().get(), e2.getFirst().get());
+            }
+        });
 
-                List<Versioned<byte[]>> vals = StoreBinaryFormat.fromByteArray(valueEntry.getData());
-                Iterator<Versioned<byte[]>> iter = vals.iterator();
-                int numVersions = vals.size();
-                int numDeletedVersions = 0;
-
-                // go over the versions and remove everything before the
-                // supplied version
-                while(iter.hasNext()) {
-                    Versioned<byte[]> curr = iter.next();
-                    Version currentVersion = curr.getVersion();
-                    if(currentVersion.compare(version) == Occurred.BEFORE) {
-                        iter.remove();
-                        numDeletedVersions++;
+        boolean succeeded = false;
+        int numObsolete = 0;
+        Transaction transaction = null;
+        Cursor cursor = null;
+        try {
+            transaction = environment.beginTransaction(null, null);
+            cursor = getBdbDatabase().openCursor(transaction, null);
+            int index = 0;
+            while(index < sorted.size()) {
+                ByteArray key = sorted.get(index).getFirst();
+                DatabaseEntry keyEntry = new DatabaseEntry(key.get());
+                DatabaseEntry valueEntry = new DatabaseEntry();
+                boolean exists = cursor.getSearchKey(keyEntry, valueEntry, LockMode.RMW) == OperationStatus.SUCCESS;
+                byte[] current = exists ? valueEntry.getData() : null;
+
+                boolean changed = false;
+                for(; index < sorted.size() && sorted.get(index).getFirst().equals(key); index++) {
+                    try {
+                        current = StoreBinaryFormat.addVersion(current,
+                                                               sorted.get(index).getSecond());
+                        changed = true;
+                    } catch(ObsoleteVersionException e) {
+                        numObsolete++;
                     }
                 }
 
-                if(numDeletedVersions < numVersions) {
-                    // we still have some valid versions
-                    valueEntry.setData(StoreBinaryFormat.toByteArray(vals));
-                    getBdbDatabase().put(transaction, keyEntry, valueEntry);
-                } else {
-                    // we have deleted all the versions; so get rid of the entry
-                    // in the database
-                    getBdbDatabase().delete(transaction, keyEntry);
+                if(changed) {
+                    valueEntry.setData(current);
+                    OperationStatus status = exists ? cursor.putCurrent(valueEntry)
+                                                   : cursor.put(keyEntry, valueEntry);
+                    if(status != OperationStatus.SUCCESS)
+                        throw new PersistenceFailureException("Put operation failed with status: "
+                                                              + status);
+                }
+            }
+            succeeded = true;
+        } catch(DatabaseException e) {
+            logger.error(e);
+            throw new PersistenceFailureException(e);
+        } finally {
+            attemptClose(cursor);
+            if(succeeded)
+                attemptCommit(transaction);
+            else
+                attemptAbort(transaction);
+            if(logger.isTraceEnabled()) {
+                logger.trace("Completed PUTALL of " + entries.size() + " entries in "
+                             + (System.nanoTime() - startTimeNs) + " ns at "
+                             + System.currentTimeMillis());
+            }
+        }
+        return numObsolete;
+    }
+
+    public boolean delete(ByteArray key, Version version) throws PersistenceFailureException {
+
+        StoreUtils.assertValidKey(key);
+
+        long startTimeNs = -1;
+
+        if(logger.isTraceEnabled())
+            startTimeNs = System.nanoTime();
+
+        if(groupCommitter != null) {
+            try {
+                return groupCommitter.write(new PendingDelete(key, version));
+            } finally {
+                if(logger.isTraceEnabled()) {
+                    logger.trace("Completed group committed DELETE of key "
+                                 + ByteUtils.toHexString(key.get()) + " (keyRef: "
+                                 + System.identityHashCode(key) + ") in "
+                                 + (System.nanoTime() - startTimeNs) + " ns at "
+                                 + System.currentTimeMillis());
                 }
-                return numDeletedVersions > 0;
             }
+        }
+
+        Transaction transaction = null;
+        try {
+            transaction = this.environment.beginTransaction(null, null);
+            return delete(transaction, key, version);
         } catch(DatabaseException e) {
             logger.error(e);
             throw new PersistenceFailureException(e);
@@ -428,6 +494,59 @@ public class BdbStorageEngine implements StorageEngine<ByteArray, byte[], byte[]
         }
     }
 
+    private boolean delete(Transaction transaction, ByteArray key, Version version)
+            throws DatabaseException {
+        DatabaseEntry keyEntry = new DatabaseEntry(key.get());
+
+        if(version == null) {
+            // unversioned delete. Just blow away the whole thing
+            OperationStatus status = getBdbDatabase().delete(transaction, keyEntry);
+            if(OperationStatus.SUCCESS == status)
+                return true;
+            else
+                return false;
+        } else {
+            // versioned deletes; need to determine what to delete
+            DatabaseEntry valueEntry = new DatabaseEntry();
+
+            // do a get for the existing values
+            OperationStatus status = getBdbDatabase().get(transaction,
+                                                          keyEntry,
+                                                          valueEntry,
+                                                          LockMode.RMW);
+            // key does not exist to begin with.
+            if(OperationStatus.NOTFOUND == status)
+                return false;
+
+            List<Versioned<byte[]>> vals = StoreBinaryFormat.fromByteArray(valueEntry.getData());
+            Iterator<Versioned<byte[]>> iter = vals.iterator();
+            int numVersions = vals.size();
+            int numDeletedVersions = 0;
+
+            // go over the versions and remove everything before the
+            // supplied version
+            while(iter.hasNext()) {
+                Versioned<byte[]> curr = iter.next();
+                Version currentVersion = curr.getVersion();
+                if(currentVersion.compare(version) == Occurred.BEFORE) {
+                    iter.remove();
+                    numDeletedVersions++;
+                }
+            }
+
+            if(numDeletedVersions < numVersions) {
+                // we still have some valid versions
+                valueEntry.setData(StoreBinaryFormat.toByteArray(vals));
+                getBdbDatabase().put(transaction, keyEntry, valueEntry);
+            } else {
+                // we have deleted all the versions; so get rid of the entry
+                // in the database
+                getBdbDatabase().delete(transaction, keyEntry);
+            }
+            return numDeletedVersions > 0;
+        }
+    }
+
     public Object getCapability(StoreCapabilityType capability) {
         throw new NoSuchCapabilityException(capability, getName());
     }
@@ -455,6 +574,15 @@ public class BdbStorageEngine implements StorageEngine<ByteArray, byte[], byte[]
         }
     }
 
+    private void attemptClose(Cursor cursor) {
+        try {
+            if(cursor != null)
+                cursor.close();
+        } catch(DatabaseException e) {
+            logger.error("Cursor close failed!", e);
+        }
+    }
+
     private void attemptAbort(Transaction transaction) {
         try {
             if(transaction != null)
@@ -506,6 +634,164 @@ public class BdbStorageEngine implements StorageEngine<ByteArray, byte[], byte[]
         return logger;
     }
 
+    /**
+     * A put or delete waiting to be applied by a group commit
+     */
+    private abstract class PendingWrite {
+
+        protected final ByteArray key;
+        private boolean result;
+        private RuntimeException failure;
+        private boolean done;
+
+        PendingWrite(ByteArray key) {
+            this.key = key;
+        }
+
+        abstract boolean apply(Transaction transaction) throws DatabaseException;
+    }
+
+    private class PendingPut extends PendingWrite {
+
+        private final Versioned<byte[]> value;
+
+        PendingPut(ByteArray key, Versioned<byte[]> value) {
+            super(key);
+            this.value = value;
+        }
+
+        @Override
+        boolean apply(Transaction transaction) throws DatabaseException {
+            put(transaction, key, value);
+            return true;
+        }
+    }
+
+    private class PendingDelete extends PendingWrite {
+
+        private final Version version;
+
+        PendingDelete(ByteArray key, Version version) {
+            super(key);
+            this.version = version;
+        }
+
+        @Override
+        boolean apply(Transaction transaction) throws DatabaseException {
+            return delete(transaction, key, version);
+        }
+    }
+
+    /**
+     * Applies the writes of many request threads in one transaction. A thread
+     * queues its write and waits for the commit lock. The thread that gets the
+     * lock applies every queued write, its own and those that arrived while the
+     * previous batch was committing, and commits them together, so that the
+     * writes share a single flush of the log.
+     * 
+     * The batch is applied in key order, the order {@link #putAll(List)} locks
+     * keys in, so that the two cannot deadlock each other. A write that fails
+     * on its own, like a put of an obsolete version, fails only its caller. If
+     * the transaction of the batch fails, the writes are retried one
+     * transaction each, so that only the writes that fail again fail their
+     * callers.
+     */
+    private class GroupCommitter {
+
+        private final Queue<PendingWrite> queue = new ConcurrentLinkedQueue<PendingWrite>();
+        private final Lock commitLock = new ReentrantLock();
+        private final int maxBatchSize;
+
+        GroupCommitter(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        boolean write(PendingWrite write) {
+            queue.add(write);
+            commitLock.lock();
+            try {
+                while(!write.done)
+                    commitBatch();
+            } finally {
+                commitLock.unlock();
+            }
+            if(write.failure != null)
+                throw write.failure;
+            return write.result;
+        }
+
+        private void commitBatch() {
+            List<PendingWrite> batch = new ArrayList<PendingWrite>();
+            for(PendingWrite write = queue.poll(); write != null; write = queue.poll()) {
+                batch.add(write);
+                if(batch.size() >= maxBatchSize)
+                    break;
+            }
+            // the sort is stable, so the writes to a key keep their order
+            Collections.sort(batch, new Comparator<PendingWrite>() {
+
+                public int compare(PendingWrite w1, PendingWrite w2) {
+                    return ByteUtils.compare(w1.key.get(), w2.key.get());
+                }
+            });
+
+            RuntimeException failure = commit(batch);
+            if(failure != null && batch.size() > 1) {
+                logger.warn("Group commit of " + batch.size()
+                            + " writes failed, retrying them one by one", failure);
+                for(PendingWrite write: batch) {
+                    RuntimeException writeFailure = commit(Collections.singletonList(write));
+                    if(writeFailure != null)
+                        write.failure = writeFailure;
+                }
+            } else if(failure != null) {
+                for(PendingWrite write: batch)
+                    write.failure = failure;
+            }
+            for(PendingWrite write: batch)
+                write.done = true;
+        }
+
+        /*
+         * Applies the writes in one transaction, and returns the failure of
+         * the transaction, if any
+         */
+        private RuntimeException commit(List<PendingWrite> writes) {
+            Transaction transaction = null;
+            boolean succeeded = false;
+            RuntimeException failure = null;
+            try {
+                transaction = environment.beginTransaction(null, null);
+                for(PendingWrite write: writes) {
+                    write.result = false;
+                    write.failure = null;
+                    try {
+                        write.result = write.apply(transaction);
+                    } catch(ObsoleteVersionException e) {
+                        write.failure = e;
+                    }
+                }
+                succeeded = true;
+            } catch(DatabaseException e) {
+                logger.error(e);
+                failure = new PersistenceFailureException(e);
+            } catch(RuntimeException e) {
+                failure = e;
+            } finally {
+                if(succeeded) {
+                    try {
+                        attemptCommit(transaction);
+                    } catch(PersistenceFailureException e) {
+                        failure = e;
+                    }
+                } else {
+                    attemptAbort(transaction);
+                }
+            }
+            return failure;
+        }
+    }
+
     private static class BdbEntriesIterator extends BdbIterator<Pair<ByteArray, Versioned<byte[]>>> {
 
         private List<Pair<ByteArray, Versioned<byte[]>>> cache;
@@ -109,6 +109,21 @@ public class PartitionPrefixedBdbStorageEngine extends BdbStorageEngine {
         super.put(prefixedKey, value, transforms);
     }
 
+    @Override
+    public int putAll(List<Pair<ByteArray, Versioned<byte[]>>> entries)
+            throws PersistenceFailureException {
+        List<Pair<ByteArray, Versioned<byte[]>>> prefixedEntries = new ArrayList<Pair<ByteArray, Versioned<byte[]>>>(entries.size());
+        for(Pair<ByteArray, Versioned<byte[]>> entry: entries) {
+            ByteArray key = entry.getFirst();
+            StoreUtils.assertValidKey(key);
+            int partition = routingStrategy.getMasterPartition(key.get());
+            prefixedEntries.add(Pair.create(new ByteArray(StoreBinaryFormat.makePrefixedKey(key.get(),
+                                                                                            partition)),
+                                            entry.getSecond()));
+        }
+        return super.putAll(prefixedEntries);
+    }
+
     @Override
     public boolean delete(ByteArray key, Version version) throws PersistenceFailureException {
 
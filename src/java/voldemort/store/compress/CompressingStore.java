@@ -63,22 +63,22 @@ public class CompressingStore implements Store<ByteArray, byte[], byte[]> {
                                                           Map<ByteArray, byte[]> transforms)
             throws VoldemortException {
         StoreUtils.assertValidKeys(keys);
-        Iterable<ByteArray> processedKeys = keys;
         List<ByteArray> deflatedKeys = Lists.newArrayList();
         for(ByteArray key: keys)
             deflatedKeys.add(deflateKey(key));
-        processedKeys = deflatedKeys;
-        Map<ByteArray, byte[]> newTransforms = Maps.newHashMap();
+        Map<ByteArray, byte[]> newTransforms;
         if(transforms != null) {
+            newTransforms = Maps.newHashMapWithExpectedSize(transforms.size());
             for(Map.Entry<ByteArray, byte[]> transform: transforms.entrySet()) {
                 newTransforms.put(deflateKey(transform.getKey()), transform.getValue());
             }
         } else {
-            for(ByteArray deflatedKey: processedKeys) {
+            newTransforms = Maps.newHashMapWithExpectedSize(deflatedKeys.size());
+            for(ByteArray deflatedKey: deflatedKeys) {
                 newTransforms.put(deflatedKey, null);
             }
         }
-        Map<ByteArray, List<Versioned<byte[]>>> deflatedResult = innerStore.getAll(processedKeys,
+        Map<ByteArray, List<Versioned<byte[]>>> deflatedResult = innerStore.getAll(deflatedKeys,
                                                                                    newTransforms);
         Map<ByteArray, List<Versioned<byte[]>>> result = Maps.newHashMapWithExpectedSize(deflatedResult.size());
         for(Map.Entry<ByteArray, List<Versioned<byte[]>>> mapEntry: deflatedResult.entrySet())
@@ -103,13 +103,19 @@ public class CompressingStore implements Store<ByteArray, byte[], byte[]> {
     }
 
     private Versioned<byte[]> deflateValue(Versioned<byte[]> versioned) {
-        return new Versioned<byte[]>(deflate(valuesCompressionStrategy, versioned.getValue()),
-                                     versioned.getVersion());
+        byte[] deflated = deflate(valuesCompressionStrategy, versioned.getValue());
+        /* This usually means that values are not compressed */
+        if(deflated == versioned.getValue())
+            return versioned;
+        return new Versioned<byte[]>(deflated, versioned.getVersion());
     }
 
     private Versioned<byte[]> inflateValue(Versioned<byte[]> versioned) {
-        return new Versioned<byte[]>(inflate(valuesCompressionStrategy, versioned.getValue()),
-                                     versioned.getVersion());
+        byte[] inflated = inflate(valuesCompressionStrategy, versioned.getValue());
+        /* This usually means that values are not compressed */
+        if(inflated == versioned.getValue())
+            return versioned;
+        return new Versioned<byte[]>(inflated, versioned.getVersion());
     }
 
     private byte[] inflate(CompressionStrategy compressionStrategy, byte[] data)
@@ -1,16 +1,54 @@
 package voldemort.store.compress;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
 
 /**
  * Implementation of CompressionStrategy for the gzip format.
+ * <p/>
+ * Values are compressed and uncompressed with a deflater, inflater and buffer
+ * kept per thread, instead of a stream and a native codec per value. The
+ * uncompressed length stored at the end of the gzip data gives the size of
+ * the output, so inflating allocates nothing but the result. Data with more
+ * than one gzip member falls back to {@link GZIPInputStream}.
  */
 public class GzipCompressionStrategy extends StreamCompressionStrategy {
 
+    /* The header GZIPOutputStream writes: no flags, no time, unknown OS */
+    private static final byte[] HEADER = { (byte) 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0,
+            0, 0, 0, 0 };
+
+    private static final int TRAILER_LENGTH = 8;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    /* Deflate cannot compress better than this */
+    private static final int MAX_RATIO = 1032;
+
+    /* Buffers grown beyond this by a large value are not kept around */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<Codec> CODECS = new ThreadLocal<Codec>() {
+
+        @Override
+        protected Codec initialValue() {
+            return new Codec();
+        }
+    };
+
     @Override
     protected OutputStream wrapOutputStream(OutputStream underlying) throws IOException {
         return new GZIPOutputStream(underlying);
@@ -24,4 +62,149 @@ public class GzipCompressionStrategy extends StreamCompressionStrategy {
     public String getType() {
         return "gzip";
     }
+
+    @Override
+    public byte[] deflate(byte[] data) throws IOException {
+        Codec codec = CODECS.get();
+        Deflater deflater = codec.deflater;
+        byte[] buffer = codec.buffer;
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+
+            System.arraycopy(HEADER, 0, buffer, 0, HEADER.length);
+            int length = HEADER.length;
+            while(!deflater.finished()) {
+                if(length == buffer.length)
+                    buffer = codec.grow(buffer);
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+
+            codec.crc.update(data);
+            if(length + TRAILER_LENGTH > buffer.length)
+                buffer = codec.grow(buffer);
+            writeInt(buffer, length, (int) codec.crc.getValue());
+            writeInt(buffer, length + 4, data.length);
+            return Arrays.copyOf(buffer, length + TRAILER_LENGTH);
+        } finally {
+            deflater.reset();
+            codec.crc.reset();
+            codec.release(buffer);
+        }
+    }
+
+    @Override
+    public byte[] inflate(byte[] data) throws IOException {
+        int offset = readHeader(data);
+        if(data.length - offset < TRAILER_LENGTH)
+            throw new EOFException("Unexpected end of gzip data");
+        int size = readInt(data, data.length - 4);
+        if(size < 0 || size > (long) (data.length - offset) * MAX_RATIO)
+            return super.inflate(data);
+
+        Codec codec = CODECS.get();
+        Inflater inflater = codec.inflater;
+        try {
+            byte[] inflated = new byte[size];
+            inflater.setInput(data, offset, data.length - offset);
+            int length = 0;
+            while(!inflater.finished()) {
+                int read;
+                if(length < size) {
+                    read = inflater.inflate(inflated, length, size - length);
+                    length += read;
+                } else {
+                    // Only the last member was this long if there is more
+                    read = inflater.inflate(codec.overflow);
+                    if(read > 0)
+                        return super.inflate(data);
+                }
+                if(read == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    throw new EOFException("Unexpected end of gzip data");
+            }
+            if(inflater.getRemaining() != TRAILER_LENGTH || length != size)
+                return super.inflate(data);
+
+            codec.crc.update(inflated);
+            if(readInt(data, data.length - TRAILER_LENGTH) != (int) codec.crc.getValue())
+                throw new ZipException("Corrupt GZIP trailer");
+            return inflated;
+        } catch(DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        } finally {
+            inflater.reset();
+            codec.crc.reset();
+        }
+    }
+
+    /**
+     * @return The offset of the compressed data
+     */
+    private static int readHeader(byte[] data) throws IOException {
+        if(data.length < HEADER.length)
+            throw new EOFException("Unexpected end of gzip data");
+        if(data[0] != HEADER[0] || data[1] != HEADER[1])
+            throw new ZipException("Not in GZIP format");
+        if(data[2] != Deflater.DEFLATED)
+            throw new ZipException("Unsupported compression method");
+
+        int flags = data[3] & 0xff;
+        int offset = HEADER.length;
+        if((flags & FEXTRA) != 0) {
+            checkAvailable(data, offset + 2);
+            offset += 2 + ((data[offset] & 0xff) | (data[offset + 1] & 0xff) << 8);
+        }
+        if((flags & FNAME) != 0)
+            offset = skipString(data, offset);
+        if((flags & FCOMMENT) != 0)
+            offset = skipString(data, offset);
+        if((flags & FHCRC) != 0)
+            offset += 2;
+        checkAvailable(data, offset);
+        return offset;
+    }
+
+    private static int skipString(byte[] data, int offset) throws IOException {
+        while(true) {
+            checkAvailable(data, offset + 1);
+            if(data[offset++] == 0)
+                return offset;
+        }
+    }
+
+    private static void checkAvailable(byte[] data, int length) throws IOException {
+        if(data.length < length)
+            throw new EOFException("Unexpected end of gzip data");
+    }
+
+    /* gzip stores integers little-endian */
+    private static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xff) | (data[offset + 1] & 0xff) << 8
+               | (data[offset + 2] & 0xff) << 16 | (data[offset + 3] & 0xff) << 24;
+    }
+
+    private static void writeInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) value;
+        data[offset + 1] = (byte) (value >>> 8);
+        data[offset + 2] = (byte) (value >>> 16);
+        data[offset + 3] = (byte) (value >>> 24);
+    }
+
+    private static class Codec {
+
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        final Inflater inflater = new Inflater(true);
+        final CRC32 crc = new CRC32();
+        final byte[] overflow = new byte[1];
+        byte[] buffer = new byte[4096];
+
+        byte[] grow(byte[] current) {
+            return Arrays.copyOf(current, current.length * 2);
+        }
+
+        void release(byte[] used) {
+            if(used.length <= MAX_RETAINED_BUFFER_SIZE)
+                buffer = used;
+        }
+    }
 }
@@ -2,24 +2,40 @@ package voldemort.store.compress;
 
 import java.io.IOException;
 
-import com.ning.compress.lzf.LZFDecoder;
+import com.ning.compress.lzf.ChunkDecoder;
+import com.ning.compress.lzf.ChunkEncoder;
+import com.ning.compress.lzf.LZFChunk;
 import com.ning.compress.lzf.LZFEncoder;
+import com.ning.compress.lzf.util.ChunkDecoderFactory;
 
 /**
  * Implementation of CompressionStrategy for the LZF format. LZF is optimized
  * for speed.
+ * <p/>
+ * Every thread keeps its own encoder, whose hash table would otherwise be
+ * allocated again for every value. Decoders keep no state, so one is shared.
  */
 public class LzfCompressionStrategy implements CompressionStrategy {
 
+    private static final ChunkDecoder DECODER = ChunkDecoderFactory.optimalInstance();
+
+    private static final ThreadLocal<ChunkEncoder> ENCODERS = new ThreadLocal<ChunkEncoder>() {
+
+        @Override
+        protected ChunkEncoder initialValue() {
+            return new ChunkEncoder(LZFChunk.MAX_CHUNK_LEN);
+        }
+    };
+
     public String getType() {
         return "lzf";
     }
 
     public byte[] deflate(byte[] data) throws IOException {
-        return LZFEncoder.encode(data);
+        return LZFEncoder.encode(ENCODERS.get(), data, data.length);
     }
 
     public byte[] inflate(byte[] data) throws IOException {
-        return LZFDecoder.decode(data);
+        return DECODER.decode(data);
     }
 }
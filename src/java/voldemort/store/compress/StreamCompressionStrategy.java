@@ -5,20 +5,40 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-
-import org.apache.commons.io.IOUtils;
+import java.util.Arrays;
 
 /**
  * Useful base class for stream-based compression strategies.
+ * <p/>
+ * The buffers the compressed and uncompressed bytes are collected in are kept
+ * per thread, so a value only costs the copy of the result.
  */
 public abstract class StreamCompressionStrategy implements CompressionStrategy {
 
+    /* Buffers grown beyond this by a large value are not kept around */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private static final ThreadLocal<Buffers> BUFFERS = new ThreadLocal<Buffers>() {
+
+        @Override
+        protected Buffers initialValue() {
+            return new Buffers();
+        }
+    };
+
     public byte[] deflate(byte[] data) throws IOException {
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        OutputStream gos = wrapOutputStream(bos);
-        gos.write(data);
-        gos.close();
-        return bos.toByteArray();
+        Buffers buffers = BUFFERS.get();
+        OutputBuffer bos = buffers.output;
+        try {
+            OutputStream gos = wrapOutputStream(bos);
+            gos.write(data);
+            gos.close();
+            return bos.toByteArray();
+        } finally {
+            buffers.releaseOutput();
+        }
     }
 
     protected abstract OutputStream wrapOutputStream(OutputStream underlying) throws IOException;
@@ -26,9 +46,49 @@ public abstract class StreamCompressionStrategy implements CompressionStrategy {
     protected abstract InputStream wrapInputStream(InputStream underlying) throws IOException;
 
     public byte[] inflate(byte[] data) throws IOException {
-        InputStream is = wrapInputStream(new ByteArrayInputStream(data));
-        byte[] inflated = IOUtils.toByteArray(is);
-        is.close();
-        return inflated;
+        Buffers buffers = BUFFERS.get();
+        byte[] buffer = buffers.input;
+        try {
+            InputStream is = wrapInputStream(new ByteArrayInputStream(data));
+            int length = 0;
+            while(true) {
+                if(length == buffer.length)
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                int read = is.read(buffer, length, buffer.length - length);
+                if(read < 0)
+                    break;
+                length += read;
+            }
+            is.close();
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            if(buffer.length <= MAX_RETAINED_BUFFER_SIZE)
+                buffers.input = buffer;
+        }
+    }
+
+    private static class Buffers {
+
+        OutputBuffer output = new OutputBuffer();
+        byte[] input = new byte[INITIAL_BUFFER_SIZE];
+
+        void releaseOutput() {
+            if(output.capacity() > MAX_RETAINED_BUFFER_SIZE)
+                output = new OutputBuffer();
+            else
+                output.reset();
+        }
+    }
+
+    /* Exposes its capacity, so a buffer grown by a large value is dropped */
+    private static class OutputBuffer extends ByteArrayOutputStream {
+
+        OutputBuffer() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
     }
 }
@@ -248,6 +248,10 @@ public class ConfigurationStorageEngine implements StorageEngine<String, String,
         throw new VoldemortException("Truncate not supported in ConfigurationStorageEngine");
     }
 
+    public int putAll(List<Pair<String, Versioned<String>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return false;
     }
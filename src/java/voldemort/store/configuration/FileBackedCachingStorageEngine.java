@@ -212,6 +212,10 @@ public class FileBackedCachingStorageEngine implements StorageEngine<ByteArray,
         throw new VoldemortException("Truncate not supported in FileBackedCachingStorageEngine");
     }
 
+    public int putAll(List<Pair<ByteArray, Versioned<byte[]>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return false;
     }
@@ -35,6 +35,8 @@ import com.google.common.collect.MapMaker;
  * collections ReferenceMap with Soft references on both keys and values. This
  * behaves like a cache, discarding values when under memory pressure.
  * 
+ * @see OffHeapCacheStorageConfiguration for a cache of a fixed size that does
+ *      not depend on the garbage collector
  * 
  */
 public class CacheStorageConfiguration implements StorageConfiguration {
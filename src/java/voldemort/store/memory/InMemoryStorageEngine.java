@@ -271,6 +271,10 @@ public class InMemoryStorageEngine<K, V, T> implements StorageEngine<K, V, T> {
 
     }
 
+    public int putAll(List<Pair<K, Versioned<V>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return false;
     }
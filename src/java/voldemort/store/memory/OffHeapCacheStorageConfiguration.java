@@ -0,0 +1,68 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.memory;
+
+import voldemort.VoldemortException;
+import voldemort.routing.RoutingStrategy;
+import voldemort.server.VoldemortConfig;
+import voldemort.store.StorageConfiguration;
+import voldemort.store.StorageEngine;
+import voldemort.store.StoreDefinition;
+import voldemort.utils.ByteArray;
+
+/**
+ * Creates a bounded cache per store that keeps keys and values off the java
+ * heap and evicts them once the configured number of bytes is used, instead of
+ * whenever the garbage collector clears soft references.
+ * 
+ * @see OffHeapCacheStorageEngine
+ */
+public class OffHeapCacheStorageConfiguration implements StorageConfiguration {
+
+    public static final String TYPE_NAME = "offheap-cache";
+
+    private final long cacheSize;
+    private final int numSegments;
+    private final boolean jmxEnabled;
+
+    public OffHeapCacheStorageConfiguration(VoldemortConfig config) {
+        this.cacheSize = config.getOffHeapCacheSize();
+        this.numSegments = config.getOffHeapCacheSegments();
+        this.jmxEnabled = config.isJmxEnabled();
+    }
+
+    public void close() {}
+
+    public StorageEngine<ByteArray, byte[], byte[]> getStore(StoreDefinition storeDef,
+                                                             RoutingStrategy strategy) {
+        OffHeapCacheStorageEngine engine = new OffHeapCacheStorageEngine(storeDef.getName(),
+                                                                         cacheSize,
+                                                                         numSegments);
+        if(jmxEnabled)
+            engine.registerMbean();
+        return engine;
+    }
+
+    public String getType() {
+        return TYPE_NAME;
+    }
+
+    public void update(StoreDefinition storeDef) {
+        throw new VoldemortException("Storage config updates not permitted for " + this.getType()
+                                     + " storage engine");
+    }
+}
@@ -0,0 +1,637 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.memory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.management.ObjectName;
+
+import voldemort.VoldemortException;
+import voldemort.annotations.concurrency.NotThreadsafe;
+import voldemort.annotations.jmx.JmxGetter;
+import voldemort.store.NoSuchCapabilityException;
+import voldemort.store.StorageEngine;
+import voldemort.store.StoreBinaryFormat;
+import voldemort.store.StoreCapabilityType;
+import voldemort.store.StoreUtils;
+import voldemort.utils.ByteArray;
+import voldemort.utils.ClosableIterator;
+import voldemort.utils.JmxUtils;
+import voldemort.utils.Pair;
+import voldemort.utils.Utils;
+import voldemort.versioning.ObsoleteVersionException;
+import voldemort.versioning.Occurred;
+import voldemort.versioning.Version;
+import voldemort.versioning.Versioned;
+
+/**
+ * A non-persistent cache that keeps its keys and values outside of the java
+ * heap and never holds more than a fixed number of bytes.
+ * <p/>
+ * The keys are hashed to one of several segments, each guarded by its own lock
+ * and owning a direct buffer that is carved up into fixed size blocks. An
+ * entry is stored as a chain of blocks holding the key and all its versions,
+ * and found through an open addressing table of block numbers, so the heap
+ * only holds a few primitive arrays per segment no matter how many entries are
+ * cached. When a segment runs out of blocks, entries are evicted in
+ * approximate LRU order by the CLOCK algorithm: reads set a referenced bit,
+ * and the clock hand evicts the first entry it finds whose bit was not set
+ * since the hand last passed it.
+ *
+ */
+public class OffHeapCacheStorageEngine implements StorageEngine<ByteArray, byte[], byte[]> {
+
+    /*
+     * Every block starts with the number of the next block of the entry, the
+     * first one continues with the hash, key length and value length
+     */
+    static final int BLOCK_SIZE = 64;
+    private static final int BLOCK_HEADER_SIZE = 4;
+    private static final int BLOCK_PAYLOAD_SIZE = BLOCK_SIZE - BLOCK_HEADER_SIZE;
+    private static final int ENTRY_HEADER_SIZE = 12;
+    private static final int NO_BLOCK = -1;
+
+    private final String name;
+    private final int segmentShift;
+    // dropped on close, so that the direct buffers can be collected
+    private volatile Segment[] segments;
+    private ObjectName mbeanName;
+
+    /**
+     * @param name The name of the store
+     * @param maxBytes The number of bytes to cache at most, including the
+     *        overhead of the blocks
+     * @param numSegments The number of independently locked segments, rounded
+     *        up to a power of two
+     */
+    public OffHeapCacheStorageEngine(String name, long maxBytes, int numSegments) {
+        this.name = Utils.notNull(name);
+        if(maxBytes <= 0)
+            throw new IllegalArgumentException("The cache size must be positive.");
+        if(numSegments <= 0)
+            throw new IllegalArgumentException("The number of segments must be positive.");
+
+        int segmentBits = 0;
+        while((1 << segmentBits) < numSegments)
+            segmentBits++;
+        this.segmentShift = 32 - segmentBits;
+
+        long blocksPerSegment = Math.max(1, (maxBytes >> segmentBits) / BLOCK_SIZE);
+        if(blocksPerSegment > Integer.MAX_VALUE / BLOCK_SIZE)
+            throw new IllegalArgumentException("A cache of " + maxBytes + " bytes needs more than "
+                                               + (1 << segmentBits) + " segments.");
+        Segment[] segments = new Segment[1 << segmentBits];
+        for(int i = 0; i < segments.length; i++)
+            segments[i] = new Segment((int) blocksPerSegment);
+        this.segments = segments;
+    }
+
+    /**
+     * Registers the statistics of the cache as an mbean named after the store.
+     * The mbean is unregistered when the engine is closed.
+     */
+    public synchronized void registerMbean() {
+        if(segments != null && mbeanName == null)
+            mbeanName = JmxUtils.registerMbean(name, this);
+    }
+
+    private static int hash(ByteArray key) {
+        // spread the bits of the array hash code, see murmur3's fmix32
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private Segment[] getSegments() {
+        Segment[] segments = this.segments;
+        if(segments == null)
+            throw new VoldemortException("Store '" + name + "' is closed.");
+        return segments;
+    }
+
+    private Segment segmentFor(int hash) {
+        Segment[] segments = getSegments();
+        // the table of a segment uses the low bits, so use the high ones here
+        return segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized void close() {
+        if(mbeanName != null) {
+            JmxUtils.unregisterMbean(mbeanName);
+            mbeanName = null;
+        }
+        segments = null;
+    }
+
+    public List<Versioned<byte[]>> get(ByteArray key, byte[] transforms)
+            throws VoldemortException {
+        StoreUtils.assertValidKey(key);
+        int hash = hash(key);
+        Segment segment = segmentFor(hash);
+        byte[] bytes;
+        synchronized(segment) {
+            bytes = segment.get(key, hash, true);
+        }
+        if(bytes == null)
+            return new ArrayList<Versioned<byte[]>>(0);
+        return StoreBinaryFormat.fromByteArray(bytes);
+    }
+
+    public Map<ByteArray, List<Versioned<byte[]>>> getAll(Iterable<ByteArray> keys,
+                                                          Map<ByteArray, byte[]> transforms)
+            throws VoldemortException {
+        StoreUtils.assertValidKeys(keys);
+        return StoreUtils.getAll(this, keys, transforms);
+    }
+
+    public List<Version> getVersions(ByteArray key) {
+        return StoreUtils.getVersions(get(key, null));
+    }
+
+    public void put(ByteArray key, Versioned<byte[]> value, byte[] transforms)
+            throws VoldemortException {
+        StoreUtils.assertValidKey(key);
+        int hash = hash(key);
+        Segment segment = segmentFor(hash);
+        synchronized(segment) {
+            byte[] bytes = segment.get(key, hash, false);
+            try {
+                bytes = StoreBinaryFormat.addVersion(bytes, value);
+            } catch(ObsoleteVersionException e) {
+                throw new ObsoleteVersionException("Obsolete version for key '" + key + "': "
+                                                   + value.getVersion());
+            }
+            segment.put(key, hash, bytes);
+        }
+    }
+
+    public boolean delete(ByteArray key, Version version) throws VoldemortException {
+        StoreUtils.assertValidKey(key);
+        int hash = hash(key);
+        Segment segment = segmentFor(hash);
+        synchronized(segment) {
+            if(version == null)
+                return segment.remove(key, hash);
+
+            byte[] bytes = segment.get(key, hash, false);
+            if(bytes == null)
+                return false;
+            List<Versioned<byte[]>> items = StoreBinaryFormat.fromByteArray(bytes);
+            Iterator<Versioned<byte[]>> iterator = items.iterator();
+            boolean deletedSomething = false;
+            while(iterator.hasNext()) {
+                if(iterator.next().getVersion().compare(version) == Occurred.BEFORE) {
+                    iterator.remove();
+                    deletedSomething = true;
+                }
+            }
+            if(items.isEmpty())
+                segment.remove(key, hash);
+            else if(deletedSomething)
+                segment.put(key, hash, StoreBinaryFormat.toByteArray(items));
+            return deletedSomething;
+        }
+    }
+
+    public Object getCapability(StoreCapabilityType capability) {
+        throw new NoSuchCapabilityException(capability, getName());
+    }
+
+    public ClosableIterator<Pair<ByteArray, Versioned<byte[]>>> entries() {
+        return new OffHeapCacheIterator();
+    }
+
+    public ClosableIterator<ByteArray> keys() {
+        return StoreUtils.keys(entries());
+    }
+
+    public ClosableIterator<Pair<ByteArray, Versioned<byte[]>>> entries(int partition) {
+        throw new UnsupportedOperationException("Partition based entries scan not supported for this storage type");
+    }
+
+    public ClosableIterator<ByteArray> keys(int partition) {
+        throw new UnsupportedOperationException("Partition based key scan not supported for this storage type");
+    }
+
+    public void truncate() {
+        for(Segment segment: getSegments()) {
+            synchronized(segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int putAll(List<Pair<ByteArray, Versioned<byte[]>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
+    public boolean isPartitionAware() {
+        return false;
+    }
+
+    public boolean isPartitionScanSupported() {
+        return false;
+    }
+
+    @JmxGetter(name = "numHits", description = "The number of reads that found the key cached.")
+    public long getNumHits() {
+        long hits = 0;
+        for(Segment segment: getSegments()) {
+            synchronized(segment) {
+                hits += segment.hits;
+            }
+        }
+        return hits;
+    }
+
+    @JmxGetter(name = "numMisses", description = "The number of reads that did not find the key cached.")
+    public long getNumMisses() {
+        long misses = 0;
+        for(Segment segment: getSegments()) {
+            synchronized(segment) {
+                misses += segment.misses;
+            }
+        }
+        return misses;
+    }
+
+    @JmxGetter(name = "hitRatio", description = "The fraction of reads that found the key cached.")
+    public double getHitRatio() {
+        long hits = getNumHits();
+        long total = hits + getNumMisses();
+        return total > 0 ? hits / (double) total : 0d;
+    }
+
+    @JmxGetter(name = "numEvictions", description = "The number of entries evicted to make room for others.")
+    public long getNumEvictions() {
+        long evictions = 0;
+        for(Segment segment: getSegments()) {
+            synchronized(segment) {
+                evictions += segment.evictions;
+            }
+        }
+        return evictions;
+    }
+
+    @JmxGetter(name = "numEntries", description = "The number of keys currently cached.")
+    public long getNumEntries() {
+        long entries = 0;
+        for(Segment segment: getSegments()) {
+            synchronized(segment) {
+                entries += segment.numEntries;
+            }
+        }
+        return entries;
+    }
+
+    @JmxGetter(name = "usedBytes", description = "The number of bytes of the blocks in use.")
+    public long getUsedBytes() {
+        long used = 0;
+        for(Segment segment: getSegments()) {
+            synchronized(segment) {
+                used += (long) (segment.numBlocks - segment.numFreeBlocks) * BLOCK_SIZE;
+            }
+        }
+        return used;
+    }
+
+    @JmxGetter(name = "capacityBytes", description = "The number of bytes that can be cached at most.")
+    public long getCapacityBytes() {
+        Segment[] segments = getSegments();
+        return (long) segments.length * segments[0].numBlocks * BLOCK_SIZE;
+    }
+
+    /**
+     * A part of the cache with its own blocks, table and clock. None of the
+     * methods are synchronized, the callers lock the segment for as long as
+     * they need a consistent view of it.
+     */
+    @NotThreadsafe
+    private static class Segment {
+
+        private final ByteBuffer buffer;
+        private final int numBlocks;
+
+        /*
+         * The slots hold the first block of an entry plus one, so that zero
+         * marks an empty slot
+         */
+        private final int[] table;
+        private final int maxEntries;
+
+        /* The first blocks of the entries, and those read since the hand passed */
+        private final BitSet heads;
+        private final BitSet referenced;
+
+        private int freeBlock;
+        private int numFreeBlocks;
+        private int numEntries;
+        private int hand;
+
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        Segment(int numBlocks) {
+            this.numBlocks = numBlocks;
+            this.buffer = ByteBuffer.allocateDirect(numBlocks * BLOCK_SIZE);
+            int tableSize = Integer.highestOneBit(numBlocks);
+            if(tableSize < numBlocks)
+                tableSize <<= 1;
+            this.table = new int[Math.max(2, tableSize)];
+            this.maxEntries = Math.min(numBlocks, table.length - (table.length >> 2));
+            this.heads = new BitSet(numBlocks);
+            this.referenced = new BitSet(numBlocks);
+            clear();
+        }
+
+        void clear() {
+            Arrays.fill(table, 0);
+            heads.clear();
+            referenced.clear();
+            for(int block = 0; block < numBlocks; block++)
+                setNext(block, block + 1 < numBlocks ? block + 1 : NO_BLOCK);
+            freeBlock = 0;
+            numFreeBlocks = numBlocks;
+            numEntries = 0;
+            hand = 0;
+        }
+
+        /**
+         * @param track Whether the read counts as a hit or miss and makes the
+         *        entry recently used
+         * @return The value of the key, or null if it is not cached
+         */
+        byte[] get(ByteArray key, int hash, boolean track) {
+            int slot = find(key, hash);
+            if(slot < 0) {
+                if(track)
+                    misses++;
+                return null;
+            }
+            int head = table[slot] - 1;
+            if(track) {
+                hits++;
+                referenced.set(head);
+            }
+            byte[] value = new byte[buffer.getInt(head * BLOCK_SIZE + 12)];
+            read(head, ENTRY_HEADER_SIZE + key.length(), value);
+            return value;
+        }
+
+        /**
+         * Replaces the value of the key, evicting other entries as needed. A
+         * value that does not fit in the segment at all is not cached.
+         */
+        void put(ByteArray key, int hash, byte[] value) {
+            int slot = find(key, hash);
+            if(slot >= 0)
+                removeSlot(slot);
+
+            int length = ENTRY_HEADER_SIZE + key.length() + value.length;
+            int needed = (length + BLOCK_PAYLOAD_SIZE - 1) / BLOCK_PAYLOAD_SIZE;
+            if(needed > numBlocks) {
+                evictions++;
+                return;
+            }
+            while(numFreeBlocks < needed || numEntries >= maxEntries)
+                evict();
+
+            int head = allocate(needed);
+            buffer.putInt(head * BLOCK_SIZE + BLOCK_HEADER_SIZE, hash);
+            buffer.putInt(head * BLOCK_SIZE + 8, key.length());
+            buffer.putInt(head * BLOCK_SIZE + 12, value.length);
+            write(head, ENTRY_HEADER_SIZE, key.get());
+            write(head, ENTRY_HEADER_SIZE + key.length(), value);
+
+            slot = hash & (table.length - 1);
+            while(table[slot] != 0)
+                slot = (slot + 1) & (table.length - 1);
+            table[slot] = head + 1;
+            heads.set(head);
+            numEntries++;
+        }
+
+        boolean remove(ByteArray key, int hash) {
+            int slot = find(key, hash);
+            if(slot < 0)
+                return false;
+            removeSlot(slot);
+            return true;
+        }
+
+        private int find(ByteArray key, int hash) {
+            byte[] bytes = key.get();
+            for(int slot = hash & (table.length - 1); table[slot] != 0; slot = (slot + 1)
+                                                                                & (table.length - 1)) {
+                int head = table[slot] - 1;
+                if(getHash(head) == hash && buffer.getInt(head * BLOCK_SIZE + 8) == bytes.length) {
+                    byte[] found = new byte[bytes.length];
+                    read(head, ENTRY_HEADER_SIZE, found);
+                    if(Arrays.equals(bytes, found))
+                        return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void evict() {
+            while(true) {
+                hand = heads.nextSetBit(hand);
+                if(hand < 0)
+                    hand = heads.nextSetBit(0);
+                if(referenced.get(hand)) {
+                    // second chance, the entry was read since the last sweep
+                    referenced.clear(hand);
+                    hand++;
+                } else {
+                    int slot = getHash(hand) & (table.length - 1);
+                    while(table[slot] != hand + 1)
+                        slot = (slot + 1) & (table.length - 1);
+                    removeSlot(slot);
+                    evictions++;
+                    hand++;
+                    return;
+                }
+            }
+        }
+
+        private void removeSlot(int slot) {
+            int head = table[slot] - 1;
+            heads.clear(head);
+            referenced.clear(head);
+            numEntries--;
+
+            int block = head;
+            while(block != NO_BLOCK) {
+                int next = getNext(block);
+                setNext(block, freeBlock);
+                freeBlock = block;
+                numFreeBlocks++;
+                block = next;
+            }
+
+            // shift back the following slots that would not be found otherwise
+            int mask = table.length - 1;
+            int hole = slot;
+            for(int i = (slot + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+                int home = getHash(table[i] - 1) & mask;
+                if(((i - home) & mask) >= ((i - hole) & mask)) {
+                    table[hole] = table[i];
+                    hole = i;
+                }
+            }
+            table[hole] = 0;
+        }
+
+        private int allocate(int numBlocksNeeded) {
+            int head = freeBlock;
+            int last = head;
+            for(int i = 1; i < numBlocksNeeded; i++)
+                last = getNext(last);
+            freeBlock = getNext(last);
+            setNext(last, NO_BLOCK);
+            numFreeBlocks -= numBlocksNeeded;
+            return head;
+        }
+
+        /*
+         * Copies between the entry starting at the given block and an array,
+         * the offset counts the payload bytes of the entry only
+         */
+        private void write(int head, int offset, byte[] bytes) {
+            transfer(head, offset, bytes, true);
+        }
+
+        private void read(int head, int offset, byte[] bytes) {
+            transfer(head, offset, bytes, false);
+        }
+
+        private void transfer(int head, int offset, byte[] bytes, boolean write) {
+            if(bytes.length == 0)
+                return;
+            int block = head;
+            for(int i = 0; i < offset / BLOCK_PAYLOAD_SIZE; i++)
+                block = getNext(block);
+            int inBlock = offset % BLOCK_PAYLOAD_SIZE;
+            int done = 0;
+            while(done < bytes.length) {
+                int length = Math.min(bytes.length - done, BLOCK_PAYLOAD_SIZE - inBlock);
+                buffer.position(block * BLOCK_SIZE + BLOCK_HEADER_SIZE + inBlock);
+                if(write)
+                    buffer.put(bytes, done, length);
+                else
+                    buffer.get(bytes, done, length);
+                done += length;
+                inBlock = 0;
+                if(done < bytes.length)
+                    block = getNext(block);
+            }
+        }
+
+        private int getHash(int head) {
+            return buffer.getInt(head * BLOCK_SIZE + BLOCK_HEADER_SIZE);
+        }
+
+        private int getNext(int block) {
+            return buffer.getInt(block * BLOCK_SIZE);
+        }
+
+        private void setNext(int block, int next) {
+            buffer.putInt(block * BLOCK_SIZE, next);
+        }
+
+        /**
+         * @return The key and value of the first entry at or after the given
+         *         block, or null if there are none
+         */
+        Pair<Integer, Pair<byte[], byte[]>> next(int fromBlock) {
+            int head = heads.nextSetBit(fromBlock);
+            if(head < 0)
+                return null;
+            byte[] key = new byte[buffer.getInt(head * BLOCK_SIZE + 8)];
+            byte[] value = new byte[buffer.getInt(head * BLOCK_SIZE + 12)];
+            read(head, ENTRY_HEADER_SIZE, key);
+            read(head, ENTRY_HEADER_SIZE + key.length, value);
+            return Pair.create(head, Pair.create(key, value));
+        }
+    }
+
+    /**
+     * Walks the blocks of one segment after the other, locking a segment only
+     * while reading a single entry. Entries written during the iteration may or
+     * may not be returned.
+     */
+    @NotThreadsafe
+    private class OffHeapCacheIterator implements
+            ClosableIterator<Pair<ByteArray, Versioned<byte[]>>> {
+
+        private final Segment[] segments = getSegments();
+        private int segment = 0;
+        private int block = 0;
+        private ByteArray currentKey;
+        private Iterator<Versioned<byte[]>> currentValues;
+
+        public boolean hasNext() {
+            while(currentValues == null || !currentValues.hasNext()) {
+                if(segment >= segments.length)
+                    return false;
+                Pair<Integer, Pair<byte[], byte[]>> entry;
+                synchronized(segments[segment]) {
+                    entry = segments[segment].next(block);
+                }
+                if(entry == null) {
+                    segment++;
+                    block = 0;
+                } else {
+                    block = entry.getFirst() + 1;
+                    currentKey = new ByteArray(entry.getSecond().getFirst());
+                    currentValues = StoreBinaryFormat.fromByteArray(entry.getSecond().getSecond())
+                                                     .iterator();
+                }
+            }
+            return true;
+        }
+
+        public Pair<ByteArray, Versioned<byte[]>> next() {
+            if(!hasNext())
+                throw new NoSuchElementException();
+            return Pair.create(currentKey, currentValues.next());
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("No removal y'all.");
+        }
+
+        public void close() {}
+    }
+}
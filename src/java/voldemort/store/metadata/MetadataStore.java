@@ -651,6 +651,10 @@ public class MetadataStore implements StorageEngine<ByteArray, byte[], byte[]> {
         throw new VoldemortException("No metadata found for required key:" + key);
     }
 
+    public int putAll(List<Pair<ByteArray, Versioned<byte[]>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return false;
     }
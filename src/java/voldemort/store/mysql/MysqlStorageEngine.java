@@ -401,6 +401,10 @@ public class MysqlStorageEngine implements StorageEngine<ByteArray, byte[], byte
         return StoreUtils.getVersions(get(key, null));
     }
 
+    public int putAll(List<Pair<ByteArray, Versioned<byte[]>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return false;
     }
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.nearcache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import voldemort.VoldemortException;
+import voldemort.annotations.concurrency.Threadsafe;
+import voldemort.store.DelegatingStore;
+import voldemort.store.Store;
+import voldemort.store.StoreUtils;
+import voldemort.utils.Time;
+import voldemort.versioning.Occurred;
+import voldemort.versioning.Version;
+import voldemort.versioning.Versioned;
+
+import com.google.common.collect.Maps;
+
+/**
+ * A store that keeps the resolved values read through it, with their versions,
+ * in a bounded LRU cache for a limited time. Gets and getAlls without
+ * transforms are served from the cache until the entries expire, including
+ * the absence of a value.
+ * <p/>
+ * Puts and deletes through the store invalidate the key right away. The
+ * version written is remembered for as long as a cached value would live, and
+ * a read that raced with the write is only cached if it saw a newer version,
+ * so the cache never goes back to a value this client overwrote. Writes by
+ * other clients are only seen once the entry expires. A client that
+ * rebootstraps, as a ZenStoreClient does when the metadata version changes,
+ * starts over with an empty cache.
+ * <p/>
+ * The cached value objects are shared between the callers that read them, so
+ * they must not be modified.
+ * 
+ * @param <K> The type of the key being stored
+ * @param <V> The type of the value being stored
+ * @param <T> The type of the transforms
+ */
+@Threadsafe
+public class NearCacheStore<K, V, T> extends DelegatingStore<K, V, T> {
+
+    private final long ttlMs;
+    private final Time time;
+    private final LinkedHashMap<K, CacheEntry<V>> cache;
+
+    /**
+     * @param innerStore The store to cache the values of
+     * @param maxEntries The maximum number of keys to cache
+     * @param ttlMs How long values are cached for, in milliseconds
+     * @param time The time to expire entries by
+     */
+    public NearCacheStore(Store<K, V, T> innerStore,
+                          final int maxEntries,
+                          long ttlMs,
+                          Time time) {
+        super(innerStore);
+        if(maxEntries <= 0)
+            throw new IllegalArgumentException("The maximum number of entries must be positive.");
+        this.ttlMs = ttlMs;
+        this.time = time;
+        this.cache = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public List<Versioned<V>> get(K key, T transforms) throws VoldemortException {
+        StoreUtils.assertValidKey(key);
+        if(transforms != null)
+            return super.get(key, transforms);
+
+        List<Versioned<V>> cached = lookup(key);
+        if(cached != null)
+            return cached;
+
+        List<Versioned<V>> values = super.get(key, null);
+        fill(key, values);
+        return values;
+    }
+
+    @Override
+    public Map<K, List<Versioned<V>>> getAll(Iterable<K> keys, Map<K, T> transforms)
+            throws VoldemortException {
+        StoreUtils.assertValidKeys(keys);
+        if(transforms != null)
+            return super.getAll(keys, transforms);
+
+        Map<K, List<Versioned<V>>> result = Maps.newHashMap();
+        List<K> missing = new ArrayList<K>();
+        for(K key: keys) {
+            List<Versioned<V>> cached = lookup(key);
+            if(cached == null)
+                missing.add(key);
+            else if(!cached.isEmpty())
+                result.put(key, cached);
+        }
+        if(missing.isEmpty())
+            return result;
+
+        Map<K, List<Versioned<V>>> fetched = super.getAll(missing, null);
+        for(K key: missing) {
+            List<Versioned<V>> values = fetched.get(key);
+            fill(key, values == null ? new ArrayList<Versioned<V>>(0) : values);
+        }
+        result.putAll(fetched);
+        return result;
+    }
+
+    @Override
+    public void put(K key, Versioned<V> value, T transforms) throws VoldemortException {
+        StoreUtils.assertValidKey(key);
+        try {
+            super.put(key, value, transforms);
+        } finally {
+            invalidate(key, value == null ? null : value.getVersion(), false);
+        }
+    }
+
+    @Override
+    public boolean delete(K key, Version version) throws VoldemortException {
+        StoreUtils.assertValidKey(key);
+        try {
+            return super.delete(key, version);
+        } finally {
+            invalidate(key, version, true);
+        }
+    }
+
+    @Override
+    public void close() throws VoldemortException {
+        synchronized(cache) {
+            cache.clear();
+        }
+        super.close();
+    }
+
+    /**
+     * @return The number of keys cached, including invalidated ones that are
+     *         still remembered
+     */
+    public int size() {
+        synchronized(cache) {
+            return cache.size();
+        }
+    }
+
+    private List<Versioned<V>> lookup(K key) {
+        CacheEntry<V> entry;
+        synchronized(cache) {
+            entry = cache.get(key);
+        }
+        if(entry == null || entry.values == null || entry.expiresMs <= time.getMilliseconds())
+            return null;
+        return copy(entry.values);
+    }
+
+    private void fill(K key, List<Versioned<V>> values) {
+        CacheEntry<V> entry = new CacheEntry<V>(copy(values),
+                                                null,
+                                                false,
+                                                time.getMilliseconds() + ttlMs);
+        synchronized(cache) {
+            CacheEntry<V> current = cache.get(key);
+            if(current == null || current.expiresMs <= time.getMilliseconds()
+               || current.isSupersededBy(values))
+                cache.put(key, entry);
+        }
+    }
+
+    private void invalidate(K key, Version written, boolean deleted) {
+        CacheEntry<V> entry = new CacheEntry<V>(null,
+                                                written,
+                                                deleted,
+                                                time.getMilliseconds() + ttlMs);
+        synchronized(cache) {
+            cache.put(key, entry);
+        }
+    }
+
+    /*
+     * Copies the versioned values, whose versions can be modified by callers
+     */
+    private static <V> List<Versioned<V>> copy(List<Versioned<V>> values) {
+        List<Versioned<V>> copy = new ArrayList<Versioned<V>>(values.size());
+        for(Versioned<V> versioned: values)
+            copy.add(versioned.cloneVersioned());
+        return copy;
+    }
+
+    /*
+     * Either the values read for a key, or the version this client last wrote
+     * for it
+     */
+    private static class CacheEntry<V> {
+
+        final List<Versioned<V>> values;
+        final Version written;
+        final boolean deleted;
+        final long expiresMs;
+
+        CacheEntry(List<Versioned<V>> values, Version written, boolean deleted, long expiresMs) {
+            this.values = values;
+            this.written = written;
+            this.deleted = deleted;
+            this.expiresMs = expiresMs;
+        }
+
+        /*
+         * Whether values read can replace this entry, which they can unless
+         * it is a write they may not have seen yet. A vector clock compares as
+         * BEFORE an equal one, so reading back the version written counts.
+         */
+        boolean isSupersededBy(List<Versioned<V>> read) {
+            if(written == null)
+                return true;
+            if(read.isEmpty())
+                return deleted;
+            for(Versioned<V> versioned: read) {
+                Version version = versioned.getVersion();
+                if(written.compare(version) == Occurred.BEFORE)
+                    return true;
+            }
+            return false;
+        }
+    }
+}
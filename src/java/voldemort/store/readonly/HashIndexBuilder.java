@@ -0,0 +1,184 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.readonly;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+
+import voldemort.VoldemortException;
+import voldemort.utils.ByteUtils;
+import voldemort.utils.Utils;
+
+/**
+ * Builds the index files of {@link ReadOnlyStorageFormat#READONLY_V3} stores.
+ * <p/>
+ * The data files of a V3 store are identical to those of a
+ * {@link ReadOnlyStorageFormat#READONLY_V2} store, and so are the index
+ * entries ( top 8 bytes of md5(key) followed by the position in the data file
+ * ). Instead of being sorted the entries are laid out as an open-addressed
+ * hash table with linear probing, in which empty slots have a position of
+ * {@link #EMPTY_POSITION}. A V3 index is therefore produced by re-hashing the
+ * sorted index of a V2 chunk, which is also how existing V2 stores can be
+ * migrated (see {@link #migrate(File)}).
+ */
+public class HashIndexBuilder {
+
+    private static Logger logger = Logger.getLogger(HashIndexBuilder.class);
+
+    public static final int EMPTY_POSITION = -1;
+
+    public static final double LOAD_FACTOR = 0.7;
+
+    private static final int KEY_SIZE = 2 * ByteUtils.SIZE_OF_INT;
+
+    private static final int ENTRY_SIZE = KEY_SIZE + ReadOnlyUtils.POSITION_SIZE;
+
+    private static final int MAX_SLOTS = Integer.MAX_VALUE / ENTRY_SIZE;
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1)
+            Utils.croak("USAGE: java HashIndexBuilder version_dir [version_dir...]");
+        for(String versionDir: args)
+            migrate(new File(versionDir));
+    }
+
+    /**
+     * Gives the number of slots of a hash index holding the given number of
+     * entries. There is always at least one empty slot, so that a probe for a
+     * missing key terminates.
+     *
+     * @param numEntries Number of entries in the index
+     * @return Number of slots
+     */
+    public static int getNumSlots(int numEntries) {
+        if(numEntries == 0)
+            return 0;
+        long numSlots = Math.max((long) Math.ceil(numEntries / LOAD_FACTOR), numEntries + 1L);
+        numSlots = Math.min(numSlots, MAX_SLOTS);
+        if(numSlots <= numEntries)
+            throw new VoldemortException("Too many entries (" + numEntries
+                                         + ") to fit in a single hash index, use more chunks.");
+        return (int) numSlots;
+    }
+
+    /**
+     * Gives the home slot of a key in a hash index. The leading four bytes of
+     * the key already decide its chunk (see
+     * {@link ReadOnlyUtils#chunk(byte[], int)}), so the next four are used.
+     *
+     * @param key Key as stored in the index
+     * @param numSlots Number of slots of the hash index
+     * @return The slot to start probing from
+     */
+    public static int getSlot(byte[] key, int numSlots) {
+        return (ByteUtils.readInt(key, ByteUtils.SIZE_OF_INT) & 0x7fffffff) % numSlots;
+    }
+
+    /**
+     * Re-hashes the entries of an index into a hash index
+     *
+     * @param sortedIndex Contents of a V2 index file
+     * @return Contents of the corresponding V3 index file
+     */
+    public static byte[] build(byte[] sortedIndex) {
+        if(sortedIndex.length % ENTRY_SIZE != 0)
+            throw new VoldemortException("Invalid index, length must be a multiple of "
+                                         + ENTRY_SIZE + " but is " + sortedIndex.length
+                                         + " bytes.");
+
+        int numEntries = sortedIndex.length / ENTRY_SIZE;
+        int numSlots = getNumSlots(numEntries);
+        byte[] hashIndex = new byte[numSlots * ENTRY_SIZE];
+        Arrays.fill(hashIndex, (byte) 0xFF);
+
+        byte[] key = new byte[KEY_SIZE];
+        for(int entry = 0; entry < numEntries; entry++) {
+            int offset = entry * ENTRY_SIZE;
+            System.arraycopy(sortedIndex, offset, key, 0, KEY_SIZE);
+
+            int slot = getSlot(key, numSlots);
+            while(ByteUtils.readInt(hashIndex, slot * ENTRY_SIZE + KEY_SIZE) != EMPTY_POSITION) {
+                if(ByteUtils.compare(key,
+                                      hashIndex,
+                                      slot * ENTRY_SIZE,
+                                      slot * ENTRY_SIZE + KEY_SIZE) == 0)
+                    throw new VoldemortException("Duplicate index entry for key "
+                                                 + ByteUtils.toHexString(key));
+                if(++slot == numSlots)
+                    slot = 0;
+            }
+            System.arraycopy(sortedIndex, offset, hashIndex, slot * ENTRY_SIZE, ENTRY_SIZE);
+        }
+
+        return hashIndex;
+    }
+
+    /**
+     * Writes the hash index for the given V2 index file. The whole index is
+     * held in memory while doing so.
+     *
+     * @param sortedIndexFile The V2 index file to read
+     * @param hashIndexFile The V3 index file to write
+     */
+    public static void build(File sortedIndexFile, File hashIndexFile) throws IOException {
+        byte[] hashIndex = build(FileUtils.readFileToByteArray(sortedIndexFile));
+        FileUtils.writeByteArrayToFile(hashIndexFile, hashIndex);
+    }
+
+    /**
+     * Migrates a version directory of a V2 store to V3 in place, by replacing
+     * every index file with its hash index and updating the metadata. Any
+     * checksums are dropped since they no longer match the index files.
+     *
+     * @param versionDir The version directory of the store
+     */
+    public static void migrate(File versionDir) throws IOException {
+        File metadataFile = new File(versionDir, ".metadata");
+        if(!Utils.isReadableFile(metadataFile))
+            throw new VoldemortException("Metadata file not found in " + versionDir);
+
+        ReadOnlyStorageMetadata metadata = new ReadOnlyStorageMetadata(metadataFile);
+        String format = (String) metadata.get(ReadOnlyStorageMetadata.FORMAT);
+        if(!ReadOnlyStorageFormat.READONLY_V2.getCode().equals(format))
+            throw new VoldemortException("Cannot migrate " + versionDir + " with format " + format
+                                         + ", only " + ReadOnlyStorageFormat.READONLY_V2
+                                         + " can be migrated.");
+
+        File[] indexFiles = versionDir.listFiles();
+        for(File indexFile: indexFiles) {
+            if(!indexFile.getName().endsWith(".index")
+               || !ReadOnlyUtils.isFormatCorrect(indexFile.getName(),
+                                                 ReadOnlyStorageFormat.READONLY_V2))
+                continue;
+
+            File tempFile = new File(versionDir, indexFile.getName() + ".tmp");
+            build(indexFile, tempFile);
+            Utils.move(tempFile, indexFile);
+            new File(versionDir, indexFile.getName() + ".checksum").delete();
+            logger.info("Migrated " + indexFile + " to a hash index");
+        }
+
+        metadata.remove(ReadOnlyStorageMetadata.CHECKSUM);
+        metadata.remove(ReadOnlyStorageMetadata.CHECKSUM_TYPE);
+        metadata.add(ReadOnlyStorageMetadata.FORMAT, ReadOnlyStorageFormat.READONLY_V3.getCode());
+        FileUtils.writeStringToFile(metadataFile, metadata.toJsonString());
+    }
+}
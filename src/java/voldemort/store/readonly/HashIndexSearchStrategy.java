@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.readonly;
+
+import java.nio.ByteBuffer;
+
+import voldemort.utils.ByteUtils;
+
+/**
+ * Looks keys up in the open-addressed hash index of a
+ * {@link ReadOnlyStorageFormat#READONLY_V3} chunk. A lookup usually touches a
+ * single slot of the index, instead of the log(n) entries visited by a search
+ * over a sorted index.
+ *
+ * @see HashIndexBuilder
+ */
+public class HashIndexSearchStrategy implements SearchStrategy {
+
+    public int indexOf(ByteBuffer index, byte[] key, int indexFileSize) {
+        int indexSize = ReadOnlyUtils.POSITION_SIZE + key.length;
+        int numSlots = indexFileSize / indexSize;
+        if(numSlots == 0)
+            return -1;
+
+        byte[] foundKey = new byte[key.length];
+        int slot = HashIndexBuilder.getSlot(key, numSlots);
+        for(int probe = 0; probe < numSlots; probe++) {
+            int position = index.getInt(slot * indexSize + key.length);
+            if(position == HashIndexBuilder.EMPTY_POSITION)
+                return -1;
+
+            ReadOnlyUtils.readKey(index, slot * indexSize, foundKey);
+            if(ByteUtils.compare(foundKey, key) == 0)
+                return position;
+
+            if(++slot == numSlots)
+                slot = 0;
+        }
+
+        return -1;
+    }
+
+}
@@ -16,25 +16,37 @@
 
 package voldemort.store.readonly;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
-import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -57,7 +69,7 @@ import voldemort.store.compress.CompressionStrategy;
 import voldemort.store.compress.CompressionStrategyFactory;
 import voldemort.utils.ByteUtils;
 import voldemort.utils.CmdUtils;
-import voldemort.utils.Pair;
+import voldemort.utils.DaemonThreadFactory;
 import voldemort.utils.RebalanceUtils;
 import voldemort.utils.Utils;
 import voldemort.xml.ClusterMapper;
@@ -65,7 +77,6 @@ import voldemort.xml.StoreDefinitionsMapper;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.AbstractIterator;
-import com.google.common.collect.Maps;
 
 /**
  * Build a read-only store from given input.
@@ -76,6 +87,9 @@ public class JsonStoreBuilder {
 
     private static final Logger logger = Logger.getLogger(JsonStoreBuilder.class);
 
+    private static final int KEY_MD5_SIZE = 16;
+    private static final int MAX_SPILL_BUFFER_SIZE = 64 * 1024;
+
     private final JsonReader reader;
     private final Cluster cluster;
     private final StoreDefinition storeDefinition;
@@ -144,7 +158,12 @@ public class JsonStoreBuilder {
         parser.accepts("output", "[REQUIRED] directory to output stores to")
               .withRequiredArg()
               .describedAs("output directory");
-        parser.accepts("threads", "number of threads").withRequiredArg().ofType(Integer.class);
+        parser.accepts("threads",
+                       "number of threads; for formats " + ReadOnlyStorageFormat.READONLY_V2.getCode()
+                               + " and " + ReadOnlyStorageFormat.READONLY_V3.getCode()
+                               + ", the number of chunks sorted and written at once")
+              .withRequiredArg()
+              .ofType(Integer.class);
         parser.accepts("chunks",
                        "number of chunks [per node, per partition, per partition + replica]")
               .withRequiredArg()
@@ -159,7 +178,8 @@ public class JsonStoreBuilder {
         parser.accepts("format",
                        "read-only store format [" + ReadOnlyStorageFormat.READONLY_V0.getCode()
                                + "," + ReadOnlyStorageFormat.READONLY_V1.getCode() + ","
-                               + ReadOnlyStorageFormat.READONLY_V2.getCode() + "]")
+                               + ReadOnlyStorageFormat.READONLY_V2.getCode() + ","
+                               + ReadOnlyStorageFormat.READONLY_V3.getCode() + "]")
               .withRequiredArg()
               .ofType(String.class);
         OptionSet options = parser.parse(args);
@@ -249,6 +269,10 @@ public class JsonStoreBuilder {
                 buildVersion2();
                 break;
 
+            case READONLY_V3:
+                buildVersion3();
+                break;
+
             default:
                 throw new VoldemortException("Invalid storage format " + type);
         }
@@ -418,144 +442,39 @@ public class JsonStoreBuilder {
     }
 
     public void buildVersion2() throws IOException {
+        buildReplicaChunks(ReadOnlyStorageFormat.READONLY_V2);
+    }
+
+    /**
+     * Same as {@link #buildVersion2()}, except that every sorted index is
+     * converted into a hash index in place, in the directory of its node
+     */
+    public void buildVersion3() throws IOException {
+        buildReplicaChunks(ReadOnlyStorageFormat.READONLY_V3);
+    }
+
+    /**
+     * Builds the chunks of every partition and replica type like the reducers
+     * of the Hadoop store builder would. The input is read once and scattered
+     * into one spill file per partition and chunk. The spill files are then
+     * sorted and written out by <code>numThreads</code> threads at once. The
+     * chunk of every replica type of a partition holds the same entries, so
+     * each spill file is sorted once and written to the files of all replica
+     * types together, straight into the directory of their node.
+     * 
+     * A spill file is sorted in memory if it holds at most
+     * <code>internalSortSize / numThreads</code> entries, and externally
+     * otherwise.
+     */
+    private void buildReplicaChunks(final ReadOnlyStorageFormat format) throws IOException {
         logger.info("Building store " + storeDefinition.getName() + " for "
                     + cluster.getNumberOfPartitions() + " partitions, "
                     + storeDefinition.getReplicationFactor() + " replica types, " + numChunks
-                    + " chunks per partitions per replica type and type "
-                    + ReadOnlyStorageFormat.READONLY_V2);
-
-        // Initialize files
-        DataOutputStream[][] indexes = new DataOutputStream[cluster.getNumberOfPartitions()][];
-        DataOutputStream[][] datas = new DataOutputStream[cluster.getNumberOfPartitions()][];
-        int[][] positions = new int[cluster.getNumberOfPartitions()][];
-
-        File tempDirectory = new File(Utils.notNull(System.getProperty("java.io.tmpdir")),
-                                      "tempDir-" + Integer.toString(new Random().nextInt()));
-        Utils.mkdirs(tempDirectory);
-
-        for(int partitionId = 0; partitionId < cluster.getNumberOfPartitions(); partitionId++) {
-            indexes[partitionId] = new DataOutputStream[storeDefinition.getReplicationFactor()
-                                                        * numChunks];
-            datas[partitionId] = new DataOutputStream[storeDefinition.getReplicationFactor()
-                                                      * numChunks];
-            positions[partitionId] = new int[storeDefinition.getReplicationFactor() * numChunks];
-
-            int globalChunkId = 0;
-            for(int repType = 0; repType < storeDefinition.getReplicationFactor(); repType++) {
-                for(int chunk = 0; chunk < numChunks; chunk++) {
-                    File indexFile = new File(tempDirectory, Integer.toString(partitionId) + "_"
-                                                             + Integer.toString(repType) + "_"
-                                                             + Integer.toString(chunk) + ".index");
-                    File dataFile = new File(tempDirectory, Integer.toString(partitionId) + "_"
-                                                            + Integer.toString(repType) + "_"
-                                                            + Integer.toString(chunk) + ".data");
-                    positions[partitionId][globalChunkId] = 0;
-                    indexes[partitionId][globalChunkId] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile),
-                                                                                                        ioBufferSize));
-                    datas[partitionId][globalChunkId] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(dataFile),
-                                                                                                      ioBufferSize));
-                    globalChunkId++;
-                }
-            }
-        }
-
-        logger.info("Reading items...");
-        ExternalSorter<KeyValuePair> sorter = new ExternalSorter<KeyValuePair>(new KeyValuePairSerializer(),
-                                                                               new KeyMd5Comparator(),
-                                                                               internalSortSize,
-                                                                               tempDir.getAbsolutePath(),
-                                                                               ioBufferSize,
-                                                                               numThreads,
-                                                                               gzipIntermediate);
-        JsonObjectIterator iter = new JsonObjectIterator(reader, storeDefinition);
-
-        int count = 0;
-        HashMap<Pair<Integer, Integer>, Pair<byte[], byte[]>> previousElements = Maps.newHashMap();
-        for(KeyValuePair currentElement: sorter.sorted(iter)) {
-            List<Integer> partitionIds = this.routingStrategy.getPartitionList(currentElement.getKey());
-            int masterPartition = partitionIds.get(0);
-            int localChunkId = ReadOnlyUtils.chunk(currentElement.getKeyMd5(), numChunks);
-
-            for(int replicaType = 0; replicaType < partitionIds.size(); replicaType++) {
-                int globalChunkId = (replicaType * numChunks) + localChunkId;
-
-                Pair<Integer, Integer> key = Pair.create(masterPartition, globalChunkId);
-                if(!previousElements.containsKey(key)) {
-
-                    // First element, lets write it to map
-                    previousElements.put(key,
-                                         Pair.create(ByteUtils.copy(currentElement.getKeyMd5(),
-                                                                    0,
-                                                                    2 * ByteUtils.SIZE_OF_INT),
-                                                     generateFirstElement(currentElement)));
-
-                } else {
-
-                    Pair<byte[], byte[]> previousElement = previousElements.get(key);
-
-                    // If the current element is same as previous element,
-                    // append it...
-                    if(ByteUtils.compare(previousElement.getFirst(),
-                                         currentElement.getKeyMd5(),
-                                         0,
-                                         2 * ByteUtils.SIZE_OF_INT) == 0) {
-
-                        short numKeys = ByteUtils.readShort(previousElement.getSecond(), 0);
-                        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                        DataOutputStream valueStream = new DataOutputStream(stream);
-
-                        valueStream.writeShort(numKeys + 1);
-                        // Append the previous tuples
-                        valueStream.write(ByteUtils.copy(previousElement.getSecond(),
-                                                         ByteUtils.SIZE_OF_SHORT,
-                                                         previousElement.getSecond().length));
-                        valueStream.writeInt(currentElement.getKey().length);
-                        valueStream.writeInt(currentElement.getValue().length);
-                        valueStream.write(currentElement.getKey());
-                        valueStream.write(currentElement.getValue());
-
-                        valueStream.flush();
-
-                        previousElements.put(key, Pair.create(previousElement.getFirst(),
-                                                              stream.toByteArray()));
-                    } else {
-
-                        // ...else, flush the previous element to disk
-
-                        indexes[masterPartition][globalChunkId].write(previousElement.getFirst());
-                        indexes[masterPartition][globalChunkId].writeInt(positions[masterPartition][globalChunkId]);
-                        datas[masterPartition][globalChunkId].write(previousElement.getSecond());
-                        positions[masterPartition][globalChunkId] += previousElement.getSecond().length;
-
-                        // ...and add current element as previous element
-                        previousElements.put(key,
-                                             Pair.create(ByteUtils.copy(currentElement.getKeyMd5(),
-                                                                        0,
-                                                                        2 * ByteUtils.SIZE_OF_INT),
-                                                         generateFirstElement(currentElement)));
-                    }
-
-                }
-            }
-            count++;
-        }
-        logger.info(count + " items read.");
-
-        // If any element still left in previous elements, flush them out to
-        // files
-        for(Entry<Pair<Integer, Integer>, Pair<byte[], byte[]>> entry: previousElements.entrySet()) {
-            int partitionId = entry.getKey().getFirst();
-            int globalChunkId = entry.getKey().getSecond();
-            byte[] keyMd5 = entry.getValue().getFirst();
-            byte[] value = entry.getValue().getSecond();
-
-            indexes[partitionId][globalChunkId].write(keyMd5);
-            indexes[partitionId][globalChunkId].writeInt(positions[partitionId][globalChunkId]);
-            datas[partitionId][globalChunkId].write(value);
-        }
+                    + " chunks per partitions per replica type and type " + format + " with "
+                    + numThreads + " threads");
 
         // Create node folders
-        File[] nodeDirs = new File[cluster.getNumberOfNodes()];
+        final File[] nodeDirs = new File[cluster.getNumberOfNodes()];
         for(Node node: cluster.getNodes()) {
             int nodeId = node.getId();
 
@@ -569,53 +488,239 @@ public class JsonStoreBuilder {
             // Create metadata file
             BufferedWriter writer = new BufferedWriter(new FileWriter(new File(nodeDir, ".metadata")));
             ReadOnlyStorageMetadata metadata = new ReadOnlyStorageMetadata();
-            metadata.add(ReadOnlyStorageMetadata.FORMAT,
-                         ReadOnlyStorageFormat.READONLY_V2.getCode());
+            metadata.add(ReadOnlyStorageMetadata.FORMAT, format.getCode());
             writer.write(metadata.toJsonString());
             writer.close();
-
         }
 
-        // Close everything
-        logger.info("Closing all store files.");
-        for(int partitionId = 0; partitionId < cluster.getNumberOfPartitions(); partitionId++) {
-            for(int chunk = 0; chunk < numChunks * storeDefinition.getReplicationFactor(); chunk++) {
-                indexes[partitionId][chunk].close();
-                datas[partitionId][chunk].close();
+        final File spillDir = new File(tempDir, "json-store-builder-"
+                                                + Integer.toString(Math.abs(new Random().nextInt())));
+        Utils.mkdirs(spillDir);
+        try {
+            final int[] spillCounts = spill(spillDir);
+
+            logger.info("Sorting and writing chunks.");
+            final RoutingStrategy strategy = new RoutingStrategyFactory().updateRoutingStrategy(storeDefinition,
+                                                                                                cluster);
+            final Map<Integer, Integer> replicaMapping = RebalanceUtils.getCurrentPartitionMapping(cluster);
+            final AtomicInteger nextBucket = new AtomicInteger(0);
+            ExecutorService pool = Executors.newFixedThreadPool(numThreads,
+                                                                new DaemonThreadFactory("json-store-builder-"));
+            try {
+                List<Future<Object>> results = new ArrayList<Future<Object>>(numThreads);
+                for(int thread = 0; thread < numThreads; thread++) {
+                    results.add(pool.submit(new Callable<Object>() {
+
+                        public Object call() throws IOException {
+                            // The buffers are reused for all the chunks this
+                            // thread writes
+                            ByteBuffer indexBuffer = ByteBuffer.allocateDirect(ioBufferSize);
+                            ByteBuffer dataBuffer = ByteBuffer.allocateDirect(ioBufferSize);
+                            int bucket;
+                            while((bucket = nextBucket.getAndIncrement()) < spillCounts.length) {
+                                buildChunk(bucket,
+                                           new File(spillDir, bucket + ".spill"),
+                                           spillCounts[bucket],
+                                           strategy.getReplicatingPartitionList(bucket
+                                                                                / numChunks),
+                                           replicaMapping,
+                                           nodeDirs,
+                                           format,
+                                           indexBuffer,
+                                           dataBuffer);
+                            }
+                            return null;
+                        }
+                    }));
+                }
+                for(Future<Object> result: results)
+                    getResult(result);
+            } finally {
+                pool.shutdownNow();
             }
+        } finally {
+            Utils.rm(spillDir);
         }
+    }
+
+    /**
+     * Reads the input and appends every entry to the spill file of its master
+     * partition and chunk, bucket <code>partition * numChunks + chunk</code>
+     * 
+     * @return The number of entries in each spill file
+     */
+    private int[] spill(File spillDir) throws IOException {
+        int numBuckets = cluster.getNumberOfPartitions() * numChunks;
+        int[] counts = new int[numBuckets];
+        DataOutputStream[] spills = new DataOutputStream[numBuckets];
+        int spillBufferSize = Math.min(ioBufferSize, MAX_SPILL_BUFFER_SIZE);
+        try {
+            for(int bucket = 0; bucket < numBuckets; bucket++) {
+                File spillFile = new File(spillDir, bucket + ".spill");
+                spills[bucket] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile),
+                                                                               spillBufferSize));
+            }
 
-        // Start moving files over to their correct node
-        RoutingStrategy strategy = new RoutingStrategyFactory().updateRoutingStrategy(storeDefinition,
-                                                                                      cluster);
-        Map<Integer, Integer> replicaMapping = RebalanceUtils.getCurrentPartitionMapping(cluster);
-        for(File file: tempDirectory.listFiles()) {
-            String fileName = file.getName();
-            if(fileName.matches("^[\\d]+_[\\d]+_[\\d]+\\.(data|index)")) {
-                String[] props = fileName.split("_");
-                int partitionId = Integer.parseInt(props[0]);
-                int replicaType = Integer.parseInt(props[1]);
-                int nodeId = replicaMapping.get(strategy.getReplicatingPartitionList(partitionId)
-                                                        .get(replicaType));
-                Utils.move(file, new File(nodeDirs[nodeId], fileName));
+            logger.info("Reading items...");
+            int count = 0;
+            JsonObjectIterator iter = new JsonObjectIterator(reader, storeDefinition);
+            while(iter.hasNext()) {
+                KeyValuePair pair = iter.next();
+                int masterPartition = this.routingStrategy.getPartitionList(pair.getKey()).get(0);
+                int bucket = masterPartition * numChunks
+                             + ReadOnlyUtils.chunk(pair.getKeyMd5(), numChunks);
+                DataOutputStream spill = spills[bucket];
+                spill.write(pair.getKeyMd5());
+                spill.writeInt(pair.getKey().length);
+                spill.writeInt(pair.getValue().length);
+                spill.write(pair.getKey());
+                spill.write(pair.getValue());
+                counts[bucket]++;
+                count++;
+            }
+            logger.info(count + " items read.");
+        } finally {
+            for(DataOutputStream spill: spills) {
+                if(spill != null)
+                    spill.close();
             }
         }
+        return counts;
+    }
+
+    /**
+     * Sorts the entries of a spill file and writes them out as the chunk of
+     * every replica type of the partition
+     */
+    private void buildChunk(int bucket,
+                            File spillFile,
+                            int count,
+                            List<Integer> replicatingPartitions,
+                            Map<Integer, Integer> replicaMapping,
+                            File[] nodeDirs,
+                            ReadOnlyStorageFormat format,
+                            ByteBuffer indexBuffer,
+                            ByteBuffer dataBuffer) throws IOException {
+        int partitionId = bucket / numChunks;
+        int chunk = bucket % numChunks;
+        File[] indexFiles = new File[storeDefinition.getReplicationFactor()];
+        File[] dataFiles = new File[storeDefinition.getReplicationFactor()];
+        for(int replicaType = 0; replicaType < indexFiles.length; replicaType++) {
+            File nodeDir = nodeDirs[replicaMapping.get(replicatingPartitions.get(replicaType))];
+            String fileName = Integer.toString(partitionId) + "_" + Integer.toString(replicaType)
+                              + "_" + Integer.toString(chunk);
+            indexFiles[replicaType] = new File(nodeDir, fileName + ".index");
+            dataFiles[replicaType] = new File(nodeDir, fileName + ".data");
+        }
 
+        writeChunk(chunk,
+                   sortSpillFile(spillFile, count),
+                   new ReplicaFilesWriter(indexFiles, indexBuffer),
+                   new ReplicaFilesWriter(dataFiles, dataBuffer));
+        spillFile.delete();
+
+        if(format == ReadOnlyStorageFormat.READONLY_V3) {
+            for(File indexFile: indexFiles) {
+                File hashIndexFile = new File(indexFile.getParentFile(), indexFile.getName()
+                                                                         + ".hash");
+                HashIndexBuilder.build(indexFile, hashIndexFile);
+                Utils.move(hashIndexFile, indexFile);
+            }
+        }
     }
 
-    private byte[] generateFirstElement(KeyValuePair currentPair) throws IOException {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        DataOutputStream valueStream = new DataOutputStream(stream);
+    private Iterator<KeyValuePair> sortSpillFile(File spillFile, int count) throws IOException {
+        int sortBufferSize = Math.max(1, internalSortSize / numThreads);
+        if(count <= sortBufferSize) {
+            List<KeyValuePair> pairs = new ArrayList<KeyValuePair>(count);
+            Iterator<KeyValuePair> spilled = new SpillFileIterator(spillFile, ioBufferSize);
+            while(spilled.hasNext())
+                pairs.add(spilled.next());
+            Collections.sort(pairs, new KeyMd5Comparator());
+            return pairs.iterator();
+        } else {
+            ExternalSorter<KeyValuePair> sorter = new ExternalSorter<KeyValuePair>(new KeyValuePairSerializer(),
+                                                                                   new KeyMd5Comparator(),
+                                                                                   sortBufferSize,
+                                                                                   tempDir.getAbsolutePath(),
+                                                                                   ioBufferSize,
+                                                                                   1,
+                                                                                   gzipIntermediate);
+            return sorter.sorted(new SpillFileIterator(spillFile, ioBufferSize)).iterator();
+        }
+    }
 
-        valueStream.writeShort(1);
-        valueStream.writeInt(currentPair.getKey().length);
-        valueStream.writeInt(currentPair.getValue().length);
-        valueStream.write(currentPair.getKey());
-        valueStream.write(currentPair.getValue());
+    /**
+     * Writes sorted entries out as one chunk. Keys whose md5s start with the
+     * same 8 bytes share a single index entry, pointing at all of them in the
+     * data file.
+     */
+    private void writeChunk(int chunk,
+                            Iterator<KeyValuePair> sorted,
+                            ReplicaFilesWriter index,
+                            ReplicaFilesWriter data) throws IOException {
+        try {
+            int position = 0;
+            List<KeyValuePair> collisions = new ArrayList<KeyValuePair>();
+            while(sorted.hasNext()) {
+                KeyValuePair pair = sorted.next();
+                if(!collisions.isEmpty()
+                   && ByteUtils.compare(collisions.get(0).getKeyMd5(),
+                                        pair.getKeyMd5(),
+                                        0,
+                                        2 * ByteUtils.SIZE_OF_INT) != 0) {
+                    position = writeCollisions(chunk, collisions, position, index, data);
+                    collisions.clear();
+                }
+                collisions.add(pair);
+            }
+            if(!collisions.isEmpty())
+                writeCollisions(chunk, collisions, position, index, data);
+        } finally {
+            try {
+                index.close();
+            } finally {
+                data.close();
+            }
+        }
+    }
 
-        valueStream.flush();
+    private int writeCollisions(int chunk,
+                                List<KeyValuePair> collisions,
+                                int position,
+                                ReplicaFilesWriter index,
+                                ReplicaFilesWriter data) throws IOException {
+        index.write(collisions.get(0).getKeyMd5(), 0, 2 * ByteUtils.SIZE_OF_INT);
+        index.writeInt(position);
+
+        data.writeShort((short) collisions.size());
+        position += ByteUtils.SIZE_OF_SHORT;
+        for(KeyValuePair pair: collisions) {
+            data.writeInt(pair.getKey().length);
+            data.writeInt(pair.getValue().length);
+            data.write(pair.getKey(), 0, pair.getKey().length);
+            data.write(pair.getValue(), 0, pair.getValue().length);
+            position += 2 * ByteUtils.SIZE_OF_INT + pair.getKey().length
+                        + pair.getValue().length;
+        }
+        checkOverFlow(chunk, position);
+        return position;
+    }
 
-        return stream.toByteArray();
+    private static <T> T getResult(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VoldemortException("Interrupted while building store", e);
+        } catch(ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof IOException)
+                throw (IOException) cause;
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new VoldemortException(cause);
+        }
     }
 
     /* Check if the position has exceeded Integer.MAX_VALUE */
@@ -656,6 +761,101 @@ public class JsonStoreBuilder {
 
     }
 
+    /**
+     * Reads back the entries of a spill file written by
+     * {@link JsonStoreBuilder#spill(File)}
+     */
+    private static class SpillFileIterator extends AbstractIterator<KeyValuePair> {
+
+        private final DataInputStream input;
+
+        public SpillFileIterator(File file, int bufferSize) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file),
+                                                                     bufferSize));
+        }
+
+        @Override
+        protected KeyValuePair computeNext() {
+            try {
+                byte[] keyMd5 = new byte[KEY_MD5_SIZE];
+                try {
+                    input.readFully(keyMd5);
+                } catch(EOFException e) {
+                    input.close();
+                    return endOfData();
+                }
+                byte[] key = new byte[input.readInt()];
+                byte[] value = new byte[input.readInt()];
+                input.readFully(key);
+                input.readFully(value);
+                return new KeyValuePair(key, keyMd5, value);
+            } catch(IOException e) {
+                throw new VoldemortException("Unable to read spill file.", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the same bytes to the files of every replica type of a chunk,
+     * through a direct buffer which is written out to each of them whenever
+     * it fills up
+     */
+    private static class ReplicaFilesWriter {
+
+        private final FileChannel[] channels;
+        private final ByteBuffer buffer;
+
+        public ReplicaFilesWriter(File[] files, ByteBuffer buffer) throws IOException {
+            this.channels = new FileChannel[files.length];
+            for(int i = 0; i < files.length; i++)
+                this.channels[i] = new FileOutputStream(files[i]).getChannel();
+            this.buffer = buffer;
+            this.buffer.clear();
+        }
+
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while(length > 0) {
+                if(!buffer.hasRemaining())
+                    flush();
+                int toWrite = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, toWrite);
+                offset += toWrite;
+                length -= toWrite;
+            }
+        }
+
+        public void writeInt(int value) throws IOException {
+            if(buffer.remaining() < ByteUtils.SIZE_OF_INT)
+                flush();
+            buffer.putInt(value);
+        }
+
+        public void writeShort(short value) throws IOException {
+            if(buffer.remaining() < ByteUtils.SIZE_OF_SHORT)
+                flush();
+            buffer.putShort(value);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            for(FileChannel channel: channels) {
+                buffer.rewind();
+                while(buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                for(FileChannel channel: channels)
+                    channel.close();
+            }
+        }
+    }
+
     private static class JsonObjectIterator extends AbstractIterator<KeyValuePair> {
 
         private final JsonReader reader;
@@ -21,6 +21,8 @@ import java.lang.management.ManagementFactory;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
@@ -32,6 +34,7 @@ import voldemort.store.StorageConfiguration;
 import voldemort.store.StorageEngine;
 import voldemort.store.StoreDefinition;
 import voldemort.utils.ByteArray;
+import voldemort.utils.DaemonThreadFactory;
 import voldemort.utils.JmxUtils;
 import voldemort.utils.ReflectUtils;
 
@@ -47,6 +50,9 @@ public class ReadOnlyStorageConfiguration implements StorageConfiguration {
     private RoutingStrategy routingStrategy = null;
     private final int deleteBackupMs;
     private boolean enforceMlock = false;
+    private boolean mmapData = false;
+    private final ExecutorService getAllExecutor;
+    private final boolean getAllPrefetch;
 
     public ReadOnlyStorageConfiguration(VoldemortConfig config) {
         this.storageDir = new File(config.getReadOnlyDataStorageDirectory());
@@ -57,9 +63,18 @@ public class ReadOnlyStorageConfiguration implements StorageConfiguration {
         this.nodeId = config.getNodeId();
         this.deleteBackupMs = config.getReadOnlyDeleteBackupMs();
         this.enforceMlock = config.isUseMlock();
+        this.mmapData = config.isReadOnlyMmapData();
+        this.getAllPrefetch = config.isReadOnlyGetAllPrefetch();
+        if(config.getReadOnlyGetAllThreads() > 0)
+            this.getAllExecutor = Executors.newFixedThreadPool(config.getReadOnlyGetAllThreads(),
+                                                               new DaemonThreadFactory("voldemort-readonly-getall-"));
+        else
+            this.getAllExecutor = null;
     }
 
     public void close() {
+        if(getAllExecutor != null)
+            getAllExecutor.shutdown();
         MBeanServer server = ManagementFactory.getPlatformMBeanServer();
         for(ObjectName name: registeredBeans)
             JmxUtils.unregisterMbean(server, name);
@@ -80,7 +95,10 @@ public class ReadOnlyStorageConfiguration implements StorageConfiguration {
                                                                          storeDef.getName()),
                                                                 numBackups,
                                                                 deleteBackupMs,
-                                                                enforceMlock);
+                                                                enforceMlock,
+                                                                mmapData);
+        store.setGetAllExecutor(getAllExecutor);
+        store.setGetAllPrefetch(getAllPrefetch);
         ObjectName objName = JmxUtils.createObjectName(JmxUtils.getPackageName(store.getClass()),
                                                        storeDef.getName() + nodeId);
         JmxUtils.registerMbean(ManagementFactory.getPlatformMBeanServer(),
@@ -24,6 +24,11 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -48,6 +53,7 @@ import voldemort.versioning.Version;
 import voldemort.versioning.Versioned;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 /**
  * A read-only store that fronts a big file
@@ -64,12 +70,16 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
     private final File storeDir;
     private final ReadWriteLock fileModificationLock;
     private final SearchStrategy searchStrategy;
+    private final SearchStrategy hashIndexSearchStrategy = new HashIndexSearchStrategy();
     private RoutingStrategy routingStrategy;
     private volatile ChunkedFileSet fileSet;
     private volatile boolean isOpen;
     private int deleteBackupMs = 0;
     private long lastSwapped;
     private boolean enforceMlock = false;
+    private final boolean mmapData;
+    private ExecutorService getAllExecutor = null;
+    private boolean getAllPrefetch = false;
 
     /**
      * Create an instance of the store
@@ -124,8 +134,32 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
                                  int numBackups,
                                  int deleteBackupMs,
                                  boolean enforceMlock) {
+        this(name,
+             searchStrategy,
+             routingStrategy,
+             nodeId,
+             storeDir,
+             numBackups,
+             deleteBackupMs,
+             enforceMlock,
+             false);
+    }
+
+    /*
+     * Overload constructor to also accept whether data files should be mmapped
+     */
+    public ReadOnlyStorageEngine(String name,
+                                 SearchStrategy searchStrategy,
+                                 RoutingStrategy routingStrategy,
+                                 int nodeId,
+                                 File storeDir,
+                                 int numBackups,
+                                 int deleteBackupMs,
+                                 boolean enforceMlock,
+                                 boolean mmapData) {
 
         this.enforceMlock = enforceMlock;
+        this.mmapData = mmapData;
         this.storeDir = storeDir;
         this.numBackups = numBackups;
         this.name = Utils.notNull(name);
@@ -143,6 +177,27 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
         open(null);
     }
 
+    /**
+     * Sets the executor on which getAll searches the indexes of different
+     * chunks in parallel. If null, all searches are done on the calling
+     * thread.
+     * 
+     * @param getAllExecutor Executor shared by the read-only stores, or null
+     */
+    public void setGetAllExecutor(ExecutorService getAllExecutor) {
+        this.getAllExecutor = getAllExecutor;
+    }
+
+    /**
+     * Sets whether getAll asks the kernel to prefetch all the values it is
+     * about to read before reading the first one
+     * 
+     * @param getAllPrefetch True to prefetch values
+     */
+    public void setGetAllPrefetch(boolean getAllPrefetch) {
+        this.getAllPrefetch = getAllPrefetch;
+    }
+
     /**
      * Returns the internal chunked file set
      * 
@@ -203,7 +258,11 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
                         + versionDir.getAbsolutePath());
             Utils.symlink(versionDir.getAbsolutePath(), storeDir.getAbsolutePath() + File.separator
                                                         + "latest");
-            this.fileSet = new ChunkedFileSet(versionDir, routingStrategy, nodeId, enforceMlock);
+            this.fileSet = new ChunkedFileSet(versionDir,
+                                              routingStrategy,
+                                              nodeId,
+                                              enforceMlock,
+                                              mmapData);
             this.lastSwapped = System.currentTimeMillis();
             this.isOpen = true;
         } finally {
@@ -467,7 +526,7 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
     }
 
     public ClosableIterator<ByteArray> keys() {
-        if(!(fileSet.getReadOnlyStorageFormat().compareTo(ReadOnlyStorageFormat.READONLY_V2) == 0))
+        if(!isIterationSupported(fileSet.getReadOnlyStorageFormat()))
             throw new UnsupportedOperationException("Iteration is not supported for "
                                                     + getClass().getName()
                                                     + " with storage format "
@@ -476,7 +535,7 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
     }
 
     public ClosableIterator<Pair<ByteArray, Versioned<byte[]>>> entries() {
-        if(!(fileSet.getReadOnlyStorageFormat().compareTo(ReadOnlyStorageFormat.READONLY_V2) == 0))
+        if(!isIterationSupported(fileSet.getReadOnlyStorageFormat()))
             throw new UnsupportedOperationException("Iteration is not supported for "
                                                     + getClass().getName()
                                                     + " with storage format "
@@ -484,6 +543,11 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
         return new ChunkedFileSet.ROEntriesIterator(fileSet, fileModificationLock);
     }
 
+    private boolean isIterationSupported(ReadOnlyStorageFormat format) {
+        return format == ReadOnlyStorageFormat.READONLY_V2
+               || format == ReadOnlyStorageFormat.READONLY_V3;
+    }
+
     public ClosableIterator<Pair<ByteArray, Versioned<byte[]>>> entries(int partition) {
         throw new UnsupportedOperationException("Partition based entries scan not supported for this storage type");
     }
@@ -508,9 +572,7 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
                 logger.warn("Invalid chunk id returned. Either routing strategy is inconsistent or storage format not understood");
                 return Collections.emptyList();
             }
-            int location = searchStrategy.indexOf(fileSet.indexFileFor(chunk),
-                                                  fileSet.keyToStorageFormat(key.get()),
-                                                  fileSet.getIndexFileSize(chunk));
+            int location = indexOf(chunk, key);
             if(location >= 0) {
                 byte[] value = fileSet.readValue(key.get(), chunk, location);
                 if(value.length == 0) {
@@ -526,6 +588,20 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
         }
     }
 
+    /**
+     * Looks up the position of the key in the index of the given chunk. Stores
+     * in {@link ReadOnlyStorageFormat#READONLY_V3} carry a hash index which is
+     * always probed directly, irrespective of the configured search strategy.
+     */
+    private int indexOf(int chunk, ByteArray key) {
+        SearchStrategy strategy = searchStrategy;
+        if(fileSet.getReadOnlyStorageFormat() == ReadOnlyStorageFormat.READONLY_V3)
+            strategy = hashIndexSearchStrategy;
+        return strategy.indexOf(fileSet.indexFileFor(chunk),
+                                fileSet.keyToStorageFormat(key.get()),
+                                fileSet.getIndexFileSize(chunk));
+    }
+
     public Map<ByteArray, List<Versioned<byte[]>>> getAll(Iterable<ByteArray> keys,
                                                           Map<ByteArray, byte[]> transforms)
             throws VoldemortException {
@@ -533,23 +609,39 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
         Map<ByteArray, List<Versioned<byte[]>>> results = StoreUtils.newEmptyHashMap(keys);
         try {
             fileModificationLock.readLock().lock();
-            List<KeyValueLocation> keysAndValueLocations = Lists.newArrayList();
-            for(ByteArray key: keys) {
-                int chunk = fileSet.getChunkForKey(key.get());
-                int valueLocation = searchStrategy.indexOf(fileSet.indexFileFor(chunk),
-                                                           fileSet.keyToStorageFormat(key.get()),
-                                                           fileSet.getIndexFileSize(chunk));
-                if(valueLocation >= 0)
-                    keysAndValueLocations.add(new KeyValueLocation(chunk, key, valueLocation));
-            }
+            List<KeyValueLocation> keysAndValueLocations = findValueLocations(keys);
             Collections.sort(keysAndValueLocations);
 
-            for(KeyValueLocation keyVal: keysAndValueLocations) {
-                byte[] value = fileSet.readValue(keyVal.getKey().get(),
-                                                 keyVal.getChunk(),
-                                                 keyVal.getValueLocation());
-                if(value.length > 0)
-                    results.put(keyVal.getKey(), Collections.singletonList(Versioned.value(value)));
+            if(getAllPrefetch) {
+                for(KeyValueLocation keyVal: keysAndValueLocations)
+                    fileSet.prefetchValue(keyVal.getChunk(), keyVal.getValueLocation());
+            }
+
+            // Read the values of every chunk in one go, so that nearby values
+            // are read together
+            int start = 0;
+            while(start < keysAndValueLocations.size()) {
+                int chunk = keysAndValueLocations.get(start).getChunk();
+                int end = start + 1;
+                while(end < keysAndValueLocations.size()
+                      && keysAndValueLocations.get(end).getChunk() == chunk)
+                    end++;
+
+                byte[][] chunkKeys = new byte[end - start][];
+                int[] valueLocations = new int[end - start];
+                for(int i = start; i < end; i++) {
+                    chunkKeys[i - start] = keysAndValueLocations.get(i).getKey().get();
+                    valueLocations[i - start] = keysAndValueLocations.get(i).getValueLocation();
+                }
+
+                byte[][] values = fileSet.readValues(chunkKeys, chunk, valueLocations);
+                for(int i = start; i < end; i++) {
+                    byte[] value = values[i - start];
+                    if(value.length > 0)
+                        results.put(keysAndValueLocations.get(i).getKey(),
+                                    Collections.singletonList(Versioned.value(value)));
+                }
+                start = end;
             }
             return results;
         } finally {
@@ -557,6 +649,99 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
         }
     }
 
+    /**
+     * Finds the chunk and value location of every key present in the store.
+     * When an executor is set, the indexes of different chunks are searched in
+     * parallel. Must be called with the file modification read lock held.
+     */
+    private List<KeyValueLocation> findValueLocations(Iterable<ByteArray> keys) {
+        Map<Integer, List<ByteArray>> keysByChunk = Maps.newHashMap();
+        for(ByteArray key: keys) {
+            int chunk = fileSet.getChunkForKey(key.get());
+            if(chunk < 0)
+                continue;
+            List<ByteArray> chunkKeys = keysByChunk.get(chunk);
+            if(chunkKeys == null) {
+                chunkKeys = Lists.newArrayList();
+                keysByChunk.put(chunk, chunkKeys);
+            }
+            chunkKeys.add(key);
+        }
+
+        List<KeyValueLocation> keysAndValueLocations = Lists.newArrayList();
+        ExecutorService executor = getAllExecutor;
+        if(executor == null || keysByChunk.size() <= 1) {
+            for(Entry<Integer, List<ByteArray>> entry: keysByChunk.entrySet())
+                keysAndValueLocations.addAll(findValueLocations(entry.getKey(), entry.getValue()));
+            return keysAndValueLocations;
+        }
+
+        // Hand out all chunks but the first one, which is searched on this
+        // thread while the others are being searched
+        List<Future<List<KeyValueLocation>>> searches = Lists.newArrayList();
+        Entry<Integer, List<ByteArray>> ownChunk = null;
+        VoldemortException failure = null;
+        for(final Entry<Integer, List<ByteArray>> entry: keysByChunk.entrySet()) {
+            if(ownChunk == null) {
+                ownChunk = entry;
+                continue;
+            }
+            try {
+                searches.add(executor.submit(new Callable<List<KeyValueLocation>>() {
+
+                    public List<KeyValueLocation> call() {
+                        return findValueLocations(entry.getKey(), entry.getValue());
+                    }
+                }));
+            } catch(RejectedExecutionException e) {
+                keysAndValueLocations.addAll(findValueLocations(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        try {
+            keysAndValueLocations.addAll(findValueLocations(ownChunk.getKey(),
+                                                            ownChunk.getValue()));
+        } catch(VoldemortException e) {
+            failure = e;
+        }
+
+        // Wait for every search, even if interrupted, since the files must not
+        // be swapped while they are being searched
+        boolean interrupted = false;
+        for(Future<List<KeyValueLocation>> search: searches) {
+            while(true) {
+                try {
+                    keysAndValueLocations.addAll(search.get());
+                    break;
+                } catch(InterruptedException e) {
+                    interrupted = true;
+                } catch(ExecutionException e) {
+                    if(e.getCause() instanceof VoldemortException)
+                        failure = (VoldemortException) e.getCause();
+                    else
+                        failure = new VoldemortException(e.getCause());
+                    break;
+                }
+            }
+        }
+
+        if(interrupted)
+            Thread.currentThread().interrupt();
+        if(failure != null)
+            throw failure;
+        return keysAndValueLocations;
+    }
+
+    private List<KeyValueLocation> findValueLocations(int chunk, List<ByteArray> keys) {
+        List<KeyValueLocation> keysAndValueLocations = Lists.newArrayListWithCapacity(keys.size());
+        for(ByteArray key: keys) {
+            int valueLocation = indexOf(chunk, key);
+            if(valueLocation >= 0)
+                keysAndValueLocations.add(new KeyValueLocation(chunk, key, valueLocation));
+        }
+        return keysAndValueLocations;
+    }
+
     /**
      * Not supported, throws UnsupportedOperationException if called
      */
@@ -622,6 +807,10 @@ public class ReadOnlyStorageEngine implements StorageEngine<ByteArray, byte[], b
         return StoreUtils.getVersions(get(key, null));
     }
 
+    public int putAll(List<Pair<ByteArray, Versioned<byte[]>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return true;
     }
@@ -53,6 +53,7 @@ public class ReadOnlyUtils {
                 }
 
             case READONLY_V2:
+            case READONLY_V3:
                 if(fileName.matches("^[\\d]+_[\\d]+_[\\d]+\\.(data|index)")) {
                     return true;
                 } else {
@@ -23,6 +23,8 @@ import voldemort.store.readonly.ReadOnlyStorageFormat;
 import voldemort.store.readonly.ReadOnlyStorageMetadata;
 import voldemort.store.readonly.ReadOnlyUtils;
 import voldemort.store.readonly.io.MappedFileReader;
+import voldemort.store.readonly.io.Native;
+import voldemort.store.readonly.io.jna.fcntl;
 import voldemort.utils.ByteArray;
 import voldemort.utils.ByteUtils;
 import voldemort.utils.Pair;
@@ -40,6 +42,18 @@ public class ChunkedFileSet {
 
     private static Logger logger = Logger.getLogger(ChunkedFileSet.class);
 
+    /*
+     * Values whose locations are less than this apart are read together by
+     * readValues(), along with the following tail so that the last of them
+     * is usually read completely too
+     */
+    private static final int MAX_COALESCED_READ_SIZE = 64 * 1024;
+    private static final int COALESCED_READ_TAIL_SIZE = 4 * 1024;
+
+    private static final int PREFETCH_SIZE = 4 * 1024;
+
+    private static volatile boolean prefetchSupported = true;
+
     private final int numChunks;
     private final int nodeId;
     private final File baseDir;
@@ -49,6 +63,9 @@ public class ChunkedFileSet {
 
     private List<MappedFileReader> mappedIndexFileReader;
     private final List<FileChannel> dataFiles;
+    private final List<Integer> dataFileDescriptors;
+    private final List<MappedFileReader> mappedDataFileReaders;
+    private final List<MappedByteBuffer> mappedDataFiles;
     private final HashMap<Object, Integer> chunkIdToChunkStart;
     private final HashMap<Object, Integer> chunkIdToNumChunks;
     private ArrayList<Integer> nodePartitionIds;
@@ -56,13 +73,27 @@ public class ChunkedFileSet {
     private ReadOnlyStorageFormat storageFormat;
 
     private boolean enforceMlock = false;
+    private boolean mmapData = false;
 
+    /**
+     * Opens the chunks of a read-only store version
+     * 
+     * @param directory The version directory
+     * @param routingStrategy The routing strategy of the store
+     * @param nodeId The id of this node
+     * @param enforceMlock Whether the index files should be locked in memory
+     * @param mmapData Whether the data files should also be mmapped, so that
+     *        values are copied straight out of the page cache instead of being
+     *        read through the file channels
+     */
     public ChunkedFileSet(File directory,
                           RoutingStrategy routingStrategy,
                           int nodeId,
-                          boolean enforceMlock) {
+                          boolean enforceMlock,
+                          boolean mmapData) {
 
         this.enforceMlock = enforceMlock;
+        this.mmapData = mmapData;
         this.baseDir = directory;
         if(!Utils.isReadableDir(directory))
             throw new VoldemortException(directory.getAbsolutePath()
@@ -89,6 +120,9 @@ public class ChunkedFileSet {
         this.mappedIndexFileReader = new ArrayList<MappedFileReader>();
 
         this.dataFiles = new ArrayList<FileChannel>();
+        this.dataFileDescriptors = new ArrayList<Integer>();
+        this.mappedDataFileReaders = new ArrayList<MappedFileReader>();
+        this.mappedDataFiles = new ArrayList<MappedByteBuffer>();
         this.chunkIdToChunkStart = new HashMap<Object, Integer>();
         this.chunkIdToNumChunks = new HashMap<Object, Integer>();
         this.nodeId = nodeId;
@@ -102,6 +136,7 @@ public class ChunkedFileSet {
                 initVersion1();
                 break;
             case READONLY_V2:
+            case READONLY_V3:
                 initVersion2();
                 break;
             default:
@@ -113,6 +148,13 @@ public class ChunkedFileSet {
                      + " chunks and format  " + storageFormat);
     }
 
+    public ChunkedFileSet(File directory,
+                          RoutingStrategy routingStrategy,
+                          int nodeId,
+                          boolean enforceMlock) {
+        this(directory, routingStrategy, nodeId, enforceMlock, false);
+    }
+
     public ChunkedFileSet(File directory, RoutingStrategy routingStrategy, int nodeId) {
         this(directory, routingStrategy, nodeId, false);
 
@@ -164,7 +206,7 @@ public class ChunkedFileSet {
             dataFileSizes.add((int) dataLength);
 
             /* Add the file channel for data */
-            dataFiles.add(openChannel(data));
+            openDataFile(data);
 
             MappedFileReader idxFileReader = null;
             try {
@@ -227,7 +269,7 @@ public class ChunkedFileSet {
                     dataFileSizes.add((int) dataLength);
 
                     /* Add the file channel for data */
-                    dataFiles.add(openChannel(data));
+                    openDataFile(data);
 
                     MappedFileReader idxFileReader = null;
                     try {
@@ -319,7 +361,7 @@ public class ChunkedFileSet {
                                     dataFileSizes.add((int) dataLength);
 
                                     /* Add the file channel for data */
-                                    dataFiles.add(openChannel(data));
+                                    openDataFile(data);
 
                                     MappedFileReader idxFileReader = null;
                                     try {
@@ -405,13 +447,29 @@ public class ChunkedFileSet {
                 logger.error("Error while closing file.", e);
             }
         }
+
+        for(MappedFileReader dataFileReader: mappedDataFileReaders) {
+            try {
+                dataFileReader.close();
+            } catch(IOException e) {
+                logger.error("Error while closing file.", e);
+            }
+        }
     }
 
-    private FileChannel openChannel(File file) {
+    private void openDataFile(File data) {
         try {
-            return new FileInputStream(file).getChannel();
+            FileInputStream in = new FileInputStream(data);
+            dataFiles.add(in.getChannel());
+            dataFileDescriptors.add(Native.getFd(in.getFD()));
+
+            if(mmapData) {
+                MappedFileReader dataFileReader = new MappedFileReader(data);
+                mappedDataFileReaders.add(dataFileReader);
+                mappedDataFiles.add(dataFileReader.map(false));
+            }
         } catch(IOException e) {
-            throw new VoldemortException(e);
+            throw new VoldemortException("Error while opening data file " + data, e);
         }
     }
 
@@ -443,6 +501,7 @@ public class ChunkedFileSet {
             case READONLY_V1:
                 return ByteUtils.md5(key);
             case READONLY_V2:
+            case READONLY_V3:
                 return ByteUtils.copy(ByteUtils.md5(key), 0, 2 * ByteUtils.SIZE_OF_INT);
             default:
                 throw new VoldemortException("Unknown read-only storage format");
@@ -461,6 +520,7 @@ public class ChunkedFileSet {
             case READONLY_V1:
                 return 16;
             case READONLY_V2:
+            case READONLY_V3:
                 return 2 * ByteUtils.SIZE_OF_INT;
             default:
                 throw new VoldemortException("Unknown read-only storage format");
@@ -480,7 +540,7 @@ public class ChunkedFileSet {
                 return ReadOnlyUtils.chunk(ByteUtils.md5(key), numChunks);
             }
             case READONLY_V1: {
-                List<Integer> routingPartitionList = routingStrategy.getPartitionList(key);
+                List<Integer> routingPartitionList = new ArrayList<Integer>(routingStrategy.getPartitionList(key));
                 routingPartitionList.retainAll(nodePartitionIds);
 
                 if(routingPartitionList.size() != 1) {
@@ -491,7 +551,8 @@ public class ChunkedFileSet {
                        + ReadOnlyUtils.chunk(ByteUtils.md5(key),
                                              chunkIdToNumChunks.get(routingPartitionList.get(0)));
             }
-            case READONLY_V2: {
+            case READONLY_V2:
+            case READONLY_V3: {
                 List<Integer> routingPartitionList = routingStrategy.getPartitionList(key);
 
                 Pair<Integer, Integer> bucket = null;
@@ -520,6 +581,9 @@ public class ChunkedFileSet {
     }
 
     public byte[] readValue(byte[] key, int chunk, int valueLocation) {
+        if(mmapData)
+            return readMappedValue(key, chunk, valueLocation);
+
         FileChannel dataFile = dataFileFor(chunk);
         try {
             switch(storageFormat) {
@@ -535,7 +599,8 @@ public class ChunkedFileSet {
                     dataFile.read(valueBuffer, valueLocation + ByteUtils.SIZE_OF_INT);
                     return valueBuffer.array();
                 }
-                case READONLY_V2: {
+                case READONLY_V2:
+                case READONLY_V3: {
 
                     // Buffer for 'numKeyValues', 'keySize' and 'valueSize'
                     int headerSize = ByteUtils.SIZE_OF_SHORT + (2 * ByteUtils.SIZE_OF_INT);
@@ -591,6 +656,181 @@ public class ChunkedFileSet {
         }
     }
 
+    /**
+     * Reads the values of several keys from the same chunk, in the order of
+     * the given value locations which must be sorted. Values lying close to
+     * each other in the data file are fetched together with a single read
+     * instead of one read per value.
+     * 
+     * @param keys The keys to read
+     * @param chunk The chunk holding all the keys
+     * @param valueLocations Sorted value locations of the keys, as found in
+     *        the index
+     * @return The values, in the same order as the keys. Empty for keys which
+     *         were not found in the data file.
+     */
+    public byte[][] readValues(byte[][] keys, int chunk, int[] valueLocations) {
+        byte[][] values = new byte[keys.length][];
+        if(mmapData) {
+            for(int i = 0; i < keys.length; i++)
+                values[i] = readMappedValue(keys[i], chunk, valueLocations[i]);
+            return values;
+        }
+
+        int dataFileSize = getDataFileSize(chunk);
+        int start = 0;
+        while(start < keys.length) {
+            // Find the values which can be fetched with the same read
+            int end = start + 1;
+            while(end < keys.length
+                  && valueLocations[end] - valueLocations[start] < MAX_COALESCED_READ_SIZE)
+                end++;
+
+            if(end - start == 1) {
+                values[start] = readValue(keys[start], chunk, valueLocations[start]);
+            } else {
+                int readStart = valueLocations[start];
+                int readSize = (int) Math.min(dataFileSize - readStart,
+                                              (long) valueLocations[end - 1] - readStart
+                                                      + COALESCED_READ_TAIL_SIZE);
+                ByteBuffer buffer = ByteBuffer.allocate(readSize);
+                readFully(dataFileFor(chunk), buffer, readStart);
+                buffer.flip();
+
+                for(int i = start; i < end; i++) {
+                    // The tail of the last value may not have been read
+                    byte[] value = readValueFromBuffer(keys[i],
+                                                       buffer.duplicate(),
+                                                       valueLocations[i] - readStart);
+                    if(value == null)
+                        value = readValue(keys[i], chunk, valueLocations[i]);
+                    values[i] = value;
+                }
+            }
+            start = end;
+        }
+        return values;
+    }
+
+    /**
+     * Advises the kernel that the data file page holding the given value
+     * location is about to be read, so that it can start fetching it in the
+     * background. Any error disables prefetching, since it is only a hint.
+     * 
+     * @param chunk The chunk of the value
+     * @param valueLocation The location of the value in the data file
+     */
+    public void prefetchValue(int chunk, int valueLocation) {
+        if(!prefetchSupported)
+            return;
+
+        int fd = dataFileDescriptors.get(chunk);
+        if(fd < 0)
+            return;
+
+        try {
+            fcntl.posix_fadvise(fd, valueLocation, PREFETCH_SIZE, fcntl.POSIX_FADV_WILLNEED);
+        } catch(Throwable t) {
+            logger.warn("Disabling prefetching of read-only values, posix_fadvise failed", t);
+            prefetchSupported = false;
+        }
+    }
+
+    private void readFully(FileChannel dataFile, ByteBuffer buffer, int position) {
+        try {
+            while(buffer.hasRemaining()) {
+                if(dataFile.read(buffer, position + buffer.position()) < 0)
+                    break;
+            }
+        } catch(IOException e) {
+            throw new VoldemortException(e);
+        }
+    }
+
+    /**
+     * Same as {@link #readValue(byte[], int, int)}, but for data files which
+     * are mmapped. Keys are compared in place and only the bytes of the value
+     * are copied out of the mapping.
+     */
+    private byte[] readMappedValue(byte[] key, int chunk, int valueLocation) {
+        byte[] value = readValueFromBuffer(key,
+                                           mappedDataFiles.get(chunk).duplicate(),
+                                           valueLocation);
+        if(value == null)
+            throw new VoldemortException("Value at " + valueLocation + " runs past the end of "
+                                         + "data file of chunk " + chunk);
+        return value;
+    }
+
+    /**
+     * Parses the value of a key out of a buffer holding the contents of a data
+     * file. The buffer is used with absolute offsets, but its position is
+     * changed.
+     * 
+     * @param key The key to look for
+     * @param dataFile The data file contents
+     * @param valueLocation Offset of the value in the buffer
+     * @return The value, an empty array if the key was not found or null if
+     *         the buffer ends before the value does
+     */
+    private byte[] readValueFromBuffer(byte[] key, ByteBuffer dataFile, int valueLocation) {
+        int limit = dataFile.limit();
+        switch(storageFormat) {
+            case READONLY_V0:
+            case READONLY_V1: {
+                if(valueLocation + ByteUtils.SIZE_OF_INT > limit)
+                    return null;
+                int valueSize = dataFile.getInt(valueLocation);
+                valueLocation += ByteUtils.SIZE_OF_INT;
+                if((long) valueLocation + valueSize > limit)
+                    return null;
+
+                byte[] value = new byte[valueSize];
+                dataFile.position(valueLocation);
+                dataFile.get(value);
+                return value;
+            }
+            case READONLY_V2:
+            case READONLY_V3: {
+                if(valueLocation + ByteUtils.SIZE_OF_SHORT > limit)
+                    return null;
+                short numKeyValues = dataFile.getShort(valueLocation);
+                valueLocation += ByteUtils.SIZE_OF_SHORT;
+
+                for(; numKeyValues > 0; numKeyValues--) {
+                    if(valueLocation + (2 * ByteUtils.SIZE_OF_INT) > limit)
+                        return null;
+                    int keySize = dataFile.getInt(valueLocation);
+                    int valueSize = dataFile.getInt(valueLocation + ByteUtils.SIZE_OF_INT);
+                    valueLocation += (2 * ByteUtils.SIZE_OF_INT);
+                    if((long) valueLocation + keySize + valueSize > limit)
+                        return null;
+
+                    if(keySize == key.length && keyMatches(dataFile, valueLocation, key)) {
+                        byte[] value = new byte[valueSize];
+                        dataFile.position(valueLocation + keySize);
+                        dataFile.get(value);
+                        return value;
+                    }
+                    valueLocation += (keySize + valueSize);
+                }
+                // Could not find key, return value of no size
+                return new byte[0];
+            }
+            default: {
+                throw new VoldemortException("Storage format not supported ");
+            }
+        }
+    }
+
+    private boolean keyMatches(ByteBuffer dataFile, int keyLocation, byte[] key) {
+        for(int i = 0; i < key.length; i++) {
+            if(dataFile.get(keyLocation + i) != key[i])
+                return false;
+        }
+        return true;
+    }
+
     /**
      * Iterator for RO keys - Works only for ReadOnlyStorageFormat.READONLY_V2
      */
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.routed;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import voldemort.annotations.concurrency.Threadsafe;
+import voldemort.cluster.Node;
+
+/**
+ * Decides when a read that is waiting on slow replicas sends one more request
+ * to the next replica in the preference list, and uses whichever responses
+ * come back first.
+ * <p/>
+ * A read is hedged once it has waited longer than the given quantile of the
+ * recent latencies of the slowest node it is waiting for. Every read earns a
+ * fraction of a hedged request, and a read can only be hedged if enough of
+ * them have been earned, which caps the extra load on the cluster at that
+ * fraction of the reads.
+ *
+ */
+@Threadsafe
+public class HedgedReadPolicy {
+
+    /*
+     * The budget is kept in millionths of a request
+     */
+    private static final long REQUEST_COST = 1000000;
+
+    /*
+     * Reads earned while nothing needed hedging are only kept up to this many
+     * hedged requests, so a burst of slow reads cannot overload the cluster
+     */
+    private static final long MAX_SAVED_REQUESTS = 10;
+
+    private final double latencyQuantile;
+    private final long creditPerRead;
+    private final AtomicLong budget;
+
+    /**
+     * @param latencyQuantile The quantile of a node's latencies after which a
+     *        read waiting for it is hedged, between 0 and 1
+     * @param maxHedgedRatio The largest fraction of reads that may be hedged,
+     *        between 0 and 1
+     */
+    public HedgedReadPolicy(double latencyQuantile, double maxHedgedRatio) {
+        if(latencyQuantile <= 0 || latencyQuantile >= 1)
+            throw new IllegalArgumentException("The latency quantile must be between 0 and 1.");
+        if(maxHedgedRatio <= 0 || maxHedgedRatio > 1)
+            throw new IllegalArgumentException("The maximum hedged ratio must be greater than 0 and at most 1.");
+        this.latencyQuantile = latencyQuantile;
+        this.creditPerRead = (long) (maxHedgedRatio * REQUEST_COST);
+        this.budget = new AtomicLong(0);
+    }
+
+    public double getLatencyQuantile() {
+        return latencyQuantile;
+    }
+
+    /**
+     * Get how long to wait for the given nodes before hedging a read. This also
+     * counts the read towards the hedging budget.
+     *
+     * @param nodes The nodes the read was sent to
+     * @param latencyTracker The recent latencies of the nodes
+     * @return The time to wait in ms, or -1 if the read should not be hedged
+     *         because the latencies of some node are not known
+     */
+    public long getHedgeDelayMs(List<Node> nodes, NodeLatencyTracker latencyTracker) {
+        earn();
+        long delayMs = 0;
+        for(Node node: nodes) {
+            long latencyMs = latencyTracker.getQuantileLatencyMs(node.getId(), latencyQuantile);
+            if(latencyMs < 0)
+                return -1;
+            delayMs = Math.max(delayMs, latencyMs);
+        }
+        return delayMs;
+    }
+
+    /**
+     * Take one hedged request from the budget
+     *
+     * @return true if the budget allowed it, false if the read must not be
+     *         hedged
+     */
+    public boolean tryHedge() {
+        while(true) {
+            long current = budget.get();
+            if(current < REQUEST_COST)
+                return false;
+            if(budget.compareAndSet(current, current - REQUEST_COST))
+                return true;
+        }
+    }
+
+    private void earn() {
+        while(true) {
+            long current = budget.get();
+            long updated = Math.min(current + creditPerRead, MAX_SAVED_REQUESTS * REQUEST_COST);
+            if(current == updated || budget.compareAndSet(current, updated))
+                return;
+        }
+    }
+}
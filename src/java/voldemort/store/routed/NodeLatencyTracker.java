@@ -0,0 +1,276 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.routed;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import voldemort.annotations.concurrency.Threadsafe;
+import voldemort.cluster.Node;
+import voldemort.store.stats.LogLinearHistogram;
+import voldemort.utils.SystemTime;
+import voldemort.utils.Time;
+
+/**
+ * Keeps the latencies of the requests a routed store made to each node over a
+ * sliding window, so that routing decisions can be based on how each node has
+ * been responding lately. Latency quantiles are read from the last complete
+ * window, recording one is a lock-free histogram insert.
+ * <p/>
+ * Nodes are also ranked by load: an exponentially weighted moving average of
+ * their latencies, multiplied by the number of requests still outstanding on
+ * them plus one. While requests are outstanding, the time the node has kept
+ * them waiting since it last answered counts as a latency as soon as it
+ * exceeds the average, and every outstanding request also adds a fixed cost
+ * of its own. A node that stops answering thus ranks last, whether or not it
+ * ever answered before. Once nothing is outstanding the average decays
+ * towards zero, so a node that was ranked last gets tried again after a
+ * while.
+ *
+ */
+@Threadsafe
+public class NodeLatencyTracker {
+
+    /*
+     * Too few samples do not tell anything about the tail of a distribution
+     */
+    private static final long MIN_SAMPLES = 100;
+
+    /*
+     * The time over which latencies are averaged for ranking, in ns
+     */
+    private static final double DECAY_NS = Time.NS_PER_SECOND;
+
+    /*
+     * The load every outstanding request adds on its own, in ms
+     */
+    private static final double OUTSTANDING_COST_MS = 1;
+
+    private final int windowMs;
+    private final Time time;
+    private final ConcurrentMap<Integer, NodeLatencies> latencies;
+
+    /**
+     * @param windowMs The length of the windows latencies are kept for, in ms
+     */
+    public NodeLatencyTracker(int windowMs) {
+        this(windowMs, SystemTime.INSTANCE);
+    }
+
+    NodeLatencyTracker(int windowMs, Time time) {
+        this.windowMs = windowMs;
+        this.time = time;
+        this.latencies = new ConcurrentHashMap<Integer, NodeLatencies>();
+    }
+
+    /**
+     * Record that a request was sent to a node. Every request must be followed
+     * by a call to {@link #requestCompleted(int, long, boolean)}, or to
+     * {@link #requestAborted(int)} if it could not be sent after all.
+     *
+     * @param nodeId The id of the node the request was sent to
+     */
+    public void requestStarted(int nodeId) {
+        getNodeLatencies(nodeId).started();
+    }
+
+    /**
+     * Record that a request counted by {@link #requestStarted(int)} was never
+     * sent, so the node is not kept waiting for it
+     *
+     * @param nodeId The id of the node the request was meant for
+     */
+    public void requestAborted(int nodeId) {
+        getNodeLatencies(nodeId).aborted();
+    }
+
+    /**
+     * Record that a node answered a request
+     *
+     * @param nodeId The id of the node that answered
+     * @param requestTimeMs The time the request took, in ms
+     * @param succeeded Whether the node answered with a result. The latencies
+     *        of requests that failed are not recorded.
+     */
+    public void requestCompleted(int nodeId, long requestTimeMs, boolean succeeded) {
+        NodeLatencies nodeLatencies = getNodeLatencies(nodeId);
+        nodeLatencies.completed(requestTimeMs, succeeded);
+        if(succeeded) {
+            nodeLatencies.roll();
+            nodeLatencies.histogram.insert(requestTimeMs);
+        }
+    }
+
+    /**
+     * Get a quantile of the latencies of a node over the last complete window
+     *
+     * @param nodeId The id of the node
+     * @param quantile The quantile to get, between 0 and 1
+     * @return The latency in ms, or -1 if the node did not answer enough
+     *         requests in the last window to tell
+     */
+    public long getQuantileLatencyMs(int nodeId, double quantile) {
+        NodeLatencies nodeLatencies = latencies.get(nodeId);
+        if(nodeLatencies == null)
+            return -1;
+        nodeLatencies.roll();
+        LogLinearHistogram.Snapshot snapshot = nodeLatencies.lastWindow;
+        if(snapshot.getCount() < MIN_SAMPLES)
+            return -1;
+        return snapshot.getQuantile(quantile);
+    }
+
+    /**
+     * Get how loaded a node looks, see {@link NodeLatencyTracker}
+     *
+     * @param nodeId The id of the node
+     * @return The load, 0 for a node nothing is known about
+     */
+    public double getLoad(int nodeId) {
+        NodeLatencies nodeLatencies = latencies.get(nodeId);
+        if(nodeLatencies == null)
+            return 0;
+        return nodeLatencies.getLoad();
+    }
+
+    /**
+     * Order nodes from the least to the most loaded. Nodes that are equally
+     * loaded keep their order.
+     *
+     * @param nodes The nodes to rank
+     * @return A new list of the nodes, in ranked order
+     */
+    public List<Node> rank(List<Node> nodes) {
+        final Map<Integer, Double> loads = new HashMap<Integer, Double>();
+        for(Node node: nodes)
+            loads.put(node.getId(), getLoad(node.getId()));
+
+        List<Node> ranked = new ArrayList<Node>(nodes);
+        Collections.sort(ranked, new Comparator<Node>() {
+
+            public int compare(Node n1, Node n2) {
+                return Double.compare(loads.get(n1.getId()), loads.get(n2.getId()));
+            }
+        });
+        return ranked;
+    }
+
+    private NodeLatencies getNodeLatencies(int nodeId) {
+        NodeLatencies nodeLatencies = latencies.get(nodeId);
+        if(nodeLatencies == null) {
+            latencies.putIfAbsent(nodeId, new NodeLatencies(time.getMilliseconds()));
+            nodeLatencies = latencies.get(nodeId);
+        }
+        return nodeLatencies;
+    }
+
+    private class NodeLatencies {
+
+        final LogLinearHistogram histogram;
+        final AtomicLong windowStartMs;
+        volatile LogLinearHistogram.Snapshot lastWindow;
+        int outstanding;
+        long waitingSinceNs;
+        double averageMs;
+        long averageUpdatedNs;
+        boolean sampled;
+
+        NodeLatencies(long nowMs) {
+            this.histogram = new LogLinearHistogram(Time.MS_PER_HOUR);
+            this.windowStartMs = new AtomicLong(nowMs);
+            this.lastWindow = LogLinearHistogram.Snapshot.empty();
+        }
+
+        /*
+         * The node keeps requests waiting from the time the first of them is
+         * sent, or from its last answer while some are still outstanding
+         */
+        synchronized void started() {
+            if(outstanding++ == 0)
+                waitingSinceNs = time.getNanoseconds();
+        }
+
+        synchronized void aborted() {
+            outstanding = Math.max(0, outstanding - 1);
+        }
+
+        synchronized void completed(long requestTimeMs, boolean succeeded) {
+            long now = time.getNanoseconds();
+            outstanding = Math.max(0, outstanding - 1);
+            waitingSinceNs = now;
+            if(succeeded)
+                updateAverage(requestTimeMs, now);
+        }
+
+        /*
+         * The weight of the old average depends on how long ago it was
+         * updated, so the average covers the same time however many requests
+         * the node gets
+         */
+        private void updateAverage(long requestTimeMs, long now) {
+            if(!sampled) {
+                averageMs = requestTimeMs;
+            } else {
+                double weight = Math.exp(-(now - averageUpdatedNs) / DECAY_NS);
+                averageMs = averageMs * weight + requestTimeMs * (1 - weight);
+            }
+            averageUpdatedNs = now;
+            sampled = true;
+        }
+
+        /*
+         * The average only decays once nothing is outstanding, from the last
+         * answer on. Until then it is kept, and the time spent waiting for an
+         * answer replaces it once it is longer.
+         */
+        synchronized double getLoad() {
+            long now = time.getNanoseconds();
+            double latencyMs = sampled ? averageMs : 0;
+            if(outstanding == 0) {
+                if(sampled)
+                    latencyMs *= Math.exp(-(now - waitingSinceNs) / DECAY_NS);
+                return latencyMs;
+            }
+            double waitingMs = (double) (now - waitingSinceNs) / Time.NS_PER_MS;
+            return Math.max(latencyMs, waitingMs) * (outstanding + 1) + outstanding
+                   * OUTSTANDING_COST_MS;
+        }
+
+        /*
+         * Whoever moves the window forward closes the one that ended. A window
+         * nobody recorded into for a while is empty rather than stale.
+         */
+        void roll() {
+            long start = windowStartMs.get();
+            long now = time.getMilliseconds();
+            if(now - start < windowMs)
+                return;
+            if(windowStartMs.compareAndSet(start, now)) {
+                LogLinearHistogram.Snapshot closed = histogram.snapshotAndReset();
+                lastWindow = now - start < 2 * windowMs ? closed
+                                                        : LogLinearHistogram.Snapshot.empty();
+            }
+        }
+    }
+}
@@ -79,6 +79,10 @@ public abstract class PipelineData<K, V> {
         this.stats = stats;
     }
 
+    public PipelineRoutedStats getStats() {
+        return stats;
+    }
+
     public List<Node> getReplicationSet() {
         return replicationSet;
     }
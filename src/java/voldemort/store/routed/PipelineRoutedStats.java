@@ -24,6 +24,7 @@ public class PipelineRoutedStats {
     private ConcurrentHashMap<Class<? extends Exception>, AtomicLong> errCountMap;
     private AtomicLong severeExceptionCount;
     private AtomicLong benignExceptionCount;
+    private AtomicLong hedgedReadCount;
 
     PipelineRoutedStats() {
         errCountMap = new ConcurrentHashMap<Class<? extends Exception>, AtomicLong>();
@@ -36,6 +37,7 @@ public class PipelineRoutedStats {
 
         severeExceptionCount = new AtomicLong(0);
         benignExceptionCount = new AtomicLong(0);
+        hedgedReadCount = new AtomicLong(0);
     }
 
     @JmxGetter(name = "numSevereExceptions", description = "Number of exceptions considered serious errors")
@@ -78,6 +80,11 @@ public class PipelineRoutedStats {
         return errCountMap.get(ObsoleteVersionException.class).get();
     }
 
+    @JmxGetter(name = "numHedgedReads", description = "Number of extra requests sent because the nodes read from were slower than usual")
+    public long getNumHedgedReads() {
+        return hedgedReadCount.get();
+    }
+
     @JmxGetter(name = "getExceptionCountsAsString", description = "Returns counts of all the Exceptions seen so far as a string")
     public String getExceptionCountsAsString() {
         StringBuilder result = new StringBuilder();
@@ -99,6 +106,10 @@ public class PipelineRoutedStats {
         errCountMap.get(e.getClass()).incrementAndGet();
     }
 
+    public void reportHedgedRead() {
+        hedgedReadCount.incrementAndGet();
+    }
+
     private boolean isSevere(Exception ve) {
         if(ve instanceof InsufficientOperationalNodesException
            || ve instanceof InsufficientZoneResponsesException
@@ -81,9 +81,14 @@ public class PipelineRoutedStore extends RoutedStore {
     private Zone clientZone;
     private boolean zoneRoutingEnabled;
     private PipelineRoutedStats stats;
+    private final NodeLatencyTracker latencyTracker;
+    private final HedgedReadPolicy hedgedReadPolicy;
+    private final NodeLatencyTracker readLatencyTracker;
     private boolean jmxEnabled;
     private int jmxId;
 
+    private static final int LATENCY_WINDOW_MS = 10000;
+
     private enum ConfigureNodesType {
         DEFAULT,
         BYZONE,
@@ -106,6 +111,10 @@ public class PipelineRoutedStore extends RoutedStore {
      * @param failureDetector Failure detector object
      * @param jmxEnabled is monitoring enabled
      * @param jmxId unique ID for the factory instance
+     * @param hedgedReadPolicy When to send extra read requests to more nodes,
+     *        or null to never do so
+     * @param latencyAwareReads Whether to read from the least loaded nodes
+     *        first, instead of following the order of the routing strategy
      */
     public PipelineRoutedStore(String name,
                                Map<Integer, Store<ByteArray, byte[], byte[]>> innerStores,
@@ -119,7 +128,9 @@ public class PipelineRoutedStore extends RoutedStore {
                                TimeoutConfig timeoutConfig,
                                FailureDetector failureDetector,
                                boolean jmxEnabled,
-                               int jmxId) {
+                               int jmxId,
+                               HedgedReadPolicy hedgedReadPolicy,
+                               boolean latencyAwareReads) {
         super(name,
               innerStores,
               cluster,
@@ -145,6 +156,10 @@ public class PipelineRoutedStore extends RoutedStore {
             this.handoffStrategy = null;
         }
 
+        this.latencyTracker = new NodeLatencyTracker(LATENCY_WINDOW_MS);
+        this.hedgedReadPolicy = hedgedReadPolicy;
+        this.readLatencyTracker = latencyAwareReads ? latencyTracker : null;
+
         this.jmxEnabled = jmxEnabled;
         this.jmxId = jmxId;
         if(this.jmxEnabled) {
@@ -182,7 +197,8 @@ public class PipelineRoutedStore extends RoutedStore {
                                                                                                                       failureDetector,
                                                                                                                       storeDef.getRequiredReads(),
                                                                                                                       routingStrategy,
-                                                                                                                      key);
+                                                                                                                      key,
+                                                                                                                      readLatencyTracker);
             case BYZONE:
                 return new ConfigureNodesByZone<List<Versioned<byte[]>>, BasicPipelineData<List<Versioned<byte[]>>>>(pipelineData,
                                                                                                                      Event.CONFIGURED,
@@ -190,7 +206,8 @@ public class PipelineRoutedStore extends RoutedStore {
                                                                                                                      storeDef.getRequiredReads(),
                                                                                                                      routingStrategy,
                                                                                                                      key,
-                                                                                                                     clientZone);
+                                                                                                                     clientZone,
+                                                                                                                     readLatencyTracker);
             case DEFAULT_LOCAL:
                 return new ConfigureNodesLocalHost<List<Versioned<byte[]>>, BasicPipelineData<List<Versioned<byte[]>>>>(pipelineData,
                                                                                                                         Event.CONFIGURED,
@@ -262,7 +279,9 @@ public class PipelineRoutedStore extends RoutedStore {
                                                                                                                                  timeoutConfig.getOperationTimeout(VoldemortOpCode.GET_OP_CODE),
                                                                                                                                  nonblockingStores,
                                                                                                                                  Event.INSUFFICIENT_SUCCESSES,
-                                                                                                                                 Event.INSUFFICIENT_ZONES));
+                                                                                                                                 Event.INSUFFICIENT_ZONES,
+                                                                                                                                 latencyTracker,
+                                                                                                                                 hedgedReadPolicy));
         pipeline.addEventAction(Event.INSUFFICIENT_SUCCESSES,
                                 new PerformSerialRequests<List<Versioned<byte[]>>, BasicPipelineData<List<Versioned<byte[]>>>>(pipelineData,
                                                                                                                                allowReadRepair ? Event.RESPONSES_RECEIVED
@@ -499,7 +518,9 @@ public class PipelineRoutedStore extends RoutedStore {
                                                                                                              timeoutConfig.getOperationTimeout(VoldemortOpCode.GET_VERSION_OP_CODE),
                                                                                                              nonblockingStores,
                                                                                                              Event.INSUFFICIENT_SUCCESSES,
-                                                                                                             Event.INSUFFICIENT_ZONES));
+                                                                                                             Event.INSUFFICIENT_ZONES,
+                                                                                                             latencyTracker,
+                                                                                                             hedgedReadPolicy));
 
         pipeline.addEventAction(Event.INSUFFICIENT_SUCCESSES,
                                 new PerformSerialRequests<List<Version>, BasicPipelineData<List<Version>>>(pipelineData,
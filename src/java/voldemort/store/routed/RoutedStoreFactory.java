@@ -30,14 +30,41 @@ public class RoutedStoreFactory {
 
     private final TimeoutConfig timeoutConfig;
 
+    private final double hedgedReadQuantile;
+
+    private final double maxHedgedReadRatio;
+
+    private final boolean latencyAwareReads;
+
     private final Logger logger = Logger.getLogger(getClass());
 
     public RoutedStoreFactory(boolean isPipelineRoutedStoreEnabled,
                               ExecutorService threadPool,
                               TimeoutConfig timeoutConfig) {
+        this(isPipelineRoutedStoreEnabled, threadPool, timeoutConfig, 0, 0, false);
+    }
+
+    /**
+     * @param hedgedReadQuantile The quantile of its recent latencies after
+     *        which a read waiting for a node is sent to one more node, or 0 to
+     *        never do so. Only used by pipeline routed stores.
+     * @param maxHedgedReadRatio The largest fraction of reads that may be sent
+     *        to one more node
+     * @param latencyAwareReads Whether pipeline routed stores read from the
+     *        least loaded replicas first
+     */
+    public RoutedStoreFactory(boolean isPipelineRoutedStoreEnabled,
+                              ExecutorService threadPool,
+                              TimeoutConfig timeoutConfig,
+                              double hedgedReadQuantile,
+                              double maxHedgedReadRatio,
+                              boolean latencyAwareReads) {
         this.isPipelineRoutedStoreEnabled = isPipelineRoutedStoreEnabled;
         this.threadPool = threadPool;
         this.timeoutConfig = timeoutConfig;
+        this.hedgedReadQuantile = hedgedReadQuantile;
+        this.maxHedgedReadRatio = maxHedgedReadRatio;
+        this.latencyAwareReads = latencyAwareReads;
     }
 
     public NonblockingStore toNonblockingStore(Store<ByteArray, byte[], byte[]> store) {
@@ -96,7 +123,11 @@ public class RoutedStoreFactory {
                                            timeoutConfig,
                                            failureDetector,
                                            jmxEnabled,
-                                           jmxId);
+                                           jmxId,
+                                           hedgedReadQuantile > 0 ? new HedgedReadPolicy(hedgedReadQuantile,
+                                                                                         maxHedgedReadRatio)
+                                                                  : null,
+                                           latencyAwareReads);
         } else {
             if(storeDefinition.getRoutingStrategyType()
                               .compareTo(RoutingStrategyType.ZONE_STRATEGY) == 0) {
@@ -28,6 +28,7 @@ import voldemort.cluster.Zone;
 import voldemort.cluster.failuredetector.FailureDetector;
 import voldemort.routing.RoutingStrategy;
 import voldemort.store.routed.BasicPipelineData;
+import voldemort.store.routed.NodeLatencyTracker;
 import voldemort.store.routed.Pipeline;
 import voldemort.store.routed.Pipeline.Event;
 import voldemort.store.routed.Pipeline.Operation;
@@ -37,7 +38,8 @@ import voldemort.utils.ByteUtils;
 /**
  * Configure the Nodes obtained via the routing strategy based on the zone
  * information. Local zone nodes first, followed by the corresponding nodes from
- * each of the other zones, ordered by proximity.
+ * each of the other zones, ordered by proximity. Given the latencies of the
+ * nodes, the nodes of each zone are ranked by them.
  */
 public class ConfigureNodesByZone<V, PD extends BasicPipelineData<V>> extends
         AbstractConfigureNodes<ByteArray, V, PD> {
@@ -46,6 +48,8 @@ public class ConfigureNodesByZone<V, PD extends BasicPipelineData<V>> extends
 
     private final Zone clientZone;
 
+    private final NodeLatencyTracker latencyTracker;
+
     public ConfigureNodesByZone(PD pipelineData,
                                 Event completeEvent,
                                 FailureDetector failureDetector,
@@ -53,9 +57,33 @@ public class ConfigureNodesByZone<V, PD extends BasicPipelineData<V>> extends
                                 RoutingStrategy routingStrategy,
                                 ByteArray key,
                                 Zone clientZone) {
+        this(pipelineData,
+             completeEvent,
+             failureDetector,
+             required,
+             routingStrategy,
+             key,
+             clientZone,
+             null);
+    }
+
+    /**
+     * @param latencyTracker The latencies to order the nodes of each zone by,
+     *        least loaded first, or null to keep the order of the routing
+     *        strategy
+     */
+    public ConfigureNodesByZone(PD pipelineData,
+                                Event completeEvent,
+                                FailureDetector failureDetector,
+                                int required,
+                                RoutingStrategy routingStrategy,
+                                ByteArray key,
+                                Zone clientZone,
+                                NodeLatencyTracker latencyTracker) {
         super(pipelineData, completeEvent, failureDetector, required, routingStrategy);
         this.key = key;
         this.clientZone = clientZone;
+        this.latencyTracker = latencyTracker;
     }
 
     public List<Node> getNodes(ByteArray key, Operation op) {
@@ -92,6 +120,11 @@ public class ConfigureNodesByZone<V, PD extends BasicPipelineData<V>> extends
             nodesList.add(node);
         }
 
+        if(latencyTracker != null) {
+            for(Map.Entry<Integer, List<Node>> entry: zoneIdToNode.entrySet())
+                entry.setValue(latencyTracker.rank(entry.getValue()));
+        }
+
         nodes = new ArrayList<Node>();
         LinkedList<Integer> zoneProximityList = this.clientZone.getProximityList();
         if(op != Operation.PUT) {
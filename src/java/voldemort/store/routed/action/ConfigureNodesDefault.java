@@ -23,6 +23,7 @@ import voldemort.cluster.Node;
 import voldemort.cluster.failuredetector.FailureDetector;
 import voldemort.routing.RoutingStrategy;
 import voldemort.store.routed.BasicPipelineData;
+import voldemort.store.routed.NodeLatencyTracker;
 import voldemort.store.routed.Pipeline;
 import voldemort.store.routed.Pipeline.Event;
 import voldemort.utils.ByteArray;
@@ -30,21 +31,39 @@ import voldemort.utils.ByteUtils;
 
 /**
  * Default Configure Nodes that does not reorder the list of nodes obtained via
- * the routing strategy
+ * the routing strategy, unless given the latencies of the nodes to rank them
+ * by
  */
 public class ConfigureNodesDefault<V, PD extends BasicPipelineData<V>> extends
         AbstractConfigureNodes<ByteArray, V, PD> {
 
     private final ByteArray key;
 
+    private final NodeLatencyTracker latencyTracker;
+
     public ConfigureNodesDefault(PD pipelineData,
                                  Event completeEvent,
                                  FailureDetector failureDetector,
                                  int required,
                                  RoutingStrategy routingStrategy,
                                  ByteArray key) {
+        this(pipelineData, completeEvent, failureDetector, required, routingStrategy, key, null);
+    }
+
+    /**
+     * @param latencyTracker The latencies to order the nodes by, least loaded
+     *        first, or null to keep the order of the routing strategy
+     */
+    public ConfigureNodesDefault(PD pipelineData,
+                                 Event completeEvent,
+                                 FailureDetector failureDetector,
+                                 int required,
+                                 RoutingStrategy routingStrategy,
+                                 ByteArray key,
+                                 NodeLatencyTracker latencyTracker) {
         super(pipelineData, completeEvent, failureDetector, required, routingStrategy);
         this.key = key;
+        this.latencyTracker = latencyTracker;
     }
 
     @Override
@@ -57,6 +76,9 @@ public class ConfigureNodesDefault<V, PD extends BasicPipelineData<V>> extends
             pipelineData.setFatalError(e);
             return null;
         }
+
+        if(latencyTracker != null)
+            nodes = latencyTracker.rank(nodes);
         return nodes;
     }
 
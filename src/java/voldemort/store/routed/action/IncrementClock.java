@@ -21,6 +21,7 @@ import voldemort.store.routed.PutPipelineData;
 import voldemort.store.routed.Pipeline.Event;
 import voldemort.utils.ByteArray;
 import voldemort.utils.Time;
+import voldemort.versioning.AutoVersionedClock;
 import voldemort.versioning.VectorClock;
 import voldemort.versioning.Versioned;
 
@@ -46,7 +47,14 @@ public class IncrementClock extends AbstractAction<ByteArray, Void, PutPipelineD
 
         // Okay looks like it worked, increment the version for the caller
         VectorClock versionedClock = (VectorClock) versioned.getVersion();
-        versionedClock.incrementVersion(pipelineData.getMaster().getId(), time.getMilliseconds());
+        if(versionedClock instanceof AutoVersionedClock) {
+            // The master has chosen the version, hand it back as is
+            VectorClock assigned = (VectorClock) pipelineData.getVersionedCopy().getVersion();
+            ((AutoVersionedClock) versionedClock).setAssigned(assigned);
+        } else {
+            versionedClock.incrementVersion(pipelineData.getMaster().getId(),
+                                            time.getMilliseconds());
+        }
 
         if(logger.isTraceEnabled())
             logger.trace(pipeline.getOperation().getSimpleName() + " versioned data - now: "
@@ -33,12 +33,15 @@ import voldemort.store.InvalidMetadataException;
 import voldemort.store.nonblockingstore.NonblockingStore;
 import voldemort.store.nonblockingstore.NonblockingStoreCallback;
 import voldemort.store.routed.BasicPipelineData;
+import voldemort.store.routed.HedgedReadPolicy;
+import voldemort.store.routed.NodeLatencyTracker;
 import voldemort.store.routed.Pipeline;
 import voldemort.store.routed.Pipeline.Event;
 import voldemort.store.routed.Pipeline.Operation;
 import voldemort.store.routed.Response;
 import voldemort.utils.ByteArray;
 import voldemort.utils.ByteUtils;
+import voldemort.utils.Time;
 import voldemort.utils.Utils;
 
 public class PerformParallelRequests<V, PD extends BasicPipelineData<V>> extends
@@ -60,6 +63,10 @@ public class PerformParallelRequests<V, PD extends BasicPipelineData<V>> extends
 
     private byte[] transforms;
 
+    private final NodeLatencyTracker latencyTracker;
+
+    private final HedgedReadPolicy hedgedReadPolicy;
+
     public PerformParallelRequests(PD pipelineData,
                                    Event completeEvent,
                                    ByteArray key,
@@ -70,7 +77,9 @@ public class PerformParallelRequests<V, PD extends BasicPipelineData<V>> extends
                                    long timeoutMs,
                                    Map<Integer, NonblockingStore> nonblockingStores,
                                    Event insufficientSuccessesEvent,
-                                   Event insufficientZonesEvent) {
+                                   Event insufficientZonesEvent,
+                                   NodeLatencyTracker latencyTracker,
+                                   HedgedReadPolicy hedgedReadPolicy) {
         super(pipelineData, completeEvent, key);
         this.failureDetector = failureDetector;
         this.preferred = preferred;
@@ -80,6 +89,8 @@ public class PerformParallelRequests<V, PD extends BasicPipelineData<V>> extends
         this.nonblockingStores = nonblockingStores;
         this.insufficientSuccessesEvent = insufficientSuccessesEvent;
         this.insufficientZonesEvent = insufficientZonesEvent;
+        this.latencyTracker = latencyTracker;
+        this.hedgedReadPolicy = hedgedReadPolicy;
     }
 
     public void execute(final Pipeline pipeline) {
@@ -92,70 +103,41 @@ public class PerformParallelRequests<V, PD extends BasicPipelineData<V>> extends
             logger.trace("Attempting " + attempts + " " + pipeline.getOperation().getSimpleName()
                          + " operations in parallel");
 
+        long startNs = System.nanoTime();
+
         for(int i = 0; i < attempts; i++) {
-            final Node node = nodes.get(i);
             pipelineData.incrementNodeIndex();
-
-            final long startMs = logger.isDebugEnabled() ? System.currentTimeMillis() : -1;
-
-            NonblockingStoreCallback callback = new NonblockingStoreCallback() {
-
-                public void requestComplete(Object result, long requestTime) {
-                    if(logger.isTraceEnabled())
-                        logger.trace(pipeline.getOperation().getSimpleName()
-                                     + " response received (" + requestTime + " ms.) from node "
-                                     + node.getId());
-
-                    Response<ByteArray, Object> response = new Response<ByteArray, Object>(node,
-                                                                                           key,
-                                                                                           result,
-                                                                                           requestTime);
-                    if(logger.isDebugEnabled())
-                        logger.debug("Finished " + pipeline.getOperation().getSimpleName()
-                                     + " for key " + ByteUtils.toHexString(key.get())
-                                     + " (keyRef: " + System.identityHashCode(key)
-                                     + "); started at " + startMs + " took " + requestTime
-                                     + " ms on node " + node.getId() + "(" + node.getHost() + ")");
-
-                    responses.put(node.getId(), response);
-                    latch.countDown();
-
-                    // Note errors that come in after the pipeline has finished.
-                    // These will *not* get a chance to be called in the loop of
-                    // responses below.
-                    if(pipeline.isFinished() && response.getValue() instanceof Exception) {
-                        if(response.getValue() instanceof InvalidMetadataException) {
-                            pipelineData.reportException((InvalidMetadataException) response.getValue());
-                            logger.warn("Received invalid metadata problem after a successful "
-                                        + pipeline.getOperation().getSimpleName()
-                                        + " call on node " + node.getId() + ", store '"
-                                        + pipelineData.getStoreName() + "'");
-                        } else {
-                            handleResponseError(response, pipeline, failureDetector);
-                        }
-                    }
-                }
-
-            };
-
-            if(logger.isTraceEnabled())
-                logger.trace("Submitting " + pipeline.getOperation().getSimpleName()
-                             + " request on node " + node.getId());
-
-            NonblockingStore store = nonblockingStores.get(node.getId());
-
-            if(pipeline.getOperation() == Operation.GET)
-                store.submitGetRequest(key, transforms, callback, timeoutMs);
-            else if(pipeline.getOperation() == Operation.GET_VERSIONS)
-                store.submitGetVersionsRequest(key, callback, timeoutMs);
-            else
-                throw new IllegalStateException(getClass().getName()
-                                                + " does not support pipeline operation "
-                                                + pipeline.getOperation());
+            submitRequest(pipeline, nodes.get(i), responses, latch, timeoutMs);
         }
 
+        long hedgeDelayMs = -1;
+        if(hedgedReadPolicy != null && latencyTracker != null && nodes.size() > attempts)
+            hedgeDelayMs = hedgedReadPolicy.getHedgeDelayMs(nodes.subList(0, attempts),
+                                                            latencyTracker);
+
         try {
-            latch.await(timeoutMs, TimeUnit.MILLISECONDS);
+            // If the nodes take longer than they usually do, send one more
+            // request to the next node in line. Whichever responses arrive
+            // first complete the latch.
+            if(hedgeDelayMs >= 0 && hedgeDelayMs < timeoutMs
+               && !latch.await(hedgeDelayMs, TimeUnit.MILLISECONDS) && hedgedReadPolicy.tryHedge()) {
+                Node node = nodes.get(attempts);
+                pipelineData.incrementNodeIndex();
+
+                if(logger.isDebugEnabled())
+                    logger.debug("Hedging " + pipeline.getOperation().getSimpleName()
+                                 + " for key " + ByteUtils.toHexString(key.get())
+                                 + " (keyRef: " + System.identityHashCode(key) + ") after "
+                                 + hedgeDelayMs + " ms on node " + node.getId());
+
+                if(pipelineData.getStats() != null)
+                    pipelineData.getStats().reportHedgedRead();
+
+                submitRequest(pipeline, node, responses, latch, timeoutMs - hedgeDelayMs);
+            }
+
+            latch.await(timeoutMs * Time.NS_PER_MS - (System.nanoTime() - startNs),
+                        TimeUnit.NANOSECONDS);
         } catch(InterruptedException e) {
             if(logger.isEnabledFor(Level.WARN))
                 logger.warn(e, e);
@@ -233,4 +215,87 @@ public class PerformParallelRequests<V, PD extends BasicPipelineData<V>> extends
         }
     }
 
+    private void submitRequest(final Pipeline pipeline,
+                               final Node node,
+                               final Map<Integer, Response<ByteArray, Object>> responses,
+                               final CountDownLatch latch,
+                               long requestTimeoutMs) {
+        final long startMs = logger.isDebugEnabled() ? System.currentTimeMillis() : -1;
+
+        NonblockingStoreCallback callback = new NonblockingStoreCallback() {
+
+            public void requestComplete(Object result, long requestTime) {
+                if(logger.isTraceEnabled())
+                    logger.trace(pipeline.getOperation().getSimpleName()
+                                 + " response received (" + requestTime + " ms.) from node "
+                                 + node.getId());
+
+                Response<ByteArray, Object> response = new Response<ByteArray, Object>(node,
+                                                                                       key,
+                                                                                       result,
+                                                                                       requestTime);
+                if(logger.isDebugEnabled())
+                    logger.debug("Finished " + pipeline.getOperation().getSimpleName()
+                                 + " for key " + ByteUtils.toHexString(key.get())
+                                 + " (keyRef: " + System.identityHashCode(key)
+                                 + "); started at " + startMs + " took " + requestTime
+                                 + " ms on node " + node.getId() + "(" + node.getHost() + ")");
+
+                // Late responses are recorded as well, they are the ones that
+                // tell how slow a node is
+                if(latencyTracker != null)
+                    latencyTracker.requestCompleted(node.getId(),
+                                                    requestTime,
+                                                    !(result instanceof Exception));
+
+                responses.put(node.getId(), response);
+                latch.countDown();
+
+                // Note errors that come in after the pipeline has finished.
+                // These will *not* get a chance to be called in the loop of
+                // responses below.
+                if(pipeline.isFinished() && response.getValue() instanceof Exception) {
+                    if(response.getValue() instanceof InvalidMetadataException) {
+                        pipelineData.reportException((InvalidMetadataException) response.getValue());
+                        logger.warn("Received invalid metadata problem after a successful "
+                                    + pipeline.getOperation().getSimpleName()
+                                    + " call on node " + node.getId() + ", store '"
+                                    + pipelineData.getStoreName() + "'");
+                    } else {
+                        handleResponseError(response, pipeline, failureDetector);
+                    }
+                }
+            }
+
+        };
+
+        if(logger.isTraceEnabled())
+            logger.trace("Submitting " + pipeline.getOperation().getSimpleName()
+                         + " request on node " + node.getId());
+
+        if(pipeline.getOperation() != Operation.GET
+           && pipeline.getOperation() != Operation.GET_VERSIONS)
+            throw new IllegalStateException(getClass().getName()
+                                            + " does not support pipeline operation "
+                                            + pipeline.getOperation());
+
+        NonblockingStore store = nonblockingStores.get(node.getId());
+
+        if(latencyTracker != null)
+            latencyTracker.requestStarted(node.getId());
+
+        try {
+            if(pipeline.getOperation() == Operation.GET)
+                store.submitGetRequest(key, transforms, callback, requestTimeoutMs);
+            else
+                store.submitGetVersionsRequest(key, callback, requestTimeoutMs);
+        } catch(RuntimeException e) {
+            // The callback will never run, so nothing else takes the request
+            // off the node's outstanding count
+            if(latencyTracker != null)
+                latencyTracker.requestAborted(node.getId());
+            throw e;
+        }
+    }
+
 }
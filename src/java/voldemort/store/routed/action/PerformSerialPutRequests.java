@@ -22,15 +22,18 @@ import java.util.Map;
 
 import voldemort.cluster.Node;
 import voldemort.cluster.failuredetector.FailureDetector;
+import voldemort.store.AutoVersioningStore;
 import voldemort.store.InsufficientOperationalNodesException;
 import voldemort.store.InsufficientZoneResponsesException;
 import voldemort.store.Store;
+import voldemort.store.StoreUtils;
 import voldemort.store.routed.Pipeline;
 import voldemort.store.routed.Pipeline.Event;
 import voldemort.store.routed.PutPipelineData;
 import voldemort.utils.ByteArray;
 import voldemort.utils.ByteUtils;
 import voldemort.utils.Time;
+import voldemort.versioning.AutoVersionedClock;
 import voldemort.versioning.VectorClock;
 import voldemort.versioning.Versioned;
 
@@ -91,11 +94,6 @@ public class PerformSerialPutRequests extends
             node = nodes.get(currentNode);
             pipelineData.incrementNodeIndex();
 
-            VectorClock versionedClock = (VectorClock) versioned.getVersion();
-            final Versioned<byte[]> versionedCopy = new Versioned<byte[]>(versioned.getValue(),
-                                                                          versionedClock.incremented(node.getId(),
-                                                                                                     time.getMilliseconds()));
-
             if(logger.isDebugEnabled())
                 logger.debug("Attempt #" + (currentNode + 1) + " to perform put (node "
                              + node.getId() + ")");
@@ -103,7 +101,7 @@ public class PerformSerialPutRequests extends
             long start = System.nanoTime();
 
             try {
-                stores.get(node.getId()).put(key, versionedCopy, transforms);
+                Versioned<byte[]> versionedCopy = put(node);
                 long requestTime = (System.nanoTime() - start) / Time.NS_PER_MS;
                 pipelineData.incrementSuccesses();
                 failureDetector.recordSuccess(node, requestTime);
@@ -196,4 +194,38 @@ public class PerformSerialPutRequests extends
             pipeline.addEvent(masterDeterminedEvent);
         }
     }
+
+    /**
+     * Puts the value on the given node, and returns the value with the clock it
+     * was written with. If the caller asked for the version to be resolved by
+     * the master the clock comes from the node itself, otherwise it is the
+     * caller's clock incremented for the node.
+     */
+    private Versioned<byte[]> put(Node node) {
+        Store<ByteArray, byte[], byte[]> store = stores.get(node.getId());
+        VectorClock versionedClock = (VectorClock) versioned.getVersion();
+
+        if(versionedClock instanceof AutoVersionedClock) {
+            VectorClock clock;
+            if(store instanceof AutoVersioningStore)
+                clock = ((AutoVersioningStore) store).putAutoVersion(key,
+                                                                     versioned,
+                                                                     transforms,
+                                                                     node.getId());
+            else
+                clock = StoreUtils.putAutoVersion(store,
+                                                  key,
+                                                  versioned,
+                                                  transforms,
+                                                  node.getId(),
+                                                  time.getMilliseconds());
+            return new Versioned<byte[]>(versioned.getValue(), clock);
+        }
+
+        Versioned<byte[]> versionedCopy = new Versioned<byte[]>(versioned.getValue(),
+                                                                versionedClock.incremented(node.getId(),
+                                                                                           time.getMilliseconds()));
+        store.put(key, versionedCopy, transforms);
+        return versionedCopy;
+    }
 }
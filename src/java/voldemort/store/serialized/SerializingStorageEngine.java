@@ -16,6 +16,9 @@
 
 package voldemort.store.serialized;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import voldemort.serialization.Serializer;
 import voldemort.store.StorageEngine;
 import voldemort.utils.ByteArray;
@@ -73,6 +76,17 @@ public class SerializingStorageEngine<K, V, T> extends SerializingStore<K, V, T>
         storageEngine.truncate();
     }
 
+    public int putAll(List<Pair<K, Versioned<V>>> entries) {
+        List<Pair<ByteArray, Versioned<byte[]>>> serialized = new ArrayList<Pair<ByteArray, Versioned<byte[]>>>(entries.size());
+        for(Pair<K, Versioned<V>> entry: entries) {
+            Versioned<V> versioned = entry.getSecond();
+            serialized.add(Pair.create(new ByteArray(getKeySerializer().toBytes(entry.getFirst())),
+                                       new Versioned<byte[]>(getValueSerializer().toBytes(versioned.getValue()),
+                                                             versioned.getVersion())));
+        }
+        return storageEngine.putAll(serialized);
+    }
+
     private class KeysIterator implements ClosableIterator<K> {
 
         private final ClosableIterator<ByteArray> iterator;
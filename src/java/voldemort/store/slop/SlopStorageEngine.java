@@ -27,6 +27,7 @@ import voldemort.serialization.IdentitySerializer;
 import voldemort.serialization.SlopSerializer;
 import voldemort.store.StorageEngine;
 import voldemort.store.StoreCapabilityType;
+import voldemort.store.StoreUtils;
 import voldemort.store.serialized.SerializingStorageEngine;
 import voldemort.store.stats.SlopStats;
 import voldemort.utils.ByteArray;
@@ -136,6 +137,10 @@ public class SlopStorageEngine implements StorageEngine<ByteArray, byte[], byte[
         return slopEngine.getVersions(key);
     }
 
+    public int putAll(List<Pair<ByteArray, Versioned<byte[]>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return slopEngine.isPartitionAware();
     }
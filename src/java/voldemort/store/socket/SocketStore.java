@@ -26,6 +26,7 @@ import voldemort.VoldemortException;
 import voldemort.client.protocol.RequestFormat;
 import voldemort.client.protocol.RequestFormatFactory;
 import voldemort.server.RequestRoutingType;
+import voldemort.store.AutoVersioningStore;
 import voldemort.store.NoSuchCapabilityException;
 import voldemort.store.Store;
 import voldemort.store.StoreCapabilityType;
@@ -41,9 +42,11 @@ import voldemort.store.socket.clientrequest.DeleteClientRequest;
 import voldemort.store.socket.clientrequest.GetAllClientRequest;
 import voldemort.store.socket.clientrequest.GetClientRequest;
 import voldemort.store.socket.clientrequest.GetVersionsClientRequest;
+import voldemort.store.socket.clientrequest.PutAutoVersionClientRequest;
 import voldemort.store.socket.clientrequest.PutClientRequest;
 import voldemort.utils.ByteArray;
 import voldemort.utils.Utils;
+import voldemort.versioning.VectorClock;
 import voldemort.versioning.Version;
 import voldemort.versioning.Versioned;
 
@@ -59,7 +62,8 @@ import voldemort.versioning.Versioned;
  * {@link ClientRequestExecutorPool pool} and adds an appropriate
  * {@link ClientRequest request} to be processed by the NIO thread.
  */
-public class SocketStore implements Store<ByteArray, byte[], byte[]>, NonblockingStore {
+public class SocketStore implements Store<ByteArray, byte[], byte[]>, NonblockingStore,
+        AutoVersioningStore {
 
     private final RequestFormatFactory requestFormatFactory = new RequestFormatFactory();
 
@@ -232,6 +236,24 @@ public class SocketStore implements Store<ByteArray, byte[], byte[]>, Nonblockin
         request(clientRequest, "put");
     }
 
+    public VectorClock putAutoVersion(ByteArray key,
+                                      Versioned<byte[]> versioned,
+                                      byte[] transforms,
+                                      int nodeId) throws VoldemortException {
+        StoreUtils.assertValidKey(key);
+        PutAutoVersionClientRequest clientRequest = new PutAutoVersionClientRequest(storeName,
+                                                                                    requestFormat,
+                                                                                    requestRoutingType,
+                                                                                    key,
+                                                                                    versioned,
+                                                                                    transforms,
+                                                                                    nodeId);
+        if(logger.isDebugEnabled())
+            logger.debug("PUTAUTOVERSION keyRef: " + System.identityHashCode(key)
+                         + " requestRef: " + System.identityHashCode(clientRequest));
+        return request(clientRequest, "putAutoVersion");
+    }
+
     public Object getCapability(StoreCapabilityType capability) {
         if(StoreCapabilityType.SOCKET_POOL.equals(capability))
             return this.pool;
@@ -276,11 +298,20 @@ public class SocketStore implements Store<ByteArray, byte[], byte[]>, Nonblockin
         String debugMsgStr = "";
 
         BlockingClientRequest<T> blockingClientRequest = null;
+        boolean checkedIn = false;
         try {
             blockingClientRequest = new BlockingClientRequest<T>(delegate, timeoutMs);
             clientRequestExecutor.addClientRequest(blockingClientRequest,
                                                    timeoutMs,
                                                    System.nanoTime() - startTimeNs);
+
+            // Other requests may share a multiplexed connection while this one
+            // waits for its response
+            if(clientRequestExecutor.isMultiplexed()) {
+                pool.checkin(destination, clientRequestExecutor);
+                checkedIn = true;
+            }
+
             blockingClientRequest.await();
 
             if(logger.isDebugEnabled())
@@ -330,7 +361,8 @@ public class SocketStore implements Store<ByteArray, byte[], byte[]>, Nonblockin
                              + debugMsgStr);
             }
 
-            pool.checkin(destination, clientRequestExecutor);
+            if(!checkedIn)
+                pool.checkin(destination, clientRequestExecutor);
         }
     }
 
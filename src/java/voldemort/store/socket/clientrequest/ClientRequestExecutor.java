@@ -16,6 +16,7 @@
 
 package voldemort.store.socket.clientrequest;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -25,9 +26,19 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 
 import org.apache.log4j.Level;
 
+import voldemort.utils.ByteBufferBackedInputStream;
 import voldemort.utils.SelectorManagerWorker;
 import voldemort.utils.Time;
 
@@ -41,6 +52,15 @@ import voldemort.utils.Time;
  * has exclusive access to that instance. Then the
  * {@link #addClientRequest(ClientRequest) request can be executed}.
  * 
+ * Once a connection has negotiated a pipelined request format it is
+ * {@link #setMultiplexed() multiplexed} instead: it is checked back in as soon
+ * as a request has been added, any number of requests may be pending on it at
+ * once, and the server may answer them in any order. The connection numbers
+ * each request itself, in the request id that starts every pipelined frame,
+ * and hands each response to the request pending under its id. A request that
+ * expires times out on its own, the connection and the other requests pending
+ * on it carry on, and its response is dropped if it arrives after all.
+ * 
  * @see SelectorManagerWorker
  * @see ClientRequestExecutorPool
  */
@@ -52,6 +72,23 @@ public class ClientRequestExecutor extends SelectorManagerWorker {
     private long expiration;
     private boolean isExpired;
 
+    /*
+     * Frame header of a pipelined request format: the request id, then the
+     * size of the rest of the frame.
+     */
+    private static final int FRAME_HEADER_SIZE = 8;
+
+    private volatile boolean multiplexed;
+
+    // Guarded by this
+    private final Map<Integer, PendingRequest> pendingRequests = new HashMap<Integer, PendingRequest>();
+    private final Set<Integer> timedOutRequests = new HashSet<Integer>();
+    private final Queue<byte[]> queuedRequests = new LinkedList<byte[]>();
+    private int nextRequestId;
+
+    // Only used by the selector thread
+    private boolean writingRequests;
+
     public ClientRequestExecutor(Selector selector,
                                  SocketChannel socketChannel,
                                  int socketBufferSize) {
@@ -71,7 +108,31 @@ public class ClientRequestExecutor extends SelectorManagerWorker {
         return !s.isClosed() && s.isBound() && s.isConnected();
     }
 
-    public synchronized boolean checkTimeout() {
+    /**
+     * Lets any number of requests be pending on this connection at once. Only
+     * valid once the connection has negotiated a pipelined request format,
+     * whose responses carry the id of the request they answer.
+     */
+    public synchronized void setMultiplexed() {
+        // drop what is left of the protocol negotiation response
+        resetInputBuffer();
+        multiplexed = true;
+    }
+
+    public boolean isMultiplexed() {
+        return multiplexed;
+    }
+
+    public boolean checkTimeout() {
+        if(multiplexed) {
+            timeOutPendingRequests();
+            return true;
+        }
+
+        return checkRequestTimeout();
+    }
+
+    private synchronized boolean checkRequestTimeout() {
         if(expiration <= 0)
             return true;
 
@@ -101,21 +162,14 @@ public class ClientRequestExecutor extends SelectorManagerWorker {
         if(logger.isTraceEnabled())
             logger.trace("Associating client with " + socketChannel.socket());
 
-        this.clientRequest = clientRequest;
-
-        if(timeoutMs == -1) {
-            this.expiration = -1;
-        } else {
-            if (elapsedNs > (Time.NS_PER_MS * timeoutMs)) {
-                this.expiration = System.nanoTime();
-            } else {
-                this.expiration = System.nanoTime() + (Time.NS_PER_MS * timeoutMs) - elapsedNs;
-            }
-
-            if(this.expiration < System.nanoTime())
-                throw new IllegalArgumentException("timeout " + timeoutMs + " not valid");
+        if(multiplexed) {
+            addPendingRequest(clientRequest, getExpiration(timeoutMs, elapsedNs));
+            return;
         }
 
+        this.clientRequest = clientRequest;
+        this.expiration = getExpiration(timeoutMs, elapsedNs);
+
         outputStream.getBuffer().clear();
 
         boolean wasSuccessful = clientRequest.formatRequest(new DataOutputStream(outputStream));
@@ -157,6 +211,88 @@ public class ClientRequestExecutor extends SelectorManagerWorker {
         }
     }
 
+    private long getExpiration(long timeoutMs, long elapsedNs) {
+        if(timeoutMs == -1)
+            return -1;
+
+        long expiration;
+        if(elapsedNs > (Time.NS_PER_MS * timeoutMs)) {
+            expiration = System.nanoTime();
+        } else {
+            expiration = System.nanoTime() + (Time.NS_PER_MS * timeoutMs) - elapsedNs;
+        }
+
+        if(expiration < System.nanoTime())
+            throw new IllegalArgumentException("timeout " + timeoutMs + " not valid");
+
+        return expiration;
+    }
+
+    /**
+     * Formats the request, stamps it with the next request id of this
+     * connection and queues it for the selector thread to write. Must be
+     * called with the lock held.
+     */
+    private void addPendingRequest(ClientRequest<?> clientRequest, long expiration) {
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+
+        if(!clientRequest.formatRequest(new DataOutputStream(request))) {
+            if(logger.isEnabledFor(Level.WARN))
+                logger.warn("Client associated with " + socketChannel.socket()
+                            + " did not successfully buffer output for request");
+
+            clientRequest.complete();
+            return;
+        }
+
+        byte[] bytes = request.toByteArray();
+        int requestId = nextRequestId++;
+        ByteBuffer.wrap(bytes).putInt(0, requestId);
+
+        pendingRequests.put(requestId, new PendingRequest(clientRequest, expiration));
+        queuedRequests.add(bytes);
+
+        SelectionKey selectionKey = socketChannel.keyFor(selector);
+        selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+
+        // This wakeup is required because it's invoked by the calling code in a
+        // different thread than the SelectorManager.
+        selector.wakeup();
+    }
+
+    /**
+     * Times out the pending requests that have expired, leaving the
+     * connection open for the others. The ids of the expired requests are
+     * remembered so that their responses can be dropped when they arrive.
+     */
+    private void timeOutPendingRequests() {
+        List<PendingRequest> expired = new ArrayList<PendingRequest>();
+        long now = System.nanoTime();
+
+        synchronized(this) {
+            Iterator<Map.Entry<Integer, PendingRequest>> i = pendingRequests.entrySet()
+                                                                          .iterator();
+            while(i.hasNext()) {
+                Map.Entry<Integer, PendingRequest> entry = i.next();
+                if(entry.getValue().isExpired(now)) {
+                    i.remove();
+                    timedOutRequests.add(entry.getKey());
+                    expired.add(entry.getValue());
+                }
+            }
+        }
+
+        // timeOut calls back into the store, so it must not be called with
+        // the lock held
+        for(PendingRequest pending: expired) {
+            if(logger.isEnabledFor(Level.WARN))
+                logger.warn("Client request associated with " + socketChannel.socket()
+                            + " timed out");
+
+            pending.clientRequest.timeOut();
+        }
+    }
+
     @Override
     public void close() {
         // Due to certain code paths, close may be called in a recursive
@@ -166,7 +302,10 @@ public class ClientRequestExecutor extends SelectorManagerWorker {
         if(!isClosed.compareAndSet(false, true))
             return;
 
-        completeClientRequest();
+        if(multiplexed)
+            completePendingRequests();
+        else
+            completeClientRequest();
         closeInternal();
     }
 
@@ -186,6 +325,11 @@ public class ClientRequestExecutor extends SelectorManagerWorker {
         if(count == 0)
             return;
 
+        if(multiplexed) {
+            readResponses();
+            return;
+        }
+
         // Take note of the position after we read the bytes. We'll need it in
         // case of incomplete reads later on down the method.
         final int position = inputStream.getBuffer().position();
@@ -224,6 +368,11 @@ public class ClientRequestExecutor extends SelectorManagerWorker {
         if(!checkTimeout())
             return;
 
+        if(multiplexed) {
+            writeRequests(selectionKey);
+            return;
+        }
+
         if(outputStream.getBuffer().hasRemaining()) {
             // If we have data, write what we can now...
             int count = socketChannel.write(outputStream.getBuffer());
@@ -255,6 +404,126 @@ public class ClientRequestExecutor extends SelectorManagerWorker {
         selectionKey.interestOps(SelectionKey.OP_READ);
     }
 
+    /**
+     * Hands every complete response in the input buffer to the request pending
+     * under its id, and keeps what is left of a partial response for the next
+     * read.
+     */
+    private void readResponses() throws IOException {
+        ByteBuffer buffer = inputStream.getBuffer();
+        buffer.flip();
+
+        while(buffer.remaining() >= FRAME_HEADER_SIZE) {
+            int start = buffer.position();
+            int requestId = buffer.getInt(start);
+            int frameSize = buffer.getInt(start + 4);
+
+            if(frameSize < 0)
+                throw new IOException("Invalid size " + frameSize + " of response to request "
+                                      + requestId + " from " + socketChannel.socket());
+
+            if(buffer.remaining() < FRAME_HEADER_SIZE + frameSize)
+                break;
+
+            PendingRequest pending;
+            boolean timedOut;
+            synchronized(this) {
+                pending = pendingRequests.remove(requestId);
+                timedOut = pending == null && timedOutRequests.remove(requestId);
+            }
+
+            if(timedOut) {
+                if(logger.isDebugEnabled())
+                    logger.debug("Dropping late response to request " + requestId + " for "
+                                 + socketChannel.socket());
+
+                buffer.position(start + FRAME_HEADER_SIZE + frameSize);
+                continue;
+            }
+
+            if(pending == null)
+                throw new IOException("Response to request " + requestId
+                                      + " which is not pending on " + socketChannel.socket());
+
+            if(logger.isTraceEnabled())
+                logger.trace("Starting read of response to request " + requestId + " for "
+                             + socketChannel.socket());
+
+            // The request format reads the frame header itself
+            ByteBuffer frame = buffer.duplicate();
+            frame.limit(start + FRAME_HEADER_SIZE + frameSize);
+            pending.clientRequest.parseResponse(new DataInputStream(new ByteBufferBackedInputStream(frame)));
+            buffer.position(start + FRAME_HEADER_SIZE + frameSize);
+
+            pending.clientRequest.complete();
+        }
+
+        if(buffer.hasRemaining()) {
+            buffer.compact();
+            handleIncompleteRequest(buffer.position());
+        } else {
+            resetInputBuffer();
+        }
+    }
+
+    /**
+     * Writes out the queued requests, taking the next batch of them once the
+     * previous one is fully written, and stops asking for writes once the
+     * queue is empty.
+     */
+    private void writeRequests(SelectionKey selectionKey) throws IOException {
+        if(!writingRequests) {
+            synchronized(this) {
+                byte[] request;
+                while((request = queuedRequests.poll()) != null)
+                    outputStream.write(request);
+            }
+
+            outputStream.getBuffer().flip();
+            writingRequests = true;
+        }
+
+        int count = socketChannel.write(outputStream.getBuffer());
+
+        if(logger.isTraceEnabled())
+            logger.trace("Wrote " + count + " bytes, remaining: "
+                         + outputStream.getBuffer().remaining() + " for "
+                         + socketChannel.socket());
+
+        if(outputStream.getBuffer().hasRemaining())
+            return;
+
+        resetOutputBuffer();
+        writingRequests = false;
+
+        synchronized(this) {
+            if(queuedRequests.isEmpty())
+                selectionKey.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * Times out the pending requests that have expired and completes the rest
+     * without a response, once the connection is closed.
+     */
+    private void completePendingRequests() {
+        List<PendingRequest> pending;
+        synchronized(this) {
+            pending = new ArrayList<PendingRequest>(pendingRequests.values());
+            pendingRequests.clear();
+            timedOutRequests.clear();
+            queuedRequests.clear();
+        }
+
+        long now = System.nanoTime();
+        for(PendingRequest request: pending) {
+            if(request.isExpired(now))
+                request.clientRequest.timeOut();
+            else
+                request.clientRequest.complete();
+        }
+    }
+
     /**
      * Null out our client request *before* calling complete because of the case
      * where complete will cause a ClientRequestExecutor check-in (in
@@ -295,4 +564,20 @@ public class ClientRequestExecutor extends SelectorManagerWorker {
             logger.trace("Marked client associated with " + socketChannel.socket() + " as complete");
     }
 
+    private static class PendingRequest {
+
+        private final ClientRequest<?> clientRequest;
+
+        private final long expiration;
+
+        private PendingRequest(ClientRequest<?> clientRequest, long expiration) {
+            this.clientRequest = clientRequest;
+            this.expiration = expiration;
+        }
+
+        private boolean isExpired(long now) {
+            return expiration > 0 && now > expiration;
+        }
+    }
+
 }
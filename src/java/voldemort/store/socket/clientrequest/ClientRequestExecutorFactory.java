@@ -205,6 +205,11 @@ public class ClientRequestExecutorFactory implements
             // Either returns uninteresting token, or throws exception if
             // protocol negotiation failed.
             clientRequest.getResult();
+
+            // Responses of a pipelined format carry the id of their request,
+            // so the connection can take many requests at once
+            if(dest.getRequestFormatType().isPipelined())
+                clientRequestExecutor.setMultiplexed();
         } catch(Exception e) {
             // Make sure not to leak socketChannels
             if(socketChannel != null) {
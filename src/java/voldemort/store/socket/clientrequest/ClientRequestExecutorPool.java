@@ -301,12 +301,18 @@ public class ClientRequestExecutorPool implements SocketStoreFactory {
                              + clientRequestExecutor.getSocketChannel().socket().getLocalPort());
             }
 
+            // A multiplexed connection is checked back in as soon as the
+            // request is added, so the request must not check it in again
+            boolean multiplexed = clientRequestExecutor.isMultiplexed();
             NonblockingStoreCallbackClientRequest<T> clientRequest = new NonblockingStoreCallbackClientRequest<T>(destination,
                                                                                                                   delegate,
                                                                                                                   clientRequestExecutor,
-                                                                                                                  callback);
+                                                                                                                  callback,
+                                                                                                                  !multiplexed);
             clientRequestExecutor.addClientRequest(clientRequest, timeoutMs, System.nanoTime()
                                                                              - startTimeNs);
+            if(multiplexed)
+                checkin(destination, clientRequestExecutor);
         }
 
         @Override
@@ -348,6 +354,7 @@ public class ClientRequestExecutorPool implements SocketStoreFactory {
         private final ClientRequest<T> clientRequest;
         private final ClientRequestExecutor clientRequestExecutor;
         private final NonblockingStoreCallback callback;
+        private final boolean checkinOnCompletion;
         private final long startNs;
 
         private volatile boolean isComplete;
@@ -355,11 +362,13 @@ public class ClientRequestExecutorPool implements SocketStoreFactory {
         public NonblockingStoreCallbackClientRequest(SocketDestination destination,
                                                      ClientRequest<T> clientRequest,
                                                      ClientRequestExecutor clientRequestExecutor,
-                                                     NonblockingStoreCallback callback) {
+                                                     NonblockingStoreCallback callback,
+                                                     boolean checkinOnCompletion) {
             this.destination = destination;
             this.clientRequest = clientRequest;
             this.clientRequestExecutor = clientRequestExecutor;
             this.callback = callback;
+            this.checkinOnCompletion = checkinOnCompletion;
             this.startNs = System.nanoTime();
         }
 
@@ -406,7 +415,8 @@ public class ClientRequestExecutorPool implements SocketStoreFactory {
                 isComplete = true;
                 // checkin may throw a (new) exception. Any prior exception
                 // has been passed off via invokeCallback.
-                checkin(destination, clientRequestExecutor);
+                if(checkinOnCompletion)
+                    checkin(destination, clientRequestExecutor);
             }
         }
 
@@ -440,7 +450,8 @@ public class ClientRequestExecutorPool implements SocketStoreFactory {
             clientRequest.timeOut();
             invokeCallback(new StoreTimeoutException("ClientRequestExecutor timed out. Cannot complete request."),
                            (System.nanoTime() - startNs) / Time.NS_PER_MS);
-            checkin(destination, clientRequestExecutor);
+            if(checkinOnCompletion)
+                checkin(destination, clientRequestExecutor);
         }
 
         @Override
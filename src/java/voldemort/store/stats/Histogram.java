@@ -1,6 +1,7 @@
 package voldemort.store.stats;
 
-import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.apache.log4j.Logger;
 
@@ -8,8 +9,10 @@ import voldemort.annotations.concurrency.Threadsafe;
 
 /**
  * A class for computing percentiles based on a histogram. Values are bucketed
- * by a configurable bound (e.g., 0-1, 1-2, 2-3). When a value is inserted,
- * perform a binary search to find the correct bucket.
+ * by a configurable bound (e.g., 0-1, 1-2, 2-3). Inserting a value is a
+ * lock-free increment of its bucket, the histogram is not locked for reads
+ * either, so a quantile computed while values are inserted or the histogram
+ * is reset is only approximate.
  * 
  * 
  */
@@ -18,9 +21,9 @@ public class Histogram {
 
     private final int nBuckets;
     private final int step;
-    private final int[] buckets;
+    private final AtomicIntegerArray buckets;
     private final int[] bounds;
-    private int size;
+    private final AtomicInteger size;
     private static final Logger logger = Logger.getLogger(Histogram.class);
 
     /**
@@ -32,8 +35,9 @@ public class Histogram {
     public Histogram(int nBuckets, int step) {
         this.nBuckets = nBuckets;
         this.step = step;
-        this.buckets = new int[nBuckets];
+        this.buckets = new AtomicIntegerArray(nBuckets);
         this.bounds = new int[nBuckets];
+        this.size = new AtomicInteger(0);
         init();
     }
 
@@ -48,9 +52,9 @@ public class Histogram {
     /**
      * Reset the histogram back to empty (set all values to 0)
      */
-    public synchronized void reset() {
-        Arrays.fill(buckets, 0);
-        size = 0;
+    public void reset() {
+        for(int i = 0; i < nBuckets; i++)
+            size.addAndGet(-buckets.getAndSet(i, 0));
     }
 
     /**
@@ -59,14 +63,14 @@ public class Histogram {
      * 
      * @param data The value to insert into the histogram
      */
-    public synchronized void insert(long data) {
+    public void insert(long data) {
         int index = findBucket(data);
         if(index == -1) {
             logger.error(data + " can't be bucketed, is invalid!");
             return;
         }
-        buckets[index]++;
-        size++;
+        buckets.incrementAndGet(index);
+        size.incrementAndGet();
     }
 
     /**
@@ -76,11 +80,12 @@ public class Histogram {
      * @param quantile The percentile to find
      * @return Lower bound associated with the percentile
      */
-    public synchronized int getQuantile(double quantile) {
+    public int getQuantile(double quantile) {
         int total = 0;
+        double currentSize = size.get();
         for(int i = 0; i < nBuckets; i++) {
-            total += buckets[i];
-            double currQuantile = ((double) total) / ((double) size);
+            total += buckets.get(i);
+            double currQuantile = ((double) total) / currentSize;
             if(currQuantile >= quantile) {
                 return bounds[i];
             }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import voldemort.annotations.concurrency.Threadsafe;
+
+/**
+ * A lock-free histogram of non-negative values, bucketed in the style of
+ * HdrHistogram: values below {@link #SUB_BUCKETS} get a bucket each, and every
+ * power of two above that is split into {@link #SUB_BUCKETS} / 2 linear
+ * buckets. Quantiles are therefore exact for small values and within 1/32 of
+ * the true value otherwise, over the whole range up to the maximum value,
+ * while recording a value is a single atomic increment.
+ * <p/>
+ * Readers work on a {@link Snapshot}. Snapshots can be merged, and
+ * {@link #snapshotAndReset()} hands out consecutive intervals without losing
+ * values recorded concurrently.
+ */
+@Threadsafe
+public class LogLinearHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS >> 1;
+
+    private final long maxValue;
+    private final AtomicLongArray counts;
+
+    /**
+     * @param maxValue The largest value to tell apart, larger ones are
+     *        recorded as this value
+     */
+    public LogLinearHistogram(long maxValue) {
+        if(maxValue < 0)
+            throw new IllegalArgumentException("The maximum value cannot be negative.");
+        this.maxValue = maxValue;
+        this.counts = new AtomicLongArray(getBucket(maxValue) + 1);
+    }
+
+    /**
+     * Records a value. Negative values are ignored.
+     *
+     * @param value The value to record
+     */
+    public void insert(long value) {
+        if(value < 0)
+            return;
+        counts.incrementAndGet(getBucket(Math.min(value, maxValue)));
+    }
+
+    /**
+     * @return The values recorded so far
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[counts.length()];
+        for(int i = 0; i < copy.length; i++)
+            copy[i] = counts.get(i);
+        return new Snapshot(copy);
+    }
+
+    /**
+     * Empties the histogram. Every value is either part of the returned
+     * snapshot or stays recorded for the next one.
+     *
+     * @return The values recorded since the last reset
+     */
+    public Snapshot snapshotAndReset() {
+        long[] copy = new long[counts.length()];
+        for(int i = 0; i < copy.length; i++)
+            copy[i] = counts.getAndSet(i, 0);
+        return new Snapshot(copy);
+    }
+
+    static int getBucket(long value) {
+        if(value < SUB_BUCKETS)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long getLowestValue(int bucket) {
+        if(bucket < SUB_BUCKETS)
+            return bucket;
+        int shift = bucket / HALF_SUB_BUCKETS - 1;
+        return (long) (bucket - shift * HALF_SUB_BUCKETS) << shift;
+    }
+
+    static long getHighestValue(int bucket) {
+        return getLowestValue(bucket + 1) - 1;
+    }
+
+    /**
+     * An immutable copy of the counts of a histogram
+     */
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+            long total = 0;
+            for(long c: counts)
+                total += c;
+            this.count = total;
+        }
+
+        /**
+         * @return An empty snapshot
+         */
+        public static Snapshot empty() {
+            return new Snapshot(new long[0]);
+        }
+
+        /**
+         * @return The number of values in the snapshot
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Find the value below which the given fraction of values fall
+         *
+         * @param quantile The quantile to find, between 0 and 1
+         * @return The highest value of the bucket holding the quantile, or 0 if
+         *         the snapshot is empty
+         */
+        public long getQuantile(double quantile) {
+            if(count == 0)
+                return 0;
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for(int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if(seen >= rank)
+                    return getHighestValue(i);
+            }
+            return getHighestValue(counts.length - 1);
+        }
+
+        /**
+         * @param other The snapshot to add to this one
+         * @return A snapshot holding the values of both
+         */
+        public Snapshot merge(Snapshot other) {
+            long[] merged = new long[Math.max(counts.length, other.counts.length)];
+            for(int i = 0; i < counts.length; i++)
+                merged[i] += counts[i];
+            for(int i = 0; i < other.counts.length; i++)
+                merged[i] += other.counts[i];
+            return new Snapshot(merged);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package voldemort.store.stats;
 
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
 
 import voldemort.utils.SystemTime;
@@ -8,18 +9,42 @@ import voldemort.utils.Time;
 /**
  * A thread-safe request counter that calculates throughput for a specified
  * duration of time.
+ * <p/>
+ * Requests are added to one of several stripes picked by thread, each padded
+ * to its own cache lines, so that concurrent requests rarely touch the same
+ * memory and adding a request neither allocates nor loses any data. The
+ * stripes are only summed up when the counter is read.
  * 
  * 
  */
 public class RequestCounter {
 
+    private static final int NUM_STRIPES = getNumStripes();
+
+    /*
+     * Each stripe takes up 16 longs (two cache lines), of which the first
+     * hold the fields below
+     */
+    private static final int STRIPE_SIZE = 16;
+
+    private static final int COUNT = 0;
+    private static final int TOTAL_TIME_NS = 1;
+    private static final int NUM_EMPTY_RESPONSES = 2;
+    private static final int MAX_LATENCY_NS = 3;
+    private static final int TOTAL_BYTES = 4;
+    private static final int MAX_BYTES = 5;
+    private static final int GET_ALL_AGGREGATED_COUNT = 6;
+    private static final int GET_ALL_MAX_COUNT = 7;
+
+    /* Latencies are recorded in microseconds, up to an hour */
+    private static final long MAX_LATENCY_US = Time.MS_PER_HOUR * Time.US_PER_MS;
+
     private final AtomicReference<Accumulator> values;
+    private final AtomicLongArray totals;
     private final int durationMS;
     private final Time time;
-    private final Histogram histogram;
-    private volatile int q95LatencyMs;
-    private volatile int q99LatencyMs;
-    private boolean useHistogram;
+    private final LogLinearHistogram histogram;
+    private volatile LogLinearHistogram.Snapshot latencySnapshot;
 
     /**
      * @param durationMS specifies for how long you want to maintain this
@@ -48,29 +73,43 @@ public class RequestCounter {
     RequestCounter(int durationMS, Time time, boolean useHistogram) {
         this.time = time;
         this.values = new AtomicReference<Accumulator>(new Accumulator());
+        this.totals = new AtomicLongArray(NUM_STRIPES * STRIPE_SIZE);
         this.durationMS = durationMS;
-        this.q95LatencyMs = 0;
-        this.q99LatencyMs = 0;
-        this.useHistogram = useHistogram;
-        if(this.useHistogram)
-            this.histogram = new Histogram(10000, 1);
+        this.latencySnapshot = LogLinearHistogram.Snapshot.empty();
+        if(useHistogram)
+            this.histogram = new LogLinearHistogram(MAX_LATENCY_US);
         else
             this.histogram = null;
     }
 
+    private static int getNumStripes() {
+        int stripes = 1;
+        int wanted = Math.min(64, 2 * Runtime.getRuntime().availableProcessors());
+        while(stripes < wanted)
+            stripes <<= 1;
+        return stripes;
+    }
+
+    private static int getStripe() {
+        return ((int) Thread.currentThread().getId() & (NUM_STRIPES - 1)) * STRIPE_SIZE;
+    }
+
     public long getCount() {
-        return getValidAccumulator().count;
+        return getValidAccumulator().sum(COUNT);
     }
 
     public long getTotalCount() {
-        return getValidAccumulator().total;
+        long total = 0;
+        for(int stripe = 0; stripe < NUM_STRIPES; stripe++)
+            total += totals.get(stripe * STRIPE_SIZE);
+        return total;
     }
 
     public float getThroughput() {
         Accumulator oldv = getValidAccumulator();
         double elapsed = (time.getMilliseconds() - oldv.startTimeMS) / (double) Time.MS_PER_SECOND;
         if(elapsed > 0f) {
-            return (float) (oldv.count / elapsed);
+            return (float) (oldv.sum(COUNT) / elapsed);
         } else {
             return 0f;
         }
@@ -80,7 +119,7 @@ public class RequestCounter {
         Accumulator oldv = getValidAccumulator();
         double elapsed = (time.getMilliseconds() - oldv.startTimeMS) / (double) Time.MS_PER_SECOND;
         if(elapsed > 0f) {
-            return (float) (oldv.totalBytes / elapsed);
+            return (float) (oldv.sum(TOTAL_BYTES) / elapsed);
         } else {
             return 0f;
         }
@@ -103,20 +142,7 @@ public class RequestCounter {
     }
 
     public long getMaxLatencyInMs() {
-        return getValidAccumulator().maxLatencyNS / Time.NS_PER_MS;
-    }
-
-    private void maybeResetHistogram() {
-        if(!this.useHistogram)
-            return;
-        Accumulator accum = values.get();
-        long now = time.getMilliseconds();
-        if(now - accum.startTimeMS > durationMS) {
-            // Reset the histogram
-            q95LatencyMs = histogram.getQuantile(0.95);
-            q99LatencyMs = histogram.getQuantile(0.99);
-            histogram.reset();
-        }
+        return getValidAccumulator().max(MAX_LATENCY_NS) / Time.NS_PER_MS;
     }
 
     private Accumulator getValidAccumulator() {
@@ -133,23 +159,24 @@ public class RequestCounter {
 
         /*
          * try to set. if we fail, then someone else set it, so just return that
-         * new one
+         * new one. The winner also closes the latency histogram of the window.
          */
 
-        Accumulator newWithTotal = accum.newWithTotal();
+        Accumulator newAccum = new Accumulator();
 
-        if(values.compareAndSet(accum, newWithTotal)) {
-            return newWithTotal;
+        if(values.compareAndSet(accum, newAccum)) {
+            if(histogram != null)
+                latencySnapshot = histogram.snapshotAndReset();
+            return newAccum;
         }
 
         return values.get();
     }
 
     /*
-     * Updates the stats accumulator with another operation. We need to make
-     * sure that the request is only added to a non-expired pair. If so, start a
-     * new counter pair with recent time. We'll only try to do this 3 times - if
-     * other threads keep modifying while we're doing our own work, just bail.
+     * Updates the stats accumulator with another operation. A request that
+     * races with the start of a new window may end up in the window that just
+     * closed.
      * 
      * @param timeNS time of operation, in nanoseconds
      */
@@ -171,25 +198,31 @@ public class RequestCounter {
                            long numEmptyResponses,
                            long bytes,
                            long getAllAggregatedCount) {
-        long timeMs = timeNS / Time.NS_PER_MS;
-        if(this.useHistogram) {
-            histogram.insert(timeMs);
-            maybeResetHistogram();
+        int stripe = getStripe();
+        totals.incrementAndGet(stripe);
+
+        AtomicLongArray fields = getValidAccumulator().fields;
+        fields.incrementAndGet(stripe + COUNT);
+        fields.addAndGet(stripe + TOTAL_TIME_NS, timeNS);
+        if(numEmptyResponses != 0)
+            fields.addAndGet(stripe + NUM_EMPTY_RESPONSES, numEmptyResponses);
+        updateMax(fields, stripe + MAX_LATENCY_NS, timeNS);
+        if(bytes != 0) {
+            fields.addAndGet(stripe + TOTAL_BYTES, bytes);
+            updateMax(fields, stripe + MAX_BYTES, bytes);
         }
-        for(int i = 0; i < 3; i++) {
-            Accumulator oldv = getValidAccumulator();
-            Accumulator newv = new Accumulator(oldv.startTimeMS,
-                                               oldv.count + 1,
-                                               oldv.totalTimeNS + timeNS,
-                                               oldv.total + 1,
-                                               oldv.numEmptyResponses + numEmptyResponses,
-                                               Math.max(timeNS, oldv.maxLatencyNS),
-                                               oldv.totalBytes + bytes,
-                                               Math.max(oldv.maxBytes, bytes),
-                                               oldv.getAllAggregatedCount + getAllAggregatedCount,
-                                               getAllAggregatedCount > oldv.getAllMaxCount ? getAllAggregatedCount
-                                                                                          : oldv.getAllMaxCount);
-            if(values.compareAndSet(oldv, newv))
+        if(getAllAggregatedCount != 0) {
+            fields.addAndGet(stripe + GET_ALL_AGGREGATED_COUNT, getAllAggregatedCount);
+            updateMax(fields, stripe + GET_ALL_MAX_COUNT, getAllAggregatedCount);
+        }
+
+        if(histogram != null)
+            histogram.insert(timeNS / Time.NS_PER_US);
+    }
+
+    private static void updateMax(AtomicLongArray fields, int index, long value) {
+        for(long current = fields.get(index); value > current; current = fields.get(index)) {
+            if(fields.compareAndSet(index, current, value))
                 return;
         }
     }
@@ -199,7 +232,7 @@ public class RequestCounter {
      * the requested key. Tracked only for GET.
      */
     public long getNumEmptyResponses() {
-        return getValidAccumulator().numEmptyResponses;
+        return getValidAccumulator().sum(NUM_EMPTY_RESPONSES);
     }
 
     /**
@@ -207,7 +240,7 @@ public class RequestCounter {
      * Tracked only for GET, GET_ALL and PUT.
      */
     public long getMaxSizeInBytes() {
-        return getValidAccumulator().maxBytes;
+        return getValidAccumulator().max(MAX_BYTES);
     }
 
     /**
@@ -223,86 +256,78 @@ public class RequestCounter {
      * taking into account multiple values returned per call.
      */
     public long getGetAllAggregatedCount() {
-        return getValidAccumulator().getAllAggregatedCount;
+        return getValidAccumulator().sum(GET_ALL_AGGREGATED_COUNT);
     }
 
     /**
      * Return the maximum number of keys returned across all getAll calls.
      */
     public long getGetAllMaxCount() {
-        return getValidAccumulator().getAllMaxCount;
+        return getValidAccumulator().max(GET_ALL_MAX_COUNT);
+    }
+
+    /**
+     * Return the latencies in microseconds of the requests of the last
+     * complete window, empty if the counter was created without a histogram
+     * or no window has completed yet.
+     */
+    public LogLinearHistogram.Snapshot getLatencySnapshot() {
+        getValidAccumulator();
+        return latencySnapshot;
+    }
+
+    public int getQ50LatencyMs() {
+        return getQuantileLatencyMs(0.5);
     }
 
     public int getQ95LatencyMs() {
-        return q95LatencyMs;
+        return getQuantileLatencyMs(0.95);
     }
 
     public int getQ99LatencyMs() {
-        return q99LatencyMs;
+        return getQuantileLatencyMs(0.99);
+    }
+
+    public int getQ999LatencyMs() {
+        return getQuantileLatencyMs(0.999);
+    }
+
+    private int getQuantileLatencyMs(double quantile) {
+        return (int) (getLatencySnapshot().getQuantile(quantile) / Time.US_PER_MS);
     }
 
     private class Accumulator {
 
         final long startTimeMS;
-        final long count;
-        final long totalTimeNS;
-        final long total;
-        final long numEmptyResponses; // GET and GET_ALL: number of empty
-                                      // responses that have been returned
-        final long getAllAggregatedCount; // GET_ALL: a single call to GET_ALL
-                                          // can return multiple k-v pairs.
-                                          // Track total requested.
-        final long getAllMaxCount; // GET_ALL : track max number of keys
-                                   // requesed
-        final long maxLatencyNS;
-        final long maxBytes; // Maximum single value
-        final long totalBytes; // Sum of all the values
+        final AtomicLongArray fields;
 
         public Accumulator() {
-            this(RequestCounter.this.time.getMilliseconds(), 0, 0, 0, 0, 0, 0, 0, 0, 0);
+            this.startTimeMS = RequestCounter.this.time.getMilliseconds();
+            this.fields = new AtomicLongArray(NUM_STRIPES * STRIPE_SIZE);
         }
 
-        public Accumulator newWithTotal() {
-            return new Accumulator(RequestCounter.this.time.getMilliseconds(),
-                                   0,
-                                   0,
-                                   total,
-                                   0,
-                                   0,
-                                   0,
-                                   0,
-                                   0,
-                                   0);
+        public long sum(int field) {
+            long sum = 0;
+            for(int stripe = 0; stripe < NUM_STRIPES; stripe++)
+                sum += fields.get(stripe * STRIPE_SIZE + field);
+            return sum;
         }
 
-        public Accumulator(long startTimeMS,
-                           long count,
-                           long totalTimeNS,
-                           long total,
-                           long numEmptyResponses,
-                           long maxLatencyNS,
-                           long totalBytes,
-                           long maxBytes,
-                           long getAllAggregatedCount,
-                           long getAllMaxCount) {
-            this.startTimeMS = startTimeMS;
-            this.count = count;
-            this.totalTimeNS = totalTimeNS;
-            this.total = total;
-            this.numEmptyResponses = numEmptyResponses;
-            this.maxLatencyNS = maxLatencyNS;
-            this.totalBytes = totalBytes;
-            this.maxBytes = maxBytes;
-            this.getAllAggregatedCount = getAllAggregatedCount;
-            this.getAllMaxCount = getAllMaxCount;
+        public long max(int field) {
+            long max = 0;
+            for(int stripe = 0; stripe < NUM_STRIPES; stripe++)
+                max = Math.max(max, fields.get(stripe * STRIPE_SIZE + field));
+            return max;
         }
 
         public double getAverageTimeNS() {
-            return count > 0 ? 1f * totalTimeNS / count : 0f;
+            long count = sum(COUNT);
+            return count > 0 ? 1f * sum(TOTAL_TIME_NS) / count : 0f;
         }
 
         public double getAverageBytes() {
-            return count > 0 ? 1f * totalBytes / count : -0f;
+            long count = sum(COUNT);
+            return count > 0 ? 1f * sum(TOTAL_BYTES) / count : -0f;
         }
     }
 }
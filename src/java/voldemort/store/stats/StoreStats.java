@@ -111,6 +111,10 @@ public class StoreStats {
         return counters.get(op).getMaxLatencyInMs();
     }
 
+    public long getQ50LatencyInMs(Tracked op) {
+        return counters.get(op).getQ50LatencyMs();
+    }
+
     public long getQ95LatencyInMs(Tracked op) {
         return counters.get(op).getQ95LatencyMs();
     }
@@ -119,6 +123,10 @@ public class StoreStats {
         return counters.get(op).getQ99LatencyMs();
     }
 
+    public long getQ999LatencyInMs(Tracked op) {
+        return counters.get(op).getQ999LatencyMs();
+    }
+
     public Map<Tracked, RequestCounter> getCounters() {
         return Collections.unmodifiableMap(counters);
     }
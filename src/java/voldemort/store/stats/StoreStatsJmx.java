@@ -180,6 +180,26 @@ public class StoreStatsJmx {
         return stats.getMaxLatencyInMs(Tracked.DELETE);
     }
 
+    @JmxGetter(name = "q50PutLatencyInMs", description = "")
+    public long getQ50PutLatency() {
+        return stats.getQ50LatencyInMs(Tracked.PUT);
+    }
+
+    @JmxGetter(name = "q50GetLatencyInMs", description = "")
+    public long getQ50GetLatency() {
+        return stats.getQ50LatencyInMs(Tracked.GET);
+    }
+
+    @JmxGetter(name = "q50GetAllLatencyInMs", description = "")
+    public long getQ50GetAllLatency() {
+        return stats.getQ50LatencyInMs(Tracked.GET_ALL);
+    }
+
+    @JmxGetter(name = "q50DeleteLatencyInMs", description = "")
+    public long getQ50DeleteLatency() {
+        return stats.getQ50LatencyInMs(Tracked.DELETE);
+    }
+
     @JmxGetter(name = "q95PutLatencyInMs", description = "")
     public long getQ95PutLatency() {
         return stats.getQ95LatencyInMs(Tracked.PUT);
@@ -220,6 +240,26 @@ public class StoreStatsJmx {
         return stats.getQ99LatencyInMs(Tracked.DELETE);
     }
 
+    @JmxGetter(name = "q999PutLatencyInMs", description = "")
+    public long getQ999PutLatency() {
+        return stats.getQ999LatencyInMs(Tracked.PUT);
+    }
+
+    @JmxGetter(name = "q999GetLatencyInMs", description = "")
+    public long getQ999GetLatency() {
+        return stats.getQ999LatencyInMs(Tracked.GET);
+    }
+
+    @JmxGetter(name = "q999GetAllLatencyInMs", description = "")
+    public long getQ999GetAllLatency() {
+        return stats.getQ999LatencyInMs(Tracked.GET_ALL);
+    }
+
+    @JmxGetter(name = "q999DeleteLatencyInMs", description = "")
+    public long getQ999DeleteLatency() {
+        return stats.getQ999LatencyInMs(Tracked.DELETE);
+    }
+
     @JmxGetter(name = "maxPutSizeInBytes", description = "Maximum size of value returned in bytes by PUT.")
     public long getMaxPutSizeInBytes() {
         return stats.getMaxSizeInBytes(Tracked.PUT);
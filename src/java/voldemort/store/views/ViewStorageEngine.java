@@ -226,6 +226,10 @@ public class ViewStorageEngine implements StorageEngine<ByteArray, byte[], byte[
         }
     }
 
+    public int putAll(List<Pair<ByteArray, Versioned<byte[]>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return target.isPartitionAware();
     }
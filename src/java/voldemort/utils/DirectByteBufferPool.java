@@ -0,0 +1,150 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import voldemort.annotations.concurrency.Threadsafe;
+
+/**
+ * A pool of equally sized direct ByteBuffers, sliced out of larger slabs that
+ * are allocated on demand up to a fixed number of buffers.
+ * <p/>
+ * Once every buffer is in use, {@link #acquire()} hands out a plain heap
+ * buffer instead of blocking; such misses are counted so the pool can be sized
+ * appropriately. Heap buffers (and anything else not handed out by this pool)
+ * are silently dropped by {@link #release(ByteBuffer)}.
+ */
+@Threadsafe
+public class DirectByteBufferPool {
+
+    private static final int BUFFERS_PER_SLAB = 64;
+
+    private final int bufferSize;
+
+    private final int maxBuffers;
+
+    private final Queue<ByteBuffer> freeBuffers;
+
+    private final AtomicInteger numAllocated;
+
+    private final AtomicInteger numInUse;
+
+    private final AtomicLong numAcquires;
+
+    private final AtomicLong numMisses;
+
+    public DirectByteBufferPool(int bufferSize, int maxBuffers) {
+        if(bufferSize <= 0)
+            throw new IllegalArgumentException("Buffer size must be positive.");
+        if(maxBuffers <= 0)
+            throw new IllegalArgumentException("Maximum number of buffers must be positive.");
+
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.freeBuffers = new ConcurrentLinkedQueue<ByteBuffer>();
+        this.numAllocated = new AtomicInteger(0);
+        this.numInUse = new AtomicInteger(0);
+        this.numAcquires = new AtomicLong(0);
+        this.numMisses = new AtomicLong(0);
+    }
+
+    /**
+     * Returns a cleared buffer of {@link #getBufferSize()} bytes. The buffer
+     * must be handed back via {@link #release(ByteBuffer)} once the caller is
+     * done with it.
+     */
+    public ByteBuffer acquire() {
+        numAcquires.incrementAndGet();
+
+        ByteBuffer buffer = freeBuffers.poll();
+
+        if(buffer == null && allocateSlab())
+            buffer = freeBuffers.poll();
+
+        if(buffer == null) {
+            numMisses.incrementAndGet();
+            return ByteBuffer.allocate(bufferSize);
+        }
+
+        numInUse.incrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Hands a buffer obtained from {@link #acquire()} back to the pool.
+     */
+    public void release(ByteBuffer buffer) {
+        if(buffer == null || !buffer.isDirect() || buffer.capacity() != bufferSize)
+            return;
+
+        numInUse.decrementAndGet();
+        freeBuffers.add(buffer);
+    }
+
+    private synchronized boolean allocateSlab() {
+        // Someone may have released (or allocated) buffers while we were
+        // waiting for the lock
+        if(!freeBuffers.isEmpty())
+            return true;
+
+        int numBuffers = Math.min(BUFFERS_PER_SLAB, maxBuffers - numAllocated.get());
+
+        if(numBuffers <= 0)
+            return false;
+
+        ByteBuffer slab = ByteBuffer.allocateDirect(numBuffers * bufferSize);
+
+        for(int i = 0; i < numBuffers; i++) {
+            slab.limit((i + 1) * bufferSize);
+            slab.position(i * bufferSize);
+            freeBuffers.add(slab.slice());
+        }
+
+        numAllocated.addAndGet(numBuffers);
+        return true;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getMaxBuffers() {
+        return maxBuffers;
+    }
+
+    public int getNumAllocated() {
+        return numAllocated.get();
+    }
+
+    public int getNumInUse() {
+        return numInUse.get();
+    }
+
+    public long getNumAcquires() {
+        return numAcquires.get();
+    }
+
+    public long getNumMisses() {
+        return numMisses.get();
+    }
+}
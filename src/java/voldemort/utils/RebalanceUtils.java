@@ -604,9 +604,9 @@ public class RebalanceUtils {
                                                       Cluster cluster,
                                                       StoreDefinition storeDef) {
         List<Integer> nodePartitions = cluster.getNodeById(nodeId).getPartitionIds();
-        List<Integer> replicatingPartitions = new RoutingStrategyFactory().updateRoutingStrategy(storeDef,
-                                                                                                 cluster)
-                                                                          .getReplicatingPartitionList(partition);
+        RoutingStrategy strategy = new RoutingStrategyFactory().updateRoutingStrategy(storeDef,
+                                                                                      cluster);
+        List<Integer> replicatingPartitions = Lists.newArrayList(strategy.getReplicatingPartitionList(partition));
         // remove all partitions from the list, except those that belong to the
         // node
         replicatingPartitions.retainAll(nodePartitions);
@@ -1048,7 +1048,7 @@ public class RebalanceUtils {
             for(Integer primary: node.getPartitionIds()) {
 
                 // Gets the list of replicating partitions.
-                List<Integer> replicaPartitionList = routingStrategy.getReplicatingPartitionList(primary);
+                List<Integer> replicaPartitionList = Lists.newArrayList(routingStrategy.getReplicatingPartitionList(primary));
 
                 if(replicaPartitionList.size() != storeDef.getReplicationFactor())
                     throw new VoldemortException("Number of replicas returned ("
@@ -1154,7 +1154,9 @@ public class RebalanceUtils {
         AdminClientConfig config = new AdminClientConfig().setMaxConnectionsPerNode(numConnPerNode)
                                                           .setAdminConnectionTimeoutSec(voldemortConfig.getAdminConnectionTimeout())
                                                           .setAdminSocketTimeoutSec(voldemortConfig.getAdminSocketTimeout())
-                                                          .setAdminSocketBufferSize(voldemortConfig.getAdminSocketBufferSize());
+                                                          .setAdminSocketBufferSize(voldemortConfig.getAdminSocketBufferSize())
+                                                          .setStreamBlockEntries(voldemortConfig.getAdminStreamBlockEntries())
+                                                          .setStreamBlockCompression(voldemortConfig.getAdminStreamBlockCompression());
 
         return new AdminClient(cluster, config);
     }
@@ -63,12 +63,28 @@ public abstract class SelectorManagerWorker implements Runnable {
     public SelectorManagerWorker(Selector selector,
                                  SocketChannel socketChannel,
                                  int socketBufferSize) {
+        this(selector,
+             socketChannel,
+             socketBufferSize,
+             ByteBuffer.allocate(socketBufferSize),
+             ByteBuffer.allocate(socketBufferSize));
+    }
+
+    /**
+     * Allows subclasses that manage their own buffers to supply the initial
+     * input and output buffers.
+     */
+    protected SelectorManagerWorker(Selector selector,
+                                    SocketChannel socketChannel,
+                                    int socketBufferSize,
+                                    ByteBuffer inputBuffer,
+                                    ByteBuffer outputBuffer) {
         this.selector = selector;
         this.socketChannel = socketChannel;
         this.socketBufferSize = socketBufferSize;
         this.resizeThreshold = socketBufferSize * 2; // This is arbitrary...
-        this.inputStream = new ByteBufferBackedInputStream(ByteBuffer.allocate(socketBufferSize));
-        this.outputStream = new ByteBufferBackedOutputStream(ByteBuffer.allocate(socketBufferSize));
+        this.inputStream = new ByteBufferBackedInputStream(inputBuffer);
+        this.outputStream = new ByteBufferBackedOutputStream(outputBuffer);
         this.createTimestamp = System.nanoTime();
         this.isClosed = new AtomicBoolean(false);
 
@@ -178,10 +194,7 @@ public abstract class SelectorManagerWorker implements Runnable {
         if(logger.isTraceEnabled())
             traceInputBufferState("About to clear read buffer");
 
-        if(inputStream.getBuffer().capacity() >= resizeThreshold)
-            inputStream.setBuffer(ByteBuffer.allocate(socketBufferSize));
-        else
-            inputStream.getBuffer().clear();
+        resetInputBuffer();
 
         if(logger.isTraceEnabled())
             traceInputBufferState("Cleared read buffer");
@@ -190,6 +203,28 @@ public abstract class SelectorManagerWorker implements Runnable {
         selectionKey.interestOps(SelectionKey.OP_WRITE);
     }
 
+    /**
+     * Clears the input buffer for the next request, shrinking it back down to
+     * the socket buffer size if it had grown past the resize threshold.
+     */
+    protected void resetInputBuffer() {
+        if(inputStream.getBuffer().capacity() >= resizeThreshold)
+            inputStream.setBuffer(ByteBuffer.allocate(socketBufferSize));
+        else
+            inputStream.getBuffer().clear();
+    }
+
+    /**
+     * Clears the output buffer for the next request, shrinking it back down to
+     * the socket buffer size if it had grown past the resize threshold.
+     */
+    protected void resetOutputBuffer() {
+        if(outputStream.getBuffer().capacity() >= resizeThreshold)
+            outputStream.setBuffer(ByteBuffer.allocate(socketBufferSize));
+        else
+            outputStream.getBuffer().clear();
+    }
+
     protected void handleIncompleteRequest(int newPosition) {
         if(logger.isTraceEnabled())
             traceInputBufferState("Incomplete read request detected, before update");
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.versioning;
+
+/**
+ * A clock for a put whose version should be resolved by the master node
+ * instead of the client. The routed put sends it to the master as the clock to
+ * start from, and records the clock the master actually wrote so that it can
+ * be handed back to the caller.
+ *
+ * @see voldemort.store.AutoVersioningStore
+ */
+public class AutoVersionedClock extends VectorClock {
+
+    private static final long serialVersionUID = 1;
+
+    private volatile VectorClock assigned;
+
+    public AutoVersionedClock() {
+        super();
+    }
+
+    public AutoVersionedClock(VectorClock base) {
+        super(base.getEntries(), base.getTimestamp());
+    }
+
+    /**
+     * @return The clock the value was written with, or null if the put has not
+     *         completed
+     */
+    public VectorClock getAssigned() {
+        return assigned;
+    }
+
+    public void setAssigned(VectorClock assigned) {
+        this.assigned = assigned;
+    }
+
+}
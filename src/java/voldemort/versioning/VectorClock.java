@@ -16,21 +16,31 @@
 
 package voldemort.versioning;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import voldemort.annotations.concurrency.NotThreadsafe;
 import voldemort.utils.ByteUtils;
 
-import com.google.common.collect.Lists;
-
 /**
  * A vector of the number of writes mastered by each node. The vector is stored
  * sparely, since, in general, writes will be mastered by only one node. This
  * means implicitly all the versions are at zero, but we only actually store
  * those greater than zero.
- * 
+ * <p/>
+ * The node ids and versions are kept in two arrays rather than as a list of
+ * {@link ClockEntry}, and a clock can be compared with the serialized bytes of
+ * another without reading them into a clock, see
+ * {@link #compare(VectorClock, byte[], int)}.
  * 
  */
 @NotThreadsafe
@@ -40,8 +50,29 @@ public class VectorClock implements Version, Serializable {
 
     private static final int MAX_NUMBER_OF_VERSIONS = Short.MAX_VALUE;
 
-    /* A sorted list of live versions ordered from least to greatest */
-    private final List<ClockEntry> versions;
+    private static final short[] NO_NODES = new short[0];
+    private static final long[] NO_VERSIONS = new long[0];
+
+    private static final Comparator<ClockEntry> NODE_ID_ORDER = new Comparator<ClockEntry>() {
+
+        public int compare(ClockEntry e1, ClockEntry e2) {
+            return e1.getNodeId() - e2.getNodeId();
+        }
+    };
+
+    /*
+     * Clocks are serialized with the fields they had when they kept a list of
+     * entries, so that clocks serialized before can still be read
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("versions", List.class),
+            new ObjectStreamField("timestamp", Long.TYPE) };
+
+    /* The ids of the nodes with live versions, from least to greatest */
+    private transient short[] nodeIds;
+
+    /* The version of each node in nodeIds */
+    private transient long[] versions;
 
     /*
      * The time of the last update on the server on which the update was
@@ -53,20 +84,28 @@ public class VectorClock implements Version, Serializable {
      * Construct an empty VectorClock
      */
     public VectorClock() {
-        this(new ArrayList<ClockEntry>(0), System.currentTimeMillis());
+        this(System.currentTimeMillis());
     }
 
     public VectorClock(long timestamp) {
-        this(new ArrayList<ClockEntry>(0), timestamp);
+        this(NO_NODES, NO_VERSIONS, timestamp);
     }
 
     /**
      * Create a VectorClock with the given version and timestamp
      * 
-     * @param versions The version to prepopulate
+     * @param versions The version to prepopulate, in any order of node ids
      * @param timestamp The timestamp to prepopulate
+     * @throws IllegalArgumentException If a node id is out of range or appears
+     *         more than once
      */
     public VectorClock(List<ClockEntry> versions, long timestamp) {
+        setEntries(versions);
+        this.timestamp = timestamp;
+    }
+
+    private VectorClock(short[] nodeIds, long[] versions, long timestamp) {
+        this.nodeIds = nodeIds;
         this.versions = versions;
         this.timestamp = timestamp;
     }
@@ -90,6 +129,27 @@ public class VectorClock implements Version, Serializable {
      * @param offset The offset to start reading from
      */
     public VectorClock(byte[] bytes, int offset) {
+        int numEntries = checkSerialized(bytes, offset);
+        int versionSize = bytes[offset + 2];
+        int entrySize = ByteUtils.SIZE_OF_SHORT + versionSize;
+
+        this.nodeIds = new short[numEntries];
+        this.versions = new long[numEntries];
+        int index = 3 + offset;
+        for(int i = 0; i < numEntries; i++) {
+            nodeIds[i] = ByteUtils.readShort(bytes, index);
+            versions[i] = ByteUtils.readBytes(bytes, index + ByteUtils.SIZE_OF_SHORT, versionSize);
+            index += entrySize;
+        }
+        this.timestamp = ByteUtils.readLong(bytes, index);
+    }
+
+    /**
+     * Check that the bytes hold a whole serialized clock
+     * 
+     * @return The number of entries of the clock
+     */
+    private static int checkSerialized(byte[] bytes, int offset) {
         if(bytes == null || bytes.length <= offset)
             throw new IllegalArgumentException("Invalid byte array for serialization--no bytes to read.");
         int numEntries = ByteUtils.readShort(bytes, offset);
@@ -100,16 +160,20 @@ public class VectorClock implements Version, Serializable {
         if(bytes.length < minimumBytes)
             throw new IllegalArgumentException("Too few bytes: expected at least " + minimumBytes
                                                + " but found only " + bytes.length + ".");
+        return numEntries;
+    }
 
-        this.versions = new ArrayList<ClockEntry>(numEntries);
-        int index = 3 + offset;
-        for(int i = 0; i < numEntries; i++) {
-            short nodeId = ByteUtils.readShort(bytes, index);
-            long version = ByteUtils.readBytes(bytes, index + ByteUtils.SIZE_OF_SHORT, versionSize);
-            this.versions.add(new ClockEntry(nodeId, version));
-            index += entrySize;
-        }
-        this.timestamp = ByteUtils.readLong(bytes, index);
+    /**
+     * Get the size of a serialized clock without reading it
+     * 
+     * @param bytes The bytes to read from
+     * @param offset The offset the clock starts at
+     * @return The number of bytes the clock takes
+     */
+    public static int sizeInBytes(byte[] bytes, int offset) {
+        int numEntries = checkSerialized(bytes, offset);
+        return ByteUtils.SIZE_OF_SHORT + 1 + numEntries
+               * (ByteUtils.SIZE_OF_SHORT + bytes[offset + 2]) + ByteUtils.SIZE_OF_LONG;
     }
 
     public byte[] toBytes() {
@@ -120,7 +184,7 @@ public class VectorClock implements Version, Serializable {
 
     public int toBytes(byte[] buf, int offset) {
         // write the number of versions
-        ByteUtils.writeShort(buf, (short) versions.size(), offset);
+        ByteUtils.writeShort(buf, (short) nodeIds.length, offset);
         offset += ByteUtils.SIZE_OF_SHORT;
         // write the size of each version in bytes
         byte versionSize = ByteUtils.numberOfBytesRequired(getMaxVersion());
@@ -128,9 +192,9 @@ public class VectorClock implements Version, Serializable {
         offset++;
 
         int clockEntrySize = ByteUtils.SIZE_OF_SHORT + versionSize;
-        for(ClockEntry v: versions) {
-            ByteUtils.writeShort(buf, v.getNodeId(), offset);
-            ByteUtils.writeBytes(buf, v.getVersion(), offset + ByteUtils.SIZE_OF_SHORT, versionSize);
+        for(int i = 0; i < nodeIds.length; i++) {
+            ByteUtils.writeShort(buf, nodeIds[i], offset);
+            ByteUtils.writeBytes(buf, versions[i], offset + ByteUtils.SIZE_OF_SHORT, versionSize);
             offset += clockEntrySize;
         }
         ByteUtils.writeLong(buf, this.timestamp, offset);
@@ -139,7 +203,7 @@ public class VectorClock implements Version, Serializable {
 
     public int sizeInBytes() {
         byte versionSize = ByteUtils.numberOfBytesRequired(getMaxVersion());
-        return ByteUtils.SIZE_OF_SHORT + 1 + this.versions.size()
+        return ByteUtils.SIZE_OF_SHORT + 1 + this.nodeIds.length
                * (ByteUtils.SIZE_OF_SHORT + versionSize) + ByteUtils.SIZE_OF_LONG;
     }
 
@@ -155,30 +219,25 @@ public class VectorClock implements Version, Serializable {
 
         this.timestamp = time;
 
-        // stop on the index greater or equal to the node
-        boolean found = false;
-        int index = 0;
-        for(; index < versions.size(); index++) {
-            if(versions.get(index).getNodeId() == node) {
-                found = true;
-                break;
-            } else if(versions.get(index).getNodeId() > node) {
-                found = false;
-                break;
-            }
-        }
-
-        if(found) {
-            versions.set(index, versions.get(index).incremented());
-        } else if(index < versions.size() - 1) {
-            versions.add(index, new ClockEntry((short) node, 1));
+        int index = Arrays.binarySearch(nodeIds, (short) node);
+        if(index >= 0) {
+            versions[index]++;
         } else {
             // we don't already have a version for this, so add it
-            if(versions.size() > MAX_NUMBER_OF_VERSIONS)
+            if(nodeIds.length >= MAX_NUMBER_OF_VERSIONS)
                 throw new IllegalStateException("Vector clock is full!");
-            versions.add(index, new ClockEntry((short) node, 1));
+            index = -(index + 1);
+            short[] newNodeIds = new short[nodeIds.length + 1];
+            long[] newVersions = new long[versions.length + 1];
+            System.arraycopy(nodeIds, 0, newNodeIds, 0, index);
+            System.arraycopy(versions, 0, newVersions, 0, index);
+            newNodeIds[index] = (short) node;
+            newVersions[index] = 1;
+            System.arraycopy(nodeIds, index, newNodeIds, index + 1, nodeIds.length - index);
+            System.arraycopy(versions, index, newVersions, index + 1, versions.length - index);
+            nodeIds = newNodeIds;
+            versions = newVersions;
         }
-
     }
 
     /**
@@ -196,7 +255,7 @@ public class VectorClock implements Version, Serializable {
 
     @Override
     public VectorClock clone() {
-        return new VectorClock(Lists.newArrayList(versions), this.timestamp);
+        return new VectorClock(nodeIds.clone(), versions.clone(), this.timestamp);
     }
 
     @Override
@@ -208,24 +267,28 @@ public class VectorClock implements Version, Serializable {
         if(!object.getClass().equals(VectorClock.class))
             return false;
         VectorClock clock = (VectorClock) object;
-        return versions.equals(clock.versions);
+        return Arrays.equals(nodeIds, clock.nodeIds) && Arrays.equals(versions, clock.versions);
     }
 
+    /*
+     * The same hash as the list of entries clocks used to keep
+     */
     @Override
     public int hashCode() {
-        return versions.hashCode();
+        int hash = 1;
+        for(int i = 0; i < nodeIds.length; i++)
+            hash = 31 * hash + (nodeIds[i] + (((int) versions[i]) << 16));
+        return hash;
     }
 
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append("version(");
-        if(this.versions.size() > 0) {
-            for(int i = 0; i < this.versions.size() - 1; i++) {
-                builder.append(this.versions.get(i));
+        for(int i = 0; i < nodeIds.length; i++) {
+            if(i > 0)
                 builder.append(", ");
-            }
-            builder.append(this.versions.get(this.versions.size() - 1));
+            builder.append(nodeIds[i]).append(':').append(versions[i]);
         }
         builder.append(")");
         builder.append(" ts:" + timestamp);
@@ -234,39 +297,43 @@ public class VectorClock implements Version, Serializable {
 
     public long getMaxVersion() {
         long max = -1;
-        for(ClockEntry entry: versions)
-            max = Math.max(entry.getVersion(), max);
+        for(long version: versions)
+            max = Math.max(version, max);
         return max;
     }
 
     public VectorClock merge(VectorClock clock) {
-        VectorClock newClock = new VectorClock();
+        short[] mergedNodeIds = new short[this.nodeIds.length + clock.nodeIds.length];
+        long[] mergedVersions = new long[mergedNodeIds.length];
         int i = 0;
         int j = 0;
-        while(i < this.versions.size() && j < clock.versions.size()) {
-            ClockEntry v1 = this.versions.get(i);
-            ClockEntry v2 = clock.versions.get(j);
-            if(v1.getNodeId() == v2.getNodeId()) {
-                newClock.versions.add(new ClockEntry(v1.getNodeId(), Math.max(v1.getVersion(),
-                                                                              v2.getVersion())));
-                i++;
-                j++;
-            } else if(v1.getNodeId() < v2.getNodeId()) {
-                newClock.versions.add(v1.clone());
-                i++;
+        int k = 0;
+        while(i < this.nodeIds.length && j < clock.nodeIds.length) {
+            if(this.nodeIds[i] == clock.nodeIds[j]) {
+                mergedNodeIds[k] = this.nodeIds[i];
+                mergedVersions[k++] = Math.max(this.versions[i++], clock.versions[j++]);
+            } else if(this.nodeIds[i] < clock.nodeIds[j]) {
+                mergedNodeIds[k] = this.nodeIds[i];
+                mergedVersions[k++] = this.versions[i++];
             } else {
-                newClock.versions.add(v2.clone());
-                j++;
+                mergedNodeIds[k] = clock.nodeIds[j];
+                mergedVersions[k++] = clock.versions[j++];
             }
         }
 
         // Okay now there may be leftovers on one or the other list remaining
-        for(int k = i; k < this.versions.size(); k++)
-            newClock.versions.add(this.versions.get(k).clone());
-        for(int k = j; k < clock.versions.size(); k++)
-            newClock.versions.add(clock.versions.get(k).clone());
+        for(; i < this.nodeIds.length; i++, k++) {
+            mergedNodeIds[k] = this.nodeIds[i];
+            mergedVersions[k] = this.versions[i];
+        }
+        for(; j < clock.nodeIds.length; j++, k++) {
+            mergedNodeIds[k] = clock.nodeIds[j];
+            mergedVersions[k] = clock.versions[j];
+        }
 
-        return newClock;
+        return new VectorClock(Arrays.copyOf(mergedNodeIds, k),
+                               Arrays.copyOf(mergedVersions, k),
+                               System.currentTimeMillis());
     }
 
     public Occurred compare(Version v) {
@@ -296,17 +363,15 @@ public class VectorClock implements Version, Serializable {
         int p1 = 0;
         int p2 = 0;
 
-        while(p1 < v1.versions.size() && p2 < v2.versions.size()) {
-            ClockEntry ver1 = v1.versions.get(p1);
-            ClockEntry ver2 = v2.versions.get(p2);
-            if(ver1.getNodeId() == ver2.getNodeId()) {
-                if(ver1.getVersion() > ver2.getVersion())
+        while(p1 < v1.nodeIds.length && p2 < v2.nodeIds.length) {
+            if(v1.nodeIds[p1] == v2.nodeIds[p2]) {
+                if(v1.versions[p1] > v2.versions[p2])
                     v1Bigger = true;
-                else if(ver2.getVersion() > ver1.getVersion())
+                else if(v2.versions[p2] > v1.versions[p1])
                     v2Bigger = true;
                 p1++;
                 p2++;
-            } else if(ver1.getNodeId() > ver2.getNodeId()) {
+            } else if(v1.nodeIds[p1] > v2.nodeIds[p2]) {
                 // since ver1 is bigger that means it is missing a version that
                 // ver2 has
                 v2Bigger = true;
@@ -320,11 +385,67 @@ public class VectorClock implements Version, Serializable {
         }
 
         /* Okay, now check for left overs */
-        if(p1 < v1.versions.size())
+        if(p1 < v1.nodeIds.length)
             v1Bigger = true;
-        else if(p2 < v2.versions.size())
+        else if(p2 < v2.nodeIds.length)
             v2Bigger = true;
 
+        return occurred(v1Bigger, v2Bigger);
+    }
+
+    /**
+     * Compare a clock with a serialized one, as
+     * {@link #compare(VectorClock, VectorClock)} would compare it with the
+     * clock read from the bytes, but without reading them into a clock
+     * 
+     * @param v1 The first VectorClock
+     * @param bytes The bytes of the second VectorClock
+     * @param offset The offset the second VectorClock starts at
+     */
+    public static Occurred compare(VectorClock v1, byte[] bytes, int offset) {
+        if(v1 == null)
+            throw new IllegalArgumentException("Can't compare null vector clocks!");
+        int numEntries = checkSerialized(bytes, offset);
+        int versionSize = bytes[offset + 2];
+        int entrySize = ByteUtils.SIZE_OF_SHORT + versionSize;
+        boolean v1Bigger = false;
+        boolean v2Bigger = false;
+        int p1 = 0;
+        int p2 = 0;
+        int index = offset + 3;
+
+        while(p1 < v1.nodeIds.length && p2 < numEntries) {
+            short nodeId = ByteUtils.readShort(bytes, index);
+            if(v1.nodeIds[p1] == nodeId) {
+                long version = ByteUtils.readBytes(bytes,
+                                                   index + ByteUtils.SIZE_OF_SHORT,
+                                                   versionSize);
+                if(v1.versions[p1] > version)
+                    v1Bigger = true;
+                else if(version > v1.versions[p1])
+                    v2Bigger = true;
+                p1++;
+                p2++;
+                index += entrySize;
+            } else if(v1.nodeIds[p1] > nodeId) {
+                v2Bigger = true;
+                p2++;
+                index += entrySize;
+            } else {
+                v1Bigger = true;
+                p1++;
+            }
+        }
+
+        if(p1 < v1.nodeIds.length)
+            v1Bigger = true;
+        else if(p2 < numEntries)
+            v2Bigger = true;
+
+        return occurred(v1Bigger, v2Bigger);
+    }
+
+    private static Occurred occurred(boolean v1Bigger, boolean v2Bigger) {
         /* This is the case where they are equal, return BEFORE arbitrarily */
         if(!v1Bigger && !v2Bigger)
             return Occurred.BEFORE;
@@ -343,8 +464,68 @@ public class VectorClock implements Version, Serializable {
         return this.timestamp;
     }
 
+    /**
+     * @return A new list of the entries of this clock, changing it does not
+     *         change the clock
+     */
     public List<ClockEntry> getEntries() {
-        return this.versions;
+        List<ClockEntry> entries = new ArrayList<ClockEntry>(nodeIds.length);
+        for(int i = 0; i < nodeIds.length; i++)
+            entries.add(new ClockEntry(nodeIds[i], versions[i]));
+        return entries;
+    }
+
+    /*
+     * Takes the entries in order of node id, as incrementVersion and the
+     * comparisons expect them
+     */
+    private void setEntries(List<ClockEntry> entries) {
+        if(entries.size() > MAX_NUMBER_OF_VERSIONS)
+            throw new IllegalArgumentException("Too many versions: " + entries.size());
+
+        List<ClockEntry> sorted = new ArrayList<ClockEntry>(entries);
+        Collections.sort(sorted, NODE_ID_ORDER);
+
+        short[] newNodeIds = new short[sorted.size()];
+        long[] newVersions = new long[sorted.size()];
+        for(int i = 0; i < newNodeIds.length; i++) {
+            ClockEntry entry = sorted.get(i);
+            if(entry.getNodeId() < 0)
+                throw new IllegalArgumentException(entry.getNodeId()
+                                                   + " is outside the acceptable range of node ids.");
+            if(entry.getVersion() < 1)
+                throw new IllegalArgumentException("Version " + entry.getVersion()
+                                                   + " of node " + entry.getNodeId()
+                                                   + " is not positive.");
+            if(i > 0 && newNodeIds[i - 1] == entry.getNodeId())
+                throw new IllegalArgumentException("More than one version for node "
+                                                   + entry.getNodeId() + ".");
+            newNodeIds[i] = entry.getNodeId();
+            newVersions[i] = entry.getVersion();
+        }
+        this.nodeIds = newNodeIds;
+        this.versions = newVersions;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("versions", getEntries());
+        fields.put("timestamp", timestamp);
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        List<ClockEntry> entries = (List<ClockEntry>) fields.get("versions", null);
+        if(entries == null)
+            throw new InvalidObjectException("Clock has no versions");
+        try {
+            setEntries(entries);
+        } catch(IllegalArgumentException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+        this.timestamp = fields.get("timestamp", 0L);
     }
 
 }
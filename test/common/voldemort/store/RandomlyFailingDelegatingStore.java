@@ -1,5 +1,7 @@
 package voldemort.store;
 
+import java.util.List;
+
 import voldemort.VoldemortException;
 import voldemort.utils.ClosableIterator;
 import voldemort.utils.Pair;
@@ -120,6 +122,13 @@ public class RandomlyFailingDelegatingStore<K, V, T> extends DelegatingStore<K,
         throw new VoldemortException("Failing now !!");
     }
 
+    public int putAll(List<Pair<K, Versioned<V>>> entries) {
+        if(Math.random() > FAIL_PROBABILITY)
+            return innerStorageEngine.putAll(entries);
+
+        throw new VoldemortException("Failing now !!");
+    }
+
     public boolean isPartitionAware() {
         return innerStorageEngine.isPartitionAware();
     }
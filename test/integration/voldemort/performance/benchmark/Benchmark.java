@@ -17,12 +17,16 @@
 package voldemort.performance.benchmark;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.io.StringReader;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Vector;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -82,6 +86,7 @@ public class Benchmark {
     public static final String URL = "url";
     public static final String PERCENT_CACHED = "percent-cached";
     public static final String VALUE_SIZE = "value-size";
+    public static final String VALUE_SIZE_DISTRIBUTION = "value-size-distribution";
     public static final String IGNORE_NULLS = "ignore-nulls";
     public static final String REQUEST_FILE = "request-file";
     public static final String START_KEY_INDEX = "start-key-index";
@@ -90,6 +95,8 @@ public class Benchmark {
     public static final String WRITES = "w";
     public static final String DELETES = "d";
     public static final String MIXED = "m";
+    public static final String GETALLS = "ga";
+    public static final String GETALL_BATCH_SIZE = "getall-batch-size";
 
     public static final String RECORD_SELECTION = "record-selection";
     public static final String ZIPFIAN_RECORD_SELECTION = "zipfian";
@@ -98,6 +105,7 @@ public class Benchmark {
     public static final String UNIFORM_RECORD_SELECTION = "uniform";
 
     public static final String TARGET_THROUGHPUT = "target-throughput";
+    public static final String OPEN_LOOP = "open-loop";
     public static final String HELP = "help";
     public static final String STORE_NAME = "store-name";
     public static final String RECORD_COUNT = "record-count";
@@ -107,6 +115,8 @@ public class Benchmark {
     public static final String METRIC_TYPE = "metric-type";
     public static final String HISTOGRAM_METRIC_TYPE = "histogram";
     public static final String SUMMARY_METRIC_TYPE = "summary";
+    public static final String HISTOGRAM_FILE = "histogram-file";
+    public static final String MERGE_HISTOGRAMS = "merge-histograms";
 
     public static final String VERBOSE = "v";
     public static final String VERIFY = "verify";
@@ -125,6 +135,8 @@ public class Benchmark {
     private double perThreadThroughputPerMs;
     private Workload workLoad;
     private String pluginName;
+    private String histogramFile;
+    private boolean openLoop = false;
     private boolean storeInitialized = false;
     private boolean warmUpCompleted = false;
     private boolean verbose = false;
@@ -181,7 +193,8 @@ public class Benchmark {
         private Workload clientWorkLoad;
         private int operationsCount;
         private double targetThroughputPerMs;
-        private int opsDone;
+        private boolean openLoop;
+        private volatile int opsDone;
         private final WorkloadPlugin plugin;
 
         public ClientThread(VoldemortWrapper db,
@@ -189,6 +202,7 @@ public class Benchmark {
                             Workload workLoad,
                             int operationsCount,
                             double targetThroughputPerMs,
+                            boolean openLoop,
                             boolean isVerbose,
                             WorkloadPlugin plugin) {
             this.db = db;
@@ -197,6 +211,7 @@ public class Benchmark {
             this.operationsCount = operationsCount;
             this.opsDone = 0;
             this.targetThroughputPerMs = targetThroughputPerMs;
+            this.openLoop = openLoop;
             this.isVerbose = isVerbose;
             this.plugin = plugin;
         }
@@ -207,6 +222,11 @@ public class Benchmark {
 
         @Override
         public void run() {
+            if(openLoop) {
+                runOpenLoop();
+                return;
+            }
+
             long startTime = System.currentTimeMillis();
             while(opsDone < this.operationsCount) {
                 try {
@@ -235,6 +255,36 @@ public class Benchmark {
                 }
             }
         }
+
+        /**
+         * Issues operations on a fixed schedule of intended start times
+         * rather than after the previous one completes. When an operation
+         * takes longer than the interval, the ones behind it are issued late
+         * but keep their intended start times, so their latencies include the
+         * time they spent waiting instead of the stall going unrecorded.
+         */
+        private void runOpenLoop() {
+            double intervalNs = Time.NS_PER_MS / targetThroughputPerMs;
+            long startNs = System.nanoTime();
+            while(opsDone < this.operationsCount) {
+                long intendedStartNs = startNs + (long) (opsDone * intervalNs);
+                long waitNs;
+                while((waitNs = intendedStartNs - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(waitNs);
+                }
+
+                db.setIntendedStartNs(intendedStartNs);
+                try {
+                    if(!clientWorkLoad.doTransaction(this.db, plugin)) {
+                        break;
+                    }
+                } catch(Exception e) {
+                    if(this.isVerbose)
+                        e.printStackTrace();
+                }
+                opsDone++;
+            }
+        }
     }
 
     private StoreDefinition getStoreDefinition(AbstractStoreClientFactory factory, String storeName) {
@@ -297,6 +347,14 @@ public class Benchmark {
             double targetPerThread = ((double) targetThroughput) / ((double) numThreads);
             this.perThreadThroughputPerMs = targetPerThread / 1000.0;
         }
+        this.openLoop = workloadProps.getBoolean(OPEN_LOOP, false);
+        if(openLoop && targetThroughput <= 0) {
+            throw new VoldemortException(OPEN_LOOP + " requires " + TARGET_THROUGHPUT);
+        }
+        this.histogramFile = workloadProps.getString(HISTOGRAM_FILE, null);
+        if(histogramFile != null && histogramFile.length() == 0) {
+            histogramFile = null;
+        }
 
         if(workloadProps.containsKey(OPS_COUNT)) {
             this.opsCount = workloadProps.getInt(OPS_COUNT);
@@ -416,11 +474,27 @@ public class Benchmark {
             System.out.println("======================= iteration = " + index
                                + " ======================================");
             runTests(true);
+            if(this.histogramFile != null) {
+                writeHistograms(index > 0);
+            }
             Metrics.getInstance().reset();
         }
 
     }
 
+    /**
+     * Writes the histograms of the last iteration to the histogram file,
+     * after those of the previous iterations, which it merges them with
+     */
+    private void writeHistograms(boolean append) throws IOException {
+        PrintStream out = new PrintStream(new FileOutputStream(this.histogramFile, append));
+        try {
+            Metrics.getInstance().writeHistograms(out);
+        } finally {
+            out.close();
+        }
+    }
+
     @SuppressWarnings("cast")
     public long runTests(boolean runBenchmark) throws Exception {
 
@@ -459,6 +533,7 @@ public class Benchmark {
                                          this.workLoad,
                                          localOpsCounts / this.numThreads,
                                          this.perThreadThroughputPerMs,
+                                         this.openLoop && runBenchmark,
                                          this.verbose,
                                          plugin));
         }
@@ -524,6 +599,16 @@ public class Benchmark {
               .withRequiredArg()
               .describedAs("update-percent")
               .ofType(Integer.class);
+        parser.accepts(GETALLS,
+                       "percentage of --ops-count to be getAll requests of --"
+                               + GETALL_BATCH_SIZE + " keys; valid values [0-100]")
+              .withRequiredArg()
+              .describedAs("getall-percent")
+              .ofType(Integer.class);
+        parser.accepts(GETALL_BATCH_SIZE, "number of keys in a getAll request; Default = 10")
+              .withRequiredArg()
+              .describedAs("num-keys")
+              .ofType(Integer.class);
         parser.accepts(SAMPLE_SIZE,
                        "number of value samples to be obtained from the store for replay based on keys from request-file; 0 means no sample value replay. Default = 0")
               .withRequiredArg()
@@ -581,6 +666,11 @@ public class Benchmark {
               .withRequiredArg()
               .describedAs("bytes")
               .ofType(Integer.class);
+        parser.accepts(VALUE_SIZE_DISTRIBUTION,
+                       "sizes in bytes of random values and their relative weights, e.g. 100:80,1024:15,65536:5; overrides "
+                               + VALUE_SIZE + " and disables read verification")
+              .withRequiredArg()
+              .describedAs("size:weight,...");
         parser.accepts(RECORD_SELECTION,
                        "record selection distribution [ " + ZIPFIAN_RECORD_SELECTION + " | "
                                + LATEST_RECORD_SELECTION + " | " + UNIFORM_RECORD_SELECTION
@@ -589,6 +679,10 @@ public class Benchmark {
               .withRequiredArg()
               .describedAs("ops/sec")
               .ofType(Integer.class);
+        parser.accepts(OPEN_LOOP,
+                       "issue benchmark operations at fixed intervals given by --"
+                               + TARGET_THROUGHPUT
+                               + " and measure latency from the time each was due, including the time spent queued behind slow operations");
         parser.accepts(RECORD_COUNT, "number of records inserted during warmup phase")
               .withRequiredArg()
               .describedAs("count")
@@ -604,6 +698,17 @@ public class Benchmark {
         parser.accepts(METRIC_TYPE,
                        "type of result metric [ " + HISTOGRAM_METRIC_TYPE + " | "
                                + SUMMARY_METRIC_TYPE + " <default> ]").withRequiredArg();
+        parser.accepts(HISTOGRAM_FILE,
+                       "file to write the latency histograms of all benchmark iterations to; files of several runs can be combined with --"
+                               + MERGE_HISTOGRAMS)
+              .withRequiredArg()
+              .describedAs("file");
+        parser.accepts(MERGE_HISTOGRAMS,
+                       "print the report of the merged histograms in the given files, written with --"
+                               + HISTOGRAM_FILE + ", instead of running a benchmark")
+              .withRequiredArg()
+              .describedAs("file1,file2,...")
+              .withValuesSeparatedBy(',');
         parser.accepts(PLUGIN_CLASS,
                        "classname of implementation of WorkloadPlugin; used to run customized operations ")
               .withRequiredArg()
@@ -621,6 +726,18 @@ public class Benchmark {
             System.exit(0);
         }
 
+        if(options.has(MERGE_HISTOGRAMS)) {
+            List<File> histogramFiles = new ArrayList<File>();
+            for(Object fileName: options.valuesOf(MERGE_HISTOGRAMS)) {
+                histogramFiles.add(new File((String) fileName));
+            }
+            String metricType = CmdUtils.valueOf(options, METRIC_TYPE, SUMMARY_METRIC_TYPE);
+            Metrics.readHistograms(histogramFiles,
+                                   metricType.compareTo(SUMMARY_METRIC_TYPE) == 0)
+                   .printReport(System.out);
+            System.exit(0);
+        }
+
         Props mainProps = null;
         if(options.has(PROP_FILE)) {
             String propFileDestination = (String) options.valueOf(PROP_FILE);
@@ -685,11 +802,17 @@ public class Benchmark {
             mainProps.put(PERCENT_CACHED, CmdUtils.valueOf(options, PERCENT_CACHED, 0));
             mainProps.put(INTERVAL, CmdUtils.valueOf(options, INTERVAL, 0));
             mainProps.put(TARGET_THROUGHPUT, CmdUtils.valueOf(options, TARGET_THROUGHPUT, -1));
+            mainProps.put(OPEN_LOOP, getCmdBoolean(options, OPEN_LOOP));
             mainProps.put(METRIC_TYPE, CmdUtils.valueOf(options, METRIC_TYPE, SUMMARY_METRIC_TYPE));
+            mainProps.put(HISTOGRAM_FILE, CmdUtils.valueOf(options, HISTOGRAM_FILE, ""));
             mainProps.put(READS, CmdUtils.valueOf(options, READS, 0));
             mainProps.put(WRITES, CmdUtils.valueOf(options, WRITES, 0));
             mainProps.put(DELETES, CmdUtils.valueOf(options, DELETES, 0));
             mainProps.put(MIXED, CmdUtils.valueOf(options, MIXED, 0));
+            mainProps.put(GETALLS, CmdUtils.valueOf(options, GETALLS, 0));
+            mainProps.put(GETALL_BATCH_SIZE, CmdUtils.valueOf(options, GETALL_BATCH_SIZE, 10));
+            mainProps.put(VALUE_SIZE_DISTRIBUTION,
+                          CmdUtils.valueOf(options, VALUE_SIZE_DISTRIBUTION, ""));
             mainProps.put(PLUGIN_CLASS, CmdUtils.valueOf(options, PLUGIN_CLASS, ""));
             mainProps.put(SAMPLE_SIZE, CmdUtils.valueOf(options, SAMPLE_SIZE, 0));
         }
@@ -49,6 +49,14 @@ class Results {
 
 public class Measurement {
 
+    private static final String OPERATIONS_FIELD = "operations";
+    private static final String TOTAL_FIELD = "total";
+    private static final String MIN_FIELD = "min";
+    private static final String MAX_FIELD = "max";
+    private static final String OVERFLOW_FIELD = "overflow";
+    private static final String RETURN_FIELD_PREFIX = "return.";
+    private static final String BUCKET_FIELD_PREFIX = "bucket.";
+
     private String name;
 
     public String getName() {
@@ -83,13 +91,7 @@ public class Measurement {
     }
 
     public synchronized void recordReturnCode(int code) {
-        Integer Icode = code;
-        if(!returnCodes.containsKey(Icode)) {
-            int[] val = new int[1];
-            val[0] = 0;
-            returnCodes.put(Icode, val);
-        }
-        returnCodes.get(Icode)[0]++;
+        addReturnCodes(code, 1);
     }
 
     public synchronized void recordLatency(int latency) {
@@ -112,10 +114,75 @@ public class Measurement {
         }
     }
 
-    public Results generateResults() {
+    private void addReturnCodes(int code, int count) {
+        Integer Icode = code;
+        if(!returnCodes.containsKey(Icode)) {
+            returnCodes.put(Icode, new int[1]);
+        }
+        returnCodes.get(Icode)[0] += count;
+    }
+
+    /**
+     * Writes the measurement as tab separated lines of operation name, field
+     * and value, leaving out empty buckets. Fields read back with
+     * {@link #readField(String, long)} add up, so the output of several runs
+     * can simply be concatenated to merge them.
+     */
+    public synchronized void writeHistogram(PrintStream out) {
+        out.println(name + "\t" + OPERATIONS_FIELD + "\t" + operations);
+        out.println(name + "\t" + TOTAL_FIELD + "\t" + totalLatency);
+        out.println(name + "\t" + MIN_FIELD + "\t" + minLatency);
+        out.println(name + "\t" + MAX_FIELD + "\t" + maxLatency);
+        for(Integer I: returnCodes.keySet()) {
+            out.println(name + "\t" + RETURN_FIELD_PREFIX + I + "\t" + returnCodes.get(I)[0]);
+        }
+        for(int i = 0; i < buckets; i++) {
+            if(histogram[i] != 0) {
+                out.println(name + "\t" + BUCKET_FIELD_PREFIX + i + "\t" + histogram[i]);
+            }
+        }
+        out.println(name + "\t" + OVERFLOW_FIELD + "\t" + histogramOverflow);
+    }
+
+    /**
+     * Merges one field written by {@link #writeHistogram(PrintStream)} into
+     * this measurement
+     */
+    public synchronized void readField(String field, long value) {
+        if(OPERATIONS_FIELD.equals(field)) {
+            operations += (int) value;
+        } else if(TOTAL_FIELD.equals(field)) {
+            totalLatency += value;
+        } else if(MIN_FIELD.equals(field)) {
+            if((minLatency < 0) || (value >= 0 && value < minLatency)) {
+                minLatency = (int) value;
+            }
+        } else if(MAX_FIELD.equals(field)) {
+            if(value > maxLatency) {
+                maxLatency = (int) value;
+            }
+        } else if(OVERFLOW_FIELD.equals(field)) {
+            histogramOverflow += (int) value;
+        } else if(field.startsWith(RETURN_FIELD_PREFIX)) {
+            addReturnCodes(Integer.parseInt(field.substring(RETURN_FIELD_PREFIX.length())),
+                           (int) value);
+        } else if(field.startsWith(BUCKET_FIELD_PREFIX)) {
+            int bucket = Integer.parseInt(field.substring(BUCKET_FIELD_PREFIX.length()));
+            if(bucket >= buckets) {
+                histogramOverflow += (int) value;
+            } else {
+                histogram[bucket] += (int) value;
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown histogram field " + field + " for "
+                                               + name);
+        }
+    }
+
+    public synchronized Results generateResults() {
         int median = 0, q95 = 0, q99 = 0;
         int opcounter = 0;
-        boolean done95th = false, done50th = false;
+        boolean done99th = false, done95th = false, done50th = false;
         for(int i = 0; i < buckets; i++) {
             opcounter += histogram[i];
             double currentQuartile = ((double) opcounter) / ((double) operations);
@@ -129,13 +196,25 @@ public class Measurement {
             }
             if(currentQuartile >= 0.99) {
                 q99 = i;
+                done99th = true;
                 break;
             }
         }
+
+        // percentiles that fall in the overflow are bounded by the max
+        if(!done50th) {
+            median = maxLatency;
+        }
+        if(!done95th) {
+            q95 = maxLatency;
+        }
+        if(!done99th) {
+            q99 = maxLatency;
+        }
         return new Results(operations, minLatency, maxLatency, totalLatency, median, q95, q99);
     }
 
-    public void printReport(PrintStream out) {
+    public synchronized void printReport(PrintStream out) {
 
         Results result = generateResults();
         NumberFormat nf = NumberFormat.getInstance();
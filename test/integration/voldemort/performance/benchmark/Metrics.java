@@ -16,8 +16,13 @@
 
 package voldemort.performance.benchmark;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 import voldemort.utils.Props;
@@ -36,28 +41,53 @@ public class Metrics {
 
     public synchronized static Metrics getInstance() {
         if(singleton == null) {
-            singleton = new Metrics();
+            String metricType = Metrics.metricProps.getString(Benchmark.METRIC_TYPE,
+                                                              Benchmark.SUMMARY_METRIC_TYPE);
+            singleton = new Metrics(metricType.compareTo(Benchmark.SUMMARY_METRIC_TYPE) == 0);
         }
         return singleton;
     }
 
-    private Metrics() {
-        this.data = new ConcurrentHashMap<String, Measurement>();
-
-        String metricType = Metrics.metricProps.getString(Benchmark.METRIC_TYPE,
-                                                          Benchmark.SUMMARY_METRIC_TYPE);
-        if(metricType.compareTo(Benchmark.SUMMARY_METRIC_TYPE) == 0) {
-            this.summaryOnly = true;
-        } else {
-            this.summaryOnly = false;
+    /**
+     * Reads and merges histograms written by
+     * {@link #writeHistograms(PrintStream)}, e.g. by several benchmark clients
+     * run against the same cluster.
+     */
+    public static Metrics readHistograms(List<File> files, boolean summaryOnly)
+            throws IOException {
+        Metrics metrics = new Metrics(summaryOnly);
+        for(File file: files) {
+            BufferedReader reader = new BufferedReader(new FileReader(file));
+            try {
+                String line;
+                while((line = reader.readLine()) != null) {
+                    if(line.trim().length() == 0) {
+                        continue;
+                    }
+                    String[] fields = line.split("\t");
+                    if(fields.length != 3) {
+                        throw new IOException("Invalid histogram line '" + line + "' in " + file);
+                    }
+                    metrics.getMeasurement(fields[0]).readField(fields[1],
+                                                                Long.parseLong(fields[2]));
+                }
+            } finally {
+                reader.close();
+            }
         }
+        return metrics;
+    }
+
+    private Metrics(boolean summaryOnly) {
+        this.data = new ConcurrentHashMap<String, Measurement>();
+        this.summaryOnly = summaryOnly;
     }
 
     private Measurement constructMeasurement(String name) {
         return new Measurement(name, this.summaryOnly);
     }
 
-    public synchronized void recordLatency(String operation, int latency) {
+    private Measurement getMeasurement(String operation) {
         if(!data.containsKey(operation)) {
             synchronized(this) {
                 if(!data.containsKey(operation)) {
@@ -65,18 +95,15 @@ public class Metrics {
                 }
             }
         }
-        data.get(operation).recordLatency(latency);
+        return data.get(operation);
+    }
+
+    public void recordLatency(String operation, int latency) {
+        getMeasurement(operation).recordLatency(latency);
     }
 
     public void recordReturnCode(String operation, int code) {
-        if(!data.containsKey(operation)) {
-            synchronized(this) {
-                if(!data.containsKey(operation)) {
-                    data.put(operation, constructMeasurement(operation));
-                }
-            }
-        }
-        data.get(operation).recordReturnCode(code);
+        getMeasurement(operation).recordReturnCode(code);
     }
 
     public void reset() {
@@ -89,6 +116,12 @@ public class Metrics {
         }
     }
 
+    public void writeHistograms(PrintStream out) {
+        for(Measurement m: data.values()) {
+            m.writeHistogram(out);
+        }
+    }
+
     public HashMap<String, Results> getResults() {
         HashMap<String, Results> returnMap = new HashMap<String, Results>();
         for(Measurement m: data.values()) {
@@ -22,7 +22,9 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -256,6 +258,9 @@ public class Workload {
     private KeyProvider<?> warmUpKeyProvider;
     private KeyProvider<?> keyProvider;
     private String value;
+    private DiscreteGenerator valueSizeChooser;
+    private Map<String, String> valuesBySize;
+    private int getAllBatchSize;
     private ArrayList<Versioned<Object>> sampleValues;
     private Random randomSampler;
     private int sampleSize;
@@ -269,8 +274,14 @@ public class Workload {
         int writePercent = props.getInt(Benchmark.WRITES, 0);
         int deletePercent = props.getInt(Benchmark.DELETES, 0);
         int mixedPercent = props.getInt(Benchmark.MIXED, 0);
+        int getAllPercent = props.getInt(Benchmark.GETALLS, 0);
         int valueSize = props.getInt(Benchmark.VALUE_SIZE, 1024);
         this.value = new String(TestUtils.randomBytes(valueSize));
+        initValueSizes(props.getString(Benchmark.VALUE_SIZE_DISTRIBUTION, ""));
+        this.getAllBatchSize = props.getInt(Benchmark.GETALL_BATCH_SIZE, 10);
+        if(getAllBatchSize < 1) {
+            throw new VoldemortException(Benchmark.GETALL_BATCH_SIZE + " should be at least 1");
+        }
         this.sampleSize = props.getInt(Benchmark.SAMPLE_SIZE, 0);
         int cachedPercent = props.getInt(Benchmark.PERCENT_CACHED, 0);
         String keyType = props.getString(Benchmark.KEY_TYPE, Benchmark.STRING_KEY_TYPE);
@@ -284,14 +295,17 @@ public class Workload {
         double writeProportion = (double) writePercent / (double) 100;
         double deleteProportion = (double) deletePercent / (double) 100;
         double mixedProportion = (double) mixedPercent / (double) 100;
+        double getAllProportion = (double) getAllPercent / (double) 100;
 
         // Using default read only
-        if(Math.abs(writeProportion + readProportion + mixedProportion + deleteProportion) != 1.0) {
+        if(Math.abs(writeProportion + readProportion + mixedProportion + deleteProportion
+                    + getAllProportion) != 1.0) {
             throw new VoldemortException("The sum of all workload percentage is NOT 100% \n"
                                          + " Read=" + (double) readPercent / (double) 100
                                          + " Write=" + (double) writePercent / (double) 100
                                          + " Delete=" + (double) deletePercent / (double) 100
-                                         + " Mixed=" + (double) mixedPercent / (double) 100);
+                                         + " Mixed=" + (double) mixedPercent / (double) 100
+                                         + " GetAll=" + (double) getAllPercent / (double) 100);
         }
 
         List<Integer> keysFromFile = null;
@@ -357,6 +371,9 @@ public class Workload {
         if(deleteProportion > 0) {
             operationChooser.addValue(deleteProportion, Benchmark.DELETES);
         }
+        if(getAllProportion > 0) {
+            operationChooser.addValue(getAllProportion, Benchmark.GETALLS);
+        }
 
         CounterGenerator insertKeySequence = null;
         if(recordCount > 0) {
@@ -391,12 +408,64 @@ public class Workload {
         this.randomSampler = new Random(System.currentTimeMillis());
     }
 
+    /**
+     * Parses a value size distribution of the form
+     * <code>size:weight,size:weight,...</code>, a missing weight counting as 1,
+     * and generates one random value per size
+     */
+    private void initValueSizes(String distribution) {
+        this.valueSizeChooser = null;
+        this.valuesBySize = null;
+        if(distribution.trim().length() == 0) {
+            return;
+        }
+
+        this.valueSizeChooser = new DiscreteGenerator();
+        this.valuesBySize = new HashMap<String, String>();
+        for(String entry: distribution.split(",")) {
+            String[] sizeAndWeight = entry.trim().split(":");
+            try {
+                int size = Integer.parseInt(sizeAndWeight[0].trim());
+                double weight = sizeAndWeight.length > 1 ? Double.parseDouble(sizeAndWeight[1].trim())
+                                                        : 1.0;
+                if(sizeAndWeight.length > 2 || size < 0 || weight <= 0) {
+                    throw new NumberFormatException();
+                }
+                String sizeString = Integer.toString(size);
+                if(!valuesBySize.containsKey(sizeString)) {
+                    valuesBySize.put(sizeString, new String(TestUtils.randomBytes(size)));
+                }
+                valueSizeChooser.addValue(weight, sizeString);
+            } catch(NumberFormatException e) {
+                throw new VoldemortException("Invalid " + Benchmark.VALUE_SIZE_DISTRIBUTION
+                                             + " entry '" + entry
+                                             + "'; expected size:weight pairs");
+            }
+        }
+    }
+
+    private String nextValue() {
+        if(valueSizeChooser == null) {
+            return this.value;
+        }
+        return valuesBySize.get(valueSizeChooser.nextString());
+    }
+
+    /**
+     * The value reads are verified against, or null when values of several
+     * sizes are written and what was stored under a key is not known
+     */
+    private String expectedValue() {
+        return valueSizeChooser == null ? this.value : null;
+    }
+
     public boolean doWrite(VoldemortWrapper db, WorkloadPlugin plugin) {
         Object key = warmUpKeyProvider.next();
+        String value = nextValue();
         if(plugin != null) {
-            return plugin.doWrite(key, this.value);
+            return plugin.doWrite(key, value);
         }
-        db.write(key, this.value, null);
+        db.write(key, value, null);
         return true;
     }
 
@@ -417,14 +486,21 @@ public class Workload {
             if(sampleSize > 0) {
                 writeSampleValue(db, key);
             } else {
-                db.write(key, this.value, transform);
+                db.write(key, nextValue(), transform);
             }
         } else if(op.compareTo(Benchmark.MIXED) == 0) {
-            db.mixed(key, this.value, transform);
+            db.mixed(key, nextValue(), transform);
         } else if(op.compareTo(Benchmark.DELETES) == 0) {
             db.delete(key);
         } else if(op.compareTo(Benchmark.READS) == 0) {
-            db.read(key, this.value, transform);
+            db.read(key, expectedValue(), transform);
+        } else if(op.compareTo(Benchmark.GETALLS) == 0) {
+            List<Object> keys = new ArrayList<Object>(getAllBatchSize);
+            keys.add(key);
+            while(keys.size() < getAllBatchSize) {
+                keys.add(keyProvider.next());
+            }
+            db.readAll(keys, expectedValue(), transform);
         }
         return true;
 
@@ -135,6 +135,10 @@ public class NoopStorageEngine implements StorageEngine<ByteArray, byte[], byte[
         }
     }
 
+    public int putAll(List<Pair<ByteArray, Versioned<byte[]>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return false;
     }
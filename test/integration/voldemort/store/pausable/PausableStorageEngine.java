@@ -9,6 +9,7 @@ import voldemort.VoldemortException;
 import voldemort.annotations.jmx.JmxOperation;
 import voldemort.store.StorageEngine;
 import voldemort.store.StoreCapabilityType;
+import voldemort.store.StoreUtils;
 import voldemort.store.memory.InMemoryStorageEngine;
 import voldemort.utils.ClosableIterator;
 import voldemort.utils.Pair;
@@ -127,6 +128,10 @@ public class PausableStorageEngine<K, V, T> implements StorageEngine<K, V, T> {
         }
     }
 
+    public int putAll(List<Pair<K, Versioned<V>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return inner.isPartitionAware();
     }
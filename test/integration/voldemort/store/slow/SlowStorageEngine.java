@@ -25,6 +25,7 @@ import voldemort.common.OpTimeMap;
 import voldemort.common.VoldemortOpCode;
 import voldemort.store.StorageEngine;
 import voldemort.store.StoreCapabilityType;
+import voldemort.store.StoreUtils;
 import voldemort.utils.ClosableIterator;
 import voldemort.utils.Pair;
 import voldemort.versioning.Version;
@@ -130,6 +131,10 @@ public class SlowStorageEngine<K, V, T> implements StorageEngine<K, V, T> {
         innerStorageEngine.truncate();
     }
 
+    public int putAll(List<Pair<K, Versioned<V>>> entries) {
+        return StoreUtils.putAll(this, entries);
+    }
+
     public boolean isPartitionAware() {
         return innerStorageEngine.isPartitionAware();
     }
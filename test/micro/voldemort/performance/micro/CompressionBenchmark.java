@@ -0,0 +1,72 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.performance.micro;
+
+import java.io.IOException;
+import java.util.Random;
+
+import voldemort.serialization.Compression;
+import voldemort.store.compress.CompressionStrategy;
+import voldemort.store.compress.CompressionStrategyFactory;
+
+/**
+ * Compressing and uncompressing values with every compression strategy. The
+ * values are made of words, so they compress about as well as text does.
+ */
+public class CompressionBenchmark extends MicroBenchmark {
+
+    private static final int VALUE_SIZE = 4096;
+    private static final int NUM_VALUES = 16;
+    private static final String[] WORDS = { "voldemort", "store", "key", "value", "version",
+            "clock", "node", "partition", "replica", "zone", "{", "}", ":", ",", "\"", "0", "1",
+            "2", "3", "true", "false", "null" };
+
+    public CompressionBenchmark() throws IOException {
+        Random random = new Random(1);
+        byte[][] values = new byte[NUM_VALUES][];
+        for(int i = 0; i < NUM_VALUES; i++) {
+            StringBuilder value = new StringBuilder();
+            while(value.length() < VALUE_SIZE)
+                value.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            values[i] = value.substring(0, VALUE_SIZE).getBytes();
+        }
+
+        CompressionStrategyFactory factory = new CompressionStrategyFactory();
+        for(String type: new String[] { "gzip", "lzf", "snappy" })
+            addOperations(factory.get(new Compression(type, null)), values);
+    }
+
+    private void addOperations(final CompressionStrategy strategy, final byte[][] values)
+            throws IOException {
+        final byte[][] compressed = new byte[values.length][];
+        for(int i = 0; i < values.length; i++)
+            compressed[i] = strategy.deflate(values[i]);
+
+        addOperation(strategy.getType() + ".deflate", new Operation() {
+
+            public int run(int index) throws IOException {
+                return strategy.deflate(values[index % values.length]).length;
+            }
+        });
+        addOperation(strategy.getType() + ".inflate", new Operation() {
+
+            public int run(int index) throws IOException {
+                return strategy.inflate(compressed[index % compressed.length]).length;
+            }
+        });
+    }
+}
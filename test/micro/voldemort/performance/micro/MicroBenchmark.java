@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.performance.micro;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A set of operations timed by {@link MicroBenchmarkRunner}. A benchmark
+ * prepares everything its operations need when it is created, so that only the
+ * operations themselves are timed. Benchmarks have a public constructor without
+ * arguments, so that they can be created in a forked JVM.
+ */
+public abstract class MicroBenchmark {
+
+    /*
+     * Operations cycle through this many inputs, so that they do not work on
+     * a single value the branch predictors and caches get to know by heart
+     */
+    protected static final int NUM_INPUTS = 1024;
+
+    /**
+     * An operation to time
+     */
+    public interface Operation {
+
+        /**
+         * Run the operation once
+         *
+         * @param index The number of times it ran before, to pick an input
+         *        with
+         * @return Anything computed from the result, which the runner consumes
+         *         so that the JIT cannot optimize the operation away
+         */
+        public int run(int index) throws Exception;
+    }
+
+    private final Map<String, Operation> operations = new LinkedHashMap<String, Operation>();
+
+    protected void addOperation(String name, Operation operation) {
+        if(operations.containsKey(name))
+            throw new IllegalArgumentException("Duplicate operation " + name + " in " + getName());
+        operations.put(name, operation);
+    }
+
+    /**
+     * @return The operations of the benchmark, by name, in the order they were
+     *         added
+     */
+    public Map<String, Operation> getOperations() {
+        return Collections.unmodifiableMap(operations);
+    }
+
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Release anything the benchmark holds, once all its operations are timed
+     */
+    public void close() throws Exception {}
+
+    /**
+     * @return The input of the run with the given index
+     */
+    protected static int input(int index) {
+        return index & (NUM_INPUTS - 1);
+    }
+}
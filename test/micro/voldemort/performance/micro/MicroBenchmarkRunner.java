@@ -0,0 +1,493 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.performance.micro;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import voldemort.utils.CmdUtils;
+import voldemort.utils.ReflectUtils;
+import voldemort.utils.Time;
+
+/**
+ * Times the operations of {@link MicroBenchmark}s, in the manner of JMH.
+ * <p/>
+ * Each operation is timed in JVMs forked for it alone, so that what the JIT
+ * learnt from one operation does not slow down the next. In each fork the
+ * operation first runs until it is warmed up, and is then timed over
+ * iterations of a fixed length. The operation runs in batches between reads of
+ * the clock, and what it returns is consumed, so that neither the clock nor the
+ * JIT skew the timings. The score of an operation is the mean time of one run,
+ * in ns, over all the iterations of all the forks, and its error is the half
+ * width of the 99.9% confidence interval of the mean.
+ * <p/>
+ * The scores of a run can be written to a file and the scores of a later run
+ * checked against them, which fails when an operation got slower by more than
+ * its error and a threshold.
+ */
+public class MicroBenchmarkRunner {
+
+    private static final List<Class<? extends MicroBenchmark>> BENCHMARKS = new ArrayList<Class<? extends MicroBenchmark>>();
+
+    static {
+        BENCHMARKS.add(RoutingBenchmark.class);
+        BENCHMARKS.add(VectorClockBenchmark.class);
+        BENCHMARKS.add(StoreBinaryFormatBenchmark.class);
+        BENCHMARKS.add(SearchStrategyBenchmark.class);
+        BENCHMARKS.add(SerializerBenchmark.class);
+        BENCHMARKS.add(CompressionBenchmark.class);
+        BENCHMARKS.add(RequestHandlerBenchmark.class);
+    }
+
+    private static final String DEFAULT_JVM_ARGS = "-server -Xms1g -Xmx1g";
+
+    /* The normal quantile of a 99.9% confidence interval */
+    private static final double CONFIDENCE_QUANTILE = 3.291;
+
+    /* A batch runs for at least this fraction of an iteration */
+    private static final int BATCHES_PER_ITERATION = 1000;
+
+    private static final int MAX_BATCH_SIZE = 1 << 30;
+
+    /* The line a forked JVM reports the scores of its iterations on */
+    private static final String SCORES_PREFIX = "SCORES";
+
+    /* Forked JVMs get the operation to time with this option */
+    private static final String RUN_FORKED = "run-forked";
+
+    private static volatile int sink;
+
+    private static int nextIndex;
+
+    private final int forks;
+    private final int warmupIterations;
+    private final int iterations;
+    private final long iterationMs;
+    private final String jvmArgs;
+
+    public MicroBenchmarkRunner(int forks,
+                                int warmupIterations,
+                                int iterations,
+                                long iterationMs,
+                                String jvmArgs) {
+        if(forks < 0 || warmupIterations < 0 || iterations < 2 || iterationMs < 1)
+            throw new IllegalArgumentException("Invalid settings: " + forks + " forks, "
+                                               + warmupIterations + " warmup iterations, "
+                                               + iterations + " iterations of " + iterationMs
+                                               + " ms.");
+        this.forks = forks;
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+        this.iterationMs = iterationMs;
+        this.jvmArgs = jvmArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionParser parser = new OptionParser();
+        parser.accepts("help", "print usage information");
+        parser.accepts("list", "list the operations and exit");
+        parser.accepts("benchmark",
+                       "time the operations whose Benchmark.operation name matches this regular expression; Default = all")
+              .withRequiredArg();
+        parser.accepts("forks", "number of JVMs to fork per operation, 0 to time in this JVM; Default = 2")
+              .withRequiredArg()
+              .ofType(Integer.class);
+        parser.accepts("warmup-iterations", "number of iterations to warm up for; Default = 5")
+              .withRequiredArg()
+              .ofType(Integer.class);
+        parser.accepts("iterations", "number of iterations to time per fork; Default = 10")
+              .withRequiredArg()
+              .ofType(Integer.class);
+        parser.accepts("iteration-ms", "length of an iteration in ms; Default = 1000")
+              .withRequiredArg()
+              .ofType(Integer.class);
+        parser.accepts("jvm-args", "arguments of the forked JVMs; Default = " + DEFAULT_JVM_ARGS)
+              .withRequiredArg();
+        parser.accepts("output", "file to write the scores to").withRequiredArg();
+        parser.accepts("baseline", "file of the scores of an earlier run to check against")
+              .withRequiredArg();
+        parser.accepts("max-regression",
+                       "percentage an operation may be slower than its baseline by, beyond its error; Default = 10")
+              .withRequiredArg()
+              .ofType(Double.class);
+        parser.accepts(RUN_FORKED).withRequiredArg();
+
+        OptionSet options = parser.parse(args);
+        if(options.has("help")) {
+            parser.printHelpOn(System.out);
+            System.exit(0);
+        }
+
+        int forks = CmdUtils.valueOf(options, "forks", 2);
+        int warmupIterations = CmdUtils.valueOf(options, "warmup-iterations", 5);
+        int iterations = CmdUtils.valueOf(options, "iterations", 10);
+        int iterationMs = CmdUtils.valueOf(options, "iteration-ms", 1000);
+        String jvmArgs = CmdUtils.valueOf(options, "jvm-args", DEFAULT_JVM_ARGS);
+        MicroBenchmarkRunner runner = new MicroBenchmarkRunner(forks,
+                                                               warmupIterations,
+                                                               iterations,
+                                                               iterationMs,
+                                                               jvmArgs);
+
+        if(options.has(RUN_FORKED)) {
+            runner.runForked((String) options.valueOf(RUN_FORKED));
+            return;
+        }
+
+        Pattern filter = Pattern.compile(CmdUtils.valueOf(options, "benchmark", ".*"));
+        if(options.has("list")) {
+            for(Class<? extends MicroBenchmark> benchmark: BENCHMARKS)
+                for(String name: getOperationNames(benchmark))
+                    if(filter.matcher(name).matches())
+                        System.out.println(name);
+            return;
+        }
+
+        Properties scores = new Properties();
+        List<Result> results = new ArrayList<Result>();
+        for(Class<? extends MicroBenchmark> benchmark: BENCHMARKS)
+            results.addAll(runner.run(benchmark, filter));
+
+        System.out.println();
+        System.out.println(String.format("%-50s %14s %12s  %s", "Operation", "Score", "Error", "Units"));
+        for(Result result: results) {
+            System.out.println(result);
+            scores.setProperty(result.getName(), Double.toString(result.getMean()));
+        }
+
+        if(options.has("output"))
+            writeScores(scores, new File((String) options.valueOf("output")));
+
+        if(options.has("baseline")) {
+            Properties baseline = readScores(new File((String) options.valueOf("baseline")));
+            double maxRegression = CmdUtils.valueOf(options, "max-regression", 10.0);
+            if(!checkRegressions(results, baseline, maxRegression))
+                System.exit(1);
+        }
+    }
+
+    /**
+     * Time the operations of a benchmark
+     *
+     * @param benchmarkClass The benchmark
+     * @param filter The pattern the names of the operations to time match
+     * @return The results of the operations timed
+     */
+    public List<Result> run(Class<? extends MicroBenchmark> benchmarkClass, Pattern filter)
+            throws Exception {
+        List<Result> results = new ArrayList<Result>();
+        if(forks == 0) {
+            MicroBenchmark benchmark = ReflectUtils.callConstructor(benchmarkClass);
+            try {
+                for(Map.Entry<String, MicroBenchmark.Operation> entry: benchmark.getOperations()
+                                                                                .entrySet()) {
+                    String name = benchmark.getName() + "." + entry.getKey();
+                    if(filter.matcher(name).matches()) {
+                        System.out.println("Timing " + name);
+                        results.add(new Result(name, measure(entry.getValue())));
+                    }
+                }
+            } finally {
+                benchmark.close();
+            }
+        } else {
+            for(String name: getOperationNames(benchmarkClass)) {
+                if(!filter.matcher(name).matches())
+                    continue;
+                double[] scores = new double[0];
+                for(int fork = 0; fork < forks; fork++) {
+                    System.out.println("Timing " + name + ", fork " + (fork + 1) + " of " + forks);
+                    scores = concat(scores, fork(benchmarkClass, name));
+                }
+                results.add(new Result(name, scores));
+            }
+        }
+        return results;
+    }
+
+    private static List<String> getOperationNames(Class<? extends MicroBenchmark> benchmarkClass)
+            throws Exception {
+        MicroBenchmark benchmark = ReflectUtils.callConstructor(benchmarkClass);
+        try {
+            List<String> names = new ArrayList<String>();
+            for(String operation: benchmark.getOperations().keySet())
+                names.add(benchmark.getName() + "." + operation);
+            return names;
+        } finally {
+            benchmark.close();
+        }
+    }
+
+    /**
+     * Time one operation in a new JVM
+     *
+     * @return The scores of its iterations
+     */
+    private double[] fork(Class<? extends MicroBenchmark> benchmarkClass, String name)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<String>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator
+                    + "java");
+        for(String arg: jvmArgs.trim().split("\\s+"))
+            if(arg.length() > 0)
+                command.add(arg);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MicroBenchmarkRunner.class.getName());
+        command.add("--" + RUN_FORKED);
+        command.add(benchmarkClass.getName() + "#" + name.substring(name.indexOf('.') + 1));
+        command.add("--warmup-iterations");
+        command.add(Integer.toString(warmupIterations));
+        command.add("--iterations");
+        command.add(Integer.toString(iterations));
+        command.add("--iteration-ms");
+        command.add(Long.toString(iterationMs));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        double[] scores = null;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        try {
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(line.startsWith(SCORES_PREFIX))
+                    scores = parseScores(line);
+                else
+                    System.out.println("    " + line);
+            }
+        } finally {
+            reader.close();
+        }
+
+        int exitCode = process.waitFor();
+        if(exitCode != 0 || scores == null)
+            throw new IllegalStateException("Timing " + name + " failed, the forked JVM exited with "
+                                            + exitCode + ".");
+        return scores;
+    }
+
+    /**
+     * Time an operation in this JVM, which was forked for it, and report its
+     * scores to the parent
+     *
+     * @param operationName The class of the benchmark and the operation, as
+     *        class#operation
+     */
+    private void runForked(String operationName) throws Exception {
+        int separator = operationName.indexOf('#');
+        Class<?> benchmarkClass = ReflectUtils.loadClass(operationName.substring(0, separator));
+        MicroBenchmark benchmark = (MicroBenchmark) ReflectUtils.callConstructor(benchmarkClass);
+        try {
+            MicroBenchmark.Operation operation = benchmark.getOperations()
+                                                          .get(operationName.substring(separator + 1));
+            if(operation == null)
+                throw new IllegalArgumentException("No operation " + operationName + ".");
+
+            StringBuilder line = new StringBuilder(SCORES_PREFIX);
+            for(double score: measure(operation))
+                line.append(' ').append(score);
+            System.out.println(line);
+        } finally {
+            benchmark.close();
+        }
+    }
+
+    /**
+     * Warm an operation up and time it
+     *
+     * @return The mean time of one run in each iteration, in ns
+     */
+    private double[] measure(MicroBenchmark.Operation operation) throws Exception {
+        long iterationNs = iterationMs * Time.NS_PER_MS;
+        int batchSize = calibrate(operation, iterationNs / BATCHES_PER_ITERATION);
+        for(int i = 0; i < warmupIterations; i++)
+            runIteration(operation, batchSize, iterationNs);
+
+        double[] scores = new double[iterations];
+        for(int i = 0; i < iterations; i++) {
+            System.gc();
+            scores[i] = runIteration(operation, batchSize, iterationNs);
+        }
+        return scores;
+    }
+
+    /**
+     * Find the number of runs to do between reads of the clock
+     */
+    private static int calibrate(MicroBenchmark.Operation operation, long minBatchNs)
+            throws Exception {
+        int batchSize = 1;
+        while(batchSize < MAX_BATCH_SIZE) {
+            long start = System.nanoTime();
+            sink += runBatch(operation, batchSize);
+            if(System.nanoTime() - start >= minBatchNs)
+                break;
+            batchSize *= 2;
+        }
+        return batchSize;
+    }
+
+    private static double runIteration(MicroBenchmark.Operation operation,
+                                       int batchSize,
+                                       long iterationNs) throws Exception {
+        int result = 0;
+        long runs = 0;
+        long elapsedNs;
+        long start = System.nanoTime();
+        do {
+            result += runBatch(operation, batchSize);
+            runs += batchSize;
+            elapsedNs = System.nanoTime() - start;
+        } while(elapsedNs < iterationNs);
+        sink += result;
+        return (double) elapsedNs / runs;
+    }
+
+    private static int runBatch(MicroBenchmark.Operation operation, int batchSize)
+            throws Exception {
+        int result = 0;
+        int index = nextIndex;
+        for(int i = 0; i < batchSize; i++)
+            result += operation.run(index++);
+        nextIndex = index;
+        return result;
+    }
+
+    /**
+     * Check scores against the scores of an earlier run
+     *
+     * @return false if an operation regressed
+     */
+    private static boolean checkRegressions(List<Result> results,
+                                            Properties baseline,
+                                            double maxRegression) {
+        boolean passed = true;
+        System.out.println();
+        for(Result result: results) {
+            String baselineScore = baseline.getProperty(result.getName());
+            if(baselineScore == null) {
+                System.out.println("No baseline for " + result.getName());
+                continue;
+            }
+            double baselineMean = Double.parseDouble(baselineScore);
+            if(result.getMean() - result.getError() > baselineMean * (1 + maxRegression / 100)) {
+                System.out.println(String.format("REGRESSION %s: %.3f ns/op, baseline %.3f ns/op",
+                                                 result.getName(),
+                                                 result.getMean(),
+                                                 baselineMean));
+                passed = false;
+            }
+        }
+        if(passed)
+            System.out.println("No operation regressed by more than " + maxRegression + "%.");
+        return passed;
+    }
+
+    private static double[] parseScores(String line) {
+        String[] fields = line.trim().split("\\s+");
+        double[] scores = new double[fields.length - 1];
+        for(int i = 0; i < scores.length; i++)
+            scores[i] = Double.parseDouble(fields[i + 1]);
+        return scores;
+    }
+
+    private static double[] concat(double[] first, double[] second) {
+        double[] all = new double[first.length + second.length];
+        System.arraycopy(first, 0, all, 0, first.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+
+    private static void writeScores(Properties scores, File file) throws IOException {
+        OutputStream output = new FileOutputStream(file);
+        try {
+            scores.store(output, "Mean time of one run of each operation, in ns");
+        } finally {
+            output.close();
+        }
+    }
+
+    private static Properties readScores(File file) throws IOException {
+        Properties scores = new Properties();
+        InputStream input = new FileInputStream(file);
+        try {
+            scores.load(input);
+        } finally {
+            input.close();
+        }
+        return scores;
+    }
+
+    /**
+     * The scores of an operation
+     */
+    public static class Result {
+
+        private final String name;
+        private final double mean;
+        private final double error;
+
+        public Result(String name, double[] scores) {
+            this.name = name;
+            double sum = 0;
+            for(double score: scores)
+                sum += score;
+            this.mean = sum / scores.length;
+
+            double squares = 0;
+            for(double score: scores)
+                squares += (score - mean) * (score - mean);
+            double stdDev = scores.length > 1 ? Math.sqrt(squares / (scores.length - 1)) : 0;
+            this.error = CONFIDENCE_QUANTILE * stdDev / Math.sqrt(scores.length);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The mean time of one run, in ns
+         */
+        public double getMean() {
+            return mean;
+        }
+
+        /**
+         * @return The half width of the 99.9% confidence interval of the mean
+         */
+        public double getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-50s %14.3f %12.3f  ns/op", name, mean, error);
+        }
+    }
+}
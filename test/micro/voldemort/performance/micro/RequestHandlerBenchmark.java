@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.performance.micro;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import voldemort.client.protocol.vold.VoldemortNativeClientRequestFormat;
+import voldemort.server.RequestRoutingType;
+import voldemort.server.StoreRepository;
+import voldemort.server.protocol.vold.VoldemortNativeRequestHandler;
+import voldemort.store.DoNothingStore;
+import voldemort.store.ErrorCodeMapper;
+import voldemort.store.memory.InMemoryStorageEngine;
+import voldemort.utils.ByteArray;
+import voldemort.versioning.VectorClock;
+import voldemort.versioning.Versioned;
+
+/**
+ * Parsing and handling requests of the native protocol on the server. Gets are
+ * answered from an in-memory store, puts go to a store that drops them, so
+ * that the timings are mostly those of the protocol.
+ */
+public class RequestHandlerBenchmark extends MicroBenchmark {
+
+    private static final int PROTOCOL_VERSION = 3;
+    private static final int KEY_SIZE = 16;
+    private static final int VALUE_SIZE = 1024;
+    private static final String GET_STORE = "get-store";
+    private static final String PUT_STORE = "put-store";
+
+    public RequestHandlerBenchmark() throws IOException {
+        InMemoryStorageEngine<ByteArray, byte[], byte[]> getStore = new InMemoryStorageEngine<ByteArray, byte[], byte[]>(GET_STORE);
+        StoreRepository repository = new StoreRepository();
+        repository.addLocalStore(getStore);
+        repository.addLocalStore(new DoNothingStore<ByteArray, byte[], byte[]>(PUT_STORE));
+        final VoldemortNativeRequestHandler handler = new VoldemortNativeRequestHandler(new ErrorCodeMapper(),
+                                                                                        repository,
+                                                                                        PROTOCOL_VERSION);
+
+        VoldemortNativeClientRequestFormat requestFormat = new VoldemortNativeClientRequestFormat(PROTOCOL_VERSION);
+        Random random = new Random(1);
+        final byte[][] getRequests = new byte[NUM_INPUTS][];
+        final byte[][] putRequests = new byte[NUM_INPUTS][];
+        for(int i = 0; i < NUM_INPUTS; i++) {
+            byte[] keyBytes = new byte[KEY_SIZE];
+            random.nextBytes(keyBytes);
+            ByteArray key = new ByteArray(keyBytes);
+            byte[] value = new byte[VALUE_SIZE];
+            random.nextBytes(value);
+            VectorClock clock = new VectorClock(i).incremented(0, i);
+            getStore.put(key, new Versioned<byte[]>(value, clock), null);
+
+            ByteArrayOutputStream request = new ByteArrayOutputStream();
+            requestFormat.writeGetRequest(new DataOutputStream(request),
+                                          GET_STORE,
+                                          key,
+                                          null,
+                                          RequestRoutingType.NORMAL);
+            getRequests[i] = request.toByteArray();
+
+            request.reset();
+            requestFormat.writePutRequest(new DataOutputStream(request),
+                                          PUT_STORE,
+                                          key,
+                                          value,
+                                          null,
+                                          clock,
+                                          RequestRoutingType.NORMAL);
+            putRequests[i] = request.toByteArray();
+        }
+
+        addOperations("get", handler, getRequests);
+        addOperations("put", handler, putRequests);
+    }
+
+    private void addOperations(String prefix,
+                               final VoldemortNativeRequestHandler handler,
+                               final byte[][] requests) {
+        final ByteBuffer[] buffers = new ByteBuffer[requests.length];
+        for(int i = 0; i < requests.length; i++)
+            buffers[i] = ByteBuffer.wrap(requests[i]);
+        final ByteArrayOutputStream response = new ByteArrayOutputStream();
+        final DataOutputStream responseStream = new DataOutputStream(response);
+
+        addOperation(prefix + ".isCompleteRequest", new Operation() {
+
+            public int run(int index) {
+                ByteBuffer buffer = buffers[input(index)];
+                buffer.clear();
+                return handler.isCompleteRequest(buffer) ? 1 : 0;
+            }
+        });
+        addOperation(prefix + ".handleRequest", new Operation() {
+
+            public int run(int index) throws IOException {
+                response.reset();
+                DataInputStream request = new DataInputStream(new ByteArrayInputStream(requests[input(index)]));
+                handler.handleRequest(request, responseStream);
+                return response.size();
+            }
+        });
+    }
+}
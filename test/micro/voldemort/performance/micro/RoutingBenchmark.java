@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.performance.micro;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import voldemort.cluster.Node;
+import voldemort.routing.ConsistentRoutingStrategy;
+import voldemort.routing.RoutingStrategy;
+import voldemort.routing.ZoneRoutingStrategy;
+
+/**
+ * Routing keys to their replicas, in a cluster of three zones
+ */
+public class RoutingBenchmark extends MicroBenchmark {
+
+    private static final int NUM_ZONES = 3;
+    private static final int NODES_PER_ZONE = 8;
+    private static final int PARTITIONS_PER_NODE = 20;
+    private static final int REPLICAS_PER_ZONE = 2;
+    private static final int KEY_SIZE = 16;
+
+    public RoutingBenchmark() {
+        int numNodes = NUM_ZONES * NODES_PER_ZONE;
+        List<List<Integer>> partitions = new ArrayList<List<Integer>>();
+        for(int nodeId = 0; nodeId < numNodes; nodeId++)
+            partitions.add(new ArrayList<Integer>());
+        for(int partition = 0; partition < numNodes * PARTITIONS_PER_NODE; partition++)
+            partitions.get(partition % numNodes).add(partition);
+
+        List<Node> nodes = new ArrayList<Node>();
+        for(int nodeId = 0; nodeId < numNodes; nodeId++)
+            nodes.add(new Node(nodeId,
+                               "localhost",
+                               8080 + nodeId,
+                               6666 + nodeId,
+                               7777 + nodeId,
+                               nodeId % NUM_ZONES,
+                               partitions.get(nodeId)));
+
+        HashMap<Integer, Integer> zoneReplicationFactor = new HashMap<Integer, Integer>();
+        for(int zoneId = 0; zoneId < NUM_ZONES; zoneId++)
+            zoneReplicationFactor.put(zoneId, REPLICAS_PER_ZONE);
+
+        final byte[][] keys = new byte[NUM_INPUTS][KEY_SIZE];
+        Random random = new Random(1);
+        for(byte[] key: keys)
+            random.nextBytes(key);
+
+        addOperations("consistent", new ConsistentRoutingStrategy(nodes, REPLICAS_PER_ZONE), keys);
+        addOperations("zone", new ZoneRoutingStrategy(nodes,
+                                                      zoneReplicationFactor,
+                                                      NUM_ZONES * REPLICAS_PER_ZONE), keys);
+    }
+
+    private void addOperations(String prefix, final RoutingStrategy strategy, final byte[][] keys) {
+        addOperation(prefix + ".routeRequest", new Operation() {
+
+            public int run(int index) {
+                return strategy.routeRequest(keys[input(index)]).size();
+            }
+        });
+        addOperation(prefix + ".getPartitionList", new Operation() {
+
+            public int run(int index) {
+                return strategy.getPartitionList(keys[input(index)]).size();
+            }
+        });
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.performance.micro;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import voldemort.store.readonly.BinarySearchStrategy;
+import voldemort.store.readonly.HashIndexBuilder;
+import voldemort.store.readonly.HashIndexSearchStrategy;
+import voldemort.store.readonly.InterpolationSearchStrategy;
+import voldemort.store.readonly.ReadOnlyUtils;
+import voldemort.store.readonly.SearchStrategy;
+import voldemort.utils.ByteUtils;
+
+/**
+ * Looking keys up in the index of a read-only store chunk, with each search
+ * strategy. The index holds 8 byte keys as a
+ * {@link voldemort.store.readonly.ReadOnlyStorageFormat#READONLY_V2} index
+ * does, sorted, or rehashed for the hash index strategy. It is kept off heap,
+ * like the memory mapped index files of a store.
+ */
+public class SearchStrategyBenchmark extends MicroBenchmark {
+
+    private static final int NUM_ENTRIES = 1000000;
+    private static final int KEY_SIZE = ByteUtils.SIZE_OF_LONG;
+    private static final int ENTRY_SIZE = KEY_SIZE + ReadOnlyUtils.POSITION_SIZE;
+
+    public SearchStrategyBenchmark() {
+        // keys are compared as unsigned bytes, which orders them as longs
+        // with their sign bit flipped
+        Random random = new Random(1);
+        long[] flippedKeys = new long[NUM_ENTRIES];
+        for(int i = 0; i < NUM_ENTRIES; i++)
+            flippedKeys[i] = random.nextLong();
+        Arrays.sort(flippedKeys);
+
+        byte[] sortedIndex = new byte[NUM_ENTRIES * ENTRY_SIZE];
+        for(int i = 0; i < NUM_ENTRIES; i++) {
+            ByteUtils.writeLong(sortedIndex, flippedKeys[i] ^ Long.MIN_VALUE, i * ENTRY_SIZE);
+            ByteUtils.writeInt(sortedIndex, i, i * ENTRY_SIZE + KEY_SIZE);
+        }
+
+        byte[][] found = new byte[NUM_INPUTS][KEY_SIZE];
+        byte[][] missing = new byte[NUM_INPUTS][KEY_SIZE];
+        for(int i = 0; i < NUM_INPUTS; i++) {
+            long key = flippedKeys[random.nextInt(NUM_ENTRIES)] ^ Long.MIN_VALUE;
+            ByteUtils.writeLong(found[i], key, 0);
+            do {
+                key = random.nextLong();
+            } while(Arrays.binarySearch(flippedKeys, key ^ Long.MIN_VALUE) >= 0);
+            ByteUtils.writeLong(missing[i], key, 0);
+        }
+
+        ByteBuffer index = toDirectBuffer(sortedIndex);
+        ByteBuffer hashIndex = toDirectBuffer(HashIndexBuilder.build(sortedIndex));
+        addOperations("binary", new BinarySearchStrategy(), index, found, missing);
+        addOperations("interpolation", new InterpolationSearchStrategy(), index, found, missing);
+        addOperations("hash", new HashIndexSearchStrategy(), hashIndex, found, missing);
+    }
+
+    private void addOperations(String prefix,
+                               final SearchStrategy strategy,
+                               final ByteBuffer index,
+                               final byte[][] found,
+                               final byte[][] missing) {
+        final int indexSize = index.capacity();
+        addOperation(prefix + ".found", new Operation() {
+
+            public int run(int i) {
+                return strategy.indexOf(index, found[input(i)], indexSize);
+            }
+        });
+        addOperation(prefix + ".missing", new Operation() {
+
+            public int run(int i) {
+                return strategy.indexOf(index, missing[input(i)], indexSize);
+            }
+        });
+    }
+
+    private static ByteBuffer toDirectBuffer(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.clear();
+        return buffer;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.performance.micro;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.ipc.HandshakeRequest;
+import org.apache.avro.ipc.MD5;
+import org.apache.avro.util.Utf8;
+
+import voldemort.client.protocol.pb.ProtoUtils;
+import voldemort.client.protocol.pb.VProto;
+import voldemort.serialization.DefaultSerializerFactory;
+import voldemort.serialization.Serializer;
+import voldemort.serialization.SerializerDefinition;
+import voldemort.serialization.thrift.MockMessage;
+import voldemort.versioning.VectorClock;
+
+/**
+ * Serializing and deserializing a small object with every serializer the
+ * {@link DefaultSerializerFactory} creates
+ */
+public class SerializerBenchmark extends MicroBenchmark {
+
+    private static final String AVRO_SCHEMA = "{\"name\": \"Member\", \"type\": \"record\", \"fields\": ["
+                                              + "{\"name\": \"id\", \"type\": \"long\"}, "
+                                              + "{\"name\": \"name\", \"type\": \"string\"}, "
+                                              + "{\"name\": \"score\", \"type\": \"double\"}]}";
+
+    private static final String NAME = "A member with a name of an average length";
+
+    private final DefaultSerializerFactory factory = new DefaultSerializerFactory();
+
+    public SerializerBenchmark() {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("id", 1234567L);
+        map.put("name", NAME);
+        map.put("scores", Arrays.asList(0.5, 1.5, 2.5));
+        addOperations(new SerializerDefinition("java-serialization"), new HashMap<String, Object>(map));
+        addOperations(new SerializerDefinition("json",
+                                               "{\"id\":\"int64\", \"name\":\"string\", \"scores\":[\"float64\"]}"),
+                      map);
+
+        addOperations(new SerializerDefinition("string"), NAME);
+        addOperations(new SerializerDefinition("identity"), NAME.getBytes());
+
+        VectorClock clock = new VectorClock(1234567L).incremented(0, 1234567L)
+                                                     .incremented(1, 1234567L);
+        addOperations(new SerializerDefinition("protobuf", "java="
+                                                           + VProto.VectorClock.class.getName()),
+                      ProtoUtils.encodeClock(clock).build());
+
+        List<Short> shorts = new ArrayList<Short>();
+        for(short i = 0; i < 10; i++)
+            shorts.add(i);
+        MockMessage message = new MockMessage().setName(NAME)
+                                               .setIntList(shorts)
+                                               .setStrSet(new HashSet<String>(Arrays.asList("a",
+                                                                                            "b")));
+        addOperations(new SerializerDefinition("thrift", "java=" + MockMessage.class.getName()
+                                                         + ",protocol=binary"), message);
+
+        GenericData.Record record = new GenericData.Record(Schema.parse(AVRO_SCHEMA));
+        record.put("id", 1234567L);
+        record.put("name", new Utf8(NAME));
+        record.put("score", 0.5);
+        addOperations(new SerializerDefinition("avro-generic", AVRO_SCHEMA), record);
+        addOperations(new SerializerDefinition("avro-generic-versioned", AVRO_SCHEMA), record);
+
+        HandshakeRequest request = new HandshakeRequest();
+        request.clientHash = new MD5();
+        request.clientHash.bytes(new byte[16]);
+        request.clientProtocol = new Utf8(NAME);
+        request.serverHash = new MD5();
+        request.serverHash.bytes(new byte[16]);
+        addOperations(new SerializerDefinition("avro-specific", "java="
+                                                                + HandshakeRequest.class.getName()),
+                      request);
+
+        Member member = new Member();
+        member.id = 1234567L;
+        member.name = NAME;
+        member.score = 0.5;
+        addOperations(new SerializerDefinition("avro-reflective", "java="
+                                                                  + Member.class.getName()),
+                      member);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addOperations(SerializerDefinition definition, final Object object) {
+        final Serializer<Object> serializer = (Serializer<Object>) factory.getSerializer(definition);
+        final byte[] bytes = serializer.toBytes(object);
+        addOperation(definition.getName() + ".toBytes", new Operation() {
+
+            public int run(int index) {
+                return serializer.toBytes(object).length;
+            }
+        });
+        addOperation(definition.getName() + ".toObject", new Operation() {
+
+            public int run(int index) {
+                return serializer.toObject(bytes) == null ? 0 : 1;
+            }
+        });
+    }
+
+    public static class Member {
+
+        private long id;
+        private String name;
+        private double score;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.performance.micro;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import voldemort.store.StoreBinaryFormat;
+import voldemort.versioning.VectorClock;
+import voldemort.versioning.Versioned;
+
+/**
+ * Serializing the versions of a key as the storage engines store them, and
+ * putting a new version into them
+ */
+public class StoreBinaryFormatBenchmark extends MicroBenchmark {
+
+    private static final int VALUE_SIZE = 1024;
+    private static final int NUM_NODES = 3;
+
+    public StoreBinaryFormatBenchmark() {
+        addOperations("1version", 1);
+        addOperations("3versions", 3);
+    }
+
+    private void addOperations(String prefix, int numVersions) {
+        Random random = new Random(numVersions);
+        final List<List<Versioned<byte[]>>> versions = new ArrayList<List<Versioned<byte[]>>>();
+        final byte[][] serialized = new byte[NUM_INPUTS][];
+        final List<Versioned<byte[]>> successors = new ArrayList<Versioned<byte[]>>();
+        for(int i = 0; i < NUM_INPUTS; i++) {
+            List<Versioned<byte[]>> values = new ArrayList<Versioned<byte[]>>();
+            VectorClock merged = new VectorClock(i);
+            for(int v = 0; v < numVersions; v++) {
+                // concurrent versions, each written through a different node
+                VectorClock clock = new VectorClock(i).incremented(v % NUM_NODES, i);
+                values.add(new Versioned<byte[]>(randomValue(random), clock));
+                merged = merged.merge(clock);
+            }
+            versions.add(values);
+            serialized[i] = StoreBinaryFormat.toByteArray(values);
+            successors.add(new Versioned<byte[]>(randomValue(random), merged.incremented(0, i)));
+        }
+
+        addOperation(prefix + ".toByteArray", new Operation() {
+
+            public int run(int index) {
+                return StoreBinaryFormat.toByteArray(versions.get(input(index))).length;
+            }
+        });
+        addOperation(prefix + ".fromByteArray", new Operation() {
+
+            public int run(int index) {
+                return StoreBinaryFormat.fromByteArray(serialized[input(index)]).size();
+            }
+        });
+        addOperation(prefix + ".addVersion", new Operation() {
+
+            public int run(int index) {
+                return StoreBinaryFormat.addVersion(serialized[input(index)],
+                                                    successors.get(input(index))).length;
+            }
+        });
+    }
+
+    private static byte[] randomValue(Random random) {
+        byte[] value = new byte[VALUE_SIZE];
+        random.nextBytes(value);
+        return value;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.performance.micro;
+
+import java.util.Random;
+
+import voldemort.versioning.VectorClock;
+
+/**
+ * Comparing, merging and serializing vector clocks, of keys written through a
+ * few nodes and of keys written through many
+ */
+public class VectorClockBenchmark extends MicroBenchmark {
+
+    private static final int NUM_WRITES = 100;
+
+    public VectorClockBenchmark() {
+        addOperations("3nodes", 3);
+        addOperations("12nodes", 12);
+    }
+
+    private void addOperations(String prefix, int numNodes) {
+        Random random = new Random(numNodes);
+        final VectorClock[] clocks = new VectorClock[NUM_INPUTS];
+        final byte[][] serialized = new byte[NUM_INPUTS][];
+        for(int i = 0; i < NUM_INPUTS; i++) {
+            clocks[i] = new VectorClock(i);
+            for(int write = 0; write < NUM_WRITES; write++)
+                clocks[i].incrementVersion(random.nextInt(numNodes), i);
+            serialized[i] = clocks[i].toBytes();
+        }
+
+        addOperation(prefix + ".compare", new Operation() {
+
+            public int run(int index) {
+                return clocks[input(index)].compare(clocks[input(index + 1)]).ordinal();
+            }
+        });
+        addOperation(prefix + ".compareSerialized", new Operation() {
+
+            public int run(int index) {
+                return VectorClock.compare(clocks[input(index)], serialized[input(index + 1)], 0)
+                                  .ordinal();
+            }
+        });
+        addOperation(prefix + ".merge", new Operation() {
+
+            public int run(int index) {
+                return clocks[input(index)].merge(clocks[input(index + 1)]).sizeInBytes();
+            }
+        });
+        addOperation(prefix + ".incremented", new Operation() {
+
+            public int run(int index) {
+                return clocks[input(index)].incremented(index & 15, index).sizeInBytes();
+            }
+        });
+        addOperation(prefix + ".toBytes", new Operation() {
+
+            public int run(int index) {
+                return clocks[input(index)].toBytes().length;
+            }
+        });
+        addOperation(prefix + ".fromBytes", new Operation() {
+
+            public int run(int index) {
+                return (int) new VectorClock(serialized[input(index)]).getMaxVersion();
+            }
+        });
+    }
+}
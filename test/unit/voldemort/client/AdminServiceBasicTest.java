@@ -1530,6 +1530,71 @@ public class AdminServiceBasicTest {
         }
     }
 
+    @Test
+    public void testUpdateAndFetchInBlocks() {
+        final HashMap<ByteArray, byte[]> entrySet = ServerTestUtils.createRandomKeyValuePairs(TEST_STREAM_KEYS_SIZE);
+        List<Integer> fetchPartitionsList = Arrays.asList(0, 2);
+        int fetchPartitionKeyCount = 0;
+        List<Pair<ByteArray, Versioned<byte[]>>> entries = Lists.newArrayList();
+        for(Entry<ByteArray, byte[]> entry: entrySet.entrySet()) {
+            entries.add(Pair.create(entry.getKey(), new Versioned<byte[]>(entry.getValue())));
+            if(isKeyPartition(entry.getKey(), 0, testStoreName, fetchPartitionsList))
+                fetchPartitionKeyCount++;
+        }
+
+        AdminClient client = new AdminClient(cluster,
+                                             new AdminClientConfig().setStreamBlockEntries(7)
+                                                                    .setStreamBlockCompression("lzf"));
+        try {
+            client.updateEntries(0, testStoreName, entries.iterator(), null);
+
+            Store<ByteArray, byte[], byte[]> store = getStore(0, testStoreName);
+            for(Entry<ByteArray, byte[]> entry: entrySet.entrySet()) {
+                assertEquals("entry value should match",
+                             new String(entry.getValue()),
+                             new String(store.get(entry.getKey(), null).get(0).getValue()));
+            }
+
+            Iterator<Pair<ByteArray, Versioned<byte[]>>> fetchIt = client.fetchEntries(0,
+                                                                                       testStoreName,
+                                                                                       fetchPartitionsList,
+                                                                                       null,
+                                                                                       false);
+            int count = 0;
+            while(fetchIt.hasNext()) {
+                Pair<ByteArray, Versioned<byte[]>> entry = fetchIt.next();
+                assertEquals("Fetched entries should belong to asked partitions",
+                             true,
+                             isKeyPartition(entry.getFirst(), 0, testStoreName, fetchPartitionsList));
+                assertEquals("entry value should match",
+                             new String(entry.getSecond().getValue()),
+                             new String(entrySet.get(entry.getFirst())));
+                count++;
+            }
+            assertEquals("All entries for asked partitions should be received",
+                         fetchPartitionKeyCount,
+                         count);
+
+            Iterator<ByteArray> keyIt = client.fetchKeys(0,
+                                                         testStoreName,
+                                                         fetchPartitionsList,
+                                                         null,
+                                                         false);
+            count = 0;
+            while(keyIt.hasNext()) {
+                assertEquals("Fetched key should belong to asked partitions",
+                             true,
+                             isKeyPartition(keyIt.next(), 0, testStoreName, fetchPartitionsList));
+                count++;
+            }
+            assertEquals("All keys for asked partitions should be received",
+                         fetchPartitionKeyCount,
+                         count);
+        } finally {
+            client.stop();
+        }
+    }
+
     @Test
     public void testUpdateSlops() {
         final List<Versioned<Slop>> entrySet = ServerTestUtils.createRandomSlops(0,
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import voldemort.ServerTestUtils;
+import voldemort.VoldemortException;
+import voldemort.cluster.Cluster;
+import voldemort.cluster.Node;
+import voldemort.server.VoldemortServer;
+import voldemort.store.InsufficientOperationalNodesException;
+import voldemort.store.socket.SocketStoreFactory;
+import voldemort.store.socket.clientrequest.ClientRequestExecutorPool;
+import voldemort.utils.ByteArray;
+import voldemort.utils.ByteUtils;
+import voldemort.versioning.ObsoleteVersionException;
+import voldemort.versioning.Occurred;
+import voldemort.versioning.VectorClock;
+import voldemort.versioning.Version;
+import voldemort.versioning.Versioned;
+
+public class DefaultAsyncStoreClientTest {
+
+    private static final String STORE_NAME = "test-readrepair-memory";
+    private static final String STORES_XML = "test/common/voldemort/config/stores.xml";
+
+    private final SocketStoreFactory socketStoreFactory = new ClientRequestExecutorPool(2,
+                                                                                        10000,
+                                                                                        100000,
+                                                                                        32 * 1024);
+    private VoldemortServer[] servers;
+    private SocketStoreClientFactory factory;
+    private AsyncStoreClient<String, String> asyncClient;
+    private StoreClient<String, String> storeClient;
+
+    @Before
+    public void setUp() throws IOException {
+        servers = new VoldemortServer[2];
+        int partitionMap[][] = { { 0, 2, 4, 6 }, { 1, 3, 5, 7 } };
+        Cluster cluster = ServerTestUtils.startVoldemortCluster(2,
+                                                                servers,
+                                                                partitionMap,
+                                                                socketStoreFactory,
+                                                                true,
+                                                                null,
+                                                                STORES_XML,
+                                                                new Properties());
+        Node node = cluster.getNodeById(0);
+        String bootstrapUrl = "tcp://" + node.getHost() + ":" + node.getSocketPort();
+        factory = new SocketStoreClientFactory(new ClientConfig().setBootstrapUrls(bootstrapUrl));
+        asyncClient = factory.getAsyncStoreClient(STORE_NAME);
+        storeClient = factory.getStoreClient(STORE_NAME);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        factory.close();
+        for(VoldemortServer server: servers) {
+            if(server != null)
+                ServerTestUtils.stopVoldemortServer(server);
+        }
+        socketStoreFactory.close();
+    }
+
+    @Test
+    public void testSanity() throws Exception {
+        asyncClient.put("Belarus", "Minsk").get();
+        asyncClient.put("Russia", "Moscow").get();
+        asyncClient.put("Ukraine", "Kiev").get();
+
+        assertEquals("Minsk", asyncClient.get("Belarus").get().getValue());
+        assertNull(asyncClient.get("Japan").get());
+
+        Map<String, Versioned<String>> capitals = asyncClient.getAll(Arrays.asList("Russia",
+                                                                                   "Ukraine",
+                                                                                   "Japan"))
+                                                             .get();
+        assertEquals(2, capitals.size());
+        assertEquals("Moscow", capitals.get("Russia").getValue());
+        assertEquals("Kiev", capitals.get("Ukraine").getValue());
+
+        assertTrue(asyncClient.delete("Ukraine").get());
+        assertFalse(asyncClient.delete("Ukraine").get());
+        assertNull(asyncClient.get("Ukraine").get());
+    }
+
+    @Test
+    public void testVersionsAreSharedWithStoreClient() throws Exception {
+        Version first = storeClient.put("key", "value1");
+        Version second = asyncClient.put("key", "value2").get();
+        assertEquals(Occurred.AFTER, second.compare(first));
+
+        Versioned<String> read = storeClient.get("key");
+        assertEquals("value2", read.getValue());
+        assertEquals(Occurred.BEFORE, read.getVersion().compare(second));
+        assertEquals(Occurred.BEFORE, second.compare(read.getVersion()));
+
+        Version third = storeClient.put("key", "value3");
+        assertEquals("value3", asyncClient.get("key").get().getValue());
+        assertEquals(Occurred.AFTER, third.compare(second));
+    }
+
+    @Test
+    public void testReplicasGetTheMasterClock() throws Exception {
+        Version version = asyncClient.put("key", "value").get();
+        ByteArray key = new ByteArray(ByteUtils.getBytes("key", "UTF-8"));
+        for(VoldemortServer server: servers) {
+            List<Versioned<byte[]>> stored = server.getStoreRepository()
+                                                   .getLocalStore(STORE_NAME)
+                                                   .get(key, null);
+            assertEquals(1, stored.size());
+            VectorClock clock = (VectorClock) stored.get(0).getVersion();
+            assertEquals(version, clock);
+            assertEquals(((VectorClock) version).getTimestamp(), clock.getTimestamp());
+        }
+    }
+
+    @Test
+    public void testObsoletePutFails() throws Exception {
+        asyncClient.put("key", "value").get();
+        try {
+            asyncClient.put("key", Versioned.value("old", new VectorClock())).get();
+            fail("Put of an obsolete version should fail");
+        } catch(ExecutionException e) {
+            assertTrue(e.getCause() instanceof ObsoleteVersionException);
+        }
+        assertEquals("value", storeClient.getValue("key"));
+    }
+
+    @Test
+    public void testCallbacks() throws Exception {
+        int numKeys = 100;
+        List<Future<Version>> puts = new ArrayList<Future<Version>>();
+        for(int i = 0; i < numKeys; i++)
+            puts.add(asyncClient.put("key" + i, "value" + i));
+        for(Future<Version> put: puts)
+            put.get();
+
+        final CountDownLatch latch = new CountDownLatch(numKeys);
+        final AtomicReference<String> error = new AtomicReference<String>();
+        for(int i = 0; i < numKeys; i++) {
+            final String expected = "value" + i;
+            asyncClient.get("key" + i, new AsyncCallback<Versioned<String>>() {
+
+                public void completed(Versioned<String> result) {
+                    if(result == null || !expected.equals(result.getValue()))
+                        error.set("Expected " + expected + " but got " + result);
+                    latch.countDown();
+                }
+
+                public void failed(Exception e) {
+                    error.set(e.toString());
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertNull(error.get(), error.get());
+    }
+
+    @Test
+    public void testGetAllStreaming() throws Exception {
+        int numKeys = 100;
+        List<String> keys = new ArrayList<String>();
+        for(int i = 0; i < numKeys; i++) {
+            keys.add("key" + i);
+            if(i % 2 == 0)
+                storeClient.put("key" + i, "value" + i);
+        }
+
+        RecordingGetAllCallback callback = new RecordingGetAllCallback();
+        asyncClient.getAllStreaming(keys, callback);
+        assertTrue(callback.done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(numKeys, callback.values.size());
+        assertTrue(callback.failures.isEmpty());
+        for(int i = 0; i < numKeys; i++) {
+            Versioned<String> value = callback.values.get("key" + i);
+            if(i % 2 == 0)
+                assertEquals("value" + i, value.getValue());
+            else
+                assertSame(RecordingGetAllCallback.NO_VALUE, value);
+        }
+        assertEquals(numKeys, callback.keysBeforeCompleted);
+    }
+
+    @Test
+    public void testGetAllStreamingFailsKeys() throws Exception {
+        storeClient.put("key", "value");
+        ServerTestUtils.stopVoldemortServer(servers[1]);
+        servers[1] = null;
+
+        RecordingGetAllCallback callback = new RecordingGetAllCallback();
+        asyncClient.getAllStreaming(Arrays.asList("key", "other"), callback);
+        assertTrue(callback.done.await(10, TimeUnit.SECONDS));
+        assertTrue(callback.values.isEmpty());
+        assertEquals(2, callback.failures.size());
+        assertTrue(callback.failures.get("key") instanceof InsufficientOperationalNodesException);
+    }
+
+    @Test
+    public void testInsufficientNodes() throws Exception {
+        asyncClient.put("key", "value").get();
+        ServerTestUtils.stopVoldemortServer(servers[1]);
+        servers[1] = null;
+        try {
+            asyncClient.get("key").get(10, TimeUnit.SECONDS);
+            fail("Get should fail with a replica down");
+        } catch(ExecutionException e) {
+            assertTrue(e.getCause() instanceof InsufficientOperationalNodesException);
+        }
+    }
+
+    @Test
+    public void testResponsesAreNotRunOnTheSelectorWhenThePoolIsFull() throws Exception {
+        asyncClient.put("key", "value").get();
+        Node node = servers[0].getIdentityNode();
+        ClientConfig config = new ClientConfig().setBootstrapUrls("tcp://" + node.getHost() + ":"
+                                                                  + node.getSocketPort())
+                                                .setMaxThreads(1)
+                                                .setAsyncMaxQueuedResponses(1);
+        SocketStoreClientFactory smallFactory = new SocketStoreClientFactory(config);
+        try {
+            AsyncStoreClient<String, String> smallClient = smallFactory.getAsyncStoreClient(STORE_NAME);
+
+            // keep the only thread of the pool busy
+            final CountDownLatch blocked = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            smallClient.get("key", new AsyncCallback<Versioned<String>>() {
+
+                public void completed(Versioned<String> result) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                public void failed(Exception e) {
+                    blocked.countDown();
+                }
+            });
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+
+            // one response is queued, the other has no room and fails the get
+            try {
+                smallClient.get("key").get(10, TimeUnit.SECONDS);
+                fail("Get should fail when the pool is full");
+            } catch(ExecutionException e) {
+                assertTrue(e.getCause().toString(), e.getCause() instanceof VoldemortException);
+            } finally {
+                release.countDown();
+            }
+            assertEquals("value", smallClient.get("key").get(10, TimeUnit.SECONDS).getValue());
+        } finally {
+            smallFactory.close();
+        }
+    }
+
+    private static class RecordingGetAllCallback implements GetAllCallback<String, String> {
+
+        private static final Versioned<String> NO_VALUE = Versioned.value(null);
+
+        private final Map<String, Versioned<String>> values = new ConcurrentHashMap<String, Versioned<String>>();
+        private final Map<String, Exception> failures = new ConcurrentHashMap<String, Exception>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile int keysBeforeCompleted;
+
+        public void keyCompleted(String key, Versioned<String> value) {
+            values.put(key, value == null ? NO_VALUE : value);
+        }
+
+        public void keyFailed(String key, Exception e) {
+            failures.put(key, e);
+        }
+
+        public void completed() {
+            keysBeforeCompleted = values.size() + failures.size();
+            done.countDown();
+        }
+    }
+}
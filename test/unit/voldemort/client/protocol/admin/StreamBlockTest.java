@@ -0,0 +1,110 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.client.protocol.admin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import voldemort.TestUtils;
+import voldemort.client.protocol.pb.ProtoUtils;
+import voldemort.client.protocol.pb.VAdminProto;
+import voldemort.versioning.Versioned;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+
+@RunWith(Parameterized.class)
+public class StreamBlockTest {
+
+    private final String compressionType;
+
+    public StreamBlockTest(String compressionType) {
+        this.compressionType = compressionType;
+    }
+
+    @Parameters
+    public static Collection<Object[]> configs() {
+        return Arrays.asList(new Object[][] { { null }, { "gzip" }, { "lzf" }, { "snappy" } });
+    }
+
+    private VAdminProto.PartitionEntry entry(int i) {
+        Versioned<byte[]> value = new Versioned<byte[]>(TestUtils.randomBytes(i * 10),
+                                                        TestUtils.getClock(1, 2));
+        return VAdminProto.PartitionEntry.newBuilder()
+                                         .setKey(ByteString.copyFromUtf8("key" + i))
+                                         .setVersioned(ProtoUtils.encodeVersioned(value))
+                                         .build();
+    }
+
+    @Test
+    public void testEntries() throws IOException {
+        StreamBlock block = new StreamBlock(10, compressionType);
+        assertTrue(block.isEmpty());
+
+        List<VAdminProto.PartitionEntry> entries = Lists.newArrayList();
+        for(int i = 0; i < 10; i++) {
+            assertFalse(block.isFull());
+            entries.add(entry(i));
+            block.add(entries.get(i));
+        }
+        assertTrue(block.isFull());
+        assertEquals(entries, StreamBlock.decodeEntries(block.finish(), compressionType));
+
+        assertTrue("Finishing starts a new block", block.isEmpty());
+        VAdminProto.PartitionEntry entry = entry(3);
+        block.add(entry);
+        assertEquals(Arrays.asList(entry), StreamBlock.decodeEntries(block.finish(), compressionType));
+    }
+
+    @Test
+    public void testKeys() throws IOException {
+        StreamBlock block = new StreamBlock(100, compressionType);
+        List<ByteString> keys = Lists.newArrayList();
+        for(int i = 0; i < 50; i++) {
+            keys.add(ByteString.copyFrom(TestUtils.randomBytes(i)));
+            block.add(keys.get(i));
+        }
+        assertFalse(block.isFull());
+        assertEquals(keys, StreamBlock.decodeKeys(block.finish(), compressionType));
+    }
+
+    @Test
+    public void testFullByBytes() throws IOException {
+        StreamBlock block = new StreamBlock(Integer.MAX_VALUE, compressionType);
+        block.add(ByteString.copyFrom(new byte[StreamBlock.MAX_BLOCK_BYTES - 10]));
+        assertFalse(block.isFull());
+        block.add(ByteString.copyFrom(new byte[10]));
+        assertTrue(block.isFull());
+    }
+
+    @Test
+    public void testSupportedCompression() {
+        assertTrue(StreamBlock.isSupportedCompression(compressionType));
+        assertFalse(StreamBlock.isSupportedCompression("rot13"));
+    }
+}
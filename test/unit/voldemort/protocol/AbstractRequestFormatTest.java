@@ -4,6 +4,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -225,6 +226,53 @@ public abstract class AbstractRequestFormatTest extends TestCase {
         }
     }
 
+    public void testPutAutoVersionRequests() throws Exception {
+        ByteArray key = TestUtils.toByteArray("hello");
+        testPutAutoVersionRequest(key, "world".getBytes(), null, TestUtils.getClock(2));
+
+        // the existing version is merged into the new one
+        this.store.put(key, new Versioned<byte[]>("world".getBytes(), TestUtils.getClock(1)), null);
+        testPutAutoVersionRequest(key, "world".getBytes(), null, TestUtils.getClock(1, 2));
+
+        // as is the clock sent by the client
+        this.store.put(key, new Versioned<byte[]>("world".getBytes(), TestUtils.getClock(1)), null);
+        testPutAutoVersionRequest(key,
+                                  "world".getBytes(),
+                                  TestUtils.getClock(3),
+                                  TestUtils.getClock(1, 2, 3));
+    }
+
+    public void testPutAutoVersionRequest(ByteArray key,
+                                          byte[] value,
+                                          VectorClock version,
+                                          VectorClock expected) throws Exception {
+        try {
+            ByteArrayOutputStream putRequest = new ByteArrayOutputStream();
+            this.clientWireFormat.writePutAutoVersionRequest(new DataOutputStream(putRequest),
+                                                             storeName,
+                                                             key,
+                                                             value,
+                                                             null,
+                                                             version == null ? new VectorClock()
+                                                                            : version,
+                                                             2,
+                                                             RequestRoutingType.NORMAL);
+            assertTrue(this.serverWireFormat.isCompleteRequest(ByteBuffer.wrap(putRequest.toByteArray())));
+            ByteArrayOutputStream putResponse = new ByteArrayOutputStream();
+            this.serverWireFormat.handleRequest(inputStream(putRequest),
+                                                new DataOutputStream(putResponse));
+            VectorClock clock = this.clientWireFormat.readPutAutoVersionResponse(inputStream(putResponse));
+            assertEquals(expected.getEntries(), clock.getEntries());
+
+            List<Versioned<byte[]>> found = this.store.get(key, null);
+            assertEquals(1, found.size());
+            assertEquals(clock, found.get(0).getVersion());
+            assertTrue(Arrays.equals(value, found.get(0).getValue()));
+        } finally {
+            this.store.deleteAll();
+        }
+    }
+
     public void testDeleteRequests() throws Exception {
         // test pre-existing are deleted
         testDeleteRequest(new ByteArray(),
@@ -0,0 +1,12 @@
+package voldemort.protocol.vold;
+
+import voldemort.client.protocol.RequestFormatType;
+import voldemort.protocol.AbstractRequestFormatTest;
+
+public class VoldemortNativePipelinedRequestFormatTest extends AbstractRequestFormatTest {
+
+    public VoldemortNativePipelinedRequestFormatTest() {
+        super(RequestFormatType.VOLDEMORT_V4);
+    }
+
+}
@@ -79,6 +79,24 @@ public class ConsistentRoutingStrategyTest extends TestCase {
         assertReplicationPartitions(getRouter(16, 3).getPartitionList(key), 16, 17, 1);
     }
 
+    public void testRoutesAreSharedAndImmutable() {
+        ConsistentRoutingStrategy router = getRouter(14, 3);
+        List<Node> nodes = router.routeRequest(key);
+        assertSame(nodes, router.routeRequest(key));
+        assertSame(router.getPartitionList(key), router.getReplicatingPartitionList(14));
+        assertReplicationPartitions(router.getReplicatingPartitionList(14), 14, 15, 16);
+
+        try {
+            nodes.remove(0);
+            fail("Should not be able to modify a shared preference list");
+        } catch(UnsupportedOperationException e) {}
+        try {
+            router.getReplicatingPartitionList(14).clear();
+            fail("Should not be able to modify a shared partition list");
+        } catch(UnsupportedOperationException e) {}
+        assertNodeOrder(router.routeRequest(key), 0, 4, 3);
+    }
+
     public void testGetNodes() {
         getRouter(0, 3).getNodes().containsAll(getTestNodes());
     }
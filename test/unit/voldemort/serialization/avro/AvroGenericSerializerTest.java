@@ -15,6 +15,8 @@
  */
 package voldemort.serialization.avro;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import junit.framework.TestCase;
 
 import org.apache.avro.Schema;
@@ -61,4 +63,32 @@ public class AvroGenericSerializerTest extends TestCase {
         assertTrue(serializer.toObject(bytes).equals(record));
     }
 
+    public void testRoundtripFromManyThreads() throws Exception {
+        String jsonSchema = "{\"name\": \"Str\", \"type\": \"string\"}";
+        final AvroGenericSerializer serializer = new AvroGenericSerializer(jsonSchema);
+        final AtomicInteger numFailures = new AtomicInteger(0);
+        Thread[] threads = new Thread[8];
+        for(int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(new Runnable() {
+
+                public void run() {
+                    for(int i = 0; i < 1000; i++) {
+                        // every now and then a value too large to keep the
+                        // buffer for
+                        String value = i % 100 == 0 ? new String(new char[2 * 1024 * 1024])
+                                                   : thread + "-" + i;
+                        byte[] bytes = serializer.toBytes(new Utf8(value));
+                        if(!serializer.toObject(bytes).equals(new Utf8(value)))
+                            numFailures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for(Thread thread: threads)
+            thread.join();
+        assertEquals(0, numFailures.get());
+    }
+
 }
@@ -61,6 +61,7 @@ public class EndToEndTest {
                                                                                         32 * 1024);
     private final boolean useNio;
 
+    private String bootstrapUrl;
     private StoreClient<String, String> storeClient;
 
     public EndToEndTest(boolean useNio) {
@@ -87,7 +88,7 @@ public class EndToEndTest {
                                                                 new Properties());
 
         Node node = cluster.getNodeById(0);
-        String bootstrapUrl = "tcp://" + node.getHost() + ":" + node.getSocketPort();
+        bootstrapUrl = "tcp://" + node.getHost() + ":" + node.getSocketPort();
         StoreClientFactory storeClientFactory = new SocketStoreClientFactory(new ClientConfig().setBootstrapUrls(bootstrapUrl));
         storeClient = storeClientFactory.getStoreClient(STORE_NAME);
     }
@@ -174,6 +175,27 @@ public class EndToEndTest {
         }
     }
 
+    @Test
+    public void testServerVersionedPutReturnVersion() {
+        ClientConfig config = new ClientConfig().setBootstrapUrls(bootstrapUrl)
+                                                .setEnableServerSideVersioning(true);
+        StoreClient<String, String> client = new SocketStoreClientFactory(config).getStoreClient(STORE_NAME);
+
+        // mix in puts of client-side versions to check the master merges them
+        Version oldVersion = storeClient.put("key1", "value");
+        for(int i = 0; i < 5; i++) {
+            String newValue = "value" + i;
+            Version newVersion = client.put("key1", newValue);
+            verifyResults(oldVersion, newVersion, storeClient.get("key1"), newValue);
+
+            oldVersion = newVersion;
+            newValue = "value" + i + 1;
+            newVersion = storeClient.put("key1", newValue);
+            verifyResults(oldVersion, newVersion, client.get("key1"), newValue);
+            oldVersion = newVersion;
+        }
+    }
+
     private void verifyResults(Version oldVersion,
                                Version newVersion,
                                Versioned<String> getVersioned,
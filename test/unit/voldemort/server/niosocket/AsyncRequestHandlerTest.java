@@ -0,0 +1,191 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.server.niosocket;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.mutable.MutableInt;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import voldemort.client.protocol.RequestFormatType;
+import voldemort.server.protocol.RequestHandler;
+import voldemort.server.protocol.RequestHandlerFactory;
+import voldemort.server.protocol.StreamRequestHandler;
+import voldemort.utils.DirectByteBufferPool;
+
+public class AsyncRequestHandlerTest {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private static final byte FAILING_REQUEST = 2;
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch proceed = new CountDownLatch(1);
+
+    private ServerSocketChannel serverChannel;
+    private SocketChannel client;
+    private Selector selector;
+    private NioRequestWorkerPool workerPool;
+    private NioSelectorManager selectorManager;
+    private DirectByteBufferPool bufferPool;
+    private AsyncRequestHandler handler;
+
+    @Before
+    public void setUp() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.socket().bind(new InetSocketAddress("localhost", 0));
+        client = SocketChannel.open(serverChannel.socket().getLocalSocketAddress());
+        SocketChannel server = serverChannel.accept();
+        server.configureBlocking(false);
+
+        RequestHandlerFactory factory = new RequestHandlerFactory() {
+
+            public RequestHandler getRequestHandler(RequestFormatType type) {
+                return new BlockingRequestHandler();
+            }
+        };
+        selector = Selector.open();
+        workerPool = new NioRequestWorkerPool(1, 1, "test-worker");
+        bufferPool = new DirectByteBufferPool(BUFFER_SIZE, 10);
+        selectorManager = new NioSelectorManager((InetSocketAddress) serverChannel.socket()
+                                                                                  .getLocalSocketAddress(),
+                                                 factory,
+                                                 BUFFER_SIZE,
+                                                 workerPool,
+                                                 bufferPool);
+        handler = new AsyncRequestHandler(selector,
+                                          server,
+                                          factory,
+                                          BUFFER_SIZE,
+                                          new MutableInt(1),
+                                          selectorManager,
+                                          workerPool,
+                                          bufferPool);
+        server.register(selector, SelectionKey.OP_READ, handler);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        proceed.countDown();
+        workerPool.shutdown();
+        selectorManager.close();
+        selector.close();
+        client.close();
+        serverChannel.close();
+    }
+
+    /*
+     * Lets the handler act on the next event of the connection, as the selector
+     * thread would
+     */
+    private void select() throws IOException {
+        assertEquals(1, selector.select(10000));
+        selector.selectedKeys().clear();
+        handler.run();
+    }
+
+    @Test
+    public void testCloseDuringRequest() throws Exception {
+        client.write(ByteBuffer.wrap(RequestFormatType.VOLDEMORT_V1.getCode().getBytes()));
+        select();
+        select();
+        ByteBuffer ok = ByteBuffer.allocate(2);
+        while(ok.hasRemaining())
+            client.read(ok);
+        assertEquals("An idle connection holds no buffers", 0, bufferPool.getNumInUse());
+
+        client.write(ByteBuffer.wrap(new byte[] { 1 }));
+        select();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertEquals(2, bufferPool.getNumInUse());
+
+        handler.close();
+        assertEquals("The buffers were released while the worker was using them",
+                     2,
+                     bufferPool.getNumInUse());
+
+        proceed.countDown();
+        workerPool.shutdown();
+        assertTrue(workerPool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, bufferPool.getNumInUse());
+    }
+
+    @Test
+    public void testFailedRequestIsClosedBySelector() throws Exception {
+        client.write(ByteBuffer.wrap(RequestFormatType.VOLDEMORT_V1.getCode().getBytes()));
+        select();
+        select();
+        ByteBuffer ok = ByteBuffer.allocate(2);
+        while(ok.hasRemaining())
+            client.read(ok);
+
+        client.write(ByteBuffer.wrap(new byte[] { FAILING_REQUEST }));
+        select();
+        workerPool.shutdown();
+        assertTrue(workerPool.awaitTermination(10, TimeUnit.SECONDS));
+
+        // the worker leaves the connection to the selector thread
+        assertFalse(handler.isClosed());
+        assertEquals(2, bufferPool.getNumInUse());
+
+        handler.completeRequest();
+        assertTrue(handler.isClosed());
+        assertEquals(0, bufferPool.getNumInUse());
+    }
+
+    /*
+     * Takes any single byte as a complete request, and waits for the test
+     * before answering it, unless it is asked to fail
+     */
+    private class BlockingRequestHandler implements RequestHandler {
+
+        public StreamRequestHandler handleRequest(DataInputStream inputStream,
+                                                  DataOutputStream outputStream)
+                throws IOException {
+            if(inputStream.readByte() == FAILING_REQUEST)
+                throw new IOException("Request failed");
+            started.countDown();
+            try {
+                proceed.await();
+            } catch(InterruptedException e) {
+                throw new IOException(e.getMessage());
+            }
+            outputStream.writeInt(42);
+            return null;
+        }
+
+        public boolean isCompleteRequest(ByteBuffer buffer) {
+            return buffer.remaining() >= 1;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.server.niosocket;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import voldemort.ServerTestUtils;
+import voldemort.VoldemortTestConstants;
+import voldemort.client.protocol.RequestFormat;
+import voldemort.client.protocol.RequestFormatFactory;
+import voldemort.client.protocol.RequestFormatType;
+import voldemort.server.RequestRoutingType;
+import voldemort.server.StoreRepository;
+import voldemort.store.SleepyStore;
+import voldemort.store.Store;
+import voldemort.store.memory.InMemoryStorageEngine;
+import voldemort.utils.ByteArray;
+import voldemort.utils.ByteUtils;
+import voldemort.versioning.Versioned;
+
+/**
+ * Sends a slow request followed by fast ones on one pipelined connection to a
+ * server with a worker pool, which should answer the fast ones first.
+ */
+public class MultiplexedRequestTest {
+
+    private static final int NUM_FAST_REQUESTS = 5;
+
+    private NioSocketService socketService;
+    private Socket socket;
+
+    @Before
+    public void setUp() throws Exception {
+        String clusterXml = VoldemortTestConstants.getOneNodeClusterXml();
+        String storesXml = VoldemortTestConstants.getSimpleStoreDefinitionsXml();
+        StoreRepository repository = ServerTestUtils.getStores("test", clusterXml, storesXml);
+        repository.getLocalStore("test").put(key(), new Versioned<byte[]>(value()), null);
+
+        Store<ByteArray, byte[], byte[]> slowStore = new InMemoryStorageEngine<ByteArray, byte[], byte[]>("slow");
+        slowStore.put(key(), new Versioned<byte[]>(value()), null);
+        repository.addLocalStore(new SleepyStore<ByteArray, byte[], byte[]>(500, slowStore));
+
+        int port = ServerTestUtils.findFreePort();
+        socketService = new NioSocketService(ServerTestUtils.getSocketRequestHandlerFactory(clusterXml,
+                                                                                            storesXml,
+                                                                                            repository),
+                                             port,
+                                             10000,
+                                             1,
+                                             "client-request-service",
+                                             false,
+                                             -1,
+                                             4,
+                                             10,
+                                             10);
+        socketService.start();
+        socket = new Socket("localhost", port);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        socket.close();
+        socketService.stop();
+    }
+
+    @Test
+    public void testOutOfOrderResponses() throws Exception {
+        RequestFormat format = new RequestFormatFactory().getRequestFormat(RequestFormatType.VOLDEMORT_V4);
+        OutputStream out = socket.getOutputStream();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+        out.write(ByteUtils.getBytes(RequestFormatType.VOLDEMORT_V4.getCode(), "UTF-8"));
+        out.flush();
+        byte[] negotiation = new byte[2];
+        in.readFully(negotiation);
+        assertEquals("ok", ByteUtils.getString(negotiation, "UTF-8"));
+
+        // the slow request goes first, the fast ones all at once behind it
+        List<Integer> requestIds = new ArrayList<Integer>();
+        ByteArrayOutputStream requests = new ByteArrayOutputStream();
+        DataOutputStream requestStream = new DataOutputStream(requests);
+        for(int i = 0; i <= NUM_FAST_REQUESTS; i++) {
+            int start = requests.size();
+            format.writeGetRequest(requestStream,
+                                   i == 0 ? "slow" : "test",
+                                   key(),
+                                   null,
+                                   RequestRoutingType.NORMAL);
+            requestStream.flush();
+            requestIds.add(ByteUtils.readInt(requests.toByteArray(), start));
+        }
+        out.write(requests.toByteArray());
+        out.flush();
+
+        List<Integer> responseIds = new ArrayList<Integer>();
+        for(int i = 0; i <= NUM_FAST_REQUESTS; i++) {
+            int requestId = in.readInt();
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            responseIds.add(requestId);
+
+            ByteArrayOutputStream frame = new ByteArrayOutputStream();
+            DataOutputStream frameStream = new DataOutputStream(frame);
+            frameStream.writeInt(requestId);
+            frameStream.writeInt(body.length);
+            frameStream.write(body);
+            frameStream.flush();
+            List<Versioned<byte[]>> values = format.readGetResponse(new DataInputStream(new ByteArrayInputStream(frame.toByteArray())));
+            assertEquals(1, values.size());
+            assertArrayEquals(value(), values.get(0).getValue());
+        }
+
+        // every request is answered once, the slow one last
+        assertEquals(requestIds.get(0), responseIds.get(NUM_FAST_REQUESTS));
+        Integer[] expected = requestIds.toArray(new Integer[0]);
+        Integer[] actual = responseIds.toArray(new Integer[0]);
+        Arrays.sort(expected);
+        Arrays.sort(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    private ByteArray key() {
+        return new ByteArray(ByteUtils.getBytes("key", "UTF-8"));
+    }
+
+    private byte[] value() {
+        return ByteUtils.getBytes("value", "UTF-8");
+    }
+}
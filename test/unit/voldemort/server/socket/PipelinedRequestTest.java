@@ -0,0 +1,146 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.server.socket;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import voldemort.ServerTestUtils;
+import voldemort.VoldemortTestConstants;
+import voldemort.client.protocol.RequestFormat;
+import voldemort.client.protocol.RequestFormatFactory;
+import voldemort.client.protocol.RequestFormatType;
+import voldemort.server.AbstractSocketService;
+import voldemort.server.RequestRoutingType;
+import voldemort.utils.ByteArray;
+import voldemort.utils.ByteUtils;
+import voldemort.versioning.VectorClock;
+import voldemort.versioning.Versioned;
+
+/**
+ * Sends several pipelined requests on one connection without waiting for the
+ * responses in between.
+ */
+@RunWith(Parameterized.class)
+public class PipelinedRequestTest {
+
+    private static final int NUM_REQUESTS = 50;
+
+    private AbstractSocketService socketService;
+    private int port;
+    private Socket socket;
+
+    private final boolean useNio;
+
+    public PipelinedRequestTest(boolean useNio) {
+        this.useNio = useNio;
+    }
+
+    @Parameters
+    public static Collection<Object[]> configs() {
+        return Arrays.asList(new Object[][] { { true }, { false } });
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        port = ServerTestUtils.findFreePort();
+        socketService = ServerTestUtils.getSocketService(useNio,
+                                                         VoldemortTestConstants.getOneNodeClusterXml(),
+                                                         VoldemortTestConstants.getSimpleStoreDefinitionsXml(),
+                                                         "test",
+                                                         port);
+        socketService.start();
+        socket = new Socket("localhost", port);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        socket.close();
+        socketService.stop();
+    }
+
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        RequestFormat format = new RequestFormatFactory().getRequestFormat(RequestFormatType.VOLDEMORT_V4);
+        OutputStream out = socket.getOutputStream();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+        out.write(ByteUtils.getBytes(RequestFormatType.VOLDEMORT_V4.getCode(), "UTF-8"));
+        out.flush();
+        byte[] negotiation = new byte[2];
+        in.readFully(negotiation);
+        assertEquals("ok", ByteUtils.getString(negotiation, "UTF-8"));
+
+        ByteArrayOutputStream requests = new ByteArrayOutputStream();
+        DataOutputStream requestStream = new DataOutputStream(requests);
+        for(int i = 0; i < NUM_REQUESTS; i++)
+            format.writePutRequest(requestStream,
+                                   "test",
+                                   key(i),
+                                   value(i),
+                                   null,
+                                   new VectorClock(),
+                                   RequestRoutingType.NORMAL);
+        for(int i = 0; i < NUM_REQUESTS; i++)
+            format.writeGetRequest(requestStream, "test", key(i), null, RequestRoutingType.NORMAL);
+        requestStream.flush();
+
+        // Split the batch in the middle of a request so that the server has
+        // to hold on to a partial request in between
+        byte[] bytes = requests.toByteArray();
+        int split = bytes.length / 2 + 3;
+        out.write(bytes, 0, split);
+        out.flush();
+        Thread.sleep(100);
+        out.write(bytes, split, bytes.length - split);
+        out.flush();
+
+        for(int i = 0; i < NUM_REQUESTS; i++)
+            format.readPutResponse(in);
+
+        for(int i = 0; i < NUM_REQUESTS; i++) {
+            List<Versioned<byte[]>> values = format.readGetResponse(in);
+            assertEquals(1, values.size());
+            assertArrayEquals(value(i), values.get(0).getValue());
+        }
+    }
+
+    private ByteArray key(int i) {
+        return new ByteArray(ByteUtils.getBytes("key" + i, "UTF-8"));
+    }
+
+    private byte[] value(int i) {
+        return ByteUtils.getBytes("value" + i, "UTF-8");
+    }
+}
@@ -29,6 +29,7 @@ import voldemort.utils.Pair;
 import voldemort.versioning.Versioned;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 
 public abstract class AbstractStorageEngineTest extends AbstractByteArrayStoreTest {
 
@@ -119,6 +120,30 @@ public abstract class AbstractStorageEngineTest extends AbstractByteArrayStoreTe
         assertEquals(1, engine.get(key, null).size());
     }
 
+    public void testPutAll() {
+        StorageEngine<ByteArray, byte[], byte[]> engine = getStorageEngine();
+        ByteArray key1 = new ByteArray((byte) 7);
+        ByteArray key2 = new ByteArray((byte) 2);
+        ByteArray key3 = new ByteArray((byte) 5);
+        engine.put(key1, new Versioned<byte[]>(new byte[] { 1 }, TestUtils.getClock(1, 1)), null);
+
+        List<Pair<ByteArray, Versioned<byte[]>>> entries = Lists.newArrayList();
+        entries.add(Pair.create(key2, new Versioned<byte[]>(new byte[] { 2 }, TestUtils.getClock(1))));
+        entries.add(Pair.create(key1, new Versioned<byte[]>(new byte[] { 3 }, TestUtils.getClock(1))));
+        entries.add(Pair.create(key3, new Versioned<byte[]>(new byte[] { 4 }, TestUtils.getClock(1))));
+        entries.add(Pair.create(key2, new Versioned<byte[]>(new byte[] { 5 }, TestUtils.getClock(1, 1))));
+        entries.add(Pair.create(key3, new Versioned<byte[]>(new byte[] { 6 }, TestUtils.getClock(2))));
+        assertEquals("Only the put to key1 should be obsolete.", 1, engine.putAll(entries));
+
+        List<Versioned<byte[]>> found = engine.get(key1, null);
+        assertEquals(1, found.size());
+        assertEquals(1, found.get(0).getValue()[0]);
+        found = engine.get(key2, null);
+        assertEquals(1, found.size());
+        assertEquals(5, found.get(0).getValue()[0]);
+        assertEquals(2, engine.get(key3, null).size());
+    }
+
     public void testTruncate() throws Exception {
         StorageEngine<ByteArray, byte[], byte[]> engine = getStorageEngine();
         Versioned<byte[]> v1 = new Versioned<byte[]>(new byte[] { 1 });
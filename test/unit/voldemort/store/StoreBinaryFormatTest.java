@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store;
+
+import static voldemort.TestUtils.getClock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import voldemort.versioning.ObsoleteVersionException;
+import voldemort.versioning.VectorClock;
+import voldemort.versioning.Versioned;
+
+public class StoreBinaryFormatTest extends TestCase {
+
+    private Versioned<byte[]> versioned(String value, VectorClock clock) {
+        return Versioned.value(value.getBytes(), clock);
+    }
+
+    private void assertVersions(List<Versioned<byte[]>> expected, byte[] bytes) {
+        List<Versioned<byte[]>> actual = StoreBinaryFormat.fromByteArray(bytes);
+        assertEquals(expected.size(), actual.size());
+        for(int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getVersion(), actual.get(i).getVersion());
+            assertTrue(Arrays.equals(expected.get(i).getValue(), actual.get(i).getValue()));
+        }
+    }
+
+    public void testAddVersion() {
+        Versioned<byte[]> first = versioned("first", getClock(1));
+        byte[] bytes = StoreBinaryFormat.addVersion(null, first);
+        assertVersions(Arrays.asList(first), bytes);
+
+        Versioned<byte[]> concurrent = versioned("concurrent", getClock(2));
+        bytes = StoreBinaryFormat.addVersion(bytes, concurrent);
+        assertVersions(Arrays.asList(first, concurrent), bytes);
+
+        Versioned<byte[]> other = versioned("other", getClock(3, 3, 3));
+        bytes = StoreBinaryFormat.addVersion(bytes, other);
+        assertVersions(Arrays.asList(first, concurrent, other), bytes);
+
+        Versioned<byte[]> successor = versioned("successor", getClock(1, 1, 2));
+        bytes = StoreBinaryFormat.addVersion(bytes, successor);
+        assertVersions(Arrays.asList(other, successor), bytes);
+
+        Versioned<byte[]> last = versioned("", getClock(1, 1, 2, 3, 3, 3));
+        bytes = StoreBinaryFormat.addVersion(bytes, last);
+        assertVersions(Arrays.asList(last), bytes);
+    }
+
+    public void testAddObsoleteVersion() {
+        List<Versioned<byte[]>> versions = new ArrayList<Versioned<byte[]>>();
+        versions.add(versioned("first", getClock(1, 1)));
+        versions.add(versioned("second", getClock(2)));
+        byte[] bytes = StoreBinaryFormat.toByteArray(versions);
+
+        for(VectorClock clock: Arrays.asList(getClock(1), getClock(1, 1), getClock(2))) {
+            try {
+                StoreBinaryFormat.addVersion(bytes, versioned("obsolete", clock));
+                fail("Adding " + clock + " should fail");
+            } catch(ObsoleteVersionException e) {
+                // expected
+            }
+        }
+    }
+}
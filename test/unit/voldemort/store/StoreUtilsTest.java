@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import voldemort.TestUtils;
+import voldemort.store.memory.InMemoryStorageEngine;
+import voldemort.utils.ByteArray;
+import voldemort.versioning.VectorClock;
+import voldemort.versioning.Version;
+import voldemort.versioning.Versioned;
+
+public class StoreUtilsTest extends TestCase {
+
+    private static final int NUM_THREADS = 10;
+
+    public void testPutAutoVersionMergesExistingVersions() {
+        Store<ByteArray, byte[], byte[]> store = new InMemoryStorageEngine<ByteArray, byte[], byte[]>("test");
+        ByteArray key = TestUtils.toByteArray("key");
+        store.put(key, new Versioned<byte[]>("a".getBytes(), TestUtils.getClock(1)), null);
+
+        VectorClock clock = StoreUtils.putAutoVersion(store,
+                                                      key,
+                                                      new Versioned<byte[]>("b".getBytes(),
+                                                                            TestUtils.getClock(2)),
+                                                      null,
+                                                      3,
+                                                      System.currentTimeMillis());
+        assertEquals(TestUtils.getClock(1, 2, 3), clock);
+        List<Versioned<byte[]>> found = store.get(key, null);
+        assertEquals(1, found.size());
+        assertEquals(clock, found.get(0).getVersion());
+    }
+
+    public void testConcurrentPutAutoVersion() throws Exception {
+        // Reading the versions is slow, so that unserialized puts would all
+        // read the same versions and all but one of them would be obsolete
+        final Store<ByteArray, byte[], byte[]> store = new DelegatingStore<ByteArray, byte[], byte[]>(new InMemoryStorageEngine<ByteArray, byte[], byte[]>("test")) {
+
+            @Override
+            public List<Version> getVersions(ByteArray key) {
+                try {
+                    Thread.sleep(10);
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getVersions(key);
+            }
+        };
+        final ByteArray key = TestUtils.toByteArray("key");
+        final AtomicInteger failures = new AtomicInteger(0);
+        final CountDownLatch latch = new CountDownLatch(NUM_THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        for(int i = 0; i < NUM_THREADS; i++) {
+            executor.execute(new Runnable() {
+
+                public void run() {
+                    try {
+                        StoreUtils.putAutoVersion(store,
+                                                  key,
+                                                  new Versioned<byte[]>(TestUtils.randomBytes(8)),
+                                                  null,
+                                                  0,
+                                                  System.currentTimeMillis());
+                    } catch(Exception e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        latch.await();
+        executor.shutdown();
+
+        assertEquals(0, failures.get());
+        List<Versioned<byte[]>> found = store.get(key, null);
+        assertEquals(1, found.size());
+        assertEquals(NUM_THREADS, ((VectorClock) found.get(0).getVersion()).getMaxVersion());
+    }
+}
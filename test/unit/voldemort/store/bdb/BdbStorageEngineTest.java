@@ -47,6 +47,7 @@ import voldemort.versioning.ObsoleteVersionException;
 import voldemort.versioning.VectorClock;
 import voldemort.versioning.Versioned;
 
+import com.google.common.collect.Lists;
 import com.sleepycat.je.Database;
 import com.sleepycat.je.DatabaseConfig;
 import com.sleepycat.je.Durability;
@@ -72,14 +73,17 @@ public class BdbStorageEngineTest extends AbstractStorageEngineTest {
     private DatabaseConfig databaseConfig;
     private BdbRuntimeConfig runtimeConfig;
     private boolean prefixPartitionId;
+    private boolean groupCommit;
 
-    public BdbStorageEngineTest(boolean prefixPartitionId) {
+    public BdbStorageEngineTest(boolean prefixPartitionId, boolean groupCommit) {
         this.prefixPartitionId = prefixPartitionId;
+        this.groupCommit = groupCommit;
     }
 
     @Parameters
     public static Collection<Object[]> modes() {
-        Object[][] data = new Object[][] { { true }, { false } };
+        Object[][] data = new Object[][] { { true, false }, { false, false }, { true, true },
+                { false, true } };
         return Arrays.asList(data);
     }
 
@@ -100,6 +104,7 @@ public class BdbStorageEngineTest extends AbstractStorageEngineTest {
         this.database = environment.openDatabase(null, "test", databaseConfig);
         this.runtimeConfig = new BdbRuntimeConfig();
         runtimeConfig.setLockMode(LOCK_MODE);
+        runtimeConfig.setGroupCommit(groupCommit);
         this.store = makeBdbStorageEngine("test",
                                           this.environment,
                                           this.database,
@@ -236,6 +241,133 @@ public class BdbStorageEngineTest extends AbstractStorageEngineTest {
         assertFalse("Should not have seen any empty results", returnedEmpty.get());
     }
 
+    @Override
+    @Test
+    public void testPutAll() {
+        super.testPutAll();
+    }
+
+    @Test
+    public void testPutAllRejectsNullKeys() {
+        Versioned<byte[]> value = new Versioned<byte[]>("bar".getBytes(), TestUtils.getClock(1));
+        List<Pair<ByteArray, Versioned<byte[]>>> entries = Lists.newArrayList();
+        entries.add(Pair.create(new ByteArray("key1".getBytes()), value));
+        entries.add(Pair.create((ByteArray) null, value));
+        entries.add(Pair.create(new ByteArray("key2".getBytes()), value));
+        try {
+            store.putAll(entries);
+            fail("No exception thrown for null key.");
+        } catch(IllegalArgumentException e) {
+            // this is good
+        }
+        assertEquals(0, store.get(new ByteArray("key1".getBytes()), null).size());
+    }
+
+    @Test
+    public void testConcurrentPutsReportObsoleteVersionsPerKey() throws Exception {
+        final int numThreads = 10;
+        final int numKeys = 100;
+        final VectorClock clock = TestUtils.getClock(1);
+        for(int i = 0; i < numKeys; i++)
+            store.put(new ByteArray(("key" + i).getBytes()),
+                      new Versioned<byte[]>("bar".getBytes(), clock),
+                      null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        final CountDownLatch latch = new CountDownLatch(numThreads);
+        final AtomicInteger numObsolete = new AtomicInteger(0);
+        final AtomicInteger numFailed = new AtomicInteger(0);
+        for(int t = 0; t < numThreads; t++) {
+            final int thread = t;
+            executor.submit(new Runnable() {
+
+                public void run() {
+                    try {
+                        for(int i = thread; i < numKeys; i += numThreads) {
+                            ByteArray key = new ByteArray(("key" + i).getBytes());
+                            try {
+                                // even keys get an obsolete version
+                                store.put(key,
+                                          new Versioned<byte[]>("baz".getBytes(),
+                                                                i % 2 == 0 ? clock
+                                                                          : clock.incremented(1,
+                                                                                              System.currentTimeMillis())),
+                                          null);
+                            } catch(ObsoleteVersionException e) {
+                                numObsolete.incrementAndGet();
+                            }
+                        }
+                    } catch(Exception e) {
+                        numFailed.incrementAndGet();
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        latch.await();
+        executor.shutdown();
+
+        assertEquals(0, numFailed.get());
+        assertEquals(numKeys / 2, numObsolete.get());
+        for(int i = 0; i < numKeys; i++) {
+            List<Versioned<byte[]>> vals = store.get(new ByteArray(("key" + i).getBytes()), null);
+            assertEquals(1, vals.size());
+            assertEquals(i % 2 == 0 ? "bar" : "baz", new String(vals.get(0).getValue()));
+        }
+    }
+
+    @Test
+    public void testConcurrentPutsAndPutAllsOnSameKeys() throws Exception {
+        final int numThreads = 8;
+        final int numKeys = 50;
+        final int numRounds = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        final CountDownLatch latch = new CountDownLatch(numThreads);
+        final AtomicInteger numFailed = new AtomicInteger(0);
+        for(int t = 0; t < numThreads; t++) {
+            final int thread = t;
+            executor.submit(new Runnable() {
+
+                public void run() {
+                    try {
+                        // each thread has its own node id, so the versions of
+                        // different threads are concurrent and none is obsolete
+                        VectorClock clock = new VectorClock();
+                        for(int round = 0; round < numRounds; round++) {
+                            clock = clock.incremented(thread, System.currentTimeMillis());
+                            Versioned<byte[]> value = new Versioned<byte[]>(new byte[] { (byte) thread },
+                                                                            clock);
+                            if(thread % 2 == 0) {
+                                List<Pair<ByteArray, Versioned<byte[]>>> entries = Lists.newArrayList();
+                                for(int i = 0; i < numKeys; i++)
+                                    entries.add(Pair.create(new ByteArray(("key" + i).getBytes()),
+                                                            value));
+                                store.putAll(entries);
+                            } else {
+                                // single puts lock the keys in reverse order
+                                for(int i = numKeys - 1; i >= 0; i--)
+                                    store.put(new ByteArray(("key" + i).getBytes()), value, null);
+                            }
+                        }
+                    } catch(Exception e) {
+                        e.printStackTrace();
+                        numFailed.incrementAndGet();
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        assertTrue("Writes did not finish", latch.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(0, numFailed.get());
+        for(int i = 0; i < numKeys; i++)
+            assertEquals(numThreads, store.get(new ByteArray(("key" + i).getBytes()), null)
+                                          .size());
+    }
+
     @Test
     public void testSimultaneousIterationAndModification() throws Exception {
         // start a thread to do modifications
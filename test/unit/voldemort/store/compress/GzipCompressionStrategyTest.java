@@ -0,0 +1,104 @@
+package voldemort.store.compress;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class GzipCompressionStrategyTest {
+
+    private final GzipCompressionStrategy strategy = new GzipCompressionStrategy();
+    private final Random random = new Random(1234);
+
+    private byte[] value(int size) {
+        byte[] value = new byte[size];
+        // Half random, half repeated, so it compresses somewhat
+        random.nextBytes(value);
+        for(int i = size / 2; i < size; i++)
+            value[i] = (byte) (i % 7);
+        return value;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        GZIPOutputStream gos = new GZIPOutputStream(bos);
+        gos.write(data);
+        gos.close();
+        return bos.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        return IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(data)));
+    }
+
+    @Test
+    public void testCompatibleWithStreams() throws IOException {
+        for(int size: new int[] { 0, 1, 100, 4096, 100000, 3 * 1024 * 1024 }) {
+            byte[] value = value(size);
+            assertArrayEquals(value, gunzip(strategy.deflate(value)));
+            assertArrayEquals(value, strategy.inflate(gzip(value)));
+            assertArrayEquals(value, strategy.inflate(strategy.deflate(value)));
+        }
+    }
+
+    @Test
+    public void testMultipleMembers() throws IOException {
+        byte[] first = value(1000);
+        byte[] second = value(1000);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bos.write(gzip(first));
+        bos.write(gzip(second));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(first);
+        expected.write(second);
+        assertArrayEquals(expected.toByteArray(), strategy.inflate(bos.toByteArray()));
+    }
+
+    @Test
+    public void testHeaderWithName() throws IOException {
+        byte[] value = value(1000);
+        byte[] gzipped = gzip(value);
+        byte[] name = "value.bin\0".getBytes();
+        byte[] named = new byte[gzipped.length + name.length];
+        System.arraycopy(gzipped, 0, named, 0, 10);
+        named[3] = 8;
+        System.arraycopy(name, 0, named, 10, name.length);
+        System.arraycopy(gzipped, 10, named, 10 + name.length, gzipped.length - 10);
+        assertArrayEquals(value, strategy.inflate(named));
+    }
+
+    @Test
+    public void testCorruptData() throws IOException {
+        byte[] gzipped = strategy.deflate(value(1000));
+        gzipped[gzipped.length - 6]++;
+        try {
+            strategy.inflate(gzipped);
+            fail("Corrupt checksum should fail");
+        } catch(ZipException e) {
+            // expected
+        }
+
+        byte[] value = value(1000);
+        assertArrayEquals("Failures must not break the next value",
+                          value,
+                          strategy.inflate(strategy.deflate(value)));
+
+        try {
+            strategy.inflate(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+                    17, 18 });
+            fail("Data that is not gzip should fail");
+        } catch(ZipException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.memory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import voldemort.TestUtils;
+import voldemort.VoldemortException;
+import voldemort.store.StorageEngine;
+import voldemort.utils.ByteArray;
+import voldemort.utils.JmxUtils;
+import voldemort.versioning.Versioned;
+
+/**
+ * Does all the normal tests but also checks that the cache stays within its
+ * size and evicts the entries that were not read.
+ */
+public class OffHeapCacheStorageEngineTest extends InMemoryStorageEngineTest {
+
+    private OffHeapCacheStorageEngine engine;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        this.engine = new OffHeapCacheStorageEngine("test", 4 * 1024 * 1024, 4);
+    }
+
+    @Override
+    public StorageEngine<ByteArray, byte[], byte[]> getStorageEngine() {
+        return engine;
+    }
+
+    private void put(OffHeapCacheStorageEngine cache, int key, byte[] value) {
+        cache.put(TestUtils.toByteArray(Integer.toString(key)), new Versioned<byte[]>(value), null);
+    }
+
+    private List<Versioned<byte[]>> get(OffHeapCacheStorageEngine cache, int key) {
+        return cache.get(TestUtils.toByteArray(Integer.toString(key)), null);
+    }
+
+    public void testStaysWithinSize() {
+        OffHeapCacheStorageEngine cache = new OffHeapCacheStorageEngine("test", 64 * 1024, 2);
+        assertEquals(64 * 1024, cache.getCapacityBytes());
+        for(int i = 0; i < 1000; i++)
+            put(cache, i, TestUtils.randomBytes(500));
+
+        assertTrue(cache.getUsedBytes() <= cache.getCapacityBytes());
+        assertTrue(cache.getNumEvictions() > 0);
+        assertEquals(1000, cache.getNumEntries() + cache.getNumEvictions());
+        assertEquals(1, get(cache, 999).size());
+    }
+
+    public void testCloseUnregistersMbeanAndReleasesSegments() {
+        OffHeapCacheStorageEngine cache = new OffHeapCacheStorageEngine("test-close", 64 * 1024, 2);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = JmxUtils.createObjectName(JmxUtils.getPackageName(cache.getClass()),
+                                                    "test-close");
+        cache.registerMbean();
+        assertTrue(server.isRegistered(name));
+        put(cache, 1, TestUtils.randomBytes(10));
+
+        cache.close();
+        assertFalse(server.isRegistered(name));
+        try {
+            get(cache, 1);
+            fail("Read from a closed cache.");
+        } catch(VoldemortException e) {
+            // this is good
+        }
+    }
+
+    public void testEvictsEntriesThatWereNotRead() {
+        OffHeapCacheStorageEngine cache = new OffHeapCacheStorageEngine("test", 64 * 1024, 1);
+        for(int i = 0; i < 10; i++)
+            put(cache, i, TestUtils.randomBytes(1000));
+        for(int round = 0; round < 20; round++) {
+            for(int i = 0; i < 10; i++)
+                assertEquals("Key " + i + " was evicted.", 1, get(cache, i).size());
+            for(int i = 0; i < 10; i++)
+                put(cache, 1000 + round * 10 + i, TestUtils.randomBytes(1000));
+        }
+    }
+
+    public void testHitsAndMisses() {
+        OffHeapCacheStorageEngine cache = new OffHeapCacheStorageEngine("test", 64 * 1024, 1);
+        put(cache, 1, "abc".getBytes());
+        get(cache, 1);
+        get(cache, 1);
+        get(cache, 2);
+        assertEquals(2, cache.getNumHits());
+        assertEquals(1, cache.getNumMisses());
+        assertEquals(2 / 3d, cache.getHitRatio(), 0.001);
+    }
+
+    public void testValueLargerThanSegmentIsNotCached() {
+        OffHeapCacheStorageEngine cache = new OffHeapCacheStorageEngine("test", 64 * 1024, 4);
+        put(cache, 1, "abc".getBytes());
+        cache.put(TestUtils.toByteArray("1"),
+                  new Versioned<byte[]>(TestUtils.randomBytes(32 * 1024),
+                                        TestUtils.getClock(1)),
+                  null);
+        assertEquals(0, get(cache, 1).size());
+        assertEquals(0, cache.getNumEntries());
+    }
+
+    public void testAgainstMap() {
+        OffHeapCacheStorageEngine cache = new OffHeapCacheStorageEngine("test", 1024 * 1024, 1);
+        Map<Integer, byte[]> expected = new HashMap<Integer, byte[]>();
+        Random random = new Random(1234);
+        for(int i = 0; i < 20000; i++) {
+            int key = random.nextInt(500);
+            if(random.nextBoolean()) {
+                byte[] value = TestUtils.randomBytes(random.nextInt(200));
+                cache.delete(TestUtils.toByteArray(Integer.toString(key)), null);
+                put(cache, key, value);
+                expected.put(key, value);
+            } else {
+                cache.delete(TestUtils.toByteArray(Integer.toString(key)), null);
+                expected.remove(key);
+            }
+        }
+        assertEquals(0, cache.getNumEvictions());
+        assertEquals(expected.size(), cache.getNumEntries());
+        for(int key = 0; key < 500; key++) {
+            List<Versioned<byte[]>> found = get(cache, key);
+            if(expected.containsKey(key)) {
+                assertEquals(1, found.size());
+                assertTrue(Arrays.equals(expected.get(key), found.get(0).getValue()));
+            } else {
+                assertEquals(0, found.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.nearcache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import voldemort.MockTime;
+import voldemort.TestUtils;
+import voldemort.VoldemortException;
+import voldemort.store.AbstractByteArrayStoreTest;
+import voldemort.store.DelegatingStore;
+import voldemort.store.Store;
+import voldemort.store.memory.InMemoryStorageEngine;
+import voldemort.utils.ByteArray;
+import voldemort.versioning.VectorClock;
+import voldemort.versioning.Versioned;
+
+public class NearCacheStoreTest extends AbstractByteArrayStoreTest {
+
+    private static final long TTL_MS = 1000;
+
+    private MockTime time;
+    private InMemoryStorageEngine<ByteArray, byte[], byte[]> inner;
+    private CountingStore counting;
+    private NearCacheStore<ByteArray, byte[], byte[]> store;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        time = new MockTime();
+        inner = new InMemoryStorageEngine<ByteArray, byte[], byte[]>("test");
+        counting = new CountingStore(inner);
+        store = new NearCacheStore<ByteArray, byte[], byte[]>(counting, 10, TTL_MS, time);
+    }
+
+    @Override
+    public Store<ByteArray, byte[], byte[]> getStore() {
+        return store;
+    }
+
+    public void testGetsAreServedFromCache() {
+        ByteArray key = new ByteArray("key".getBytes());
+        store.put(key, new Versioned<byte[]>("value".getBytes()), null);
+
+        assertEquals("value", new String(store.get(key, null).get(0).getValue()));
+        assertEquals("value", new String(store.get(key, null).get(0).getValue()));
+        assertEquals(1, counting.gets.get());
+
+        // absent keys are cached too
+        ByteArray absent = new ByteArray("absent".getBytes());
+        assertEquals(0, store.get(absent, null).size());
+        assertEquals(0, store.get(absent, null).size());
+        assertEquals(2, counting.gets.get());
+
+        time.addMilliseconds(TTL_MS);
+        store.get(key, null);
+        assertEquals(3, counting.gets.get());
+    }
+
+    public void testGetAllUsesAndFillsCache() {
+        ByteArray a = new ByteArray("a".getBytes());
+        ByteArray b = new ByteArray("b".getBytes());
+        ByteArray c = new ByteArray("c".getBytes());
+        store.put(a, new Versioned<byte[]>("1".getBytes()), null);
+        store.put(b, new Versioned<byte[]>("2".getBytes()), null);
+        store.get(a, null);
+
+        Map<ByteArray, List<Versioned<byte[]>>> result = store.getAll(Arrays.asList(a, b, c), null);
+        assertEquals(2, result.size());
+        assertEquals("1", new String(result.get(a).get(0).getValue()));
+        assertEquals("2", new String(result.get(b).get(0).getValue()));
+        assertEquals(Arrays.asList(b, c), counting.lastGetAllKeys);
+
+        result = store.getAll(Arrays.asList(a, b, c), null);
+        assertEquals(2, result.size());
+        assertEquals(1, counting.getAlls.get());
+    }
+
+    public void testWritesInvalidate() {
+        ByteArray key = new ByteArray("key".getBytes());
+        store.put(key, new Versioned<byte[]>("1".getBytes(), TestUtils.getClock(1)), null);
+        assertEquals("1", new String(store.get(key, null).get(0).getValue()));
+
+        store.put(key, new Versioned<byte[]>("2".getBytes(), TestUtils.getClock(1, 1)), null);
+        assertEquals("2", new String(store.get(key, null).get(0).getValue()));
+        assertEquals("2", new String(store.get(key, null).get(0).getValue()));
+
+        store.delete(key, TestUtils.getClock(1, 1));
+        assertEquals(0, store.get(key, null).size());
+        assertEquals(0, store.get(key, null).size());
+        assertEquals(3, counting.gets.get());
+    }
+
+    public void testCachedVersionsAreCopies() {
+        ByteArray key = new ByteArray("key".getBytes());
+        store.put(key, new Versioned<byte[]>("1".getBytes(), TestUtils.getClock(1)), null);
+        store.get(key, null);
+        Versioned<byte[]> read = store.get(key, null).get(0);
+        ((VectorClock) read.getVersion()).incrementVersion(2, time.getMilliseconds());
+        assertEquals(TestUtils.getClock(1), store.get(key, null).get(0).getVersion());
+    }
+
+    public void testReadRacingWithPutIsNotCached() {
+        final ByteArray key = new ByteArray("key".getBytes());
+        final VectorClock clock = TestUtils.getClock(1);
+        inner.put(key, new Versioned<byte[]>("old".getBytes(), clock), null);
+
+        // the put lands between the inner get and the caching of its result
+        counting.beforeGetReturns = new Runnable() {
+
+            public void run() {
+                counting.beforeGetReturns = null;
+                store.put(key, new Versioned<byte[]>("new".getBytes(), TestUtils.getClock(1, 1)), null);
+            }
+        };
+        assertEquals("old", new String(store.get(key, null).get(0).getValue()));
+        assertEquals("new", new String(store.get(key, null).get(0).getValue()));
+        assertEquals("new", new String(store.get(key, null).get(0).getValue()));
+        assertEquals(2, counting.gets.get());
+    }
+
+    public void testSizeIsBounded() {
+        for(int i = 0; i < 100; i++) {
+            ByteArray key = new ByteArray(Integer.toString(i).getBytes());
+            store.get(key, null);
+        }
+        assertEquals(10, store.size());
+    }
+
+    private static class CountingStore extends DelegatingStore<ByteArray, byte[], byte[]> {
+
+        final AtomicInteger gets = new AtomicInteger();
+        final AtomicInteger getAlls = new AtomicInteger();
+        volatile Iterable<ByteArray> lastGetAllKeys;
+        volatile Runnable beforeGetReturns;
+
+        CountingStore(Store<ByteArray, byte[], byte[]> innerStore) {
+            super(innerStore);
+        }
+
+        @Override
+        public List<Versioned<byte[]>> get(ByteArray key, byte[] transforms)
+                throws VoldemortException {
+            gets.incrementAndGet();
+            List<Versioned<byte[]>> values = super.get(key, transforms);
+            Runnable action = beforeGetReturns;
+            if(action != null)
+                action.run();
+            return values;
+        }
+
+        @Override
+        public Map<ByteArray, List<Versioned<byte[]>>> getAll(Iterable<ByteArray> keys,
+                                                              Map<ByteArray, byte[]> transforms)
+                throws VoldemortException {
+            getAlls.incrementAndGet();
+            lastGetAllKeys = keys;
+            return super.getAll(keys, transforms);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.readonly;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import voldemort.TestUtils;
+import voldemort.VoldemortException;
+import voldemort.utils.ByteUtils;
+import voldemort.utils.Utils;
+
+/**
+ * Tests for {@link HashIndexBuilder} and {@link HashIndexSearchStrategy}
+ */
+public class HashIndexBuilderTest extends TestCase {
+
+    private static final int KEY_SIZE = 8;
+
+    private final SearchStrategy strategy = new HashIndexSearchStrategy();
+
+    @Test
+    public void testEmptyIndex() {
+        byte[] hashIndex = HashIndexBuilder.build(new byte[0]);
+        assertEquals(0, hashIndex.length);
+        assertEquals(-1, strategy.indexOf(ByteBuffer.wrap(hashIndex), key(1, 2), 0));
+    }
+
+    @Test
+    public void testRandomKeys() {
+        Random random = new Random(48534543);
+        int size = 1000;
+        byte[][] keys = new byte[size][];
+        for(int i = 0; i < size; i++) {
+            keys[i] = new byte[KEY_SIZE];
+            random.nextBytes(keys[i]);
+        }
+
+        byte[] hashIndex = HashIndexBuilder.build(makeSortedIndex(keys));
+        assertEquals(HashIndexBuilder.getNumSlots(size) * (KEY_SIZE + ReadOnlyUtils.POSITION_SIZE),
+                     hashIndex.length);
+
+        ByteBuffer index = ByteBuffer.wrap(hashIndex);
+        for(int i = 0; i < size; i++)
+            assertEquals(i, strategy.indexOf(index, keys[i], hashIndex.length));
+        for(int i = 0; i < 100; i++) {
+            byte[] key = new byte[KEY_SIZE];
+            random.nextBytes(key);
+            assertEquals(-1, strategy.indexOf(index, key, hashIndex.length));
+        }
+    }
+
+    @Test
+    public void testCollidingSlots() {
+        // All keys share the bytes used to pick the slot, and so must be found
+        // by probing
+        byte[][] keys = new byte[50][];
+        for(int i = 0; i < keys.length; i++)
+            keys[i] = key(i, 7);
+
+        byte[] hashIndex = HashIndexBuilder.build(makeSortedIndex(keys));
+        ByteBuffer index = ByteBuffer.wrap(hashIndex);
+        for(int i = 0; i < keys.length; i++)
+            assertEquals(i, strategy.indexOf(index, keys[i], hashIndex.length));
+        assertEquals(-1, strategy.indexOf(index, key(keys.length, 7), hashIndex.length));
+    }
+
+    @Test
+    public void testDuplicateKeysFail() {
+        try {
+            HashIndexBuilder.build(makeSortedIndex(new byte[][] { key(1, 2), key(1, 2) }));
+            fail("Should have thrown an exception");
+        } catch(VoldemortException e) {}
+    }
+
+    @Test
+    public void testMigrate() throws Exception {
+        File versionDir = TestUtils.createTempDir();
+        try {
+            ReadOnlyStorageMetadata metadata = new ReadOnlyStorageMetadata();
+            metadata.add(ReadOnlyStorageMetadata.FORMAT,
+                         ReadOnlyStorageFormat.READONLY_V2.getCode());
+            metadata.add(ReadOnlyStorageMetadata.CHECKSUM_TYPE, "md5");
+            metadata.add(ReadOnlyStorageMetadata.CHECKSUM, "1234");
+            FileUtils.writeStringToFile(new File(versionDir, ".metadata"),
+                                        metadata.toJsonString());
+
+            byte[][] keys = new byte[][] { key(1, 2), key(3, 4), key(5, 6) };
+            FileUtils.writeByteArrayToFile(new File(versionDir, "0_0_0.index"),
+                                           makeSortedIndex(keys));
+            FileUtils.writeByteArrayToFile(new File(versionDir, "0_0_0.data"), new byte[100]);
+
+            HashIndexBuilder.migrate(versionDir);
+
+            metadata = new ReadOnlyStorageMetadata(new File(versionDir, ".metadata"));
+            assertEquals(ReadOnlyStorageFormat.READONLY_V3.getCode(),
+                         metadata.get(ReadOnlyStorageMetadata.FORMAT));
+            assertNull(metadata.get(ReadOnlyStorageMetadata.CHECKSUM));
+
+            byte[] hashIndex = FileUtils.readFileToByteArray(new File(versionDir, "0_0_0.index"));
+            for(int i = 0; i < keys.length; i++)
+                assertEquals(i,
+                             strategy.indexOf(ByteBuffer.wrap(hashIndex), keys[i], hashIndex.length));
+            assertEquals(100, new File(versionDir, "0_0_0.data").length());
+
+            // Cannot migrate twice
+            try {
+                HashIndexBuilder.migrate(versionDir);
+                fail("Should have thrown an exception");
+            } catch(VoldemortException e) {}
+        } finally {
+            Utils.rm(versionDir);
+        }
+    }
+
+    private byte[] key(int v1, int v2) {
+        byte[] bytes = new byte[KEY_SIZE];
+        ByteUtils.writeInt(bytes, v1, 0);
+        ByteUtils.writeInt(bytes, v2, 4);
+        return bytes;
+    }
+
+    /*
+     * Sorted index in which the position of each key is its offset in the
+     * given array
+     */
+    private byte[] makeSortedIndex(final byte[][] keys) {
+        Integer[] order = new Integer[keys.length];
+        for(int i = 0; i < keys.length; i++)
+            order[i] = i;
+        Arrays.sort(order, new Comparator<Integer>() {
+
+            public int compare(Integer i1, Integer i2) {
+                return ByteUtils.compare(keys[i1], keys[i2]);
+            }
+        });
+
+        ByteBuffer buffer = ByteBuffer.allocate((KEY_SIZE + ReadOnlyUtils.POSITION_SIZE)
+                                                * keys.length);
+        for(int i: order) {
+            buffer.put(keys[i]);
+            buffer.putInt(i);
+        }
+        return buffer.array();
+    }
+}
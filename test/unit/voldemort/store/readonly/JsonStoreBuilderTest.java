@@ -0,0 +1,231 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.readonly;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import voldemort.TestUtils;
+import voldemort.client.RoutingTier;
+import voldemort.cluster.Cluster;
+import voldemort.cluster.Node;
+import voldemort.routing.RoutingStrategy;
+import voldemort.routing.RoutingStrategyFactory;
+import voldemort.routing.RoutingStrategyType;
+import voldemort.serialization.DefaultSerializerFactory;
+import voldemort.serialization.Serializer;
+import voldemort.serialization.SerializerDefinition;
+import voldemort.store.StoreDefinition;
+import voldemort.store.StoreDefinitionBuilder;
+import voldemort.utils.ByteArray;
+import voldemort.utils.ByteUtils;
+import voldemort.utils.Utils;
+import voldemort.versioning.Versioned;
+
+/**
+ * Tests that {@link JsonStoreBuilder} writes the same chunks whatever the
+ * number of threads, and whether chunks are sorted in memory or externally
+ */
+public class JsonStoreBuilderTest extends TestCase {
+
+    private static final int NUM_NODES = 3;
+    private static final int NUM_CHUNKS = 2;
+    private static final int TEST_SIZE = 2000;
+
+    private File baseDir;
+    private Map<String, String> data;
+    private Cluster cluster;
+    private StoreDefinition storeDef;
+
+    @Override
+    public void setUp() {
+        baseDir = TestUtils.createTempDir();
+        data = new HashMap<String, String>();
+        for(int i = 0; i < TEST_SIZE; i++)
+            data.put(TestUtils.randomLetters(10), TestUtils.randomLetters(20));
+
+        List<Node> nodes = new ArrayList<Node>();
+        for(int i = 0; i < NUM_NODES; i++)
+            nodes.add(new Node(i,
+                               "localhost",
+                               8080 + i,
+                               6666 + i,
+                               7000 + i,
+                               Arrays.asList(4 * i, 4 * i + 1, 4 * i + 2, 4 * i + 3)));
+        cluster = new Cluster("test", nodes);
+        SerializerDefinition serDef = new SerializerDefinition("json", "\"string\"");
+        storeDef = new StoreDefinitionBuilder().setName("test")
+                                               .setType(ReadOnlyStorageConfiguration.TYPE_NAME)
+                                               .setKeySerializer(serDef)
+                                               .setValueSerializer(serDef)
+                                               .setRoutingPolicy(RoutingTier.CLIENT)
+                                               .setRoutingStrategyType(RoutingStrategyType.CONSISTENT_STRATEGY)
+                                               .setReplicationFactor(2)
+                                               .setPreferredReads(1)
+                                               .setRequiredReads(1)
+                                               .setPreferredWrites(1)
+                                               .setRequiredWrites(1)
+                                               .build();
+    }
+
+    @Override
+    public void tearDown() {
+        Utils.rm(baseDir);
+    }
+
+    private File build(ReadOnlyStorageFormat format, int sortSize, int numThreads)
+            throws Exception {
+        return build(data, format, sortSize, numThreads);
+    }
+
+    private File build(Map<String, String> input,
+                       ReadOnlyStorageFormat format,
+                       int sortSize,
+                       int numThreads) throws Exception {
+        File outputDir = TestUtils.createTempDir(baseDir);
+        File tempDir = TestUtils.createTempDir(baseDir);
+        new JsonStoreBuilder(ReadOnlyStorageEngineTestInstance.makeTestDataReader(input, baseDir),
+                             cluster,
+                             storeDef,
+                             new RoutingStrategyFactory().updateRoutingStrategy(storeDef, cluster),
+                             outputDir,
+                             tempDir,
+                             sortSize,
+                             numThreads,
+                             NUM_CHUNKS,
+                             1000,
+                             false).build(format);
+        assertEquals("Temporary files left behind", 0, tempDir.list().length);
+        return outputDir;
+    }
+
+    private void assertSameFiles(File expectedDir, File actualDir) throws Exception {
+        for(int node = 0; node < NUM_NODES; node++) {
+            File expectedNodeDir = new File(expectedDir, "node-" + node);
+            File actualNodeDir = new File(actualDir, "node-" + node);
+            String[] fileNames = expectedNodeDir.list();
+            Arrays.sort(fileNames);
+            String[] actualFileNames = actualNodeDir.list();
+            Arrays.sort(actualFileNames);
+            assertEquals(Arrays.asList(fileNames), Arrays.asList(actualFileNames));
+            // metadata, plus an index and a data file per chunk of the 4
+            // partitions of the node and their replicas
+            assertEquals(1 + 2 * 4 * 2 * NUM_CHUNKS, fileNames.length);
+            for(String fileName: fileNames)
+                assertTrue(fileName + " differs",
+                           FileUtils.contentEquals(new File(expectedNodeDir, fileName),
+                                                   new File(actualNodeDir, fileName)));
+        }
+    }
+
+    private void testParallelBuild(ReadOnlyStorageFormat format) throws Exception {
+        File serial = build(format, TEST_SIZE, 1);
+        assertSameFiles(serial, build(format, TEST_SIZE, 4));
+        // small enough for every chunk to be sorted externally
+        assertSameFiles(serial, build(format, 40, 4));
+    }
+
+    @Test
+    public void testParallelBuildVersion2() throws Exception {
+        testParallelBuild(ReadOnlyStorageFormat.READONLY_V2);
+    }
+
+    @Test
+    public void testParallelBuildVersion3() throws Exception {
+        testParallelBuild(ReadOnlyStorageFormat.READONLY_V3);
+    }
+
+    /**
+     * Builds a fixed set of entries and reads every one of them back from
+     * each node it routes to, so that a key written into the wrong partition,
+     * replica type or chunk shows up as a miss
+     */
+    private void testReadBack(ReadOnlyStorageFormat format) throws Exception {
+        Map<String, String> fixed = new HashMap<String, String>();
+        for(int i = 0; i < 200; i++)
+            fixed.put("key-" + i, "value-" + i);
+        File outputDir = build(fixed, format, 40, 4);
+
+        RoutingStrategy router = new RoutingStrategyFactory().updateRoutingStrategy(storeDef,
+                                                                                    cluster);
+        @SuppressWarnings("unchecked")
+        Serializer<String> serializer = (Serializer<String>) new DefaultSerializerFactory().getSerializer(storeDef.getKeySerializer());
+        Map<Integer, Integer> expectedCounts = new HashMap<Integer, Integer>();
+        ReadOnlyStorageEngine[] engines = new ReadOnlyStorageEngine[NUM_NODES];
+        for(int node = 0; node < NUM_NODES; node++) {
+            File storeDir = new File(outputDir, Integer.toString(node));
+            storeDir.mkdirs();
+            Utils.move(new File(outputDir, "node-" + node), new File(storeDir, "version-0"));
+            engines[node] = new ReadOnlyStorageEngine("test",
+                                                      new BinarySearchStrategy(),
+                                                      router,
+                                                      node,
+                                                      storeDir,
+                                                      1);
+            expectedCounts.put(node, 0);
+        }
+        try {
+            for(Map.Entry<String, String> entry: fixed.entrySet()) {
+                byte[] key = serializer.toBytes(entry.getKey());
+                List<Node> routed = router.routeRequest(key);
+                assertEquals(storeDef.getReplicationFactor(), routed.size());
+                for(Node node: routed) {
+                    List<Versioned<byte[]>> found = engines[node.getId()].get(new ByteArray(key),
+                                                                            null);
+                    assertEquals(entry.getKey() + " on node " + node.getId(), 1, found.size());
+                    assertEquals(entry.getValue(), serializer.toObject(found.get(0).getValue()));
+                    expectedCounts.put(node.getId(), expectedCounts.get(node.getId()) + 1);
+                }
+            }
+            if(format == ReadOnlyStorageFormat.READONLY_V2) {
+                // a sorted index holds exactly one entry per key of its chunk
+                for(int node = 0; node < NUM_NODES; node++) {
+                    long indexSize = 0;
+                    for(File file: new File(new File(outputDir, Integer.toString(node)),
+                                            "version-0").listFiles())
+                        if(file.getName().endsWith(".index"))
+                            indexSize += file.length();
+                    assertEquals(expectedCounts.get(node).longValue()
+                                         * (2 * ByteUtils.SIZE_OF_INT + ReadOnlyUtils.POSITION_SIZE),
+                                 indexSize);
+                }
+            }
+        } finally {
+            for(ReadOnlyStorageEngine engine: engines)
+                engine.close();
+        }
+    }
+
+    @Test
+    public void testReadBackVersion2() throws Exception {
+        testReadBack(ReadOnlyStorageFormat.READONLY_V2);
+    }
+
+    @Test
+    public void testReadBackVersion3() throws Exception {
+        testReadBack(ReadOnlyStorageFormat.READONLY_V3);
+    }
+}
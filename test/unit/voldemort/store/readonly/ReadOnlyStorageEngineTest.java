@@ -18,6 +18,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -66,7 +68,8 @@ public class ReadOnlyStorageEngineTest {
                 { new BinarySearchStrategy(), ReadOnlyStorageFormat.READONLY_V1 },
                 { new InterpolationSearchStrategy(), ReadOnlyStorageFormat.READONLY_V1 },
                 { new BinarySearchStrategy(), ReadOnlyStorageFormat.READONLY_V2 },
-                { new InterpolationSearchStrategy(), ReadOnlyStorageFormat.READONLY_V2 } });
+                { new InterpolationSearchStrategy(), ReadOnlyStorageFormat.READONLY_V2 },
+                { new BinarySearchStrategy(), ReadOnlyStorageFormat.READONLY_V3 } });
     }
 
     private File dir;
@@ -105,6 +108,7 @@ public class ReadOnlyStorageEngineTest {
                 this.indexEntrySize = 20;
                 break;
             case READONLY_V2:
+            case READONLY_V3:
                 // 8 (upper 8 bytes of md5) + 4 (position)
                 this.indexEntrySize = 12;
                 break;
@@ -152,6 +156,37 @@ public class ReadOnlyStorageEngineTest {
         testData.delete();
     }
 
+    @Test
+    public void canGetGoodValuesFromMappedDataFiles() throws Exception {
+        ReadOnlyStorageEngineTestInstance testData = ReadOnlyStorageEngineTestInstance.create(strategy,
+                                                                                              dir,
+                                                                                              TEST_SIZE,
+                                                                                              2,
+                                                                                              2,
+                                                                                              serDef,
+                                                                                              serDef,
+                                                                                              storageType,
+                                                                                              true);
+        for(Map.Entry<String, String> entry: testData.getData().entrySet()) {
+            for(Node node: testData.routeRequest(entry.getKey())) {
+                Store<String, String, String> store = testData.getNodeStores().get(node.getId());
+                List<Versioned<String>> found = store.get(entry.getKey(), null);
+                assertEquals("Lookup failure for '" + entry.getKey() + "' for node "
+                             + node.getId() + ".", 1, found.size());
+                assertEquals(entry.getValue(), found.get(0).getValue());
+            }
+        }
+
+        // keys which are not in the store
+        for(int i = 0; i < 10; i++) {
+            String key = TestUtils.randomLetters(12);
+            for(Node node: testData.routeRequest(key))
+                assertEquals(0, testData.getNodeStores().get(node.getId()).get(key, null).size());
+        }
+
+        testData.delete();
+    }
+
     @Test
     public void canGetGoodCompressedValues() throws Exception {
         ReadOnlyStorageEngineTestInstance testData = ReadOnlyStorageEngineTestInstance.create(strategy,
@@ -269,6 +304,54 @@ public class ReadOnlyStorageEngineTest {
         testData.delete();
     }
 
+    @Test
+    public void canMultigetGoodValuesInParallel() throws Exception {
+        ReadOnlyStorageEngineTestInstance testData = ReadOnlyStorageEngineTestInstance.create(strategy,
+                                                                                              dir,
+                                                                                              TEST_SIZE,
+                                                                                              2,
+                                                                                              2,
+                                                                                              serDef,
+                                                                                              serDef,
+                                                                                              storageType);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for(ReadOnlyStorageEngine engine: testData.getReadOnlyStores().values()) {
+                engine.setGetAllExecutor(executor);
+                engine.setGetAllPrefetch(true);
+            }
+
+            for(Map.Entry<Integer, Store<String, String, String>> entry: testData.getNodeStores()
+                                                                                 .entrySet()) {
+                Set<String> queryKeys = new HashSet<String>();
+                Set<String> expectedKeys = new HashSet<String>();
+                for(String key: testData.getData().keySet()) {
+                    for(Node node: testData.routeRequest(key)) {
+                        if(node.getId() == entry.getKey()) {
+                            queryKeys.add(key);
+                            expectedKeys.add(key);
+                        }
+                    }
+                }
+                // keys which are not in the store
+                for(int i = 0; i < 10; i++)
+                    queryKeys.add(TestUtils.randomLetters(12));
+
+                Map<String, List<Versioned<String>>> values = entry.getValue().getAll(queryKeys,
+                                                                                      null);
+                assertEquals(expectedKeys, values.keySet());
+                for(Map.Entry<String, List<Versioned<String>>> returned: values.entrySet()) {
+                    assertEquals(1, returned.getValue().size());
+                    assertEquals(testData.getData().get(returned.getKey()),
+                                 returned.getValue().get(0).getValue());
+                }
+            }
+        } finally {
+            executor.shutdown();
+            testData.delete();
+        }
+    }
+
     @Test
     public void openInvalidStoreFails() throws Exception {
         // empty is okay
@@ -524,7 +607,8 @@ public class ReadOnlyStorageEngineTest {
                 keyIterator = storeEntry.getValue().keys();
                 entryIterator = storeEntry.getValue().entries();
             } catch(Exception e) {
-                if(storageType.compareTo(ReadOnlyStorageFormat.READONLY_V2) == 0) {
+                if(storageType == ReadOnlyStorageFormat.READONLY_V2
+                   || storageType == ReadOnlyStorageFormat.READONLY_V3) {
                     fail("Should not have thrown exception since this version supports iteration");
                 } else {
                     return;
@@ -630,7 +714,8 @@ public class ReadOnlyStorageEngineTest {
                 }
             }
                 break;
-            case READONLY_V2: {
+            case READONLY_V2:
+            case READONLY_V3: {
                 // Assuming number of replicas = 1, since all these tests use a
                 // store with replication factor of 1
                 for(Integer partitionId: node.getPartitionIds()) {
@@ -92,6 +92,27 @@ public class ReadOnlyStorageEngineTestInstance {
                                                            SerializerDefinition valueSerDef,
                                                            ReadOnlyStorageFormat type)
             throws Exception {
+        return create(strategy,
+                      baseDir,
+                      testSize,
+                      numNodes,
+                      repFactor,
+                      keySerDef,
+                      valueSerDef,
+                      type,
+                      false);
+    }
+
+    public static ReadOnlyStorageEngineTestInstance create(SearchStrategy strategy,
+                                                           File baseDir,
+                                                           int testSize,
+                                                           int numNodes,
+                                                           int repFactor,
+                                                           SerializerDefinition keySerDef,
+                                                           SerializerDefinition valueSerDef,
+                                                           ReadOnlyStorageFormat type,
+                                                           boolean mmapData)
+            throws Exception {
         // create some test data
         Map<String, String> data = createTestData(testSize);
         JsonReader reader = makeTestDataReader(data, baseDir);
@@ -161,7 +182,10 @@ public class ReadOnlyStorageEngineTestInstance {
                                                                                     router,
                                                                                     i,
                                                                                     currNode,
-                                                                                    1);
+                                                                                    1,
+                                                                                    0,
+                                                                                    false,
+                                                                                    mmapData);
             readOnlyStores.put(i, readOnlyStorageEngine);
             Store<ByteArray, byte[], byte[]> innerStore = new CompressingStore(readOnlyStorageEngine,
                                                                                keyCompressionStrat,
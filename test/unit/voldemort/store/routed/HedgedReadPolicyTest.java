@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.routed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import voldemort.MockTime;
+import voldemort.cluster.Node;
+
+public class HedgedReadPolicyTest {
+
+    private static final int WINDOW_MS = 1000;
+
+    private MockTime time;
+    private NodeLatencyTracker tracker;
+    private List<Node> nodes;
+
+    @Before
+    public void setUp() {
+        time = new MockTime(1000000);
+        tracker = new NodeLatencyTracker(WINDOW_MS, time);
+        nodes = Arrays.asList(new Node(0, "localhost", 1, 2, 3, Arrays.asList(0)),
+                              new Node(1, "localhost", 4, 5, 6, Arrays.asList(1)));
+    }
+
+    private void recordLatencies(int nodeId, int count, long maxMs) {
+        for(int i = 1; i <= count; i++) {
+            tracker.requestStarted(nodeId);
+            tracker.requestCompleted(nodeId, i * maxMs / count, true);
+        }
+    }
+
+    @Test
+    public void testLatenciesOfLastWindow() {
+        recordLatencies(0, 1000, 100);
+        assertEquals("Nothing is known until a window is complete",
+                     -1,
+                     tracker.getQuantileLatencyMs(0, 0.99));
+
+        time.addMilliseconds(WINDOW_MS);
+        assertEquals(99, tracker.getQuantileLatencyMs(0, 0.99));
+        assertEquals(50, tracker.getQuantileLatencyMs(0, 0.5));
+        assertEquals(-1, tracker.getQuantileLatencyMs(1, 0.99));
+
+        time.addMilliseconds(WINDOW_MS);
+        assertEquals("An empty window tells nothing", -1, tracker.getQuantileLatencyMs(0, 0.99));
+    }
+
+    @Test
+    public void testTooFewSamples() {
+        recordLatencies(0, 10, 100);
+        time.addMilliseconds(WINDOW_MS);
+        assertEquals(-1, tracker.getQuantileLatencyMs(0, 0.5));
+    }
+
+    @Test
+    public void testStaleWindowIsDropped() {
+        recordLatencies(0, 1000, 100);
+        time.addMilliseconds(5 * WINDOW_MS);
+        assertEquals(-1, tracker.getQuantileLatencyMs(0, 0.5));
+    }
+
+    @Test
+    public void testDelayIsSlowestNode() {
+        HedgedReadPolicy policy = new HedgedReadPolicy(0.9, 0.1);
+        recordLatencies(0, 1000, 20);
+        assertEquals(-1, policy.getHedgeDelayMs(nodes, tracker));
+
+        recordLatencies(1, 1000, 50);
+        time.addMilliseconds(WINDOW_MS);
+        assertEquals(18, policy.getHedgeDelayMs(nodes.subList(0, 1), tracker));
+        assertEquals(45, policy.getHedgeDelayMs(nodes, tracker));
+    }
+
+    @Test
+    public void testBudget() {
+        HedgedReadPolicy policy = new HedgedReadPolicy(0.9, 0.1);
+        assertFalse("Nothing earned yet", policy.tryHedge());
+
+        for(int i = 0; i < 9; i++)
+            policy.getHedgeDelayMs(nodes, tracker);
+        assertFalse(policy.tryHedge());
+
+        policy.getHedgeDelayMs(nodes, tracker);
+        assertTrue("Every tenth read can be hedged", policy.tryHedge());
+        assertFalse(policy.tryHedge());
+
+        for(int i = 0; i < 10000; i++)
+            policy.getHedgeDelayMs(nodes, tracker);
+        int hedged = 0;
+        while(policy.tryHedge())
+            hedged++;
+        assertEquals("Idle reads only save a few hedged requests", 10, hedged);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuantile() {
+        new HedgedReadPolicy(1.0, 0.1);
+    }
+}
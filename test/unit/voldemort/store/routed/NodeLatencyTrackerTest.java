@@ -0,0 +1,161 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.routed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import voldemort.MockTime;
+import voldemort.cluster.Node;
+
+public class NodeLatencyTrackerTest {
+
+    private static final int WINDOW_MS = 1000;
+
+    private MockTime time;
+    private NodeLatencyTracker tracker;
+    private List<Node> nodes;
+
+    @Before
+    public void setUp() {
+        time = new MockTime(1000000);
+        tracker = new NodeLatencyTracker(WINDOW_MS, time);
+        nodes = Arrays.asList(new Node(0, "localhost", 1, 2, 3, Arrays.asList(0)),
+                              new Node(1, "localhost", 4, 5, 6, Arrays.asList(1)),
+                              new Node(2, "localhost", 7, 8, 9, Arrays.asList(2)));
+    }
+
+    private void recordLatencies(int nodeId, int count, long maxMs) {
+        for(int i = 1; i <= count; i++) {
+            tracker.requestStarted(nodeId);
+            tracker.requestCompleted(nodeId, i * maxMs / count, true);
+        }
+    }
+
+    private void assertRanking(Integer... nodeIds) {
+        List<Node> ranked = tracker.rank(nodes);
+        for(int i = 0; i < nodeIds.length; i++)
+            assertEquals(nodeIds[i].intValue(), ranked.get(i).getId());
+    }
+
+    @Test
+    public void testFailuresAreNotRecorded() {
+        for(int i = 0; i < 1000; i++) {
+            tracker.requestStarted(0);
+            tracker.requestCompleted(0, 500, false);
+        }
+        time.addMilliseconds(WINDOW_MS);
+        assertEquals(-1, tracker.getQuantileLatencyMs(0, 0.5));
+        assertEquals(0, tracker.getLoad(0), 0);
+    }
+
+    @Test
+    public void testAbortedRequestsAreNotOutstanding() {
+        tracker.requestStarted(0);
+        tracker.requestAborted(0);
+        time.addMilliseconds(100);
+        assertEquals(0, tracker.getLoad(0), 0);
+        assertRanking(0, 1, 2);
+    }
+
+    @Test
+    public void testRankingKeepsOrderWithoutData() {
+        assertRanking(0, 1, 2);
+    }
+
+    @Test
+    public void testRankingByLatency() {
+        tracker.requestStarted(0);
+        tracker.requestCompleted(0, 50, true);
+        tracker.requestStarted(1);
+        tracker.requestCompleted(1, 5, true);
+        tracker.requestStarted(2);
+        tracker.requestCompleted(2, 20, true);
+        assertRanking(1, 2, 0);
+    }
+
+    @Test
+    public void testRankingByOutstandingRequests() {
+        for(Node node: nodes) {
+            tracker.requestStarted(node.getId());
+            tracker.requestCompleted(node.getId(), 10, true);
+        }
+        for(int i = 0; i < 5; i++)
+            tracker.requestStarted(0);
+        tracker.requestStarted(1);
+        assertRanking(2, 1, 0);
+        assertEquals(65, tracker.getLoad(0), 0.001);
+    }
+
+    @Test
+    public void testStalledNodeRanksLast() {
+        for(Node node: nodes) {
+            tracker.requestStarted(node.getId());
+            tracker.requestCompleted(node.getId(), node.getId() == 0 ? 5 : 50, true);
+        }
+        assertRanking(0, 1, 2);
+
+        // node 0 stops answering while the others keep up
+        tracker.requestStarted(0);
+        tracker.requestStarted(0);
+        for(int i = 0; i < 100; i++) {
+            time.addMilliseconds(100);
+            for(int nodeId = 1; nodeId < nodes.size(); nodeId++) {
+                tracker.requestStarted(nodeId);
+                tracker.requestCompleted(nodeId, 50, true);
+            }
+        }
+        assertRanking(1, 2, 0);
+        assertTrue("A stalled node is charged the time it kept requests waiting",
+                   tracker.getLoad(0) > 10000);
+    }
+
+    @Test
+    public void testOutstandingRequestsWithoutSamples() {
+        tracker.requestStarted(1);
+        tracker.requestCompleted(1, 10, true);
+        tracker.requestStarted(0);
+        assertTrue(tracker.getLoad(0) > 0);
+        assertRanking(2, 0, 1);
+        time.addMilliseconds(100);
+        assertRanking(2, 1, 0);
+    }
+
+    @Test
+    public void testAverageDecays() {
+        tracker.requestStarted(0);
+        tracker.requestCompleted(0, 100, true);
+        tracker.requestStarted(1);
+        tracker.requestCompleted(1, 10, true);
+        time.addMilliseconds(1);
+        tracker.requestStarted(0);
+        tracker.requestCompleted(0, 10, true);
+        assertTrue("One fast response does not make up for a slow average",
+                   tracker.getLoad(0) > 90);
+        assertRanking(2, 1, 0);
+
+        time.addMilliseconds(10000);
+        assertTrue("A node nobody heard from in a while is tried again",
+                   tracker.getLoad(0) < 1);
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.socket;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import voldemort.ServerTestUtils;
+import voldemort.VoldemortTestConstants;
+import voldemort.client.protocol.RequestFormatType;
+import voldemort.server.RequestRoutingType;
+import voldemort.server.StoreRepository;
+import voldemort.server.protocol.RequestHandler;
+import voldemort.store.Store;
+import voldemort.store.StoreTimeoutException;
+import voldemort.store.UnreachableStoreException;
+import voldemort.store.nonblockingstore.NonblockingStoreCallback;
+import voldemort.store.socket.clientrequest.ClientRequestExecutorPool;
+import voldemort.utils.ByteArray;
+import voldemort.utils.ByteUtils;
+import voldemort.versioning.Versioned;
+
+/**
+ * Sends several requests over a single pipelined connection to a server that
+ * answers them in reverse order, and checks that every response reaches the
+ * request it belongs to.
+ */
+public class MultiplexedSocketStoreTest {
+
+    private static final int NUM_REQUESTS = 10;
+
+    private ServerSocket serverSocket;
+    private RequestHandler requestHandler;
+    private ClientRequestExecutorPool socketStoreFactory;
+    private SocketStore socketStore;
+
+    @Before
+    public void setUp() throws Exception {
+        String clusterXml = VoldemortTestConstants.getOneNodeClusterXml();
+        String storesXml = VoldemortTestConstants.getSimpleStoreDefinitionsXml();
+        StoreRepository repository = ServerTestUtils.getStores("test", clusterXml, storesXml);
+        Store<ByteArray, byte[], byte[]> store = repository.getLocalStore("test");
+        for(int i = 0; i < NUM_REQUESTS; i++)
+            store.put(key(i), new Versioned<byte[]>(value(i)), null);
+
+        requestHandler = ServerTestUtils.getSocketRequestHandlerFactory(clusterXml,
+                                                                        storesXml,
+                                                                        repository)
+                                        .getRequestHandler(RequestFormatType.VOLDEMORT_V4);
+        serverSocket = new ServerSocket(0);
+
+        // a single connection, which every request has to share
+        socketStoreFactory = new ClientRequestExecutorPool(1, 10000, 100000, 32 * 1024);
+        socketStore = socketStoreFactory.create("test",
+                                                "localhost",
+                                                serverSocket.getLocalPort(),
+                                                RequestFormatType.VOLDEMORT_V4,
+                                                RequestRoutingType.NORMAL);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        socketStore.close();
+        socketStoreFactory.close();
+        serverSocket.close();
+    }
+
+    @Test
+    public void testOutOfOrderResponses() throws Exception {
+        ServerThread server = new ServerThread(false);
+        server.start();
+
+        final AtomicReferenceArray<Object> results = new AtomicReferenceArray<Object>(NUM_REQUESTS);
+        final CountDownLatch latch = new CountDownLatch(NUM_REQUESTS);
+        for(int i = 0; i < NUM_REQUESTS; i++) {
+            final int index = i;
+            socketStore.submitGetRequest(key(i), null, new NonblockingStoreCallback() {
+
+                public void requestComplete(Object result, long requestTime) {
+                    results.set(index, result);
+                    latch.countDown();
+                }
+            }, 10000);
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        server.join();
+        assertEquals(NUM_REQUESTS, server.numFrames);
+
+        for(int i = 0; i < NUM_REQUESTS; i++) {
+            @SuppressWarnings("unchecked")
+            List<Versioned<byte[]>> values = (List<Versioned<byte[]>>) results.get(i);
+            assertEquals(1, values.size());
+            assertArrayEquals(value(i), values.get(0).getValue());
+        }
+    }
+
+    @Test
+    public void testResponseToUnknownRequestIsRejected() throws Exception {
+        ServerThread server = new ServerThread(true);
+        server.start();
+
+        final AtomicReferenceArray<Object> results = new AtomicReferenceArray<Object>(NUM_REQUESTS);
+        final CountDownLatch latch = new CountDownLatch(NUM_REQUESTS);
+        for(int i = 0; i < NUM_REQUESTS; i++) {
+            final int index = i;
+            socketStore.submitGetRequest(key(i), null, new NonblockingStoreCallback() {
+
+                public void requestComplete(Object result, long requestTime) {
+                    results.set(index, result);
+                    latch.countDown();
+                }
+            }, 10000);
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        server.join();
+
+        // The bogus response closes the connection, failing every request
+        // still pending on it
+        for(int i = 0; i < NUM_REQUESTS; i++)
+            assertTrue(String.valueOf(results.get(i)),
+                       results.get(i) instanceof UnreachableStoreException);
+    }
+
+    @Test
+    public void testExpiredRequestTimesOutAlone() throws Exception {
+        LateServerThread server = new LateServerThread();
+        server.start();
+
+        // open the connection first, so that the short timeout is not used up
+        // by the protocol negotiation
+        assertValue(2, get(2));
+
+        final AtomicReferenceArray<Object> results = new AtomicReferenceArray<Object>(2);
+        final CountDownLatch latch = new CountDownLatch(2);
+        for(int i = 0; i < 2; i++) {
+            final int index = i;
+            socketStore.submitGetRequest(key(i), null, new NonblockingStoreCallback() {
+
+                public void requestComplete(Object result, long requestTime) {
+                    results.set(index, result);
+                    latch.countDown();
+                }
+            }, i == 0 ? 100 : 10000);
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        // only the request that expired failed, and the connection is still
+        // good for another one once the late response has been dropped
+        assertTrue(String.valueOf(results.get(0)), results.get(0) instanceof StoreTimeoutException);
+        assertValue(1, results.get(1));
+
+        assertValue(2, get(2));
+        server.join();
+    }
+
+    private Object get(int i) throws Exception {
+        final AtomicReference<Object> result = new AtomicReference<Object>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        socketStore.submitGetRequest(key(i), null, new NonblockingStoreCallback() {
+
+            public void requestComplete(Object response, long requestTime) {
+                result.set(response);
+                latch.countDown();
+            }
+        }, 10000);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        return result.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertValue(int i, Object result) {
+        assertTrue(String.valueOf(result), result instanceof List);
+        List<Versioned<byte[]>> values = (List<Versioned<byte[]>>) result;
+        assertEquals(1, values.size());
+        assertArrayEquals(value(i), values.get(0).getValue());
+    }
+
+    private ByteArray key(int i) {
+        return new ByteArray(ByteUtils.getBytes("key" + i, "UTF-8"));
+    }
+
+    private byte[] value(int i) {
+        return ByteUtils.getBytes("value" + i, "UTF-8");
+    }
+
+    private void negotiate(DataInputStream in, DataOutputStream out) throws Exception {
+        byte[] negotiation = new byte[3];
+        in.readFully(negotiation);
+        assertEquals(RequestFormatType.VOLDEMORT_V4.getCode(),
+                     ByteUtils.getString(negotiation, "UTF-8"));
+        out.write(ByteUtils.getBytes("ok", "UTF-8"));
+        out.flush();
+    }
+
+    /*
+     * Reads the next request and returns the response of the handler to it,
+     * with the given offset added to its request id
+     */
+    private byte[] handleRequest(DataInputStream in, int idOffset) throws Exception {
+        int requestId = in.readInt();
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        DataOutputStream frameStream = new DataOutputStream(frame);
+        frameStream.writeInt(requestId + idOffset);
+        frameStream.writeInt(body.length);
+        frameStream.write(body);
+        frameStream.flush();
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        DataOutputStream responseStream = new DataOutputStream(response);
+        requestHandler.handleRequest(new DataInputStream(new ByteArrayInputStream(frame.toByteArray())),
+                                     responseStream);
+        responseStream.flush();
+        return response.toByteArray();
+    }
+
+    /**
+     * Negotiates the pipelined protocol, reads every request before answering
+     * any, then answers them last to first. If asked to, it answers with an
+     * id no request was sent with instead.
+     */
+    private class ServerThread extends Thread {
+
+        private final boolean unknownId;
+
+        private volatile int numFrames;
+
+        private ServerThread(boolean unknownId) {
+            this.unknownId = unknownId;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Socket socket = serverSocket.accept();
+                try {
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+
+                    negotiate(in, out);
+
+                    List<byte[]> responses = new ArrayList<byte[]>();
+                    for(int i = 0; i < NUM_REQUESTS; i++) {
+                        responses.add(handleRequest(in, unknownId ? NUM_REQUESTS : 0));
+                        numFrames++;
+                    }
+
+                    Collections.reverse(responses);
+                    for(byte[] response: responses)
+                        out.write(response);
+                    out.flush();
+                } finally {
+                    socket.close();
+                }
+            } catch(Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Negotiates the pipelined protocol and answers one request. It then reads
+     * two more, answers both once the first of them has expired, and answers
+     * one last request after that.
+     */
+    private class LateServerThread extends Thread {
+
+        @Override
+        public void run() {
+            try {
+                Socket socket = serverSocket.accept();
+                try {
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                    negotiate(in, out);
+                    out.write(handleRequest(in, 0));
+                    out.flush();
+
+                    byte[] first = handleRequest(in, 0);
+                    byte[] second = handleRequest(in, 0);
+                    Thread.sleep(1000);
+                    out.write(first);
+                    out.write(second);
+                    out.flush();
+
+                    out.write(handleRequest(in, 0));
+                    out.flush();
+                } finally {
+                    socket.close();
+                }
+            } catch(Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2012 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package voldemort.store.socket;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import voldemort.ServerTestUtils;
+import voldemort.VoldemortTestConstants;
+import voldemort.client.protocol.RequestFormatType;
+import voldemort.server.niosocket.NioSocketService;
+import voldemort.server.protocol.RequestHandlerFactory;
+import voldemort.store.AbstractByteArrayStoreTest;
+import voldemort.store.Store;
+import voldemort.store.socket.clientrequest.ClientRequestExecutorPool;
+import voldemort.utils.ByteArray;
+import voldemort.versioning.Versioned;
+
+/**
+ * Runs the socket store tests against an NIO server that executes requests on
+ * a worker pool rather than on its selector threads.
+ *
+ */
+public class NioWorkerPoolSocketStoreTest extends AbstractByteArrayStoreTest {
+
+    private NioSocketService socketService;
+    private Store<ByteArray, byte[], byte[]> socketStore;
+    private SocketStoreFactory socketStoreFactory;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        int socketPort = ServerTestUtils.findFreePort();
+        String clusterXml = VoldemortTestConstants.getOneNodeClusterXml();
+        String storesXml = VoldemortTestConstants.getSimpleStoreDefinitionsXml();
+        RequestHandlerFactory factory = ServerTestUtils.getSocketRequestHandlerFactory(clusterXml,
+                                                                                       storesXml,
+                                                                                       ServerTestUtils.getStores("test",
+                                                                                                                 clusterXml,
+                                                                                                                 storesXml));
+        // a tiny queue so that the selector fallback path is exercised too
+        socketService = new NioSocketService(factory,
+                                             socketPort,
+                                             10000,
+                                             2,
+                                             "client-request-service",
+                                             false,
+                                             -1,
+                                             2,
+                                             1,
+                                             0);
+        socketService.start();
+        socketStoreFactory = new ClientRequestExecutorPool(10, 10000, 100000, 32 * 1024);
+        socketStore = ServerTestUtils.getSocketStore(socketStoreFactory,
+                                                     "test",
+                                                     socketPort,
+                                                     RequestFormatType.VOLDEMORT_V1);
+    }
+
+    @Override
+    @After
+    public void tearDown() throws Exception {
+        super.tearDown();
+        socketService.stop();
+        socketStore.close();
+        socketStoreFactory.close();
+    }
+
+    @Override
+    public Store<ByteArray, byte[], byte[]> getStore() {
+        return socketStore;
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        final int numThreads = 10;
+        final int numRequests = 100;
+        final AtomicInteger failures = new AtomicInteger(0);
+        final CountDownLatch latch = new CountDownLatch(numThreads);
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+        for(int i = 0; i < numThreads; i++) {
+            executor.execute(new Runnable() {
+
+                public void run() {
+                    Random random = new Random();
+                    try {
+                        for(int j = 0; j < numRequests; j++) {
+                            byte[] bytes = new byte[16];
+                            random.nextBytes(bytes);
+                            ByteArray key = new ByteArray(bytes);
+                            socketStore.put(key, new Versioned<byte[]>(bytes), null);
+                            if(socketStore.get(key, null).size() != 1)
+                                failures.incrementAndGet();
+                        }
+                    } catch(Exception e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(0, failures.get());
+        assertEquals(2, socketService.getNumWorkerThreads());
+    }
+}
@@ -0,0 +1,30 @@
+package voldemort.store.socket;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import voldemort.client.protocol.RequestFormatType;
+
+/**
+ * Voldemort native socket store tests using the pipelined (framed) protocol
+ * 
+ * 
+ */
+
+@RunWith(Parameterized.class)
+public class VoldemortNativePipelinedSocketStoreTest extends AbstractSocketStoreTest {
+
+    public VoldemortNativePipelinedSocketStoreTest(boolean useNio) {
+        super(RequestFormatType.VOLDEMORT_V4, useNio);
+    }
+
+    @Parameters
+    public static Collection<Object[]> configs() {
+        return Arrays.asList(new Object[][] { { true }, { false } });
+    }
+
+}
@@ -0,0 +1,78 @@
+package voldemort.store.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LogLinearHistogramTest {
+
+    @Test
+    public void testBucketsAreContiguous() {
+        assertEquals(0, LogLinearHistogram.getLowestValue(0));
+        for(int bucket = 1; bucket <= LogLinearHistogram.getBucket(Long.MAX_VALUE); bucket++) {
+            long lowest = LogLinearHistogram.getLowestValue(bucket);
+            assertEquals(bucket, LogLinearHistogram.getBucket(lowest));
+            assertEquals(bucket - 1, LogLinearHistogram.getBucket(lowest - 1));
+        }
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LogLinearHistogram histogram = new LogLinearHistogram(1000);
+        for(int i = 1; i <= 50; i++)
+            histogram.insert(i);
+        LogLinearHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(50, snapshot.getCount());
+        assertEquals(25, snapshot.getQuantile(0.5));
+        assertEquals(50, snapshot.getQuantile(0.99));
+        assertEquals(1, snapshot.getQuantile(0));
+    }
+
+    @Test
+    public void testRelativeError() {
+        LogLinearHistogram histogram = new LogLinearHistogram(Long.MAX_VALUE);
+        Random random = new Random(1234);
+        for(int i = 0; i < 1000; i++) {
+            long value = Math.abs(random.nextLong()) >>> random.nextInt(60);
+            histogram.insert(value);
+            LogLinearHistogram.Snapshot snapshot = histogram.snapshotAndReset();
+            long found = snapshot.getQuantile(0.5);
+            assertTrue(found >= value);
+            assertTrue(found - value <= value / 32);
+        }
+    }
+
+    @Test
+    public void testLargeAndNegativeValues() {
+        LogLinearHistogram histogram = new LogLinearHistogram(1000);
+        histogram.insert(-1);
+        histogram.insert(Long.MAX_VALUE);
+        LogLinearHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(LogLinearHistogram.getBucket(1000),
+                     LogLinearHistogram.getBucket(snapshot.getQuantile(0.99)));
+    }
+
+    @Test
+    public void testSnapshotAndMerge() {
+        LogLinearHistogram histogram = new LogLinearHistogram(1000);
+        for(int i = 0; i < 10; i++)
+            histogram.insert(1);
+        LogLinearHistogram.Snapshot first = histogram.snapshotAndReset();
+        assertEquals(0, histogram.snapshot().getCount());
+
+        for(int i = 0; i < 10; i++)
+            histogram.insert(3);
+        LogLinearHistogram.Snapshot second = histogram.snapshot();
+
+        LogLinearHistogram.Snapshot merged = first.merge(second)
+                                                  .merge(LogLinearHistogram.Snapshot.empty());
+        assertEquals(20, merged.getCount());
+        assertEquals(1, merged.getQuantile(0.5));
+        assertEquals(3, merged.getQuantile(0.51));
+        assertEquals(0, LogLinearHistogram.Snapshot.empty().getQuantile(0.5));
+    }
+}
@@ -1,8 +1,17 @@
 package voldemort.store.stats;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static voldemort.utils.Time.NS_PER_MS;
+
+import java.util.concurrent.CountDownLatch;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import voldemort.utils.Time;
+
 public class RequestCounterTest {
 
     private RequestCounter requestCounter;
@@ -25,4 +34,53 @@ public class RequestCounterTest {
         requestCounter.addRequest(val);
     }
 
+    @Test
+    public void testQuantilesOfLastWindow() {
+        final long startTime = 1445468640;
+        Time mockTime = mock(Time.class);
+        when(mockTime.getMilliseconds()).thenReturn(startTime);
+        RequestCounter rc = new RequestCounter(1000, mockTime, true);
+
+        for(long i = 1; i <= 1000; i++)
+            rc.addRequest(i * NS_PER_MS);
+
+        // Nothing to report until the window is complete
+        assertEquals(0, rc.getQ99LatencyMs());
+
+        when(mockTime.getMilliseconds()).thenReturn(startTime + 1001);
+        assertEquals(1000, rc.getLatencySnapshot().getCount());
+        assertEquals(500, rc.getQ50LatencyMs(), 500 / 32);
+        assertEquals(950, rc.getQ95LatencyMs(), 950 / 32);
+        assertEquals(990, rc.getQ99LatencyMs(), 990 / 32);
+        assertEquals(999, rc.getQ999LatencyMs(), 999 / 32);
+        assertEquals(0, rc.getCount());
+        assertEquals(1000, rc.getTotalCount());
+    }
+
+    @Test
+    public void testConcurrentRequestsAreAllCounted() throws Exception {
+        final int numThreads = 8;
+        final int numRequests = 10000;
+        final CountDownLatch latch = new CountDownLatch(numThreads);
+        for(int i = 0; i < numThreads; i++) {
+            final long timeNS = (i + 1) * NS_PER_MS;
+            new Thread(new Runnable() {
+
+                public void run() {
+                    for(int j = 0; j < numRequests; j++)
+                        requestCounter.addRequest(timeNS, 1, 10, 0);
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+
+        assertEquals(numThreads * numRequests, requestCounter.getCount());
+        assertEquals(numThreads * numRequests, requestCounter.getTotalCount());
+        assertEquals(numThreads * numRequests, requestCounter.getNumEmptyResponses());
+        assertEquals(numThreads, requestCounter.getMaxLatencyInMs());
+        assertEquals((numThreads + 1) / 2.0, requestCounter.getAverageTimeInMs(), 0.001);
+        assertEquals(10, requestCounter.getMaxSizeInBytes());
+    }
+
 }
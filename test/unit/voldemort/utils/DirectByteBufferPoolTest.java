@@ -0,0 +1,66 @@
+package voldemort.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class DirectByteBufferPoolTest {
+
+    @Test
+    public void testAcquireAndRelease() {
+        DirectByteBufferPool pool = new DirectByteBufferPool(128, 2);
+
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+        assertTrue(first.isDirect());
+        assertTrue(second.isDirect());
+        assertEquals(128, first.capacity());
+        assertEquals(128, first.remaining());
+        assertEquals(2, pool.getNumAllocated());
+        assertEquals(2, pool.getNumInUse());
+
+        // buffers are slices of the same slab, so must not overlap
+        first.put((byte) 1);
+        assertEquals(0, second.get(0));
+
+        ByteBuffer miss = pool.acquire();
+        assertFalse(miss.isDirect());
+        assertEquals(128, miss.capacity());
+        assertEquals(1, pool.getNumMisses());
+        assertEquals(3, pool.getNumAcquires());
+
+        pool.release(miss);
+        pool.release(first);
+        assertEquals(1, pool.getNumInUse());
+
+        ByteBuffer reused = pool.acquire();
+        assertSame(first, reused);
+        assertEquals(0, reused.position());
+        assertEquals(2, pool.getNumAllocated());
+    }
+
+    @Test
+    public void testGrowsInSlabs() {
+        DirectByteBufferPool pool = new DirectByteBufferPool(16, 100);
+        List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+
+        buffers.add(pool.acquire());
+        assertTrue(pool.getNumAllocated() < 100);
+
+        for(int i = 1; i < 100; i++)
+            buffers.add(pool.acquire());
+        assertEquals(100, pool.getNumAllocated());
+        assertEquals(0, pool.getNumMisses());
+
+        for(ByteBuffer buffer: buffers)
+            pool.release(buffer);
+        assertEquals(0, pool.getNumInUse());
+    }
+}
@@ -17,9 +17,19 @@
 package voldemort.versioning;
 
 import static voldemort.TestUtils.getClock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
 import junit.framework.TestCase;
 import voldemort.TestUtils;
 
+import org.apache.commons.io.IOUtils;
+
 import com.google.common.collect.Lists;
 
 /**
@@ -132,4 +142,90 @@ public class VectorClockTest extends TestCase {
         assertEquals(increments + 1, vc.getMaxVersion());
     }
 
+    public void testCompareSerialized() {
+        VectorClock[] clocks = { getClock(), getClock(1), getClock(2), getClock(1, 1, 2),
+                getClock(1, 1, 3), getClock(1, 2, 2, 3), getClock(2, 2), getClock(1, 2, 3, 4) };
+        for(int i = 0; i < 300; i++)
+            clocks[clocks.length - 1].incrementVersion(3, System.currentTimeMillis());
+        for(VectorClock c1: clocks) {
+            for(VectorClock c2: clocks) {
+                byte[] bytes = new byte[c2.sizeInBytes() + 5];
+                c2.toBytes(bytes, 3);
+                assertEquals(c1 + " compared with " + c2,
+                             c1.compare(c2),
+                             VectorClock.compare(c1, bytes, 3));
+                assertEquals(c2.sizeInBytes(), VectorClock.sizeInBytes(bytes, 3));
+            }
+        }
+    }
+
+    public void testGetEntriesIsCopy() {
+        VectorClock clock = getClock(1, 2);
+        clock.getEntries().clear();
+        assertEquals(getClock(1, 2), clock);
+        assertEquals(getClock(1, 2), new VectorClock(clock.getEntries(), clock.getTimestamp()));
+    }
+
+    public void testEntriesAreSorted() {
+        VectorClock clock = new VectorClock(Arrays.asList(new ClockEntry((short) 5, 1),
+                                                          new ClockEntry((short) 1, 2),
+                                                          new ClockEntry((short) 2, 1)),
+                                            System.currentTimeMillis());
+        assertEquals(getClock(1, 1, 2, 5), clock);
+        assertEquals(Occurred.AFTER, clock.compare(getClock(1, 2, 5)));
+        assertEquals(Occurred.AFTER, VectorClock.compare(clock, getClock(1, 2, 5).toBytes(), 0));
+
+        clock.incrementVersion(2, System.currentTimeMillis());
+        assertEquals(getClock(1, 1, 2, 2, 5), clock);
+    }
+
+    public void testDuplicateEntriesAreRejected() {
+        try {
+            new VectorClock(Arrays.asList(new ClockEntry((short) 1, 1),
+                                          new ClockEntry((short) 2, 1),
+                                          new ClockEntry((short) 1, 2)),
+                            System.currentTimeMillis());
+            fail("Clock with two versions of a node should be rejected");
+        } catch(IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testJavaSerialization() throws Exception {
+        VectorClock clock = getClock(1, 1, 2, 5);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(clock);
+        output.close();
+        ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        VectorClock read = (VectorClock) input.readObject();
+        assertEquals(clock, read);
+        assertEquals(clock.getTimestamp(), read.getTimestamp());
+    }
+
+    /**
+     * Reads a clock serialized by the earlier VectorClock, which kept its
+     * versions in a list of {@link ClockEntry}, so that clocks written to
+     * disk or sent over the wire before the change can still be read.
+     */
+    public void testJavaSerializationCompatibility() throws Exception {
+        String fileName = "/voldemort/versioning/vector-clock.ser";
+        InputStream stream = VectorClockTest.class.getResourceAsStream(fileName);
+        assertNotNull("Did not find file " + fileName + " on the class path.", stream);
+        ObjectInputStream input = new ObjectInputStream(stream);
+        VectorClock read;
+        try {
+            read = (VectorClock) input.readObject();
+        } finally {
+            IOUtils.closeQuietly(input);
+        }
+        VectorClock expected = new VectorClock(Arrays.asList(new ClockEntry((short) 1, 2),
+                                                             new ClockEntry((short) 2, 1),
+                                                             new ClockEntry((short) 5, 1)),
+                                               1234567890123L);
+        assertEquals(expected, read);
+        assertEquals(1234567890123L, read.getTimestamp());
+        assertEquals(Occurred.AFTER, read.compare(getClock(1, 2, 5)));
+    }
+
 }